@@ -0,0 +1,474 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.pitest.mutationtest.ClassHistory;
+import org.pitest.mutationtest.HistoryStore;
+import org.pitest.mutationtest.engine.MutationIdentifier;
+import org.pitest.pitclipse.runner.PitOptions;
+import org.pitest.pitclipse.runner.util.PitFileUtils;
+
+/**
+ * <p>Provides each launch configuration with its own file to store the history
+ * of its incremental analyses.</p>
+ * 
+ * <p>All history files are created under a common root directory. Each time an
+ * analysis releases its history file, the history files are compacted in background:
+ * the results of the classes that no longer exist in the workspace are dropped, then
+ * the least recently used files are deleted until all files fit in the size limit.
+ * Any other file of the root directory, like the history shared by all launches
+ * in previous versions, is deleted too.</p>
+ * 
+ * <p>An analysis split across several PIT applications gives each one of them its
+ * own {@link #shardOf(File, int) shard} of the history. The shards are merged
+ * back, class by class, into the history of the launch configuration once the
+ * analysis ends, and each shard of the next analysis starts from the merged
+ * history: the history of a class is found whichever application analyzes it.</p>
+ * 
+ * <p>Compacted files are written aside, then atomically moved in place. The history
+ * files {@link #hold(File) held} by running analyses are never touched, nor are the
+ * files derived from them: the history of the shards of an analysis and the history
+ * being written by PIT (see {@link PitOptions#getPendingHistoryLocation()}).</p>
+ * 
+ * <p>This class is thread-safe.</p>
+ */
+public final class HistoryFiles {
+
+    private static final String FILE_PREFIX = "launch-";
+    private static final String FILE_EXTENSION = ".history";
+    private static final String COMPACTED_FILE_SUFFIX = ".compacted";
+    private static final String SHARD_SUFFIX = ".shard-";
+    private static final int MAX_NAME_LENGTH = 64;
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+    private final File root;
+    private final IntSupplier sizeLimit;
+    private final Job compaction;
+    private final Map<File, Integer> holds = new HashMap<>();
+
+    /**
+     * Creates the history files of all the launch configurations.
+     * 
+     * @param root
+     *          The directory holding all history files.
+     * @param sizeLimit
+     *          Provides the maximum size of all history files, in megabytes.
+     */
+    public HistoryFiles(File root, IntSupplier sizeLimit) {
+        this.root = root;
+        this.sizeLimit = sizeLimit;
+        this.compaction = Job.create("Compacting PIT history", monitor -> {
+            compact();
+            return Status.OK_STATUS;
+        });
+        compaction.setSystem(true);
+        compaction.setPriority(Job.DECORATE);
+    }
+
+    /**
+     * Returns the history file of the given launch configuration.
+     * 
+     * @param launchConfiguration
+     *          The name of the launch configuration.
+     * @return the history file of the launch configuration
+     */
+    public File of(String launchConfiguration) {
+        String name = launchConfiguration.replaceAll("[^A-Za-z0-9._-]", "_");
+        if (name.length() > MAX_NAME_LENGTH) {
+            name = name.substring(0, MAX_NAME_LENGTH);
+        }
+        // the hash tells apart the configurations whose names only differ by special characters
+        File historyFile = new File(root, String.format("%s%s-%08x%s", FILE_PREFIX, name,
+                launchConfiguration.hashCode(), FILE_EXTENSION));
+        return historyFile;
+    }
+
+    /**
+     * Keeps the given history file, and the files derived from it, from being
+     * compacted until it is {@link #release(File) released}. A file can be held
+     * by several analyses at once.
+     * 
+     * @param historyFile
+     *          The history file read by an analysis about to start.
+     */
+    public synchronized void hold(File historyFile) {
+        holds.merge(historyFile, 1, Integer::sum);
+    }
+
+    /**
+     * Releases a history file {@link #hold(File) held} by an analysis that has
+     * ended, then compacts the history files in background.
+     * 
+     * @param historyFile
+     *          The history file read by an analysis that has ended.
+     */
+    public void release(File historyFile) {
+        synchronized (this) {
+            if (holds.getOrDefault(historyFile, 0) == 1) {
+                // merged while still held, so that the compaction does not touch the shards meanwhile
+                mergeShards(historyFile);
+            }
+            holds.computeIfPresent(historyFile, (file, count) -> count == 1 ? null : count - 1);
+        }
+        // rescheduling a running job makes it run again once it is done
+        compaction.schedule();
+    }
+
+    /**
+     * Returns the history file of a shard of an analysis.
+     * 
+     * @param historyFile
+     *          The history file of the launch configuration.
+     * @param shard
+     *          The index of the shard.
+     * @return the history file of the shard
+     */
+    public static File shardOf(File historyFile, int shard) {
+        return new File(historyFile.getPath() + SHARD_SUFFIX + shard);
+    }
+
+    /**
+     * Prepares the history of each shard of an analysis about to start: the shards
+     * left by the previous analysis are merged, then the merged history is copied
+     * for each shard.
+     * 
+     * @param historyFile
+     *          The history file of the launch configuration, {@link #hold(File) held}.
+     * @param shardCount
+     *          The number of shards of the analysis.
+     */
+    public void prepareShards(File historyFile, int shardCount) {
+        mergeShards(historyFile);
+        for (int shard = 0; shard < shardCount; shard++) {
+            File shardFile = shardOf(historyFile, shard);
+            try {
+                if (historyFile.isFile()) {
+                    Files.copy(historyFile.toPath(), shardFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    delete(shardFile);
+                }
+            } catch (IOException e) {
+                PitCoreActivator.warn("Could not prepare the PIT history " + shardFile, e);
+                delete(shardFile);
+            }
+        }
+    }
+
+    /**
+     * Merges the shards of the given history file into it, then deletes them. The
+     * history of each class is taken from the most recent file holding it.
+     */
+    private static void mergeShards(File historyFile) {
+        File[] shards = historyFile.getAbsoluteFile().getParentFile().listFiles((directory, name) ->
+                name.startsWith(historyFile.getName() + SHARD_SUFFIX)
+                        && !name.endsWith(PitOptions.PENDING_HISTORY_SUFFIX));
+        if (shards == null || shards.length == 0) {
+            return;
+        }
+        List<File> mostRecentFirst = new ArrayList<>(Arrays.asList(shards));
+        if (historyFile.isFile()) {
+            mostRecentFirst.add(historyFile);
+        }
+        mostRecentFirst.sort(Comparator.comparingLong(File::lastModified).reversed());
+        try {
+            File mergedFile = new File(historyFile.getPath() + COMPACTED_FILE_SUFFIX);
+            Files.write(mergedFile.toPath(), mergeByClass(mostRecentFirst), StandardCharsets.UTF_8);
+            PitFileUtils.moveAtomically(mergedFile, historyFile);
+        } catch (IOException | ClassNotFoundException | ClassCastException | IllegalArgumentException
+                | IndexOutOfBoundsException e) {
+            PitCoreActivator.warn("Dropping unreadable PIT history " + historyFile, e);
+            delete(historyFile);
+        }
+        for (File shard : shards) {
+            delete(shard);
+        }
+    }
+
+    private static List<String> mergeByClass(List<File> mostRecentFirst) throws IOException, ClassNotFoundException {
+        Map<String, File> fileOfClass = new HashMap<>();
+        List<String> classLines = new ArrayList<>();
+        List<String> resultLines = new ArrayList<>();
+        Map<File, List<String>> linesOfFile = new HashMap<>();
+        for (File file : mostRecentFirst) {
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            linesOfFile.put(file, lines);
+            if (lines.isEmpty()) {
+                continue;
+            }
+            int classCount = Integer.parseInt(lines.get(0).trim());
+            for (String line : lines.subList(1, 1 + classCount)) {
+                ClassHistory history = (ClassHistory) deserialize(line).getObject();
+                if (fileOfClass.putIfAbsent(history.getName().asJavaName(), file) == null) {
+                    classLines.add(line);
+                }
+            }
+        }
+        for (File file : mostRecentFirst) {
+            List<String> lines = linesOfFile.get(file);
+            if (lines.isEmpty()) {
+                continue;
+            }
+            int classCount = Integer.parseInt(lines.get(0).trim());
+            for (String line : lines.subList(1 + classCount, lines.size())) {
+                Optional<MutationIdentifier> mutation = deserialize(line).getMutation();
+                if (mutation.isPresent() && file.equals(fileOfClass.get(mutation.get().getClassName().asJavaName()))) {
+                    resultLines.add(line);
+                }
+            }
+        }
+        List<String> mergedLines = new ArrayList<>();
+        mergedLines.add(Integer.toString(classLines.size()));
+        mergedLines.addAll(classLines);
+        mergedLines.addAll(resultLines);
+        return mergedLines;
+    }
+
+    private synchronized boolean isHeld(File file) {
+        return holds.keySet().stream().anyMatch(held -> file.getPath().startsWith(held.getPath()));
+    }
+
+    /**
+     * Deletes the history files of all the launch configurations.
+     * 
+     * @return {@code true} if all history files have been deleted
+     */
+    public boolean deleteAll() {
+        File[] files = root.listFiles();
+        if (files == null) {
+            return true;
+        }
+        boolean deleted = true;
+        for (File file : files) {
+            deleted &= file.delete() || !file.exists();
+        }
+        return deleted;
+    }
+
+    /**
+     * Compacts the history files right away, skipping the ones held by running analyses.
+     */
+    public void compact() {
+        File[] files = root.listFiles();
+        if (files == null) {
+            return;
+        }
+        ClassLookup classLookup = new ClassLookup();
+        List<File> historyFiles = new ArrayList<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(PitOptions.PENDING_HISTORY_SUFFIX) || isHeld(file)) {
+                continue;
+            }
+            if (!name.startsWith(FILE_PREFIX) || name.endsWith(COMPACTED_FILE_SUFFIX)) {
+                delete(file);
+                continue;
+            }
+            dropMissingClasses(file, classLookup);
+            historyFiles.add(file);
+        }
+        enforceSizeLimit(historyFiles);
+    }
+
+    private static void dropMissingClasses(File file, ClassLookup classLookup) {
+        long lastModified = file.lastModified();
+        try {
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            if (lines.isEmpty()) {
+                return;
+            }
+            int classCount = Integer.parseInt(lines.get(0).trim());
+            List<String> classLines = lines.subList(1, 1 + classCount);
+            List<String> resultLines = lines.subList(1 + classCount, lines.size());
+            List<String> keptClassLines = new ArrayList<>();
+            for (String line : classLines) {
+                ClassHistory history = (ClassHistory) deserialize(line).getObject();
+                if (classLookup.exists(history.getName().asJavaName())) {
+                    keptClassLines.add(line);
+                }
+            }
+            if (keptClassLines.size() == classLines.size()) {
+                return;
+            }
+            if (keptClassLines.isEmpty()) {
+                // the project is probably closed: its history may be needed again
+                return;
+            }
+            List<String> keptLines = new ArrayList<>();
+            keptLines.add(Integer.toString(keptClassLines.size()));
+            keptLines.addAll(keptClassLines);
+            for (String line : resultLines) {
+                Optional<MutationIdentifier> mutation = deserialize(line).getMutation();
+                if (mutation.isPresent() && classLookup.exists(mutation.get().getClassName().asJavaName())) {
+                    keptLines.add(line);
+                }
+            }
+            File compactedFile = new File(file.getPath() + COMPACTED_FILE_SUFFIX);
+            Files.write(compactedFile.toPath(), keptLines, StandardCharsets.UTF_8);
+            if (file.lastModified() != lastModified) {
+                // an analysis replaced the history meanwhile, it will be compacted next time
+                delete(compactedFile);
+                return;
+            }
+            PitFileUtils.moveAtomically(compactedFile, file);
+        } catch (IOException | ClassNotFoundException | ClassCastException | IllegalArgumentException
+                | IndexOutOfBoundsException e) {
+            PitCoreActivator.warn("Dropping unreadable PIT history " + file, e);
+            delete(file);
+        }
+    }
+
+    private void enforceSizeLimit(List<File> historyFiles) {
+        long remainingSize = sizeLimit.getAsInt() * BYTES_PER_MEGABYTE;
+        List<File> mostRecentFirst = historyFiles.stream()
+                .filter(File::isFile)
+                .sorted(Comparator.comparingLong(File::lastModified).reversed())
+                .collect(Collectors.toList());
+        for (File file : mostRecentFirst) {
+            remainingSize -= file.length();
+            if (remainingSize < 0) {
+                delete(file);
+            }
+        }
+    }
+
+    private static DeserializedLine deserialize(String line) throws IOException, ClassNotFoundException {
+        InputStream bytes = new ByteArrayInputStream(Base64.getDecoder().decode(line));
+        try (HistoryInputStream input = new HistoryInputStream(bytes)) {
+            Object object = input.readObject();
+            return new DeserializedLine(object, input.mutation);
+        }
+    }
+
+    private static void delete(File file) {
+        if (!file.delete() && file.exists()) {
+            PitCoreActivator.warn("Could not delete " + file);
+        }
+    }
+
+    /**
+     * Reads the objects written by PIT in a history file, and remembers the
+     * mutation they are about, if any.
+     */
+    private static final class HistoryInputStream extends ObjectInputStream {
+        private Optional<MutationIdentifier> mutation = Optional.empty();
+
+        HistoryInputStream(InputStream input) throws IOException {
+            super(input);
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                // the results are made of PIT classes, not visible from this bundle
+                return Class.forName(desc.getName(), false, HistoryStore.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+
+        @Override
+        protected Object resolveObject(Object object) throws IOException {
+            if (object instanceof MutationIdentifier && !mutation.isPresent()) {
+                mutation = Optional.of((MutationIdentifier) object);
+            }
+            return object;
+        }
+    }
+
+    private static final class DeserializedLine {
+        private final Object object;
+        private final Optional<MutationIdentifier> mutation;
+
+        DeserializedLine(Object object, Optional<MutationIdentifier> mutation) {
+            this.object = object;
+            this.mutation = mutation;
+        }
+
+        Object getObject() {
+            return object;
+        }
+
+        Optional<MutationIdentifier> getMutation() {
+            return mutation;
+        }
+    }
+
+    /**
+     * Tells whether a class is declared by an open project of the workspace.
+     */
+    private static final class ClassLookup {
+        private final List<IJavaProject> projects;
+        private final Map<String, Boolean> existingClasses = new HashMap<>();
+
+        ClassLookup() {
+            List<IJavaProject> openProjects;
+            try {
+                openProjects = Arrays.asList(JavaCore.create(ResourcesPlugin.getWorkspace().getRoot())
+                        .getJavaProjects());
+            } catch (JavaModelException e) {
+                openProjects = new ArrayList<>();
+            }
+            this.projects = openProjects;
+        }
+
+        boolean exists(String className) {
+            return existingClasses.computeIfAbsent(className, this::lookUp);
+        }
+
+        private boolean lookUp(String className) {
+            String typeName = className.replace('$', '.');
+            for (IJavaProject project : projects) {
+                try {
+                    if (project.isOpen() && project.findType(typeName) != null) {
+                        return true;
+                    }
+                } catch (JavaModelException e) {
+                    // the project cannot be searched: assume the class is still there
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -21,9 +21,14 @@ import static org.pitest.pitclipse.core.preferences.PitPreferences.AVOID_CALLS_T
 import static org.pitest.pitclipse.core.preferences.PitPreferences.EXCLUDED_CLASSES;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.EXCLUDED_METHODS;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.EXECUTION_MODE;
+import static org.pitest.pitclipse.core.preferences.PitPreferences.FOCUSED_TEST_LAUNCH;
+import static org.pitest.pitclipse.core.preferences.PitPreferences.HISTORY_SIZE_LIMIT;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.INCREMENTAL_ANALYSIS;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.INDIVIDUAL_MUTATORS;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.MUTATOR_GROUP;
+import static org.pitest.pitclipse.core.preferences.PitPreferences.RESULT_CACHE;
+import static org.pitest.pitclipse.core.preferences.PitPreferences.RUNNER_DAEMON;
+import static org.pitest.pitclipse.core.preferences.PitPreferences.RUNNER_SHARDS;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.RUN_IN_PARALLEL;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.TIMEOUT;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.TIMEOUT_FACTOR;
@@ -43,9 +48,14 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Plugin;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.ui.preferences.ScopedPreferenceStore;
 import org.osgi.framework.BundleContext;
+import org.pitest.pitclipse.core.launch.LaunchPlanCache;
+import org.pitest.pitclipse.core.launch.PitDaemons;
+import org.pitest.pitclipse.core.result.CachingStructureService;
 import org.pitest.pitclipse.runner.config.PitConfiguration;
 import org.pitest.pitclipse.runner.config.PitExecutionMode;
 
@@ -70,8 +80,8 @@ public class PitCoreActivator extends Plugin {
     private static final String ORG_PITEST = "org.pitest";
     private static final String HTML_RESULTS_DIR = "html_results";
     private static final String HTML_FILE = "index.html";
-    private static final String STATE_FILE = "state-1.1.0.out";
     private static final String HISTORY_DIR = "history";
+    private static final int RETAINED_RESULT_DIRS = 10;
     
     // The plug-in ID
     public static final String PLUGIN_ID = "org.pitest.pitclipse.core"; //$NON-NLS-1$
@@ -85,9 +95,9 @@ public class PitCoreActivator extends Plugin {
     
     private List<String> pitestJunit5PluginClasspath = new ArrayList<>();
 
-    private File resultDir;
+    private ReportDirectories resultDirs;
 
-    private File historyFile;
+    private HistoryFiles historyFiles;
 
     public List<String> getPitClasspath() {
         return pitClasspath;
@@ -123,6 +133,8 @@ public class PitCoreActivator extends Plugin {
         plugin = this; // NOSONAR typical in Eclipse
         setActivator(this);
         setupStateDirectories();
+        JavaCore.addElementChangedListener(CachingStructureService.INSTANCE, ElementChangedEvent.POST_CHANGE);
+        JavaCore.addElementChangedListener(LaunchPlanCache.INSTANCE, ElementChangedEvent.POST_CHANGE);
 
         List<String> pitestClasspath = new ArrayList<>();
         pitestClasspath.add(getBundleCanonicalPath(ORG_PITEST));
@@ -163,25 +175,24 @@ public class PitCoreActivator extends Plugin {
 
     private void setupStateDirectories() {
         setupResultDir();
-        setupHistoryFile();
+        setupHistoryFiles();
     }
 
-    private void setupHistoryFile() {
+    private void setupHistoryFiles() {
         IPath pluginLocation = getStateLocation();
-        File stateFile = pluginLocation.append(HISTORY_DIR).append(STATE_FILE).toFile();
-        try {
-            createParentDirs(stateFile);
-            historyFile = stateFile;
-        } catch (IOException e) {
+        File historyDir = pluginLocation.append(HISTORY_DIR).toFile();
+        if (!historyDir.isDirectory() && !historyDir.mkdirs()) {
             // Cannot write to workspace.
-            // Probably shouldn't happen but lets use a temp file instead
-            historyFile = new File(createTemporaryDirectory(), STATE_FILE);
+            // Probably shouldn't happen but lets use a temp dir instead
+            historyDir = createTemporaryDirectory();
         }
+        historyFiles = new HistoryFiles(historyDir, () -> getPreferenceStore().getInt(HISTORY_SIZE_LIMIT));
     }
 
     private void setupResultDir() {
         IPath pluginLocation = getStateLocation();
         File stateFile = pluginLocation.append(HTML_RESULTS_DIR).append(HTML_FILE).toFile();
+        File resultDir;
         try {
             createParentDirs(stateFile);
             resultDir = stateFile.getParentFile();
@@ -190,6 +201,7 @@ public class PitCoreActivator extends Plugin {
             // Probably shouldn't happen but lets use a temp dir instead
             resultDir = createTemporaryDirectory();
         }
+        resultDirs = new ReportDirectories(resultDir, RETAINED_RESULT_DIRS);
     }
 
     private File createTemporaryDirectory() {
@@ -215,6 +227,11 @@ public class PitCoreActivator extends Plugin {
     public void stop(BundleContext context) throws Exception { // NOPMD - Base
                                                                 // class defines
                                                                 // signature
+        PitDaemons.INSTANCE.shutdownAll();
+        JavaCore.removeElementChangedListener(CachingStructureService.INSTANCE);
+        CachingStructureService.INSTANCE.invalidateAll();
+        JavaCore.removeElementChangedListener(LaunchPlanCache.INSTANCE);
+        LaunchPlanCache.INSTANCE.invalidateAll();
         List<String> emptyPath = Collections.emptyList();
         setPitClasspath(emptyPath);
         setActivator(null);
@@ -246,24 +263,104 @@ public class PitCoreActivator extends Plugin {
         log(IStatus.WARNING, msg, t);
     }
 
-    public File emptyResultDir() {
-        recursiveClean(resultDir);
-        return resultDir;
+    /**
+     * Creates a new directory in which a launch can write its reports. Each launch
+     * has its own directory, so that concurrent launches do not clobber each other.
+     * Only the directories of the latest launches are kept.
+     * 
+     * @return a new empty directory
+     */
+    public File newResultDir() {
+        try {
+            return resultDirs.create();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create result directory", e);
+        }
     }
 
-    private void recursiveClean(File dir) {
-        for (File file : dir.listFiles()) {
-            if (file.isDirectory()) {
-                recursiveClean(file);
-            }
-            if (!file.delete()) {
-                file.deleteOnExit();
-            }
+    /**
+     * Keeps the result directory holding the given report from being deleted while
+     * a view displays the report.
+     * 
+     * @param report
+     *          The report displayed by a view.
+     * @see ReportDirectories#hold(File)
+     */
+    public void holdResult(File report) {
+        resultDirs.hold(report);
+    }
+
+    /**
+     * Releases a report once a view no longer displays it.
+     * 
+     * @param report
+     *          The report no longer displayed by a view.
+     * @see ReportDirectories#release(File)
+     */
+    public void releaseResult(File report) {
+        resultDirs.release(report);
+    }
+
+    /**
+     * Returns the file storing the history of the incremental analyses
+     * of the given launch configuration.
+     * 
+     * @param launchConfiguration
+     *          The name of the launch configuration.
+     * @return the history file of the launch configuration
+     */
+    public File getHistoryFile(String launchConfiguration) {
+        return historyFiles.of(launchConfiguration);
+    }
+
+    /**
+     * Keeps the given history file from being compacted while an analysis reads it.
+     * 
+     * @param historyFile
+     *          The history file of the analysis about to start.
+     * @see HistoryFiles#hold(File)
+     */
+    public void holdHistoryFile(File historyFile) {
+        historyFiles.hold(historyFile);
+    }
+
+    /**
+     * Prepares the history files of the shards of an analysis about to start.
+     * 
+     * @param historyFile
+     *          The history file of the launch configuration.
+     * @param shardCount
+     *          The number of shards of the analysis.
+     * @return the history file of each shard
+     * @see HistoryFiles#prepareShards(File, int)
+     */
+    public List<File> prepareShardHistoryFiles(File historyFile, int shardCount) {
+        historyFiles.prepareShards(historyFile, shardCount);
+        List<File> shards = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(HistoryFiles.shardOf(historyFile, shard));
         }
+        return shards;
+    }
+
+    /**
+     * Releases a history file once the analysis reading it has ended.
+     * 
+     * @param historyFile
+     *          The history file of the analysis that has ended.
+     * @see HistoryFiles#release(File)
+     */
+    public void releaseHistoryFile(File historyFile) {
+        historyFiles.release(historyFile);
     }
 
-    public File getHistoryFile() {
-        return historyFile;
+    /**
+     * Deletes the history of the incremental analyses of all launch configurations.
+     * 
+     * @return {@code true} if the history has been deleted
+     */
+    public boolean deleteHistoryFiles() {
+        return historyFiles.deleteAll();
     }
 
     public PitConfiguration getConfiguration() {
@@ -278,9 +375,15 @@ public class PitCoreActivator extends Plugin {
         String avoidCallsTo = preferenceStore.getString(AVOID_CALLS_TO);
         String timeout = preferenceStore.getString(TIMEOUT);
         String timeoutFactor = preferenceStore.getString(TIMEOUT_FACTOR);
+        boolean runnerDaemon = preferenceStore.getBoolean(RUNNER_DAEMON);
+        int runnerShards = preferenceStore.getInt(RUNNER_SHARDS);
+        boolean focusedTestLaunch = preferenceStore.getBoolean(FOCUSED_TEST_LAUNCH);
+        boolean resultCache = preferenceStore.getBoolean(RESULT_CACHE);
         PitConfiguration.Builder builder = PitConfiguration.builder().withParallelExecution(parallelRun)
                 .withIncrementalAnalysis(incrementalAnalysis).withExcludedClasses(excludedClasses)
-                .withExcludedMethods(excludedMethods).withAvoidCallsTo(avoidCallsTo);
+                .withExcludedMethods(excludedMethods).withAvoidCallsTo(avoidCallsTo)
+                .withRunnerDaemon(runnerDaemon).withRunnerShards(Math.max(1, runnerShards))
+                .withFocusedTestLaunch(focusedTestLaunch).withResultCache(resultCache);
         try {
             builder.withTimeout(Integer.valueOf(timeout));
             builder.withTimeoutFactor(new BigDecimal(timeoutFactor));
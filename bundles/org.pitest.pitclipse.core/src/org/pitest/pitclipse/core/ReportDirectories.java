@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * <p>Provides each launch with its own directory to store the reports generated by PIT.</p>
+ * 
+ * <p>All report directories are created under a common root directory. Once a new
+ * directory is created, the oldest ones are deleted in background so that only the
+ * {@code retained} latest directories are kept, the new one included. Any other file
+ * of the root directory, like reports written by previous versions, is deleted too.</p>
+ * 
+ * <p>The directories holding a report {@link #hold(File) held} by a view are never
+ * deleted, however old they are, until the view releases the report.</p>
+ * 
+ * <p>This class is thread-safe.</p>
+ */
+public final class ReportDirectories {
+
+    private static final String DIRECTORY_PREFIX = "launch-";
+
+    private final File root;
+    private final int retained;
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Map<File, Integer> holds = new HashMap<>();
+    private final Job cleanUp;
+
+    /**
+     * Creates the report directories of all the launches.
+     * 
+     * @param root
+     *          The directory holding all report directories.
+     * @param retained
+     *          The number of report directories to keep.
+     */
+    public ReportDirectories(File root, int retained) {
+        this.root = root;
+        this.retained = retained;
+        this.cleanUp = Job.create("Cleaning PIT reports up", monitor -> {
+            cleanUp();
+            return Status.OK_STATUS;
+        });
+        cleanUp.setSystem(true);
+        cleanUp.setPriority(Job.DECORATE);
+    }
+
+    /**
+     * Creates a new empty report directory, then cleans the oldest ones up in background.
+     * 
+     * @return the new report directory
+     * @throws IOException if the directory cannot be created
+     */
+    public File create() throws IOException {
+        // Names are ordered by creation time, so that the oldest directories come first
+        String name = String.format("%s%013d-%06d", DIRECTORY_PREFIX, System.currentTimeMillis(),
+                sequence.incrementAndGet() % 1_000_000);
+        File directory = new File(root, name);
+        if (!directory.mkdirs()) {
+            throw new IOException("Cannot create report directory " + directory);
+        }
+        // rescheduling a running job makes it run again once it is done
+        cleanUp.schedule();
+        return directory;
+    }
+
+    /**
+     * Keeps the report directory holding the given report from being deleted until
+     * the report is {@link #release(File) released}. A report can be held several
+     * times at once; reports outside of the report directories are ignored.
+     * 
+     * @param report
+     *          A file of a report directory, such as the HTML report displayed by a view.
+     */
+    public synchronized void hold(File report) {
+        directoryOf(report).ifPresent(directory -> holds.merge(directory, 1, Integer::sum));
+    }
+
+    /**
+     * Releases a report {@link #hold(File) held} by a view that no longer displays it.
+     * 
+     * @param report
+     *          A file of a report directory, given to {@link #hold(File)}.
+     */
+    public synchronized void release(File report) {
+        directoryOf(report).ifPresent(directory ->
+                holds.computeIfPresent(directory, (file, count) -> count == 1 ? null : count - 1));
+    }
+
+    /**
+     * Deletes the oldest report directories right away, keeping the ones held by views.
+     */
+    public void cleanUp() {
+        File[] files = root.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> directories = Arrays.stream(files)
+                .filter(file -> file.isDirectory() && file.getName().startsWith(DIRECTORY_PREFIX))
+                .sorted(Comparator.comparing(File::getName).reversed())
+                .collect(Collectors.toList());
+        for (File directory : directories.subList(Math.min(retained, directories.size()), directories.size())) {
+            if (!isHeld(directory)) {
+                delete(directory);
+            }
+        }
+        for (File file : files) {
+            if (!file.getName().startsWith(DIRECTORY_PREFIX)) {
+                delete(file);
+            }
+        }
+    }
+
+    private synchronized boolean isHeld(File directory) {
+        return holds.containsKey(directory.getAbsoluteFile());
+    }
+
+    /**
+     * Returns the report directory holding the given file, that is the child of the
+     * root directory the file belongs to.
+     */
+    private Optional<File> directoryOf(File report) {
+        File rootDirectory = root.getAbsoluteFile();
+        for (File file = report.getAbsoluteFile(); file != null; file = file.getParentFile()) {
+            if (rootDirectory.equals(file.getParentFile())) {
+                return Optional.of(file);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        if (!file.delete() && file.exists()) {
+            PitCoreActivator.warn("Could not delete " + file);
+        }
+    }
+}
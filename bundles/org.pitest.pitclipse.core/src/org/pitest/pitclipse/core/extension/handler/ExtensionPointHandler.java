@@ -16,6 +16,10 @@
 
 package org.pitest.pitclipse.core.extension.handler;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionRegistry;
@@ -65,23 +69,47 @@ public class ExtensionPointHandler<U> {
      *          The results to be handled by the extensions.
      */
     public void execute(IExtensionRegistry registry, U results) {
-        evaluate(registry, results);
+        notifyEach(notifiersFrom(registry), results);
+    }
+
+    /**
+     * <p>Creates an instance of each contribution to the extension point, once, and returns
+     * a function that makes these same instances handle the results it is given.</p>
+     * 
+     * <p>This lets contributions keep a state between consecutive results, for instance
+     * all the results of an analysis.</p>
+     * 
+     * @param registry
+     *          The registry providing available extensions.
+     * @return a function notifying the created instances of the results it is given
+     */
+    public Consumer<U> instantiate(IExtensionRegistry registry) {
+        List<ResultNotifier<U>> notifiers = notifiersFrom(registry);
+        return results -> notifyEach(notifiers, results);
     }
 
-    private void evaluate(IExtensionRegistry registry, final U results) {
+    private List<ResultNotifier<U>> notifiersFrom(IExtensionRegistry registry) {
         IConfigurationElement[] config = registry.getConfigurationElementsFor(extensionPointId);
+        List<ResultNotifier<U>> notifiers = new ArrayList<>(config.length);
         try {
             for (IConfigurationElement e : config) {
                 Object obj = e.createExecutableExtension("class");
                 if (obj instanceof ResultNotifier) {
                     @SuppressWarnings("unchecked")
                     final ResultNotifier<U> notifier = (ResultNotifier<U>) obj;
-                    executeExtension(() -> notifier.handleResults(results));
+                    notifiers.add(notifier);
                 }
             }
         } catch (CoreException ex) {
             warn("Error thrown notifying results", ex);
         }
+        return notifiers;
+    }
+
+    private void notifyEach(List<ResultNotifier<U>> notifiers, final U results) {
+        for (ResultNotifier<U> notifier : notifiers) {
+            executeExtension(() -> notifier.handleResults(results));
+        }
     }
 
     private void executeExtension(final Runnable extension) {
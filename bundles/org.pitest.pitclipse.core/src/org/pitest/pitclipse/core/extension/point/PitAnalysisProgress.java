@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.extension.point;
+
+import java.util.Optional;
+
+import org.pitest.pitclipse.runner.PitProgress;
+
+/**
+ * <p>The progress of a running PIT analysis, given to the contributions to the
+ * {@code progress} extension point.</p>
+ * 
+ * <p>It tells which launch the progress belongs to, so that contributions can follow
+ * several analyses running at the same time, and lets them cancel this analysis.</p>
+ * 
+ * <p>An instance of this class is <strong>immutable</strong>.</p>
+ */
+public final class PitAnalysisProgress {
+
+    private final PitProgress progress;
+    private final Optional<String> launchConfiguration;
+    private final String analysisId;
+    private final Runnable cancellation;
+
+    /**
+     * Creates the progress of an analysis.
+     * 
+     * @param progress
+     *          The progress sent by the PIT applications of the analysis.
+     * @param launchConfiguration
+     *          The memento of the launch configuration of the analysis, if known.
+     * @param analysisId
+     *          The identifier of the analysis, see {@link PitRuntimeOptions#getAnalysisId()}.
+     * @param cancellation
+     *          Cancels the analysis.
+     */
+    public PitAnalysisProgress(PitProgress progress, Optional<String> launchConfiguration, String analysisId,
+            Runnable cancellation) {
+        this.progress = progress;
+        this.launchConfiguration = launchConfiguration;
+        this.analysisId = analysisId;
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * @return the progress sent by the PIT applications of the analysis
+     */
+    public PitProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * @return the memento of the launch configuration of the analysis, if known
+     */
+    public Optional<String> getLaunchConfiguration() {
+        return launchConfiguration;
+    }
+
+    /**
+     * Returns the identifier of the analysis, which tells it apart from the other
+     * analyses, including the ones run by the same PIT application.
+     * 
+     * @return the identifier of the analysis
+     */
+    public String getAnalysisId() {
+        return analysisId;
+    }
+
+    /**
+     * Asks all the PIT applications of the analysis to stop and to send the results
+     * gathered so far.
+     */
+    public void cancel() {
+        cancellation.run();
+    }
+}
@@ -18,21 +18,35 @@ package org.pitest.pitclipse.core.extension.point;
 
 import com.google.common.collect.ImmutableList;
 
+import org.pitest.pitclipse.core.launch.CachedAnalysis;
+import org.pitest.pitclipse.core.launch.PitAnalyses;
+import org.pitest.pitclipse.core.launch.PitDaemon;
 import org.pitest.pitclipse.runner.PitOptions;
+import org.pitest.pitclipse.runner.model.MutationsModel;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * <p>Options used by a running PIT application.</p>
  * 
+ * <p>Each instance built by a constructor identifies a new analysis, see
+ * {@link #getAnalysisId()}; the copies made by the {@code with...} methods identify
+ * the same analysis.</p>
+ * 
  * <p>An instance of this class is <strong>immutable</strong> and, once built,
  * is inherently <strong>thread-safe</strong>.</p>
  */
 public class PitRuntimeOptions {
 
-    private final int portNumber;
-    private final PitOptions options;
+    private final String analysisId;
+    private final ImmutableList<PitShardOptions> shards;
     private final ImmutableList<String> projects;
+    private final Optional<PitDaemon> daemon;
+    private final Optional<CachedAnalysis> cachedAnalysis;
+    private final Optional<String> launchConfiguration;
+    private final Optional<MutationsModel> mergedModel;
 
     /**
      * Creates a new object representing the options used by a running PIT application.
@@ -45,27 +59,131 @@ public class PitRuntimeOptions {
      *          The projects analyzed by PIT.
      */
     public PitRuntimeOptions(int portNumber, PitOptions options, List<String> projects) {
-        this.portNumber = portNumber;
-        this.options = options;
-        this.projects = ImmutableList.copyOf(projects);
+        this(portNumber, options, projects, Optional.empty());
+    }
+
+    /**
+     * Creates a new object representing the options used by a running PIT application
+     * that is kept alive between launches.
+     * 
+     * @param portNumber
+     *          The port used by PIT to send its results.
+     * @param options
+     *          The options given to PIT to parameterize its analyze.
+     * @param projects
+     *          The projects analyzed by PIT.
+     * @param daemon
+     *          The PIT application kept alive between launches, if any.
+     */
+    public PitRuntimeOptions(int portNumber, PitOptions options, List<String> projects, Optional<PitDaemon> daemon) {
+        this(UUID.randomUUID().toString(), ImmutableList.of(new PitShardOptions(portNumber, options)),
+                ImmutableList.copyOf(projects), daemon, Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Creates a new object representing the options used by several PIT applications,
+     * each one analyzing a part of the classes to mutate.
+     * 
+     * @param shards
+     *          The options used by each PIT application.
+     * @param projects
+     *          The projects analyzed by PIT.
+     */
+    public PitRuntimeOptions(List<PitShardOptions> shards, List<String> projects) {
+        this(UUID.randomUUID().toString(), ImmutableList.copyOf(shards), ImmutableList.copyOf(projects),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
+    private PitRuntimeOptions(String analysisId, ImmutableList<PitShardOptions> shards, // NOSONAR this is used by our copy methods
+            ImmutableList<String> projects, Optional<PitDaemon> daemon, Optional<CachedAnalysis> cachedAnalysis,
+            Optional<String> launchConfiguration, Optional<MutationsModel> mergedModel) {
+        this.analysisId = analysisId;
+        this.shards = shards;
+        this.projects = projects;
+        this.daemon = daemon;
+        this.cachedAnalysis = cachedAnalysis;
+        this.launchConfiguration = launchConfiguration;
+        this.mergedModel = mergedModel;
+    }
+
+    /**
+     * Returns a copy of these options for a launch in which the results of some
+     * classes are taken from the result cache.
+     * 
+     * @param cachedAnalysis
+     *          The classes whose results are taken from the cache.
+     * @return a copy of these options
+     */
+    public PitRuntimeOptions withCachedAnalysis(CachedAnalysis cachedAnalysis) {
+        return new PitRuntimeOptions(analysisId, shards, projects, daemon, Optional.of(cachedAnalysis),
+                launchConfiguration, mergedModel);
+    }
+
+    /**
+     * Returns a copy of these options for a launch of the given configuration.
+     * 
+     * @param launchConfiguration
+     *          The memento of the launched configuration.
+     * @return a copy of these options
+     */
+    public PitRuntimeOptions withLaunchConfiguration(String launchConfiguration) {
+        return new PitRuntimeOptions(analysisId, shards, projects, daemon, cachedAnalysis,
+                Optional.of(launchConfiguration), mergedModel);
     }
 
     /**
-     * Returns the port used by PIT to send its results.
+     * Returns a copy of these options for a launch that re-runs some mutations
+     * of a previous analysis, whose results are merged into the model of the latter.
+     * 
+     * @param mergedModel
+     *          The model of the previous analysis.
+     * @return a copy of these options
+     */
+    public PitRuntimeOptions withMergedModel(MutationsModel mergedModel) {
+        return new PitRuntimeOptions(analysisId, shards, projects, daemon, cachedAnalysis, launchConfiguration,
+                Optional.of(mergedModel));
+    }
+
+    /**
+     * <p>Returns the identifier of the analysis, which is unique to it even when
+     * its PIT application is reused by other launches.</p>
+     * <p>The analysis can be cancelled with this identifier, see {@link PitAnalyses}.</p>
+     * 
+     * @return the identifier of the analysis
+     */
+    public String getAnalysisId() {
+        return analysisId;
+    }
+
+    /**
+     * <p>Returns the port used by PIT to send its results.</p>
+     * <p>When the analysis is split, returns the port of the first PIT application.</p>
+     * 
      * @return the port used by PIT to send its results
      */
     public int getPortNumber() {
-        return portNumber;
+        return shards.get(0).getPortNumber();
     }
 
     /**
      * <p>Returns the options that have been given to PIT.</p>
-     * <p>These options parameterize PIT analyze.</p>
+     * <p>These options parameterize PIT analyze. When the analysis is split, returns
+     * the options of the first PIT application.</p>
      * 
      * @return the options that have been given to PIT
      */
     public PitOptions getOptions() {
-        return options;
+        return shards.get(0).getOptions();
+    }
+
+    /**
+     * <p>Returns the options used by each PIT application the analysis is split into.</p>
+     * <p>Contains a single element when the analysis is not split.</p>
+     * 
+     * @return the options used by each PIT application
+     */
+    public List<PitShardOptions> getShards() {
+        return shards;
     }
 
     /**
@@ -75,4 +193,37 @@ public class PitRuntimeOptions {
     public List<String> getMutatedProjects() {
         return projects;
     }
+
+    /**
+     * Returns the PIT application kept alive between launches that runs the analyze, if any.
+     * @return the PIT application kept alive between launches, if any
+     */
+    public Optional<PitDaemon> getDaemon() {
+        return daemon;
+    }
+
+    /**
+     * Returns the classes whose results are taken from the result cache, if it is used.
+     * @return the classes whose results are taken from the result cache, if it is used
+     */
+    public Optional<CachedAnalysis> getCachedAnalysis() {
+        return cachedAnalysis;
+    }
+
+    /**
+     * Returns the memento of the launched configuration, if known.
+     * @return the memento of the launched configuration, if known
+     */
+    public Optional<String> getLaunchConfiguration() {
+        return launchConfiguration;
+    }
+
+    /**
+     * Returns the model of the previous analysis into which the results must be merged
+     * instead of replacing it, if any.
+     * @return the model into which the results must be merged, if any
+     */
+    public Optional<MutationsModel> getMergedModel() {
+        return mergedModel;
+    }
 }
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.extension.point;
+
+import org.pitest.pitclipse.runner.PitOptions;
+
+/**
+ * <p>Options used by one of the PIT applications an analysis is split into.</p>
+ * 
+ * <p>An instance of this class is <strong>immutable</strong> and, once built,
+ * is inherently <strong>thread-safe</strong>.</p>
+ */
+public class PitShardOptions {
+
+    private final int portNumber;
+    private final PitOptions options;
+
+    /**
+     * Creates a new object representing the options used by a single PIT application.
+     * 
+     * @param portNumber
+     *          The port used by the PIT application to send its results.
+     * @param options
+     *          The options given to the PIT application.
+     */
+    public PitShardOptions(int portNumber, PitOptions options) {
+        this.portNumber = portNumber;
+        this.options = options;
+    }
+
+    /**
+     * Returns the port used by the PIT application to send its results.
+     * @return the port used by the PIT application to send its results
+     */
+    public int getPortNumber() {
+        return portNumber;
+    }
+
+    /**
+     * Returns the options that have been given to the PIT application.
+     * @return the options that have been given to the PIT application
+     */
+    public PitOptions getOptions() {
+        return options;
+    }
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.pitest.pitclipse.core.launch.ClassFiles.ClassFile;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.results.Mutations.Mutation;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * <p>The classes of a launch whose results are taken from the {@link ResultCache},
+ * and the ones that must be analyzed by PIT.</p>
+ * 
+ * <p>The results of the analyzed classes are added to the cache as they are
+ * received, see {@link #record(PitClassResults)}.</p>
+ */
+public final class CachedAnalysis {
+
+    private final ResultCache cache;
+    private final ClassFiles classFiles;
+    private final ResultCache.TestSet testSet;
+    private final String settings;
+    private final ImmutableList<String> staleClasses;
+    private final ImmutableList<PitClassResults> freshResults;
+    private final ImmutableMap<String, ClassFile> staleClassFiles;
+
+    CachedAnalysis(ResultCache cache, ClassFiles classFiles, ResultCache.TestSet testSet, String settings, // NOSONAR built by the cache only
+            List<String> staleClasses, List<PitClassResults> freshResults, Map<String, ClassFile> staleClassFiles) {
+        this.cache = cache;
+        this.classFiles = classFiles;
+        this.testSet = testSet;
+        this.settings = settings;
+        this.staleClasses = ImmutableList.copyOf(staleClasses);
+        this.freshResults = ImmutableList.copyOf(freshResults);
+        this.staleClassFiles = ImmutableMap.copyOf(staleClassFiles);
+    }
+
+    /**
+     * @return the classes to mutate that must be analyzed by PIT
+     */
+    public List<String> getStaleClasses() {
+        return staleClasses;
+    }
+
+    /**
+     * @return the results of the classes to mutate that did not change since their last analysis
+     */
+    public List<PitClassResults> getFreshResults() {
+        return freshResults;
+    }
+
+    /**
+     * <p>Adds the results of a class analyzed by PIT to the cache.</p>
+     * 
+     * <p>The results are not cached when the bytecode of the class or of one of
+     * the tests covering it cannot be found.</p>
+     * 
+     * @param results
+     *          The results of a class analyzed during this launch.
+     */
+    public void record(PitClassResults results) {
+        ClassFile classFile = staleClassFiles.get(results.getMutatedClass());
+        if (classFile == null) {
+            return;
+        }
+        ImmutableMap.Builder<String, String> testHashes = ImmutableMap.builder();
+        for (String test : results.getCoveringTests()) {
+            Optional<ClassFile> testFile = classFiles.of(test);
+            if (!testFile.isPresent()) {
+                return;
+            }
+            testHashes.put(test, testFile.get().getHash());
+        }
+        List<Mutation> mutations = results.getMutations().getMutation();
+        String testSetHash = ResultCache.hasUncoveredMutants(mutations) ? testSet.hash() : "";
+        cache.storeOf(classFile.getProject()).put(new ResultStore.Entry(results.getMutatedClass(), settings,
+                classFile.getHash(), testSetHash, testHashes.build(), mutations));
+    }
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitProgress;
+import org.pitest.pitclipse.runner.PitResults;
+import org.pitest.pitclipse.runner.client.PitResultHandler;
+import org.pitest.pitclipse.runner.results.Mutations;
+
+/**
+ * <p>Adds the results received from PIT to the {@link ResultCache}, then completes
+ * them with the results taken from the cache before passing them to another handler.</p>
+ * 
+ * <p>The results of each class taken from the cache are passed to the other handler
+ * as soon as the analysis starts, see {@link #reportCachedResults()}, so that they are
+ * shown while PIT analyzes the other classes.</p>
+ * 
+ * <p>The HTML report produced by PIT only covers the classes it analyzed.</p>
+ */
+public class CachingResultHandler implements PitResultHandler {
+
+    private final PitResultHandler handler;
+    private final CachedAnalysis analysis;
+
+    /**
+     * Creates a new handler for the results of a launch relying on the cache.
+     * 
+     * @param handler
+     *          The handler to notify with the complete results.
+     * @param analysis
+     *          The classes of the launch taken from the cache.
+     */
+    public CachingResultHandler(PitResultHandler handler, CachedAnalysis analysis) {
+        this.handler = handler;
+        this.analysis = analysis;
+    }
+
+    /**
+     * Passes the results of each class taken from the cache to the other handler.
+     * Must be called once, when the analysis starts.
+     */
+    public void reportCachedResults() {
+        analysis.getFreshResults().forEach(handler::handleClassResults);
+    }
+
+    @Override
+    public void handleClassResults(PitClassResults results) {
+        analysis.record(results);
+        handler.handleClassResults(results);
+    }
+
+    @Override
+    public void handleProgress(PitProgress progress) {
+        handler.handleProgress(progress);
+    }
+
+    @Override
+    public void handle(PitResults results) {
+        Mutations mutations = new Mutations();
+        for (PitClassResults freshResults : analysis.getFreshResults()) {
+            mutations.getMutation().addAll(freshResults.getMutations().getMutation());
+        }
+        mutations.getMutation().addAll(results.getMutations().getMutation());
+        handler.handle(results.copyOf().withMutations(mutations).build());
+    }
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.pitest.pitclipse.core.PitCoreActivator;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * <p>Locates the bytecode of the classes visible from a project and computes its hash.</p>
+ * 
+ * <p>The bytecode of a class declared in a source folder is read from the output
+ * folder it is compiled to; the bytecode of a class coming from a library is read
+ * from the library. Each class is hashed at most once.</p>
+ */
+final class ClassFiles {
+
+    private final IJavaProject project;
+
+    /**
+     * Binary class name -> bytecode of the class, if found.
+     */
+    private final Map<String, Optional<ClassFile>> classFiles = new ConcurrentHashMap<>();
+
+    ClassFiles(IJavaProject project) {
+        this.project = project;
+    }
+
+    /**
+     * Returns the bytecode of the given class.
+     * 
+     * @param className
+     *          The binary name of the class.
+     * @return the bytecode of the class, or nothing if it cannot be found
+     */
+    Optional<ClassFile> of(String className) {
+        return classFiles.computeIfAbsent(className, this::locate);
+    }
+
+    private Optional<ClassFile> locate(String className) {
+        try {
+            IType type = project.findType(className.replace('$', '.'));
+            if (type == null || !type.exists()) {
+                return Optional.empty();
+            }
+            Optional<byte[]> bytecode = type.isBinary() ? Optional.of(type.getClassFile().getBytes())
+                                                        : compiledBytecodeOf(type, className);
+            return bytecode.map(bytes -> new ClassFile(type.getJavaProject().getElementName(), hashOf(bytes)));
+        } catch (JavaModelException | IOException e) {
+            PitCoreActivator.warn("Unable to read the bytecode of " + className, e);
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<byte[]> compiledBytecodeOf(IType type, String className)
+            throws JavaModelException, IOException {
+        IPackageFragmentRoot root = (IPackageFragmentRoot) type.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+        IPath outputLocation = root.getRawClasspathEntry().getOutputLocation();
+        if (outputLocation == null) {
+            outputLocation = type.getJavaProject().getOutputLocation();
+        }
+        IFile classFile = ResourcesPlugin.getWorkspace().getRoot()
+                .getFile(outputLocation.append(className.replace('.', '/') + ".class"));
+        IPath location = classFile.getLocation();
+        if (location == null) {
+            return Optional.empty();
+        }
+        File file = location.toFile();
+        if (!file.isFile()) {
+            return Optional.empty();
+        }
+        return Optional.of(Files.readAllBytes(file.toPath()));
+    }
+
+    static String hashOf(byte[] bytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return BaseEncoding.base16().lowerCase().encode(digest.digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is supported by every Java platform", e);
+        }
+    }
+
+    /**
+     * The bytecode of a class.
+     */
+    static final class ClassFile {
+        private final String project;
+        private final String hash;
+
+        ClassFile(String project, String hash) {
+            this.project = project;
+            this.hash = hash;
+        }
+
+        /**
+         * @return the name of the project declaring the class
+         */
+        String getProject() {
+            return project;
+        }
+
+        /**
+         * @return the hash of the bytecode of the class
+         */
+        String getHash() {
+            return hash;
+        }
+    }
+}
@@ -16,9 +16,19 @@
 
 package org.pitest.pitclipse.core.launch;
 
+import java.util.Optional;
+import java.util.function.Consumer;
+
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
+import org.pitest.pitclipse.core.extension.handler.ExtensionPointHandler;
+import org.pitest.pitclipse.core.extension.point.PitAnalysisProgress;
+import org.pitest.pitclipse.core.extension.point.PitRuntimeOptions;
+import org.pitest.pitclipse.core.result.MutationsModelUpdater;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitProgress;
 import org.pitest.pitclipse.runner.PitResults;
 import org.pitest.pitclipse.runner.client.PitResultHandler;
 
@@ -26,11 +36,70 @@ import org.pitest.pitclipse.runner.client.PitResultHandler;
  * <p>Notifies all contributions to the {@code results} extension point
  * that new results have been produced by PIT.</p>
  * 
- * <p>Contributions are notified in a background job.</p>
+ * <p>Contributions are notified in a background job. The number of mutants
+ * found in each class is remembered by {@link MutantCounts}, and the tests
+ * that covered it by {@link TestCoverage}.</p>
+ * 
+ * <p>The mutations found by the analysis are reported by a {@link MutationsModelUpdater}:
+ * as deltas to the contributions to the {@code mutations.deltas} extension point, from the
+ * results of each class as soon as they are received, then as a complete model to the
+ * contributions to the {@code mutations.results} extension point.</p>
+ * 
+ * <p>The results of an analysis that only re-runs some mutations of a previous
+ * one are merged into the model of the latter, given when the handler is created. Since they do not hold all the
+ * mutants of the analyzed classes, they are not remembered by {@link MutantCounts}, and
+ * only the tests that killed mutants are added to {@link TestCoverage}.</p>
+ * 
+ * <p>The progress of the analysis is passed to the contributions to the {@code progress}
+ * extension point as soon as it is received, along with the launch it belongs to and a
+ * way to cancel it. These contributions are instantiated once for the analysis.</p>
  */
 public class ExtensionPointResultHandler implements PitResultHandler {
+    private static final String PROGRESS_EXTENSION_POINT_ID = "org.pitest.pitclipse.core.progress";
+
+    private final MutationsModelUpdater modelUpdater;
+    private final boolean merging;
+    private final Optional<String> launchConfiguration;
+    private final String analysisId;
+    private final Runnable cancellation;
+    private final Consumer<PitAnalysisProgress> progressContributions;
+
+    /**
+     * Creates a new handler for the results of an analysis.
+     * 
+     * @param runtimeOptions
+     *          The options of the analysis.
+     */
+    public ExtensionPointResultHandler(PitRuntimeOptions runtimeOptions) {
+        this.launchConfiguration = runtimeOptions.getLaunchConfiguration();
+        this.modelUpdater = new MutationsModelUpdater(runtimeOptions.getMutatedProjects(), launchConfiguration,
+                runtimeOptions.getMergedModel());
+        this.merging = runtimeOptions.getMergedModel().isPresent();
+        this.analysisId = runtimeOptions.getAnalysisId();
+        this.cancellation = () -> PitAnalyses.INSTANCE.cancel(analysisId);
+        this.progressContributions = new ExtensionPointHandler<PitAnalysisProgress>(PROGRESS_EXTENSION_POINT_ID)
+                .instantiate(Platform.getExtensionRegistry());
+    }
+
+    @Override
+    public void handleClassResults(PitClassResults results) {
+        if (!merging) {
+            TestCoverage.INSTANCE.record(results);
+        }
+        modelUpdater.classAnalyzed(results);
+    }
+
+    @Override
+    public void handleProgress(PitProgress progress) {
+        progressContributions.accept(new PitAnalysisProgress(progress, launchConfiguration, analysisId, cancellation));
+    }
 
     public void handle(PitResults results) {
+        if (!merging) {
+            MutantCounts.INSTANCE.record(results.getMutations());
+        }
+        TestCoverage.INSTANCE.record(results.getMutations());
+        modelUpdater.analysisEnded(results);
         Job.create("Reporting Pit results", monitor -> {
             new UpdateExtensions(results).run();
             return new Status(IStatus.OK, "org.pitest.pitclipse.core.launch", "ok");
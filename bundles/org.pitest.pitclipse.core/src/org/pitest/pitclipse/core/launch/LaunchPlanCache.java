@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * <p>Remembers, for each project, what is needed to plan a launch: the classes to mutate,
+ * the packages to test, the source directories...</p>
+ * 
+ * <p>Each part of a launch plan is computed once per project, or per package fragment root,
+ * by a {@link PlanLoader}, then returned as is until the types declared in its scope change.
+ * The types declared by each compilation unit are remembered separately, so that only the
+ * compilation units that changed have to be parsed again when a plan is recomputed.</p>
+ * 
+ * <p>Editing a compilation unit only invalidates its types, unless they are not the same
+ * once it has changed: then the parts whose scope holds the compilation unit are computed
+ * again, while the parts of the other package fragment roots of the project are kept.</p>
+ * 
+ * <p>The cache is kept up-to-date by listening to the changes of the Java model: it must be
+ * registered with {@link JavaCore#addElementChangedListener(IElementChangedListener, int)}.
+ * Java model deltas are derived from resource deltas, hence changes made outside of the
+ * Java editor are seen as well.</p>
+ */
+public enum LaunchPlanCache implements IElementChangedListener {
+
+    INSTANCE;
+
+    private static final int JAVA_PROJECT_CHANGES = IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED
+            | IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED;
+
+    private static final int PACKAGE_FRAGMENT_ROOT_CHANGES = IJavaElementDelta.F_ADDED_TO_CLASSPATH
+            | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH;
+
+    /**
+     * Computes a part of the launch plan of a project.
+     * 
+     * @param <T> the type of the computed part
+     */
+    @FunctionalInterface
+    public interface PlanLoader<T> {
+        T load(IJavaProject project) throws CoreException;
+    }
+
+    /**
+     * Project name -> launch plan of the project.
+     */
+    private final ConcurrentMap<String, ProjectPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * <p>Returns a part of the launch plan of the project of the given scope, computing it
+     * if needed.</p>
+     * 
+     * <p>A part is only recomputed when the types declared in its scope change, hence it must
+     * not depend on anything else, like other scopes or the content of the types: what comes
+     * from the projects on the classpath must be cached with these projects instead.</p>
+     * 
+     * @param scope
+     *          The project, or the package fragment root, the part is computed from.
+     * @param part
+     *          Identifies the part of the plan, the same loader must always be used for a given part.
+     * @param loader
+     *          Computes the part of the plan if it is not known yet, given the project of the scope.
+     * @return the part of the plan
+     * @throws CoreException if the part of the plan cannot be computed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(IJavaElement scope, String part, PlanLoader<T> loader) throws CoreException {
+        ProjectPlan plan = planOf(scope.getJavaProject());
+        Map<String, Object> parts = plan.partsOf(scope.getHandleIdentifier());
+        Object value = parts.get(part);
+        if (value == null) {
+            long generation = plan.generation;
+            value = loader.load(scope.getJavaProject());
+            plan.record(generation, parts, part, value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Returns the fully qualified names of all the types declared in the given compilation unit.
+     * 
+     * @param compilationUnit
+     *          A compilation unit.
+     * @return the names of the types declared in the compilation unit
+     * @throws JavaModelException if the compilation unit cannot be parsed
+     */
+    public ImmutableSet<String> typesOf(ICompilationUnit compilationUnit) throws JavaModelException {
+        ProjectPlan plan = planOf(compilationUnit.getJavaProject());
+        String unit = compilationUnit.getHandleIdentifier();
+        ImmutableSet<String> types = plan.types.get(unit);
+        if (types == null) {
+            long generation = plan.generation;
+            types = declaredTypesOf(compilationUnit);
+            plan.record(generation, plan.types, unit, types);
+        }
+        return types;
+    }
+
+    private ProjectPlan planOf(IJavaProject project) {
+        return plans.computeIfAbsent(project.getElementName(), name -> new ProjectPlan());
+    }
+
+    @Override
+    public void elementChanged(ElementChangedEvent event) {
+        invalidate(event.getDelta());
+    }
+
+    private void invalidate(IJavaElementDelta delta) {
+        IJavaElement element = delta.getElement();
+        boolean addedOrRemoved = delta.getKind() != IJavaElementDelta.CHANGED;
+        switch (element.getElementType()) {
+        case IJavaElement.JAVA_PROJECT:
+            if (addedOrRemoved || (delta.getFlags() & JAVA_PROJECT_CHANGES) != 0) {
+                // The projects on the classpath of other projects may have changed too
+                invalidateAll();
+                return;
+            }
+            break;
+        case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+            if (addedOrRemoved || (delta.getFlags() & PACKAGE_FRAGMENT_ROOT_CHANGES) != 0) {
+                invalidateProject(element.getJavaProject());
+                return;
+            }
+            break;
+        case IJavaElement.PACKAGE_FRAGMENT:
+            if (addedOrRemoved) {
+                invalidateWithin(element);
+                return;
+            }
+            break;
+        case IJavaElement.COMPILATION_UNIT:
+            // Types may have been added, removed or renamed
+            invalidateUnit((ICompilationUnit) element, addedOrRemoved);
+            return;
+        default:
+            break;
+        }
+        for (IJavaElementDelta child : delta.getAffectedChildren()) {
+            invalidate(child);
+        }
+    }
+
+    private void invalidateProject(IJavaProject project) {
+        plans.remove(project.getElementName());
+    }
+
+    private void invalidateWithin(IJavaElement element) {
+        ProjectPlan plan = plans.get(element.getJavaProject().getElementName());
+        if (plan != null) {
+            plan.invalidateWithin(element.getHandleIdentifier());
+        }
+    }
+
+    private void invalidateUnit(ICompilationUnit compilationUnit, boolean addedOrRemoved) {
+        ProjectPlan plan = plans.get(compilationUnit.getJavaProject().getElementName());
+        if (plan == null) {
+            return;
+        }
+        String unit = compilationUnit.getHandleIdentifier();
+        ImmutableSet<String> knownTypes = plan.types.get(unit);
+        if (addedOrRemoved || knownTypes == null) {
+            plan.invalidateWithin(unit);
+            return;
+        }
+        try {
+            ImmutableSet<String> types = declaredTypesOf(compilationUnit);
+            if (types.equals(knownTypes)) {
+                plan.replaceUnit(unit, types);
+                return;
+            }
+        } catch (JavaModelException e) {
+            // The compilation unit cannot be parsed anymore: its types are unknown
+        }
+        plan.invalidateWithin(unit);
+    }
+
+    private static ImmutableSet<String> declaredTypesOf(ICompilationUnit compilationUnit) throws JavaModelException {
+        ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        for (IType type : compilationUnit.getAllTypes()) {
+            builder.add(type.getFullyQualifiedName());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Forgets the launch plans of all projects.
+     */
+    public void invalidateAll() {
+        plans.clear();
+    }
+
+    /**
+     * The launch plan of a project.
+     */
+    private static final class ProjectPlan {
+        /**
+         * Handle identifier of a scope -> part name -> part of the plan.
+         */
+        private final Map<String, Map<String, Object>> parts = new ConcurrentHashMap<>();
+        private final Map<String, ImmutableSet<String>> types = new ConcurrentHashMap<>();
+
+        /**
+         * Incremented on each change, so that a value computed before
+         * the change is not recorded.
+         */
+        private volatile long generation;
+
+        Map<String, Object> partsOf(String scope) {
+            return parts.computeIfAbsent(scope, s -> new ConcurrentHashMap<>());
+        }
+
+        synchronized <V> void record(long expectedGeneration, Map<String, V> values, String key, V value) {
+            if (generation == expectedGeneration) {
+                values.put(key, value);
+            }
+        }
+
+        /**
+         * Forgets the parts whose scope holds the given element, or is held by it,
+         * and the types of the compilation units within the element.
+         */
+        synchronized void invalidateWithin(String element) {
+            generation++;
+            parts.keySet().removeIf(scope -> element.startsWith(scope) || scope.startsWith(element));
+            types.keySet().removeIf(unit -> unit.startsWith(element));
+        }
+
+        synchronized void replaceUnit(String compilationUnit, ImmutableSet<String> unitTypes) {
+            // the types are the same, hence the values being computed are still valid
+            types.put(compilationUnit, unitTypes);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.pitest.pitclipse.runner.model.MutationsModel;
+
+/**
+ * <p>Holds the models into which {@link SurvivorsRerun survivors re-runs} merge their
+ * results, until these re-runs are launched.</p>
+ * 
+ * <p>A launch configuration only holds strings: a re-run refers to the model it merges
+ * its results into by the identifier returned by {@link #add(MutationsModel)}.</p>
+ */
+public enum MergedModels {
+    INSTANCE;
+
+    private final Map<String, MutationsModel> models = new ConcurrentHashMap<>();
+
+    /**
+     * Holds the given model until it is taken by a launch.
+     * 
+     * @param model
+     *          The model into which the results of a re-run are merged.
+     * @return the identifier of the model
+     */
+    public String add(MutationsModel model) {
+        String identifier = UUID.randomUUID().toString();
+        models.put(identifier, model);
+        return identifier;
+    }
+
+    /**
+     * Returns the model having the given identifier, which is no longer held.
+     * 
+     * @param identifier
+     *          The identifier returned when the model was added.
+     * @return the model, if it has not been taken yet
+     */
+    public Optional<MutationsModel> take(String identifier) {
+        return Optional.ofNullable(models.remove(identifier));
+    }
+}
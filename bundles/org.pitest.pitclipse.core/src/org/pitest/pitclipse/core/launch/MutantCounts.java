@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.pitest.pitclipse.core.PitCoreActivator;
+import org.pitest.pitclipse.runner.results.Mutations;
+import org.pitest.pitclipse.runner.results.Mutations.Mutation;
+import org.pitest.pitclipse.runner.util.PitFileUtils;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * <p>Remembers how many mutants have been found in each class by the
+ * latest analyses.</p>
+ * 
+ * <p>These counts are used to balance the shards of the next analyses. They are
+ * kept in the state location of the plug-in, so that the first analysis run after
+ * a restart of Eclipse is balanced too; counts that cannot be read are dropped.</p>
+ */
+public enum MutantCounts {
+    INSTANCE;
+
+    private static final String COUNTS_FILE = "mutant-counts.properties";
+
+    private Map<String, Integer> countsByClass;
+
+    /**
+     * Updates the counts of all the classes mutated by an analysis.
+     * 
+     * @param mutations
+     *          The mutations produced by an analysis.
+     */
+    public void record(Mutations mutations) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Mutation mutation : mutations.getMutation()) {
+            counts.merge(mutation.getMutatedClass(), 1, Integer::sum);
+        }
+        synchronized (this) {
+            countsByClass().putAll(counts);
+            save();
+        }
+    }
+
+    /**
+     * @return the number of mutants found in each class by the latest analyses
+     */
+    public synchronized Map<String, Integer> get() {
+        return ImmutableMap.copyOf(countsByClass());
+    }
+
+    private Map<String, Integer> countsByClass() {
+        if (countsByClass == null) {
+            countsByClass = load();
+        }
+        return countsByClass;
+    }
+
+    private static Map<String, Integer> load() {
+        Map<String, Integer> counts = new HashMap<>();
+        File file = countsFile();
+        if (!file.isFile()) {
+            return counts;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            properties.load(input);
+            for (String mutatedClass : properties.stringPropertyNames()) {
+                counts.put(mutatedClass, Integer.valueOf(properties.getProperty(mutatedClass)));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            PitCoreActivator.warn("Dropping unreadable mutant counts " + file, e);
+            counts.clear();
+        }
+        return counts;
+    }
+
+    private void save() {
+        Properties properties = new Properties();
+        countsByClass.forEach((mutatedClass, count) -> properties.setProperty(mutatedClass, count.toString()));
+        File file = countsFile();
+        File pendingFile = new File(file.getPath() + ".pending");
+        try {
+            try (OutputStream output = Files.newOutputStream(pendingFile.toPath())) {
+                properties.store(output, null);
+            }
+            PitFileUtils.moveAtomically(pendingFile, file);
+        } catch (IOException e) {
+            PitCoreActivator.warn("Could not save mutant counts to " + file, e);
+        }
+    }
+
+    private static File countsFile() {
+        return PitCoreActivator.getDefault().getStateLocation().append(COUNTS_FILE).toFile();
+    }
+}
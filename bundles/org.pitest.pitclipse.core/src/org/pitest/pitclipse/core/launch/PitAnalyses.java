@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.pitest.pitclipse.core.extension.point.PitRuntimeOptions;
+import org.pitest.pitclipse.runner.client.PitCommunicator;
+
+/**
+ * <p>Keeps track of the PIT analyses currently running, so that they can be cancelled.</p>
+ * 
+ * <p>An analysis is identified by {@link PitRuntimeOptions#getAnalysisId() an identifier
+ * of its own}: a PIT application kept alive between launches keeps its port, hence the
+ * port does not tell its successive analyses apart. An analysis split across several
+ * PIT applications is registered once for each one of them.</p>
+ */
+public enum PitAnalyses {
+    INSTANCE;
+
+    private final Map<String, List<PitCommunicator>> runningAnalyses = new HashMap<>();
+    private final Map<String, List<Runnable>> endListeners = new HashMap<>();
+
+    /**
+     * Registers a PIT application of an analysis that is about to start.
+     * 
+     * @param analysisId
+     *          The identifier of the analysis.
+     * @param communicator
+     *          The communicator handling the connection with the PIT application.
+     */
+    public synchronized void started(String analysisId, PitCommunicator communicator) {
+        runningAnalyses.computeIfAbsent(analysisId, id -> new ArrayList<>()).add(communicator);
+    }
+
+    /**
+     * Forgets a PIT application of an analysis once its results have been received.
+     * 
+     * @param analysisId
+     *          The identifier of the analysis.
+     * @param communicator
+     *          The communicator handling the connection with the PIT application.
+     */
+    public void ended(String analysisId, PitCommunicator communicator) {
+        List<Runnable> listeners = new ArrayList<>();
+        synchronized (this) {
+            List<PitCommunicator> communicators = runningAnalyses.get(analysisId);
+            if (communicators != null && communicators.remove(communicator) && communicators.isEmpty()) {
+                runningAnalyses.remove(analysisId);
+                listeners.addAll(endListeners.getOrDefault(analysisId, new ArrayList<>()));
+                endListeners.remove(analysisId);
+            }
+        }
+        listeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Registers a listener notified once every PIT application of the given
+     * analysis has ended.
+     * 
+     * @param analysisId
+     *          The identifier of an analysis about to start.
+     * @param listener
+     *          The listener to notify.
+     */
+    public synchronized void whenEnded(String analysisId, Runnable listener) {
+        endListeners.computeIfAbsent(analysisId, id -> new ArrayList<>()).add(listener);
+    }
+
+    /**
+     * Asks the PIT applications of the given analysis to stop and to send the results
+     * gathered so far. Does nothing if the analysis is not running.
+     * 
+     * @param analysisId
+     *          The identifier of the analysis.
+     * @return whether the analysis was running
+     */
+    public boolean cancel(String analysisId) {
+        List<PitCommunicator> communicators;
+        synchronized (this) {
+            communicators = new ArrayList<>(runningAnalyses.getOrDefault(analysisId, new ArrayList<>()));
+        }
+        communicators.forEach(PitCommunicator::cancel);
+        return !communicators.isEmpty();
+    }
+}
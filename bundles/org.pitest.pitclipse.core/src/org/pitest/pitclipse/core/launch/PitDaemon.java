@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import org.pitest.pitclipse.runner.server.PitServer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+/**
+ * <p>A PIT application kept alive between launches.</p>
+ * 
+ * <p>A daemon is bound to the launch configuration that started it and to the
+ * classpath it has been started with: it can only serve a new launch of the
+ * same configuration as long as its classpath did not change.</p>
+ * 
+ * @see PitDaemons
+ */
+public final class PitDaemon {
+
+    private final String launchName;
+    private final String classpathSignature;
+    private final int portNumber;
+    private final PitServer server;
+    private final BooleanSupplier alive;
+    private final List<Runnable> releaseListeners = new CopyOnWriteArrayList<>();
+
+    PitDaemon(String launchName, String classpathSignature, int portNumber, BooleanSupplier alive) {
+        this.launchName = launchName;
+        this.classpathSignature = classpathSignature;
+        this.portNumber = portNumber;
+        this.server = new PitServer(portNumber);
+        this.alive = alive;
+    }
+
+    /**
+     * @return the name of the launch configuration that started this daemon
+     */
+    public String getLaunchName() {
+        return launchName;
+    }
+
+    /**
+     * @return the server used to communicate with the PIT application
+     */
+    public PitServer getServer() {
+        return server;
+    }
+
+    /**
+     * @return the port used by the PIT application to send its results
+     */
+    public int getPortNumber() {
+        return portNumber;
+    }
+
+    /**
+     * Registers a listener notified once this daemon has served the current launch,
+     * whether it is kept alive afterwards or not.
+     * 
+     * @param listener
+     *          The listener to notify.
+     */
+    public void whenReleased(Runnable listener) {
+        releaseListeners.add(listener);
+    }
+
+    void released() {
+        for (Runnable listener : releaseListeners) {
+            releaseListeners.remove(listener);
+            listener.run();
+        }
+    }
+
+    boolean canServe(String classpathSignature) {
+        return this.classpathSignature.equals(classpathSignature) && isAlive();
+    }
+
+    boolean isAlive() {
+        return alive.getAsBoolean();
+    }
+
+    void shutdown() {
+        if (server.isConnected()) {
+            try {
+                server.close();
+            } catch (IllegalStateException e) {
+                // the PIT application is already gone
+            }
+        }
+    }
+}
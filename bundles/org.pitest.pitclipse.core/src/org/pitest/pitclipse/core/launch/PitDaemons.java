@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+/**
+ * <p>Keeps track of the PIT applications kept alive between launches.</p>
+ * 
+ * <p>A daemon is <em>idle</em> when it is not serving any launch. Only idle
+ * daemons can be acquired, and at most one idle daemon is kept per launch
+ * configuration.</p>
+ */
+public enum PitDaemons {
+    INSTANCE;
+
+    private final Map<String, PitDaemon> idleDaemons = new HashMap<>();
+
+    /**
+     * <p>Returns the idle daemon started by the given launch configuration, if it
+     * is still alive and has been started with the same classpath.</p>
+     * 
+     * <p>An idle daemon that cannot serve the launch is shut down.</p>
+     * 
+     * @param launchName
+     *          The name of the launch configuration.
+     * @param classpathSignature
+     *          Identifies the classpath of the launch.
+     * @return the daemon that will serve the launch, if any
+     */
+    public synchronized Optional<PitDaemon> acquire(String launchName, String classpathSignature) {
+        PitDaemon daemon = idleDaemons.remove(launchName);
+        if (daemon == null) {
+            return Optional.empty();
+        }
+        if (daemon.canServe(classpathSignature)) {
+            return Optional.of(daemon);
+        }
+        daemon.shutdown();
+        return Optional.empty();
+    }
+
+    /**
+     * Registers a newly launched PIT application.
+     * 
+     * @param launchName
+     *          The name of the launch configuration.
+     * @param classpathSignature
+     *          Identifies the classpath of the launch.
+     * @param portNumber
+     *          The port used by the PIT application to send its results.
+     * @param alive
+     *          Tells whether the process of the PIT application is still running.
+     * @return the daemon serving the launch
+     */
+    public PitDaemon start(String launchName, String classpathSignature, int portNumber, BooleanSupplier alive) {
+        return new PitDaemon(launchName, classpathSignature, portNumber, alive);
+    }
+
+    /**
+     * Makes the given daemon available to the next launches once it has sent
+     * its results. The daemon is shut down if it cannot serve any other launch.
+     * 
+     * @param daemon
+     *          The daemon that has served a launch.
+     */
+    public synchronized void release(PitDaemon daemon) {
+        daemon.released();
+        if (!daemon.getServer().isConnected() || !daemon.isAlive()) {
+            daemon.shutdown();
+            return;
+        }
+        PitDaemon previous = idleDaemons.put(daemon.getLaunchName(), daemon);
+        if (previous != null && previous != daemon) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Shuts all idle daemons down.
+     */
+    public synchronized void shutdownAll() {
+        idleDaemons.values().forEach(PitDaemon::shutdown);
+        idleDaemons.clear();
+    }
+}
@@ -16,15 +16,27 @@
 
 package org.pitest.pitclipse.core.launch;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.pitest.pitclipse.core.PitCoreActivator;
 import org.pitest.pitclipse.core.extension.point.PitRuntimeOptions;
+import org.pitest.pitclipse.core.extension.point.PitShardOptions;
 import org.pitest.pitclipse.core.extension.point.ResultNotifier;
 import org.pitest.pitclipse.runner.PitRequest;
+import org.pitest.pitclipse.runner.PitResults;
 import org.pitest.pitclipse.runner.client.PitCommunicator;
 import org.pitest.pitclipse.runner.client.PitResultHandler;
+import org.pitest.pitclipse.runner.client.ShardedResultHandler;
+import org.pitest.pitclipse.runner.io.SocketCreationException;
 import org.pitest.pitclipse.runner.server.PitServer;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * <p>Launches a server that will update all contributions to the {@code results} 
@@ -32,17 +44,141 @@ import java.util.concurrent.Executors;
  * 
  * <p>This class is registered through the {@code executePit} extension point
  * and is hence called each time a new PIT application is launched.</p>
+ * 
+ * <p>When the analysis is split across several PIT applications, a server is
+ * launched for each one of them and their results are merged before being
+ * reported.</p>
+ * 
+ * <p>When the {@link ResultCache} is used, the results of the classes that did
+ * not change are reported right away, then along with the ones produced by PIT;
+ * no server is launched if no class has to be analyzed.</p>
+ * 
+ * <p>Each server runs in a {@link Job} whose monitor shows the progress of
+ * its PIT application: cancelling it, or terminating the launch
+ * (see {@link PitAnalyses}), asks the PIT applications of the launch to stop and
+ * to send the results gathered so far.</p>
+ * 
+ * <p>A server waits for a bounded time for its PIT application to connect, and
+ * stops waiting as soon as the application terminates; the job then fails.</p>
  */
 public class PitExecutionNotifier implements ResultNotifier<PitRuntimeOptions> {
-    private static final ExecutorService executorService = Executors.newCachedThreadPool();
 
     @Override
     public void handleResults(PitRuntimeOptions runtimeOptions) {
-        PitResultHandler resultHandler = new ExtensionPointResultHandler();
-        PitServer server = new PitServer(runtimeOptions.getPortNumber());
+        PitResultHandler resultHandler = resultHandlerFor(runtimeOptions);
+        boolean everyClassIsCached = runtimeOptions.getCachedAnalysis()
+                                                   .map(analysis -> analysis.getStaleClasses().isEmpty())
+                                                   .orElse(false);
+        if (everyClassIsCached) {
+            resultHandler.handle(PitResults.builder().withProjects(runtimeOptions.getMutatedProjects()).build());
+            return;
+        }
+        if (runtimeOptions.getShards().size() > 1) {
+            handleShardedResults(runtimeOptions, resultHandler);
+            return;
+        }
+        Optional<PitDaemon> daemon = runtimeOptions.getDaemon();
+        PitServer server = daemon.map(PitDaemon::getServer)
+                                 .orElseGet(() -> new PitServer(runtimeOptions.getPortNumber()));
         PitRequest request = PitRequest.builder().withPitOptions(runtimeOptions.getOptions())
                 .withProjects(runtimeOptions.getMutatedProjects()).build();
-        // TODO Check whether it can be replaced by Jobs API
-        executorService.execute(new PitCommunicator(server, request, resultHandler));
+        ProgressMonitorResultHandler monitoredHandler = new ProgressMonitorResultHandler(resultHandler);
+        PitCommunicator communicator = new PitCommunicator(server, request, monitoredHandler, daemon.isPresent());
+        new AnalysisJob(runtimeOptions.getAnalysisId(), communicator, monitoredHandler, ImmutableList.of(communicator),
+                () -> daemon.ifPresent(PitDaemons.INSTANCE::release)).start();
+    }
+
+    private static PitResultHandler resultHandlerFor(PitRuntimeOptions runtimeOptions) {
+        PitResultHandler resultHandler = new ExtensionPointResultHandler(runtimeOptions);
+        if (!runtimeOptions.getCachedAnalysis().isPresent()) {
+            return resultHandler;
+        }
+        CachingResultHandler cachingHandler = new CachingResultHandler(resultHandler,
+                runtimeOptions.getCachedAnalysis().get());
+        cachingHandler.reportCachedResults();
+        return cachingHandler;
+    }
+
+    private void handleShardedResults(PitRuntimeOptions runtimeOptions, PitResultHandler launchResultHandler) {
+        List<PitShardOptions> shards = runtimeOptions.getShards();
+        ShardedResultHandler resultHandler = new ShardedResultHandler(launchResultHandler, shards.size());
+        ImmutableList.Builder<PitCommunicator> communicators = ImmutableList.builder();
+        List<ShardedResultHandler.Shard> shardHandlers = new ArrayList<>(shards.size());
+        List<ProgressMonitorResultHandler> monitoredHandlers = new ArrayList<>(shards.size());
+        for (PitShardOptions shard : shards) {
+            PitServer server = new PitServer(shard.getPortNumber());
+            PitRequest request = PitRequest.builder().withPitOptions(shard.getOptions())
+                    .withProjects(runtimeOptions.getMutatedProjects()).build();
+            ShardedResultHandler.Shard shardHandler = resultHandler.newShard();
+            ProgressMonitorResultHandler monitoredHandler = new ProgressMonitorResultHandler(shardHandler);
+            shardHandlers.add(shardHandler);
+            monitoredHandlers.add(monitoredHandler);
+            communicators.add(new PitCommunicator(server, request, monitoredHandler));
+        }
+        List<PitCommunicator> analysisCommunicators = communicators.build();
+        List<AnalysisJob> jobs = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            // failed() does nothing if the results of the shard have been received
+            jobs.add(new AnalysisJob(runtimeOptions.getAnalysisId(), analysisCommunicators.get(i),
+                    monitoredHandlers.get(i), analysisCommunicators, shardHandlers.get(i)::failed));
+        }
+        // The analysis ends once all its applications have been registered and have ended
+        jobs.forEach(AnalysisJob::register);
+        jobs.forEach(Job::schedule);
+    }
+
+    /**
+     * Handles the connection with a PIT application. Cancelling the job cancels
+     * the whole analysis, that is every PIT application of the launch. The
+     * monitor of the job follows the progress of the PIT application.
+     */
+    private static final class AnalysisJob extends Job {
+        private final String analysisId;
+        private final PitCommunicator communicator;
+        private final ProgressMonitorResultHandler monitoredHandler;
+        private final List<PitCommunicator> analysisCommunicators;
+        private final Runnable onEnd;
+
+        AnalysisJob(String analysisId, PitCommunicator communicator, ProgressMonitorResultHandler monitoredHandler,
+                List<PitCommunicator> analysisCommunicators, Runnable onEnd) {
+            super("Running PIT analysis");
+            this.analysisId = analysisId;
+            this.communicator = communicator;
+            this.monitoredHandler = monitoredHandler;
+            this.analysisCommunicators = analysisCommunicators;
+            this.onEnd = onEnd;
+        }
+
+        void start() {
+            register();
+            schedule();
+        }
+
+        void register() {
+            PitAnalyses.INSTANCE.started(analysisId, communicator);
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor) {
+            try {
+                monitoredHandler.follow(monitor);
+                communicator.run();
+            } catch (SocketCreationException e) {
+                if (communicator.isCancelled()) {
+                    return Status.CANCEL_STATUS;
+                }
+                return new Status(IStatus.ERROR, PitCoreActivator.PLUGIN_ID,
+                        "The PIT application did not connect to Eclipse", e);
+            } finally {
+                PitAnalyses.INSTANCE.ended(analysisId, communicator);
+                onEnd.run();
+            }
+            return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+        }
+
+        @Override
+        protected void canceling() {
+            analysisCommunicators.forEach(PitCommunicator::cancel);
+        }
     }
 }
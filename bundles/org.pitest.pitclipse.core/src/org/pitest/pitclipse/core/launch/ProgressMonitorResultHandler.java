@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitProgress;
+import org.pitest.pitclipse.runner.PitProgress.Phase;
+import org.pitest.pitclipse.runner.PitResults;
+import org.pitest.pitclipse.runner.client.PitResultHandler;
+
+/**
+ * <p>Reports the progress of a PIT application to the monitor of the job
+ * connected to it, then passes everything it receives to another handler.</p>
+ * 
+ * <p>The computation of the coverage and the generation of the mutants take
+ * a fixed share of the work; the rest is split in one unit per mutant to
+ * analyze. The sub-task shows the counts of mutants, the throughput and the
+ * estimated time left.</p>
+ * 
+ * <p>The progress is received by the thread running the job, which is the
+ * only one using the monitor.</p>
+ */
+final class ProgressMonitorResultHandler implements PitResultHandler {
+    private static final String TASK_NAME = "Running PIT analysis";
+    private static final int COVERAGE_WORK = 10;
+    private static final int GENERATION_WORK = 10;
+    private static final int ANALYSIS_WORK = 80;
+
+    private final PitResultHandler handler;
+    private SubMonitor monitor = SubMonitor.convert(null);
+    private SubMonitor analysisMonitor;
+    private Phase phase = Phase.COVERAGE;
+    private long mutantsDone = 0;
+
+    /**
+     * @param handler
+     *          The handler to pass the results and the progress to.
+     */
+    ProgressMonitorResultHandler(PitResultHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Starts reporting the progress to the given monitor.
+     * 
+     * @param jobMonitor
+     *          The monitor of the job connected to the PIT application.
+     */
+    void follow(IProgressMonitor jobMonitor) {
+        monitor = SubMonitor.convert(jobMonitor, TASK_NAME, COVERAGE_WORK + GENERATION_WORK + ANALYSIS_WORK);
+    }
+
+    @Override
+    public void handleClassResults(PitClassResults results) {
+        handler.handleClassResults(results);
+    }
+
+    @Override
+    public void handleProgress(PitProgress progress) {
+        report(progress);
+        handler.handleProgress(progress);
+    }
+
+    @Override
+    public void handle(PitResults results) {
+        monitor.done();
+        handler.handle(results);
+    }
+
+    private void report(PitProgress progress) {
+        if (phase == Phase.COVERAGE && progress.getPhase() != Phase.COVERAGE) {
+            monitor.worked(COVERAGE_WORK);
+        }
+        if (progress.getPhase() == Phase.ANALYSIS) {
+            if (analysisMonitor == null) {
+                // the mutants may have been generated between two events
+                monitor.setWorkRemaining(ANALYSIS_WORK);
+                analysisMonitor = monitor.newChild(ANALYSIS_WORK)
+                                         .setWorkRemaining((int) Math.min(Integer.MAX_VALUE, progress.getMutantsTotal()));
+            }
+            analysisMonitor.worked((int) (progress.getMutantsDone() - mutantsDone));
+            mutantsDone = progress.getMutantsDone();
+        }
+        phase = progress.getPhase();
+        monitor.subTask(describe(progress));
+    }
+
+    private static String describe(PitProgress progress) {
+        if (progress.getPhase() != Phase.ANALYSIS) {
+            return progress.getPhase().getDescription();
+        }
+        StringBuilder description = new StringBuilder(progress.getPhase().getDescription())
+                .append(": ").append(progress.getMutantsDone()).append('/').append(progress.getMutantsTotal())
+                .append(" (").append(progress.getKilled()).append(" killed, ")
+                .append(progress.getSurvived()).append(" survived), ")
+                .append(String.format("%.1f", progress.getMutantsPerSecond())).append(" mutants/s");
+        long secondsLeft = progress.getEstimatedSecondsLeft();
+        if (secondsLeft >= 0) {
+            description.append(", about ").append(formatDuration(secondsLeft)).append(" left");
+        }
+        return description.toString();
+    }
+
+    private static String formatDuration(long seconds) {
+        if (seconds < 60) {
+            return seconds + " s";
+        }
+        if (seconds < 3600) {
+            return seconds / 60 + " min " + seconds % 60 + " s";
+        }
+        return seconds / 3600 + " h " + seconds / 60 % 60 + " min";
+    }
+}
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.pitest.pitclipse.core.PitCoreActivator;
+import org.pitest.pitclipse.core.launch.ClassFiles.ClassFile;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitOptions;
+import org.pitest.pitclipse.runner.results.DetectionStatus;
+import org.pitest.pitclipse.runner.results.Mutations;
+import org.pitest.util.Glob;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * <p>Remembers the results of the classes analyzed by PIT, so that the classes that
+ * did not change since their last analysis are not analyzed again.</p>
+ * 
+ * <p>The results of a class are reused as long as the bytecode of the class, the
+ * bytecode of the tests that covered it, the tests of the analysis and the settings
+ * of the analysis (mutators, excluded methods, timeouts...) are the same. The tests
+ * of the analysis are the ones it targets along with the classes of the project
+ * they match, so that adding or removing a test invalidates the results. The results
+ * of a class having mutants that no test covers are also invalidated when the bytecode
+ * of any test of the analysis changes, since a new test method may cover them.</p>
+ * 
+ * <p>Results are stored per project, in the state location of the plug-in, so that
+ * they survive restarts of Eclipse.</p>
+ */
+public enum ResultCache {
+
+    INSTANCE;
+
+    private static final String CACHE_DIR = "result-cache";
+    private static final String STORE_FILE_EXTENSION = ".bin";
+    private static final String SOURCE_TYPES = "resultCacheSourceTypes";
+
+    /**
+     * Project name -> results of the classes of the project.
+     */
+    private final Map<String, ResultStore> stores = new ConcurrentHashMap<>();
+
+    /**
+     * Looks for the classes to mutate whose results can be reused.
+     * 
+     * @param project
+     *          The launched project.
+     * @param options
+     *          The options of the analysis.
+     * @return the classes that must be analyzed and the results of the other ones
+     * @throws CoreException
+     *          if the tests of the analysis cannot be listed
+     */
+    public CachedAnalysis prepare(IJavaProject project, PitOptions options) throws CoreException {
+        ClassFiles classFiles = new ClassFiles(project);
+        List<String> testClasses = testClassesOf(project, options);
+        String settings = settingsOf(options, testClasses);
+        TestSet testSet = new TestSet(testClasses, classFiles);
+        Collection<Predicate<String>> excludedClasses = Glob.toGlobPredicates(options.getExcludedClasses());
+        ImmutableList.Builder<String> staleClasses = ImmutableList.builder();
+        ImmutableList.Builder<PitClassResults> freshResults = ImmutableList.builder();
+        ImmutableMap.Builder<String, ClassFile> staleClassFiles = ImmutableMap.builder();
+        for (String mutatedClass : options.getClassesToMutate()) {
+            Optional<ClassFile> classFile = isExcluded(mutatedClass, excludedClasses) ? Optional.empty()
+                                                                                       : classFiles.of(mutatedClass);
+            if (!classFile.isPresent()) {
+                staleClasses.add(mutatedClass);
+                continue;
+            }
+            Optional<ResultStore.Entry> entry = storeOf(classFile.get().getProject()).get(mutatedClass, settings);
+            if (entry.isPresent() && isFresh(entry.get(), classFile.get(), classFiles, testSet)) {
+                freshResults.add(resultsOf(mutatedClass, entry.get()));
+            } else {
+                staleClasses.add(mutatedClass);
+                staleClassFiles.put(mutatedClass, classFile.get());
+            }
+        }
+        return new CachedAnalysis(this, classFiles, testSet, settings, staleClasses.build(), freshResults.build(),
+                staleClassFiles.build());
+    }
+
+    private static PitClassResults resultsOf(String mutatedClass, ResultStore.Entry entry) {
+        Mutations mutations = new Mutations();
+        mutations.getMutation().addAll(entry.getMutations());
+        return PitClassResults.from(mutatedClass, mutations, ImmutableList.copyOf(entry.getTestHashes().keySet()));
+    }
+
+    ResultStore storeOf(String project) {
+        return stores.computeIfAbsent(project, name -> new ResultStore(storeFileOf(name)));
+    }
+
+    private static File storeFileOf(String project) {
+        return PitCoreActivator.getDefault().getStateLocation().append(CACHE_DIR)
+                .append(project + STORE_FILE_EXTENSION).toFile();
+    }
+
+    private static boolean isExcluded(String mutatedClass, Collection<Predicate<String>> excludedClasses) {
+        return excludedClasses.stream().anyMatch(excluded -> excluded.test(mutatedClass));
+    }
+
+    private static boolean isFresh(ResultStore.Entry entry, ClassFile classFile, ClassFiles classFiles,
+            TestSet testSet) {
+        if (!entry.getClassHash().equals(classFile.getHash())) {
+            return false;
+        }
+        if (!entry.getTestSetHash().isEmpty() && !entry.getTestSetHash().equals(testSet.hash())) {
+            return false;
+        }
+        for (Map.Entry<String, String> test : entry.getTestHashes().entrySet()) {
+            Optional<String> testHash = classFiles.of(test.getKey()).map(ClassFile::getHash);
+            if (!testHash.equals(Optional.of(test.getValue()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the classes declared in the source folders of the project that are
+     * matched by the tests targeted by the analysis.
+     */
+    private static List<String> testClassesOf(IJavaProject project, PitOptions options) throws CoreException {
+        Collection<Predicate<String>> targetTests = Glob.toGlobPredicates(targetTestsOf(options));
+        List<String> testClasses = new ArrayList<>();
+        for (String className : LaunchPlanCache.INSTANCE.get(project, SOURCE_TYPES, ResultCache::sourceTypesOf)) {
+            if (targetTests.stream().anyMatch(test -> test.test(className))) {
+                testClasses.add(className);
+            }
+        }
+        return testClasses;
+    }
+
+    /**
+     * Returns the binary names of the types declared in the source folders of the project, sorted.
+     */
+    private static List<String> sourceTypesOf(IJavaProject project) throws JavaModelException {
+        List<String> sourceTypes = new ArrayList<>();
+        for (IPackageFragmentRoot root : project.getPackageFragmentRoots()) {
+            if (root.getKind() != IPackageFragmentRoot.K_SOURCE) {
+                continue;
+            }
+            for (IJavaElement fragment : root.getChildren()) {
+                for (ICompilationUnit unit : ((IPackageFragment) fragment).getCompilationUnits()) {
+                    sourceTypes.addAll(LaunchPlanCache.INSTANCE.typesOf(unit));
+                }
+            }
+        }
+        Collections.sort(sourceTypes);
+        return ImmutableList.copyOf(sourceTypes);
+    }
+
+    /**
+     * Returns whether some of the given mutants are not covered by any test.
+     */
+    static boolean hasUncoveredMutants(List<Mutations.Mutation> mutations) {
+        return mutations.stream().anyMatch(mutation -> mutation.getStatus() == DetectionStatus.NO_COVERAGE);
+    }
+
+    private static List<String> targetTestsOf(PitOptions options) {
+        if (options.getPackages().isEmpty()) {
+            return ImmutableList.of(options.getClassUnderTest());
+        }
+        return options.getPackages();
+    }
+
+    /**
+     * Returns a hash of the options and of the tests that change the results of a class.
+     */
+    private static String settingsOf(PitOptions options, List<String> testClasses) {
+        String settings = String.join("\n",
+                String.join(",", targetTestsOf(options)),
+                String.join(",", testClasses),
+                String.valueOf(options.getMutators()),
+                String.join(",", options.getExcludedMethods()),
+                String.join(",", options.getAvoidCallsTo()),
+                String.valueOf(options.getTimeout()),
+                String.valueOf(options.getTimeoutFactor()),
+                String.valueOf(options.getUseJUnit5()));
+        return ClassFiles.hashOf(settings.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The tests of an analysis. The hash of their bytecode is only computed when needed,
+     * that is when some results depend on it.
+     */
+    static final class TestSet {
+        private final List<String> testClasses;
+        private final ClassFiles classFiles;
+        private String hash;
+
+        TestSet(List<String> testClasses, ClassFiles classFiles) {
+            this.testClasses = testClasses;
+            this.classFiles = classFiles;
+        }
+
+        /**
+         * @return a hash of the names and of the bytecode of the tests
+         */
+        synchronized String hash() {
+            if (hash == null) {
+                StringBuilder tests = new StringBuilder();
+                for (String testClass : testClasses) {
+                    tests.append(testClass).append('=')
+                         .append(classFiles.of(testClass).map(ClassFile::getHash).orElse("")).append('\n');
+                }
+                hash = ClassFiles.hashOf(tests.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import org.pitest.pitclipse.core.PitCoreActivator;
+import org.pitest.pitclipse.runner.results.DetectionStatus;
+import org.pitest.pitclipse.runner.results.Mutations.Mutation;
+import org.pitest.pitclipse.runner.results.ObjectFactory;
+import org.pitest.pitclipse.runner.util.PitFileUtils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * <p>Stores the results of the classes of a single project in an append-only file.</p>
+ * 
+ * <p>Each entry is appended as a record made of its length, its content and a
+ * checksum, so that a record partially written when Eclipse crashed is detected
+ * and ignored. An entry supersedes the ones previously recorded for the same class
+ * and settings.</p>
+ * 
+ * <p>The file is compacted once superseded or damaged records make up most of it,
+ * or once it holds the entries of more than {@value #MAX_SETTINGS} settings: the
+ * latest entries of the most recently used settings are written to a new file, which
+ * then atomically replaces the previous one. The entries of the other settings, that
+ * is of analyses that have not been launched for a while, are dropped.</p>
+ * 
+ * <p>This class is not meant to be used outside of Pitclipse; it is only public so that
+ * it can be tested.</p>
+ */
+public final class ResultStore {
+    /**
+     * The number of settings whose entries are kept by compaction.
+     */
+    public static final int MAX_SETTINGS = 4;
+
+    private static final int MAGIC = 0x50495443;
+    private static final int VERSION = 2;
+    private static final int MINIMUM_RECORDS_BEFORE_COMPACTION = 64;
+    private static final String COMPACTED_FILE_SUFFIX = ".compacted";
+    private static final DetectionStatus[] STATUSES = DetectionStatus.values();
+    private static final ObjectFactory OBJECT_FACTORY = new ObjectFactory();
+
+    private final File file;
+
+    /**
+     * Settings -> mutated class -> entry, from the least to the most recently used settings.
+     */
+    private Map<String, Map<String, Entry>> entriesBySettings;
+    private int entryCount;
+    private int records;
+    private boolean damaged;
+
+    /**
+     * Creates a store backed by the given file, which is read on first use.
+     * 
+     * @param file
+     *          The file holding the entries; it is created if needed.
+     */
+    public ResultStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the entry recorded for the given class and settings, if any.
+     * 
+     * @param mutatedClass
+     *          The name of the mutated class.
+     * @param settings
+     *          The hash of the settings of the analysis.
+     * @return the latest entry recorded for the class and the settings, if any
+     */
+    public synchronized Optional<Entry> get(String mutatedClass, String settings) {
+        Map<String, Entry> entries = entries().get(settings);
+        return entries == null ? Optional.empty() : Optional.ofNullable(entries.get(mutatedClass));
+    }
+
+    /**
+     * Records an entry, superseding the one recorded for the same class and settings.
+     * 
+     * @param entry
+     *          The entry to record.
+     */
+    public synchronized void put(Entry entry) {
+        if (add(entry)) {
+            entryCount++;
+        }
+        records++;
+        try {
+            if (damaged || entriesBySettings.size() > MAX_SETTINGS
+                    || (records >= MINIMUM_RECORDS_BEFORE_COMPACTION && records > 2 * entryCount)) {
+                compact();
+            } else {
+                append(entry);
+            }
+        } catch (IOException e) {
+            PitCoreActivator.warn("Unable to store PIT results in " + file, e);
+        }
+    }
+
+    /**
+     * Returns the number of entries currently held, superseded ones excluded.
+     * 
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        entries();
+        return entryCount;
+    }
+
+    private Map<String, Map<String, Entry>> entries() {
+        if (entriesBySettings == null) {
+            // Access order: the settings of the latest analyses come last
+            entriesBySettings = new LinkedHashMap<>(16, 0.75f, true);
+            load();
+        }
+        return entriesBySettings;
+    }
+
+    /**
+     * Adds an entry to the ones in memory.
+     * 
+     * @return whether the entry does not supersede another one
+     */
+    private boolean add(Entry entry) {
+        return entries().computeIfAbsent(entry.settings, settings -> new HashMap<>())
+                        .put(entry.mutatedClass, entry) == null;
+    }
+
+    private void load() {
+        if (!file.isFile()) {
+            return;
+        }
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(file.toPath()))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                damaged = true;
+                return;
+            }
+            Optional<byte[]> record;
+            while ((record = readRecord(input)).isPresent()) {
+                if (add(decode(record.get()))) {
+                    entryCount++;
+                }
+                records++;
+            }
+        } catch (IOException e) {
+            // the file ends with a damaged record: the entries read so far are kept
+            damaged = true;
+        }
+    }
+
+    private Optional<byte[]> readRecord(DataInputStream input) throws IOException {
+        int length;
+        try {
+            length = input.readInt();
+        } catch (EOFException endOfFile) {
+            return Optional.empty();
+        }
+        if (length < 0) {
+            throw new IOException("Invalid record length: " + length);
+        }
+        byte[] record = new byte[length];
+        input.readFully(record);
+        if (input.readLong() != checksumOf(record)) {
+            throw new IOException("Invalid record checksum");
+        }
+        return Optional.of(record);
+    }
+
+    private void append(Entry entry) throws IOException {
+        boolean newFile = !file.isFile() || file.length() == 0;
+        if (newFile) {
+            Files.createDirectories(file.toPath().getParent());
+        }
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (newFile) {
+                writeHeader(output);
+            }
+            writeRecord(output, encode(entry));
+        }
+    }
+
+    private void compact() throws IOException {
+        dropLeastRecentlyUsedSettings();
+        Path compactedFile = new File(file.getPath() + COMPACTED_FILE_SUFFIX).toPath();
+        Files.createDirectories(compactedFile.getParent());
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(compactedFile))) {
+            writeHeader(output);
+            // Written from the least to the most recently used settings, so that the order is kept once loaded
+            for (Map<String, Entry> entries : entriesBySettings.values()) {
+                for (Entry entry : entries.values()) {
+                    writeRecord(output, encode(entry));
+                }
+            }
+        }
+        PitFileUtils.moveAtomically(compactedFile.toFile(), file);
+        records = entryCount;
+        damaged = false;
+    }
+
+    private void dropLeastRecentlyUsedSettings() {
+        Iterator<Map<String, Entry>> settings = entriesBySettings.values().iterator();
+        for (int extraSettings = entriesBySettings.size() - MAX_SETTINGS; extraSettings > 0; extraSettings--) {
+            entryCount -= settings.next().size();
+            settings.remove();
+        }
+    }
+
+    private static void writeHeader(DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+    }
+
+    private static void writeRecord(DataOutputStream output, byte[] record) throws IOException {
+        output.writeInt(record.length);
+        output.write(record);
+        output.writeLong(checksumOf(record));
+    }
+
+    private static long checksumOf(byte[] record) {
+        CRC32 checksum = new CRC32();
+        checksum.update(record);
+        return checksum.getValue();
+    }
+
+    private static byte[] encode(Entry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeUTF(entry.mutatedClass);
+            output.writeUTF(entry.settings);
+            output.writeUTF(entry.classHash);
+            output.writeUTF(entry.testSetHash);
+            output.writeInt(entry.testHashes.size());
+            for (Map.Entry<String, String> test : entry.testHashes.entrySet()) {
+                output.writeUTF(test.getKey());
+                output.writeUTF(test.getValue());
+            }
+            output.writeInt(entry.mutations.size());
+            for (Mutation mutation : entry.mutations) {
+                writeMutation(output, mutation);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeMutation(DataOutputStream output, Mutation mutation) throws IOException {
+        writeString(output, mutation.getMutatedClass());
+        writeString(output, mutation.getMutatedMethod());
+        writeString(output, mutation.getSourceFile());
+        writeString(output, mutation.getMutator());
+        writeString(output, mutation.getKillingTest());
+        writeString(output, mutation.getDescription());
+        writeNumber(output, mutation.getLineNumber());
+        writeNumber(output, mutation.getIndex());
+        DetectionStatus status = mutation.getStatus();
+        output.writeByte(status == null ? 0 : status.ordinal() + 1);
+        Boolean detected = mutation.isDetected();
+        output.writeByte(detected == null ? 0 : (detected ? 2 : 1));
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static void writeNumber(DataOutputStream output, BigInteger number) throws IOException {
+        output.writeLong(number == null ? -1 : number.longValueExact());
+    }
+
+    private static Entry decode(byte[] record) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(record))) {
+            String mutatedClass = input.readUTF();
+            String settings = input.readUTF();
+            String classHash = input.readUTF();
+            String testSetHash = input.readUTF();
+            int testCount = input.readInt();
+            ImmutableMap.Builder<String, String> testHashes = ImmutableMap.builder();
+            for (int i = 0; i < testCount; i++) {
+                testHashes.put(input.readUTF(), input.readUTF());
+            }
+            int mutationCount = input.readInt();
+            ImmutableList.Builder<Mutation> mutations = ImmutableList.builder();
+            for (int i = 0; i < mutationCount; i++) {
+                mutations.add(readMutation(input));
+            }
+            return new Entry(mutatedClass, settings, classHash, testSetHash, testHashes.build(), mutations.build());
+        }
+    }
+
+    private static Mutation readMutation(DataInputStream input) throws IOException {
+        Mutation mutation = OBJECT_FACTORY.createMutationsMutation();
+        mutation.setMutatedClass(readString(input));
+        mutation.setMutatedMethod(readString(input));
+        mutation.setSourceFile(readString(input));
+        mutation.setMutator(readString(input));
+        mutation.setKillingTest(readString(input));
+        mutation.setDescription(readString(input));
+        mutation.setLineNumber(readNumber(input));
+        mutation.setIndex(readNumber(input));
+        int status = input.readUnsignedByte();
+        mutation.setStatus(status == 0 ? null : STATUSES[status - 1]);
+        int detected = input.readUnsignedByte();
+        mutation.setDetected(detected == 0 ? null : detected == 2);
+        return mutation;
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    private static BigInteger readNumber(DataInputStream input) throws IOException {
+        long number = input.readLong();
+        return number < 0 ? null : BigInteger.valueOf(number);
+    }
+
+    /**
+     * The results of a class, along with what they depend on: the bytecode of
+     * the class, the bytecode of the tests covering it and the analysis settings.
+     * The results of a class having mutants that no test covers also depend on
+     * the bytecode of all the tests of the analysis, since any of them may start
+     * covering these mutants.
+     */
+    public static final class Entry {
+        private final String mutatedClass;
+        private final String settings;
+        private final String classHash;
+        private final String testSetHash;
+        private final ImmutableMap<String, String> testHashes;
+        private final ImmutableList<Mutation> mutations;
+
+        /**
+         * Creates a new entry.
+         * 
+         * @param mutatedClass
+         *          The name of the mutated class.
+         * @param settings
+         *          The hash of the settings of the analysis.
+         * @param classHash
+         *          The hash of the bytecode of the mutated class.
+         * @param testSetHash
+         *          The hash of the bytecode of all the tests of the analysis, or an empty
+         *          string if the results do not depend on it.
+         * @param testHashes
+         *          The hash of the bytecode of each test covering the class.
+         * @param mutations
+         *          The results of the class.
+         */
+        public Entry(String mutatedClass, String settings, String classHash, String testSetHash, // NOSONAR a plain record
+                Map<String, String> testHashes, List<Mutation> mutations) {
+            this.mutatedClass = mutatedClass;
+            this.settings = settings;
+            this.classHash = classHash;
+            this.testSetHash = testSetHash;
+            this.testHashes = ImmutableMap.copyOf(testHashes);
+            this.mutations = ImmutableList.copyOf(mutations);
+        }
+
+        public String getClassHash() {
+            return classHash;
+        }
+
+        /**
+         * @return the hash of the bytecode of all the tests of the analysis, or an
+         *          empty string if the results do not depend on it
+         */
+        public String getTestSetHash() {
+            return testSetHash;
+        }
+
+        public Map<String, String> getTestHashes() {
+            return testHashes;
+        }
+
+        public List<Mutation> getMutations() {
+            return mutations;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.pitest.mutationtest.engine.gregor.MethodMutatorFactory;
+import org.pitest.mutationtest.engine.gregor.config.Mutator;
+import org.pitest.pitclipse.runner.model.Mutation;
+import org.pitest.pitclipse.runner.results.DetectionStatus;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.SortedSetMultimap;
+import com.google.common.collect.TreeMultimap;
+
+/**
+ * <p>Describes a launch that re-runs the surviving mutants of a previous analysis.</p>
+ * 
+ * <p>Such a launch is restricted to the classes and the lines of the surviving
+ * mutants, with the mutators that produced them. Its results are merged into
+ * the mutations model of the previous analysis, held by {@link MergedModels}.</p>
+ * 
+ * <p>The attributes set on the launch configuration are read back when the
+ * launch is prepared.</p>
+ */
+public final class SurvivorsRerun {
+
+    /** The classes to mutate, separated by commas. */
+    public static final String ATTR_CLASSES_TO_MUTATE = "org.pitest.pitclipse.core.test.rerun.classes";
+
+    /** The lines to mutate, as a map from top-level classes to lines separated by commas. */
+    public static final String ATTR_INCLUDED_LINES = "org.pitest.pitclipse.core.test.rerun.lines";
+
+    /** The identifier given by {@link MergedModels} to the model the results must be merged into. */
+    public static final String ATTR_MERGED_MODEL = "org.pitest.pitclipse.core.test.rerun.model";
+
+    private final ImmutableList<Mutation> survivors;
+
+    private SurvivorsRerun(ImmutableList<Mutation> survivors) {
+        this.survivors = survivors;
+    }
+
+    /**
+     * Creates a re-run of the surviving mutants among the given ones.
+     * 
+     * @param mutations
+     *          Mutations of a previous analysis, whatever their status.
+     * @return a re-run of the surviving mutants
+     */
+    public static SurvivorsRerun of(Collection<Mutation> mutations) {
+        return new SurvivorsRerun(ImmutableList.copyOf(mutations.stream()
+                .filter(mutation -> mutation.getStatus() == DetectionStatus.SURVIVED)
+                .filter(mutation -> mutation.getClassMutations() != null)
+                .collect(Collectors.toList())));
+    }
+
+    /**
+     * @return whether there is no surviving mutant to re-run
+     */
+    public boolean isEmpty() {
+        return survivors.isEmpty();
+    }
+
+    /**
+     * @return the binary names of the classes to mutate, separated by commas
+     */
+    public String getClassesToMutate() {
+        SortedSet<String> classes = new TreeSet<>();
+        for (Mutation mutation : survivors) {
+            classes.add(mutation.getClassMutations().getClassName());
+        }
+        return String.join(",", classes);
+    }
+
+    /**
+     * @return the lines to mutate, separated by commas, by top-level class
+     */
+    public Map<String, String> getIncludedLines() {
+        SortedSetMultimap<String, Integer> lines = TreeMultimap.create();
+        for (Mutation mutation : survivors) {
+            lines.put(topLevelClassOf(mutation.getClassMutations().getClassName()), mutation.getLineNumber());
+        }
+        ImmutableMap.Builder<String, String> includedLines = ImmutableMap.builder();
+        for (Map.Entry<String, Collection<Integer>> entry : lines.asMap().entrySet()) {
+            includedLines.put(entry.getKey(),
+                    entry.getValue().stream().map(String::valueOf).collect(Collectors.joining(",")));
+        }
+        return includedLines.build();
+    }
+
+    /**
+     * Returns the names of the mutators that produced the surviving mutants, as
+     * expected by PIT. Nothing is returned if one of the mutators is unknown, in
+     * which case the mutators of the previous analysis must be used.
+     * 
+     * @return the names of the mutators, separated by commas, if all are known
+     */
+    public Optional<String> getMutators() {
+        Map<String, String> mutatorNames = MutatorNames.BY_ID;
+        Set<String> names = new TreeSet<>();
+        for (Mutation mutation : survivors) {
+            String name = mutatorNames.get(mutation.getMutator());
+            if (name == null) {
+                return Optional.empty();
+            }
+            names.add(name);
+        }
+        return Optional.of(String.join(",", names));
+    }
+
+    private static String topLevelClassOf(String className) {
+        int nestedTypeSeparator = className.indexOf('$');
+        return nestedTypeSeparator < 0 ? className : className.substring(0, nestedTypeSeparator);
+    }
+
+    /**
+     * The names given to PIT to select a single mutator, by the identifier that
+     * this mutator records in the mutations it produces.
+     */
+    private static final class MutatorNames {
+        private static final Map<String, String> BY_ID = byId();
+
+        private static Map<String, String> byId() {
+            Map<String, String> names = new HashMap<>();
+            for (String name : Mutator.allMutatorIds()) {
+                Collection<MethodMutatorFactory> factories = Mutator.byName(name);
+                if (factories.size() == 1) {
+                    names.putIfAbsent(factories.iterator().next().getGloballyUniqueId(), name);
+                }
+            }
+            return ImmutableMap.copyOf(names);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.launch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.pitest.pitclipse.core.PitCoreActivator;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.results.Mutations;
+import org.pitest.pitclipse.runner.results.Mutations.Mutation;
+import org.pitest.pitclipse.runner.util.PitFileUtils;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * <p>Remembers which tests cover each class according to the latest analyses:
+ * the test classes PIT ran against its mutants, and the tests that killed them.</p>
+ * 
+ * <p>This map is used to focus the launch of a single test class on the
+ * classes it actually exercises, including the classes it only reaches through
+ * other classes. It is kept in the state location of the plug-in, so that it
+ * survives a restart of Eclipse; a map that cannot be read is dropped.</p>
+ * 
+ * <p>JUnit 4 tests are named after their class, whereas JUnit 5 tests are named
+ * after their unique identifier, such as
+ * {@code [engine:junit-jupiter]/[class:com.example.FooTest]/[method:foo()]}: the
+ * class of these tests is read from their {@code class} and {@code nested-class}
+ * segments.</p>
+ */
+public enum TestCoverage {
+    INSTANCE;
+
+    private static final Pattern JUNIT5_CLASS_SEGMENT = Pattern.compile("\\[(class|nested-class):([^\\]]+)\\]");
+    private static final String COVERAGE_FILE = "test-coverage.properties";
+    private static final String TEST_SEPARATOR = "\n";
+
+    private Map<String, Set<String>> testsByClass;
+
+    /**
+     * Replaces the tests known to cover a class by the ones that covered it during
+     * the analysis that just produced its results.
+     * 
+     * @param results
+     *          The results of a class, as soon as it has been analyzed.
+     */
+    public void record(PitClassResults results) {
+        Set<String> tests = new HashSet<>(results.getCoveringTests());
+        for (Mutation mutation : results.getMutations().getMutation()) {
+            if (mutation.getKillingTest() != null) {
+                tests.add(mutation.getKillingTest());
+            }
+        }
+        synchronized (this) {
+            testsByClass().put(results.getMutatedClass(), tests);
+        }
+    }
+
+    /**
+     * Adds the tests that killed the mutants produced by an analysis to the tests
+     * known to cover the mutated classes, then saves the map.
+     * 
+     * @param mutations
+     *          The mutations produced by an analysis.
+     */
+    public void record(Mutations mutations) {
+        synchronized (this) {
+            for (Mutation mutation : mutations.getMutation()) {
+                Set<String> tests = testsByClass().computeIfAbsent(mutation.getMutatedClass(), c -> new HashSet<>());
+                if (mutation.getKillingTest() != null) {
+                    tests.add(mutation.getKillingTest());
+                }
+            }
+            save();
+        }
+    }
+
+    /**
+     * Returns the classes covered by the given test class.
+     * 
+     * @param testClass
+     *          The fully qualified name of a test class.
+     * @return the classes covered by the test according to the latest analyses,
+     *         or an empty set if no analysis ran the test yet
+     */
+    public synchronized Set<String> classesCoveredBy(String testClass) {
+        ImmutableSet.Builder<String> classes = ImmutableSet.builder();
+        for (Map.Entry<String, Set<String>> entry : testsByClass().entrySet()) {
+            for (String test : entry.getValue()) {
+                if (isTestOf(test, testClass)) {
+                    classes.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return classes.build();
+    }
+
+    private static boolean isTestOf(String test, String testClass) {
+        Optional<String> junit5Class = junit5ClassOf(test);
+        if (junit5Class.isPresent()) {
+            return junit5Class.get().equals(testClass) || junit5Class.get().startsWith(testClass + "$");
+        }
+        return test.equals(testClass) || test.startsWith(testClass + ".") || test.startsWith(testClass + "$");
+    }
+
+    private static Optional<String> junit5ClassOf(String test) {
+        Matcher segment = JUNIT5_CLASS_SEGMENT.matcher(test);
+        StringBuilder className = null;
+        while (segment.find()) {
+            if ("class".equals(segment.group(1))) {
+                className = new StringBuilder(segment.group(2));
+            } else if (className != null) {
+                className.append('$').append(segment.group(2));
+            }
+        }
+        return Optional.ofNullable(className).map(StringBuilder::toString);
+    }
+
+    private Map<String, Set<String>> testsByClass() {
+        if (testsByClass == null) {
+            testsByClass = load();
+        }
+        return testsByClass;
+    }
+
+    private static Map<String, Set<String>> load() {
+        Map<String, Set<String>> tests = new HashMap<>();
+        File file = coverageFile();
+        if (!file.isFile()) {
+            return tests;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            properties.load(input);
+            for (String coveredClass : properties.stringPropertyNames()) {
+                String coveringTests = properties.getProperty(coveredClass);
+                tests.put(coveredClass, coveringTests.isEmpty() ? new HashSet<>()
+                        : new HashSet<>(Arrays.asList(coveringTests.split(TEST_SEPARATOR))));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            PitCoreActivator.warn("Dropping unreadable test coverage " + file, e);
+            tests.clear();
+        }
+        return tests;
+    }
+
+    private void save() {
+        Properties properties = new Properties();
+        testsByClass.forEach((coveredClass, tests) ->
+                properties.setProperty(coveredClass, String.join(TEST_SEPARATOR, tests)));
+        File file = coverageFile();
+        File pendingFile = new File(file.getPath() + ".pending");
+        try {
+            try (OutputStream output = Files.newOutputStream(pendingFile.toPath())) {
+                properties.store(output, null);
+            }
+            PitFileUtils.moveAtomically(pendingFile, file);
+        } catch (IOException e) {
+            PitCoreActivator.warn("Could not save test coverage to " + file, e);
+        }
+    }
+
+    private static File coverageFile() {
+        return PitCoreActivator.getDefault().getStateLocation().append(COVERAGE_FILE).toFile();
+    }
+}
@@ -47,6 +47,21 @@ public final class PitPreferences {
     public static final String TIMEOUT_FACTOR = "pitTimeoutFactor";
 
 
+    public static final String RUNNER_DAEMON_LABEL = "&Keep the PIT runner alive between launches";
+    public static final String RUNNER_DAEMON = "pitRunnerDaemon";
+
+    public static final String RUNNER_SHARDS_LABEL = "Number of PIT &processes per launch";
+    public static final String RUNNER_SHARDS = "pitRunnerShards";
+
+    public static final String FOCUSED_TEST_LAUNCH_LABEL = "Mutate only the classes &covered by a launched test";
+    public static final String FOCUSED_TEST_LAUNCH = "pitFocusedTestLaunch";
+
+    public static final String RESULT_CACHE_LABEL = "&Reuse the results of the classes unchanged since the last analysis";
+    public static final String RESULT_CACHE = "pitResultCache";
+
+    public static final String HISTORY_SIZE_LIMIT_LABEL = "Maximum size of the incremental analysis &history (MB)";
+    public static final String HISTORY_SIZE_LIMIT = "pitHistorySizeLimit";
+
     public static final String EXECUTION_MODE_LABEL = "Pit execution scope";
     public static final String EXECUTION_MODE = "pitExecutionMode";
 
@@ -19,13 +19,19 @@ package org.pitest.pitclipse.core.preferences;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.AVOID_CALLS_TO;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.EXCLUDED_CLASSES;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.EXECUTION_MODE;
+import static org.pitest.pitclipse.core.preferences.PitPreferences.FOCUSED_TEST_LAUNCH;
+import static org.pitest.pitclipse.core.preferences.PitPreferences.HISTORY_SIZE_LIMIT;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.INCREMENTAL_ANALYSIS;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.MUTATOR_GROUP;
+import static org.pitest.pitclipse.core.preferences.PitPreferences.RESULT_CACHE;
+import static org.pitest.pitclipse.core.preferences.PitPreferences.RUNNER_DAEMON;
+import static org.pitest.pitclipse.core.preferences.PitPreferences.RUNNER_SHARDS;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.RUN_IN_PARALLEL;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.TIMEOUT;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.TIMEOUT_FACTOR;
 import static org.pitest.pitclipse.runner.config.PitConfiguration.DEFAULT_AVOID_CALLS_TO_LIST;
 import static org.pitest.pitclipse.runner.config.PitConfiguration.DEFAULT_MUTATORS;
+import static org.pitest.pitclipse.runner.config.PitConfiguration.DEFAULT_RUNNER_SHARDS;
 import static org.pitest.pitclipse.runner.config.PitConfiguration.DEFAULT_TIMEOUT;
 import static org.pitest.pitclipse.runner.config.PitConfiguration.DEFAULT_TIMEOUT_FACTOR;
 
@@ -39,6 +45,8 @@ import org.pitest.pitclipse.runner.config.PitConfiguration;
  */
 public class PreferenceInitializer extends AbstractPreferenceInitializer {
 
+    private static final int DEFAULT_HISTORY_SIZE_LIMIT = 64;
+
     /*
      * (non-Javadoc)
      *
@@ -56,6 +64,11 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
         store.setDefault(TIMEOUT, DEFAULT_TIMEOUT);
         store.setDefault(TIMEOUT_FACTOR, DEFAULT_TIMEOUT_FACTOR.toString());
         store.setDefault(EXCLUDED_CLASSES, PitConfiguration.DEFAULT_EXCLUDED_CLASSES);
+        store.setDefault(RUNNER_DAEMON, false);
+        store.setDefault(RUNNER_SHARDS, DEFAULT_RUNNER_SHARDS);
+        store.setDefault(FOCUSED_TEST_LAUNCH, false);
+        store.setDefault(RESULT_CACHE, false);
+        store.setDefault(HISTORY_SIZE_LIMIT, DEFAULT_HISTORY_SIZE_LIMIT);
     }
 
 }
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.result;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.pitest.pitclipse.core.PitCoreActivator;
+import org.pitest.pitclipse.core.launch.MutatedClassNotFoundException;
+import org.pitest.pitclipse.runner.model.ProjectStructureService;
+
+/**
+ * <p>Remembers the project and the package of the classes mutated by PIT.</p>
+ * 
+ * <p>Answers are kept in a concurrent map indexed by fully qualified class name, so that
+ * once a class is known the Java model is not queried anymore. Unknown classes are
+ * looked up with {@link JdtStructureService}; classes that cannot be found are cached
+ * too, until their package changes.</p>
+ * 
+ * <p>The cache is filled in bulk from the source folders of the projects about to be
+ * analysed (see {@link #warmUp(List)}) and is kept up-to-date by listening to the
+ * changes of the Java model: it must be registered with
+ * {@link JavaCore#addElementChangedListener(IElementChangedListener, int)}.</p>
+ */
+public enum CachingStructureService implements ProjectStructureService, IElementChangedListener {
+
+    INSTANCE;
+
+    private static final int JAVA_PROJECT_CHANGES = IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED
+            | IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED;
+
+    private static final int PACKAGE_FRAGMENT_ROOT_CHANGES = IJavaElementDelta.F_ADDED_TO_CLASSPATH
+            | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH;
+
+    /**
+     * Mutated class -> project -> package of the class, or empty if the class cannot be found from the project.
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, Optional<String>>> locations = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented each time the cache is invalidated, so that a warm-up started
+     * before does not record out-of-date locations.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Override
+    public String packageFrom(String project, String mutatedClass) {
+        return locationOf(mutatedClass, project).orElseThrow(() -> new MutatedClassNotFoundException(mutatedClass));
+    }
+
+    @Override
+    public boolean isClassInProject(String mutatedClass, String project) {
+        return locationOf(mutatedClass, project).isPresent();
+    }
+
+    /**
+     * Tells whether the location of the given class is cached, whether the class
+     * can be found from the given project or not.
+     * 
+     * @param mutatedClass
+     *          The fully qualified name of the class.
+     * @param project
+     *          The name of the project the class is looked up from.
+     * @return whether locating the class does not query the Java model
+     */
+    public boolean isKnown(String mutatedClass, String project) {
+        ConcurrentMap<String, Optional<String>> projects = locations.get(mutatedClass);
+        return projects != null && projects.containsKey(project);
+    }
+
+    private Optional<String> locationOf(String mutatedClass, String project) {
+        // A missing class is recorded as an empty location, hence looked up only once
+        return locations.computeIfAbsent(mutatedClass, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(project, p -> JdtStructureService.INSTANCE.locate(mutatedClass, p));
+    }
+
+    /**
+     * Records, in a background job, the location of all the classes declared
+     * in the source folders of the given projects.
+     * 
+     * @param projects
+     *          The names of the projects whose classes are about to be mutated.
+     */
+    public void warmUp(List<String> projects) {
+        long expectedGeneration = generation.get();
+        Job job = Job.create("Indexing mutated classes", monitor -> {
+            for (String projectName : projects) {
+                if (monitor.isCanceled() || generation.get() != expectedGeneration) {
+                    break;
+                }
+                try {
+                    warmUp(projectName, expectedGeneration);
+                } catch (JavaModelException e) {
+                    // Not worth it: classes of this project will be looked up on demand
+                }
+            }
+            return new Status(IStatus.OK, PitCoreActivator.PLUGIN_ID, "ok");
+        });
+        job.setSystem(true);
+        job.schedule();
+    }
+
+    private void warmUp(String projectName, long expectedGeneration) throws JavaModelException {
+        IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(projectName);
+        if (!project.isOpen()) {
+            return;
+        }
+        IJavaProject javaProject = JavaCore.create(project);
+        for (IPackageFragmentRoot packageRoot : javaProject.getPackageFragmentRoots()) {
+            if (packageRoot.getKind() != IPackageFragmentRoot.K_SOURCE) {
+                continue;
+            }
+            for (IJavaElement element : packageRoot.getChildren()) {
+                IPackageFragment pkg = (IPackageFragment) element;
+                for (ICompilationUnit compilationUnit : pkg.getCompilationUnits()) {
+                    for (IType type : compilationUnit.getAllTypes()) {
+                        if (generation.get() != expectedGeneration) {
+                            return;
+                        }
+                        locations.computeIfAbsent(type.getFullyQualifiedName(), c -> new ConcurrentHashMap<>())
+                                .putIfAbsent(projectName, Optional.of(pkg.getElementName()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void elementChanged(ElementChangedEvent event) {
+        invalidate(event.getDelta());
+    }
+
+    private void invalidate(IJavaElementDelta delta) {
+        IJavaElement element = delta.getElement();
+        boolean addedOrRemoved = delta.getKind() != IJavaElementDelta.CHANGED;
+        switch (element.getElementType()) {
+        case IJavaElement.JAVA_PROJECT:
+            if (addedOrRemoved || (delta.getFlags() & JAVA_PROJECT_CHANGES) != 0) {
+                // The classes visible from other projects may have changed too
+                invalidateAll();
+                return;
+            }
+            break;
+        case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+            if (addedOrRemoved || (delta.getFlags() & PACKAGE_FRAGMENT_ROOT_CHANGES) != 0) {
+                invalidateAll();
+                return;
+            }
+            break;
+        case IJavaElement.PACKAGE_FRAGMENT:
+            if (addedOrRemoved) {
+                invalidatePackage(element.getElementName());
+                return;
+            }
+            break;
+        case IJavaElement.COMPILATION_UNIT:
+            // Types may have been added, removed or renamed
+            invalidatePackage(element.getParent().getElementName());
+            return;
+        default:
+            break;
+        }
+        for (IJavaElementDelta child : delta.getAffectedChildren()) {
+            invalidate(child);
+        }
+    }
+
+    private void invalidatePackage(String pkg) {
+        generation.incrementAndGet();
+        locations.keySet().removeIf(mutatedClass -> pkg.equals(packageOf(mutatedClass)));
+    }
+
+    private static String packageOf(String mutatedClass) {
+        int lastDot = mutatedClass.lastIndexOf('.');
+        return lastDot < 0 ? "" : mutatedClass.substring(0, lastDot);
+    }
+
+    /**
+     * Forgets the location of all classes.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        locations.clear();
+    }
+}
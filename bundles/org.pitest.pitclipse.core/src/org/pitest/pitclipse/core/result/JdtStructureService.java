@@ -16,6 +16,8 @@
 
 package org.pitest.pitclipse.core.result;
 
+import java.util.Optional;
+
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -28,6 +30,12 @@ import org.pitest.pitclipse.core.launch.MutatedClassNotFoundException;
 import org.pitest.pitclipse.core.launch.ProjectNotFoundException;
 import org.pitest.pitclipse.runner.model.ProjectStructureService;
 
+/**
+ * <p>Answers questions about the structure of the workspace by querying the Java model.</p>
+ * 
+ * <p>Each call looks the mutated class up with {@link IJavaProject#findType(String)}:
+ * prefer {@link CachingStructureService} when many classes are to be located.</p>
+ */
 public enum JdtStructureService implements ProjectStructureService {
 
     INSTANCE;
@@ -54,12 +62,26 @@ public enum JdtStructureService implements ProjectStructureService {
         }
     }
 
+    /**
+     * Returns the package of the given class if it can be found from the given project.
+     */
+    Optional<String> locate(String mutatedClass, String projectName) {
+        try {
+            IType type = javaProject(projectName).findType(mutatedClass);
+            if (type == null) {
+                return Optional.empty();
+            }
+            return Optional.of(type.getPackageFragment().getElementName());
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
     private IJavaProject javaProject(String projectName) {
         IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
-        for (IProject project : root.getProjects()) {
-            if (projectName.equals(project.getName()) && project.isOpen()) {
-                return JavaCore.create(project);
-            }
+        IProject project = root.getProject(projectName);
+        if (project.exists() && project.isOpen()) {
+            return JavaCore.create(project);
         }
         throw new ProjectNotFoundException(projectName);
     }
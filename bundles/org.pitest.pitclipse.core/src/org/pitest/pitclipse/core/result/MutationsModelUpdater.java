@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.core.result;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.pitest.pitclipse.core.extension.handler.ExtensionPointHandler;
+import org.pitest.pitclipse.core.launch.UpdateMutations;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitResults;
+import org.pitest.pitclipse.runner.model.ClassDelta;
+import org.pitest.pitclipse.runner.model.ModelBuilder;
+import org.pitest.pitclipse.runner.model.MutationsModel;
+
+/**
+ * <p>Reports the mutations found by a PIT analysis as {@link MutationsModel}s.</p>
+ * 
+ * <p>While the analysis is running, the results of each analyzed class are turned into
+ * {@link ClassDelta}s and given to the contributions to the {@code mutations.deltas}
+ * extension point. These contributions are instantiated once for the analysis, so that
+ * each one can apply the deltas to a model of its own.</p>
+ * 
+ * <p>Once the analysis has ended, a complete model is built from the final results,
+ * frozen, then given to all contributions to the {@code mutations.results} extension
+ * point. The launch configuration of the analysis is recorded as the origin of the model,
+ * so that the analysis can be run again, and the model is marked as partial if the results
+ * are.</p>
+ * 
+ * <p>An updater may also merge the results of an analysis into the model of a previous one
+ * instead, for analyses that only re-run some of its mutations: the new statuses of these
+ * mutations are applied to a copy of that model, in which the other mutations are left as
+ * they are. Such analyses are not reported to the {@code mutations.deltas} extension
+ * point.</p>
+ * 
+ * <p>An instance of this class must be used for a single analysis.</p>
+ */
+public class MutationsModelUpdater {
+
+    private static final String DELTAS_EXTENSION_POINT_ID = "org.pitest.pitclipse.core.mutations.deltas";
+
+    private static final ModelBuilder MODEL_BUILDER = new ModelBuilder(CachingStructureService.INSTANCE);
+
+    private final List<String> projects;
+    private final Optional<String> launchConfiguration;
+    private final Optional<MutationsModel> mergedModel;
+    private final Consumer<List<ClassDelta>> deltasContributions;
+
+    /**
+     * Creates a new updater for an analysis.
+     * 
+     * @param projects
+     *          The projects mutated by the analysis.
+     */
+    public MutationsModelUpdater(List<String> projects) {
+        this(projects, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Creates a new updater for an analysis, merging its results into the model
+     * of a previous analysis if one is given.
+     * 
+     * @param projects
+     *          The projects mutated by the analysis.
+     * @param launchConfiguration
+     *          The memento of the launch configuration of the analysis, if known.
+     * @param mergedModel
+     *          The model into which the results must be merged, if any.
+     */
+    public MutationsModelUpdater(List<String> projects, Optional<String> launchConfiguration,
+            Optional<MutationsModel> mergedModel) {
+        this.projects = projects;
+        this.launchConfiguration = launchConfiguration;
+        this.mergedModel = mergedModel;
+        if (!mergedModel.isPresent()) {
+            this.deltasContributions = new ExtensionPointHandler<List<ClassDelta>>(DELTAS_EXTENSION_POINT_ID)
+                    .instantiate(Platform.getExtensionRegistry());
+        } else {
+            this.deltasContributions = deltas -> { };
+        }
+    }
+
+    /**
+     * Gives the mutations found in a class to the contributions to the
+     * {@code mutations.deltas} extension point.
+     * 
+     * @param results
+     *          The results of the analyzed class.
+     */
+    public void classAnalyzed(PitClassResults results) {
+        List<ClassDelta> deltas = MODEL_BUILDER.buildDeltasFrom(projects, results.getMutations());
+        if (!deltas.isEmpty()) {
+            deltasContributions.accept(deltas);
+        }
+    }
+
+    /**
+     * Publishes the complete model of the analysis to the contributions to the
+     * {@code mutations.results} extension point.
+     * 
+     * @param results
+     *          The results of the whole analysis.
+     */
+    public void analysisEnded(PitResults results) {
+        MutationsModel model = mergedModel.map(previous -> merged(previous, results))
+                                          .orElseGet(() -> MODEL_BUILDER.buildFrom(results));
+        launchConfiguration.ifPresent(model::withOrigin);
+        if (results.isPartial()) {
+            model.asPartial();
+        }
+        model.freeze();
+        Job.create("Reporting detected mutations", monitor -> {
+            new UpdateMutations(model).run();
+            return new Status(IStatus.OK, "org.pitest.pitclipse.core", "ok");
+        }).schedule();
+    }
+
+    private MutationsModel merged(MutationsModel mergedModel, PitResults results) {
+        MutationsModel model = MutationsModel.copyOf(mergedModel);
+        for (ClassDelta delta : MODEL_BUILDER.buildDeltasFrom(projects, results.getMutations())) {
+            model.apply(asUpdate(delta));
+        }
+        return model;
+    }
+
+    private static ClassDelta asUpdate(ClassDelta delta) {
+        return ClassDelta.update(delta.getProjectName(), delta.getPackageName(), delta.getClassName(),
+                delta.getMutations());
+    }
+}
@@ -22,12 +22,15 @@ import static org.eclipse.swt.layout.GridData.FILL_HORIZONTAL;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.AVOID_CALLS_TO_LABEL;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.EXCLUDED_CLASSES_LABEL;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.EXCLUDED_METHODS_LABEL;
+import static org.pitest.pitclipse.core.preferences.PitPreferences.FOCUSED_TEST_LAUNCH_LABEL;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.INCREMENTAL_ANALYSIS_LABEL;
 import static org.pitest.pitclipse.core.preferences.PitPreferences.RUN_IN_PARALLEL_LABEL;
 import static org.pitest.pitclipse.launch.PitLaunchArgumentsConstants.ATTR_TEST_CONTAINER;
 import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_AVOID_CALLS_TO;
+import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_CHANGED_SINCE;
 import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_EXCLUDE_CLASSES;
 import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_EXCLUDE_METHODS;
+import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_FOCUSED_TEST_LAUNCH;
 import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_TEST_INCREMENTALLY;
 import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_TEST_IN_PARALLEL;
 
@@ -69,6 +72,7 @@ public final class PitArgumentsTab extends AbstractLaunchConfigurationTab {
     public static final String FILTERS_GROUP_TEXT = " Filters ";
     public static final String SCOPE_GROUP_TEXT = " Mutation Scope ";
     public static final String PROJECT_TEXT = "Project to mutate: ";
+    public static final String CHANGED_SINCE_TEXT = "Only mutate code changed since git re&vision";
 
     private Text testClassText;
     private Text projectText;
@@ -78,9 +82,11 @@ public final class PitArgumentsTab extends AbstractLaunchConfigurationTab {
     private String containerId;
     private Button runInParallel;
     private Button incrementalAnalysis;
+    private Button focusedTestLaunch;
     private Text excludedClassesText;
     private Text excludedMethodsText;
     private Text avoidCallsTo;
+    private Text changedSinceText;
 
     @Override
     public Image getImage() {
@@ -120,12 +126,18 @@ public final class PitArgumentsTab extends AbstractLaunchConfigurationTab {
                 getBooleanAttributeFromConfig(config,
                         ATTR_TEST_INCREMENTALLY,
                         preferences.isIncrementalAnalysis()));
+        focusedTestLaunch.setSelection(
+                getBooleanAttributeFromConfig(config,
+                        ATTR_FOCUSED_TEST_LAUNCH,
+                        preferences.isFocusedTestLaunch()));
         excludedClassesText.setText(getAttributeFromConfig(config,
                 ATTR_EXCLUDE_CLASSES, preferences.getExcludedClasses()));
         excludedMethodsText.setText(getAttributeFromConfig(config,
                 ATTR_EXCLUDE_METHODS, preferences.getExcludedMethods()));
         avoidCallsTo.setText(getAttributeFromConfig(config,
                 ATTR_AVOID_CALLS_TO, preferences.getExcludedMethods()));
+        changedSinceText.setText(getAttributeFromConfig(config,
+                ATTR_CHANGED_SINCE, ""));
     }
 
     @Override
@@ -245,6 +257,8 @@ public final class PitArgumentsTab extends AbstractLaunchConfigurationTab {
                 RUN_IN_PARALLEL_LABEL);
         incrementalAnalysis = createNewCheckBox(font, group, groupLayout.numColumns,
                 INCREMENTAL_ANALYSIS_LABEL);
+        focusedTestLaunch = createNewCheckBox(font, group, groupLayout.numColumns,
+                FOCUSED_TEST_LAUNCH_LABEL);
     }
 
     private void createPreferences(Font font, Composite comp) {
@@ -263,6 +277,8 @@ public final class PitArgumentsTab extends AbstractLaunchConfigurationTab {
                 EXCLUDED_METHODS_LABEL);
         avoidCallsTo = createTextPreference(font, misc, miscLayout.numColumns,
                 AVOID_CALLS_TO_LABEL);
+        changedSinceText = createTextPreference(font, misc, miscLayout.numColumns,
+                CHANGED_SINCE_TEXT);
     }
 
     private Text createTextPreference(Font font, Composite comp, int columnsInParent, String label) {
@@ -311,11 +327,14 @@ public final class PitArgumentsTab extends AbstractLaunchConfigurationTab {
                 runInParallel.getSelection());
         workingCopy.setAttribute(ATTR_TEST_INCREMENTALLY,
                 incrementalAnalysis.getSelection());
+        workingCopy.setAttribute(ATTR_FOCUSED_TEST_LAUNCH,
+                focusedTestLaunch.getSelection());
         workingCopy.setAttribute(ATTR_EXCLUDE_CLASSES,
                 excludedClassesText.getText());
         workingCopy.setAttribute(ATTR_EXCLUDE_METHODS,
                 excludedMethodsText.getText());
         workingCopy.setAttribute(ATTR_AVOID_CALLS_TO, avoidCallsTo.getText());
+        workingCopy.setAttribute(ATTR_CHANGED_SINCE, changedSinceText.getText().trim());
         try {
             PitMigrationDelegate.mapResources(workingCopy);
         } catch (CoreException ce) {
@@ -67,6 +67,7 @@ import static org.pitest.pitclipse.launch.PitLaunchArgumentsConstants.ATTR_TEST_
 import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_AVOID_CALLS_TO;
 import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_EXCLUDE_CLASSES;
 import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_EXCLUDE_METHODS;
+import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_FOCUSED_TEST_LAUNCH;
 import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_TEST_INCREMENTALLY;
 import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_TEST_IN_PARALLEL;
 import static org.pitest.pitclipse.launch.ui.LaunchShortcut.asJavaElement;
@@ -225,6 +226,7 @@ public class PitLaunchShortcut implements ILaunchShortcut2 {
         PitConfiguration preferences = PitCoreActivator.getDefault().getConfiguration();
         wc.setAttribute(ATTR_TEST_IN_PARALLEL, preferences.isParallelExecution());
         wc.setAttribute(ATTR_TEST_INCREMENTALLY, preferences.isIncrementalAnalysis());
+        wc.setAttribute(ATTR_FOCUSED_TEST_LAUNCH, preferences.isFocusedTestLaunch());
         wc.setAttribute(ATTR_EXCLUDE_CLASSES, preferences.getExcludedClasses());
         wc.setAttribute(ATTR_EXCLUDE_METHODS, preferences.getExcludedMethods());
         wc.setAttribute(ATTR_AVOID_CALLS_TO, preferences.getAvoidCallsTo());
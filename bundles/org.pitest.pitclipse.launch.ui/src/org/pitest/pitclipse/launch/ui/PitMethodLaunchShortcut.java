@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.launch.ui;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.text.ITextSelection;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.ui.IEditorPart;
+
+import java.util.Optional;
+
+import static org.eclipse.jdt.core.IJavaElement.METHOD;
+import static org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants.ATTR_MAIN_TYPE_NAME;
+import static org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants.ATTR_PROJECT_NAME;
+import static org.eclipse.jdt.ui.JavaUI.getEditorInputTypeRoot;
+import static org.pitest.pitclipse.launch.PitLaunchArgumentsConstants.ATTR_TEST_CONTAINER;
+import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_MUTATED_METHOD;
+import static org.pitest.pitclipse.launch.ui.LaunchShortcut.asJavaElement;
+import static org.pitest.pitclipse.launch.ui.LaunchShortcut.emptyList;
+import static org.pitest.pitclipse.launch.ui.PitLaunchUiActivator.getActiveWorkbenchShell;
+
+/**
+ * <p>Allows to launch a PIT analyze of a single method, either the one under
+ * the caret of a Java editor or the one selected in a view.</p>
+ * 
+ * <p>Only the class declaring the method is mutated, the mutants being restricted
+ * to the method and the lambdas it declares. The tests run are the ones
+ * referencing the method, possibly through production code or from the projects
+ * depending on it; the tests of the project are run if there is none.</p>
+ */
+public class PitMethodLaunchShortcut extends PitLaunchShortcut {
+
+    @Override
+    public void launch(IEditorPart editor, String mode) {
+        Optional<IMethod> method = methodUnderCaret(editor);
+        if (method.isPresent()) {
+            super.launch(new StructuredSelection(method.get()), mode);
+        } else {
+            showNoMethodFoundDialog();
+        }
+    }
+
+    @Override
+    public void launch(ISelection selection, String mode) {
+        if (selectedMethod(selection).isPresent()) {
+            super.launch(selection, mode);
+        } else {
+            showNoMethodFoundDialog();
+        }
+    }
+
+    @Override
+    public ILaunchConfiguration[] getLaunchConfigurations(ISelection selection) {
+        if (selectedMethod(selection).isPresent()) {
+            return super.getLaunchConfigurations(selection);
+        }
+        return null; // NOSONAR Eclipse code relies on returned null array
+    }
+
+    @Override
+    public ILaunchConfiguration[] getLaunchConfigurations(IEditorPart editor) {
+        return methodUnderCaret(editor).map(method -> super.getLaunchConfigurations(new StructuredSelection(method)))
+                                       .orElse(emptyList());
+    }
+
+    /**
+     * The tests to run are the ones referencing the method, not its declaring type.
+     */
+    @Override
+    protected ILaunchConfigurationWorkingCopy createLaunchConfiguration(IJavaElement element) throws CoreException {
+        ILaunchConfigurationWorkingCopy wc = super.createLaunchConfiguration(element);
+        wc.setAttribute(ATTR_MAIN_TYPE_NAME, "");
+        wc.setAttribute(ATTR_TEST_CONTAINER, element.getJavaProject().getHandleIdentifier());
+        wc.setAttribute(ATTR_MUTATED_METHOD, element.getHandleIdentifier());
+        return wc;
+    }
+
+    @Override
+    protected String[] getAttributeNamesToCompare() {
+        return new String[] { ATTR_PROJECT_NAME, ATTR_TEST_CONTAINER, ATTR_MAIN_TYPE_NAME, ATTR_MUTATED_METHOD };
+    }
+
+    private static Optional<IMethod> selectedMethod(ISelection selection) {
+        if (selection instanceof IStructuredSelection && ((IStructuredSelection) selection).size() == 1) {
+            return asJavaElement(((IStructuredSelection) selection).getFirstElement())
+                    .filter(IMethod.class::isInstance)
+                    .map(IMethod.class::cast);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<IMethod> methodUnderCaret(IEditorPart editor) {
+        ITypeRoot typeRoot = getEditorInputTypeRoot(editor.getEditorInput());
+        ISelection selection = editor.getSite().getSelectionProvider().getSelection();
+        if (typeRoot == null || !(selection instanceof ITextSelection)) {
+            return Optional.empty();
+        }
+        try {
+            IJavaElement element = typeRoot.getElementAt(((ITextSelection) selection).getOffset());
+            IMethod method = element == null ? null : (IMethod) element.getAncestor(METHOD);
+            // Lambdas are mutated along with the method declaring them
+            while (method != null && method.isLambdaMethod()) {
+                method = (IMethod) method.getParent().getAncestor(METHOD);
+            }
+            return Optional.ofNullable(method);
+        } catch (JavaModelException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void showNoMethodFoundDialog() {
+        MessageDialog.openInformation(getActiveWorkbenchShell(), "Pitclipse", "No method found");
+    }
+}
@@ -18,9 +18,14 @@ package org.pitest.pitclipse.launch;
 
 import static org.pitest.pitclipse.core.PitCoreActivator.getDefault;
 
+import java.io.File;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.CoreException;
@@ -29,15 +34,29 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.jdt.core.IClasspathAttribute;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.junit.JUnitCore;
+import org.eclipse.jdt.launching.IVMInstall;
+import org.eclipse.jdt.launching.IVMInstall2;
 import org.eclipse.jdt.launching.JavaLaunchDelegate;
+import org.eclipse.jdt.launching.JavaRuntime;
 import org.pitest.pitclipse.core.extension.handler.ExtensionPointHandler;
 import org.pitest.pitclipse.core.extension.point.PitRuntimeOptions;
+import org.pitest.pitclipse.core.extension.point.PitShardOptions;
+import org.pitest.pitclipse.core.launch.CachedAnalysis;
+import org.pitest.pitclipse.core.launch.MergedModels;
+import org.pitest.pitclipse.core.launch.MutantCounts;
+import org.pitest.pitclipse.core.launch.PitAnalyses;
+import org.pitest.pitclipse.core.launch.PitDaemon;
+import org.pitest.pitclipse.core.launch.PitDaemons;
+import org.pitest.pitclipse.core.launch.ResultCache;
+import org.pitest.pitclipse.core.result.CachingStructureService;
 import org.pitest.pitclipse.launch.config.ClassFinder;
+import org.pitest.pitclipse.launch.config.FocusedClassFinder;
 import org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper;
 import org.pitest.pitclipse.launch.config.PackageFinder;
 import org.pitest.pitclipse.launch.config.ProjectFinder;
@@ -45,8 +64,12 @@ import org.pitest.pitclipse.launch.config.SourceDirFinder;
 import org.pitest.pitclipse.runner.PitOptions;
 import org.pitest.pitclipse.runner.PitOptions.PitOptionsBuilder;
 import org.pitest.pitclipse.runner.PitRunnerMain;
+import org.pitest.pitclipse.runner.PitShardPlanner;
 import org.pitest.pitclipse.runner.config.PitConfiguration;
+import org.pitest.pitclipse.runner.io.SocketCreationException;
 import org.pitest.pitclipse.runner.io.SocketProvider;
+import org.pitest.pitclipse.runner.io.UnixDomainSocketProvider;
+import org.pitest.pitclipse.runner.model.MutationsModel;
 
 import com.google.common.collect.ImmutableList;
 
@@ -57,21 +80,46 @@ import com.google.common.collect.ImmutableList;
  * 
  * <p>Right after the VM has been launched, contributions to the {@code results}
  * extension points are notified thanks to {@link ExtensionPointHandler}.</p>
+ * 
+ * <p>When the PIT runner is configured to be kept alive between launches, the VM
+ * launched by a previous launch of the same configuration is reused as long as
+ * its classpath did not change; see {@link PitDaemons}. The launches reusing a VM
+ * are given a {@link PitDaemonProcess process} of their own.</p>
+ * 
+ * <p>When the PIT runner is configured to use several processes, the classes
+ * to mutate are split into balanced shards (see {@link PitShardPlanner}) and
+ * a VM is launched for each one of them.</p>
+ * 
+ * <p>When the results of unchanged classes are configured to be reused, only
+ * the classes missing from the {@link ResultCache} are analyzed; no VM is launched
+ * if every class is found in the cache.</p>
+ * 
+ * <p>The PIT application connects to Eclipse through a Unix domain socket when
+ * both Eclipse and the application run on Java 16 or later, through TCP otherwise.</p>
+ * 
+ * <p>Terminating the launch cancels the running analyses, see {@link PitLaunch}.</p>
  */
 public abstract class AbstractPitLaunchDelegate extends JavaLaunchDelegate {
 
     private static final String EXTENSION_POINT_ID = "org.pitest.pitclipse.core.executePit";
     private static final String PIT_RUNNER_MAIN = PitRunnerMain.class.getCanonicalName();
-    private int portNumber;
     private final PitConfiguration pitConfiguration;
-    private boolean projectUsesJunit5 = false;
+    private final ThreadLocal<LaunchState> currentLaunch = ThreadLocal.withInitial(LaunchState::new);
 
     protected AbstractPitLaunchDelegate(PitConfiguration pitConfiguration) {
         this.pitConfiguration = pitConfiguration;
     }
 
-    protected void generatePortNumber() {
-        portNumber = new SocketProvider().getFreePort();
+    private static int bindPortNumber(LaunchState launchState) {
+        if (launchState.unixDomainSockets) {
+            try {
+                return new UnixDomainSocketProvider().bind();
+            } catch (SocketCreationException e) {
+                // e.g. the path of the socket is too long, TCP is used instead
+                launchState.unixDomainSockets = false;
+            }
+        }
+        return new SocketProvider().bind();
     }
 
     @Override
@@ -83,8 +131,13 @@ public abstract class AbstractPitLaunchDelegate extends JavaLaunchDelegate {
     public String[] getClasspath(ILaunchConfiguration launchConfig) throws CoreException {
         ImmutableList.Builder<String> builder = ImmutableList.<String>builder()
                 .addAll(getDefault().getPitClasspath());
-        builder.addAll(ImmutableList.copyOf(super.getClasspath(launchConfig)));
-        if (projectUsesJunit5) {
+        List<String> projectClasspath = ImmutableList.copyOf(super.getClasspath(launchConfig));
+        builder.addAll(projectClasspath);
+        // The tests referencing a mutated method may belong to the projects depending on it
+        currentLaunch.get().testClasspath.stream()
+                                         .filter(entry -> !projectClasspath.contains(entry))
+                                         .forEach(builder::add);
+        if (currentLaunch.get().projectUsesJunit5) {
             // Allow Pitest to detect Junit5 tests
             builder.addAll(getDefault().getPitestJunit5PluginClasspath());
         }
@@ -93,32 +146,256 @@ public abstract class AbstractPitLaunchDelegate extends JavaLaunchDelegate {
         return newClasspath.toArray(new String[newClasspath.size()]);
     }
 
+    @Override
+    public String getVMArguments(ILaunchConfiguration launchConfig) throws CoreException {
+        String arguments = super.getVMArguments(launchConfig);
+        if (!currentLaunch.get().unixDomainSockets) {
+            return arguments;
+        }
+        return arguments + " \"-D" + UnixDomainSocketProvider.DIRECTORY_PROPERTY + '='
+                + UnixDomainSocketProvider.getDirectory() + '"';
+    }
+
     @Override
     public String getProgramArguments(ILaunchConfiguration launchConfig) throws CoreException {
-        return new StringBuilder(super.getProgramArguments(launchConfig)).append(' ').append(portNumber).toString();
+        LaunchState launchState = currentLaunch.get();
+        StringBuilder arguments = new StringBuilder(super.getProgramArguments(launchConfig)).append(' ')
+                .append(launchState.portNumber);
+        if (launchState.daemonLaunch) {
+            arguments.append(' ').append(PitRunnerMain.DAEMON_OPTION);
+        }
+        return arguments.toString();
+    }
+
+    /**
+     * Returns a launch that cancels the running analyses before being terminated.
+     */
+    @Override
+    public ILaunch getLaunch(ILaunchConfiguration configuration, String mode) throws CoreException {
+        return new PitLaunch(configuration, mode);
     }
 
     @Override
     public void launch(ILaunchConfiguration configuration, String mode, ILaunch launch, IProgressMonitor monitor)
             throws CoreException {
-        generatePortNumber();
+        LaunchState launchState = new LaunchState();
+        currentLaunch.set(launchState);
+        try {
+            launchPit(configuration, mode, launch, monitor, launchState);
+        } finally {
+            currentLaunch.remove();
+        }
+    }
+
+    private void launchPit(ILaunchConfiguration configuration, String mode, ILaunch launch, IProgressMonitor monitor,
+            LaunchState launchState) throws CoreException {
         LaunchConfigurationWrapper configWrapper = LaunchConfigurationWrapper.builder()
                 .withLaunchConfiguration(configuration).withProjectFinder(getProjectFinder())
-                .withPackageFinder(getPackageFinder()).withClassFinder(getClassFinder())
+                .withPackageFinder(getPackageFinder()).withClassFinder(new FocusedClassFinder(getClassFinder()))
                 .withSourceDirFinder(getSourceDirFinder()).withPitConfiguration(pitConfiguration).build();
 
-        projectUsesJunit5 = isJUnit5InClasspathOf(configWrapper.getProject());
+        launchState.projectUsesJunit5 = isJUnit5InClasspathOf(configWrapper.getProject());
+        launchState.unixDomainSockets = UnixDomainSocketProvider.isSupported() && runsOnJava16OrLater(configuration);
+        launchState.launchConfiguration = configuration.getMemento();
+        launchState.mergedModel = configWrapper.getMergedModel().flatMap(MergedModels.INSTANCE::take);
+        // Locate mutated classes while PIT is running, to speed up the reporting of results
+        CachingStructureService.INSTANCE.warmUp(configWrapper.getMutatedProjects());
         PitOptionsBuilder optionsBuilder = configWrapper.getPitOptionsBuilder();
-        PitOptions options = optionsBuilder.withUseJUnit5(projectUsesJunit5)
+        launchState.testClasspath = classpathOf(configWrapper.getReferencingTestProjects());
+        PitOptions options = optionsBuilder.withUseJUnit5(launchState.projectUsesJunit5)
                                            .build();
+        // Line and method filters are not part of the cached results: such launches are always analyzed
+        if (pitConfiguration.isResultCache() && options.getIncludedLines().isEmpty()
+                && options.getIncludedMethods().isEmpty()) {
+            CachedAnalysis cachedAnalysis = ResultCache.INSTANCE.prepare(configWrapper.getProject(), options);
+            launchState.cachedAnalysis = Optional.of(cachedAnalysis);
+            options = optionsBuilder.withClassesToMutate(cachedAnalysis.getStaleClasses()).build();
+            if (cachedAnalysis.getStaleClasses().isEmpty()) {
+                notifyExtensions(launchState, new PitRuntimeOptions(launchState.portNumber, options,
+                        configWrapper.getMutatedProjects()));
+                return;
+            }
+        }
+
+        // The history read by PIT must not be compacted until the analysis ends
+        launchState.releaseHistory = holdHistory(options.getHistoryLocation());
+        try {
+            launchAnalysis(configuration, mode, launch, monitor, launchState, configWrapper, optionsBuilder,
+                    options);
+        } catch (CoreException | RuntimeException e) {
+            launchState.releaseHistory.run();
+            throw e;
+        }
+    }
+
+    private void launchAnalysis(ILaunchConfiguration configuration, String mode, ILaunch launch,
+            IProgressMonitor monitor, LaunchState launchState, LaunchConfigurationWrapper configWrapper,
+            PitOptionsBuilder optionsBuilder, PitOptions options) throws CoreException {
+        List<List<String>> shardClasses = PitShardPlanner.split(options.getClassesToMutate(),
+                pitConfiguration.getRunnerShards(), MutantCounts.INSTANCE.get());
+        if (shardClasses.size() > 1) {
+            launchShards(configuration, mode, launch, monitor, launchState, configWrapper, optionsBuilder,
+                    shardClasses);
+            return;
+        }
+
+        Optional<PitDaemon> daemon = Optional.empty();
+        boolean reusedDaemon = false;
+        launchState.daemonLaunch = pitConfiguration.isRunnerDaemon();
+        if (launchState.daemonLaunch) {
+            String classpathSignature = classpathSignatureOf(configuration);
+            daemon = PitDaemons.INSTANCE.acquire(configuration.getName(), classpathSignature);
+            if (daemon.isPresent()) {
+                launchState.portNumber = daemon.get().getPortNumber();
+                reusedDaemon = true;
+            } else {
+                launchRunner(configuration, mode, launch, monitor, launchState);
+                IProcess[] processes = launch.getProcesses();
+                daemon = Optional.of(PitDaemons.INSTANCE.start(configuration.getName(), classpathSignature,
+                        launchState.portNumber, () -> processes.length > 0 && !processes[0].isTerminated()));
+                if (processes.length > 0) {
+                    PitDaemonProcess.runs(daemon.get(), processes[0]);
+                }
+            }
+        } else {
+            launchRunner(configuration, mode, launch, monitor, launchState);
+        }
+
+        PitRuntimeOptions runtimeOptions = new PitRuntimeOptions(launchState.portNumber, options,
+                configWrapper.getMutatedProjects(), daemon);
+        registerAnalysis(launch, launchState, runtimeOptions);
+        if (reusedDaemon) {
+            // The launch needs a process of its own to be shown, and cancelled, as running
+            PitDaemonProcess.attach(launch, daemon.get(), runtimeOptions.getAnalysisId());
+        }
+        notifyExtensions(launchState, runtimeOptions);
+    }
+
+    private void launchShards(ILaunchConfiguration configuration, String mode, ILaunch launch,
+            IProgressMonitor monitor, LaunchState launchState, LaunchConfigurationWrapper configWrapper,
+            PitOptionsBuilder optionsBuilder, List<List<String>> shardClasses) throws CoreException {
+        PitOptions options = optionsBuilder.build();
+        int threadsPerShard = Math.max(1, options.getThreads() / shardClasses.size());
+        File historyLocation = options.getHistoryLocation();
+        // The history is merged by class once the analysis ends, whichever shard analyzed a class
+        List<File> shardHistories = historyLocation == null ? ImmutableList.of()
+                : getDefault().prepareShardHistoryFiles(historyLocation, shardClasses.size());
+        launchState.daemonLaunch = false;
+
+        ImmutableList.Builder<PitShardOptions> shards = ImmutableList.builder();
+        for (int i = 0; i < shardClasses.size(); i++) {
+            // Each PIT application needs its own report directory and history file
+            optionsBuilder.withClassesToMutate(shardClasses.get(i))
+                          .withReportDirectory(new File(options.getReportDirectory(), "shard-" + i))
+                          .withThreads(threadsPerShard);
+            if (historyLocation != null) {
+                optionsBuilder.withHistoryLocation(shardHistories.get(i));
+            }
+            launchRunner(configuration, mode, launch, monitor, launchState);
+            shards.add(new PitShardOptions(launchState.portNumber, optionsBuilder.build()));
+        }
+
+        PitRuntimeOptions runtimeOptions = new PitRuntimeOptions(shards.build(), configWrapper.getMutatedProjects());
+        registerAnalysis(launch, launchState, runtimeOptions);
+        notifyExtensions(launchState, runtimeOptions);
+    }
+
+    /**
+     * Launches a PIT application once the port it connects to is bound, so that
+     * it can connect as soon as it starts. The port is released if the application
+     * terminates before connecting, which stops Eclipse from waiting for it.
+     */
+    private void launchRunner(ILaunchConfiguration configuration, String mode, ILaunch launch,
+            IProgressMonitor monitor, LaunchState launchState) throws CoreException {
+        int processCount = launch.getProcesses().length;
+        launchState.portNumber = bindPortNumber(launchState);
+        try {
+            super.launch(configuration, mode, launch, monitor);
+        } catch (CoreException | RuntimeException e) {
+            SocketProvider.forPort(launchState.portNumber).release(launchState.portNumber);
+            throw e;
+        }
+        IProcess[] processes = launch.getProcesses();
+        if (processes.length == processCount) {
+            // The launch has been cancelled before the application started
+            SocketProvider.forPort(launchState.portNumber).release(launchState.portNumber);
+        } else if (launch instanceof PitLaunch) {
+            ((PitLaunch) launch).connectionExpected(processes[processes.length - 1], launchState.portNumber);
+        }
+    }
+
+    /**
+     * Unix domain sockets can only be used if the PIT application runs on Java 16 or later.
+     */
+    private boolean runsOnJava16OrLater(ILaunchConfiguration configuration) throws CoreException {
+        IVMInstall vm = getVMInstall(configuration);
+        if (!(vm instanceof IVMInstall2) || ((IVMInstall2) vm).getJavaVersion() == null) {
+            return false;
+        }
+        String[] version = ((IVMInstall2) vm).getJavaVersion().split("[._+-]");
+        try {
+            int major = Integer.parseInt(version[0]);
+            if (major == 1 && version.length > 1) {
+                // 1.8.0_292
+                major = Integer.parseInt(version[1]);
+            }
+            return major >= 16;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
 
-        super.launch(configuration, mode, launch, monitor);
+    private static List<String> classpathOf(List<IJavaProject> projects) throws CoreException {
+        Set<String> classpath = new LinkedHashSet<>();
+        for (IJavaProject project : projects) {
+            classpath.addAll(Arrays.asList(JavaRuntime.computeDefaultRuntimeClassPath(project)));
+        }
+        return ImmutableList.copyOf(classpath);
+    }
 
+    private static void notifyExtensions(LaunchState launchState, PitRuntimeOptions runtimeOptions) {
         IExtensionRegistry registry = Platform.getExtensionRegistry();
+        PitRuntimeOptions launchOptions = launchState.cachedAnalysis.map(runtimeOptions::withCachedAnalysis)
+                                                                    .orElse(runtimeOptions);
+        launchOptions = launchOptions.withLaunchConfiguration(launchState.launchConfiguration);
+        if (launchState.mergedModel.isPresent()) {
+            launchOptions = launchOptions.withMergedModel(launchState.mergedModel.get());
+        }
+        new ExtensionPointHandler<PitRuntimeOptions>(EXTENSION_POINT_ID).execute(registry, launchOptions);
+    }
 
-        new ExtensionPointHandler<PitRuntimeOptions>(EXTENSION_POINT_ID).execute(registry, new PitRuntimeOptions(
-                portNumber, options, configWrapper.getMutatedProjects()));
+    private static void registerAnalysis(ILaunch launch, LaunchState launchState, PitRuntimeOptions runtimeOptions) {
+        PitAnalyses.INSTANCE.whenEnded(runtimeOptions.getAnalysisId(), launchState.releaseHistory);
+        if (launch instanceof PitLaunch) {
+            ((PitLaunch) launch).analysisStarted(runtimeOptions.getAnalysisId());
+        }
+    }
+
+    /**
+     * Holds the given history file, if any, and returns the action releasing it.
+     * The action only releases the file once.
+     */
+    private static Runnable holdHistory(File historyFile) {
+        if (historyFile == null) {
+            return () -> { };
+        }
+        getDefault().holdHistoryFile(historyFile);
+        AtomicBoolean released = new AtomicBoolean(false);
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                getDefault().releaseHistoryFile(historyFile);
+            }
+        };
+    }
 
+    /**
+     * Identifies the VM that would be launched for the given configuration:
+     * a running PIT runner can only be reused by a launch having the same signature.
+     */
+    private String classpathSignatureOf(ILaunchConfiguration configuration) throws CoreException {
+        return String.join(File.pathSeparator, getClasspath(configuration)) + '\n'
+                + getVMArguments(configuration) + '\n'
+                + super.getProgramArguments(configuration);
     }
     
     private static boolean isJUnit5InClasspathOf(IJavaProject project) throws JavaModelException {
@@ -176,6 +453,22 @@ public abstract class AbstractPitLaunchDelegate extends JavaLaunchDelegate {
     	return false;
     }
 
+    /**
+     * The state of a single launch. Launches run concurrently share the same
+     * delegate, hence this state is bound to the launching thread.
+     */
+    private static final class LaunchState {
+        private int portNumber;
+        private boolean projectUsesJunit5 = false;
+        private boolean daemonLaunch = false;
+        private boolean unixDomainSockets = false;
+        private Optional<CachedAnalysis> cachedAnalysis = Optional.empty();
+        private String launchConfiguration;
+        private Optional<MutationsModel> mergedModel = Optional.empty();
+        private List<String> testClasspath = ImmutableList.of();
+        private Runnable releaseHistory = () -> { };
+    }
+
     protected abstract ProjectFinder getProjectFinder();
 
     protected abstract SourceDirFinder getSourceDirFinder();
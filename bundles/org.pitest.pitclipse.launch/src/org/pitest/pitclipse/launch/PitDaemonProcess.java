@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+
+package org.pitest.pitclipse.launch;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.PlatformObject;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.IStreamListener;
+import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.debug.core.model.IStreamMonitor;
+import org.eclipse.debug.core.model.IStreamsProxy;
+import org.pitest.pitclipse.core.launch.PitAnalyses;
+import org.pitest.pitclipse.core.launch.PitDaemon;
+
+/**
+ * <p>The process of a launch served by a PIT application started by a previous
+ * launch, see {@link PitDaemon}.</p>
+ * 
+ * <p>The process terminates once the daemon has served the launch. Terminating it
+ * cancels the analysis of the launch but keeps the PIT application running, since
+ * it belongs to the launch that started it. The output of the PIT application is
+ * forwarded to the console of the process while the launch is served.</p>
+ */
+final class PitDaemonProcess extends PlatformObject implements IProcess {
+
+    private static final Map<PitDaemon, IProcess> APPLICATIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final ILaunch launch;
+    private final String analysisId;
+    private final Map<String, String> attributes = new HashMap<>();
+    private final AtomicBoolean terminated = new AtomicBoolean(false);
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private final ForwardingStreamsProxy streamsProxy;
+
+    private PitDaemonProcess(ILaunch launch, String analysisId, Optional<IStreamsProxy> application) {
+        this.launch = launch;
+        this.analysisId = analysisId;
+        this.streamsProxy = new ForwardingStreamsProxy(application);
+    }
+
+    /**
+     * Remembers the process running the PIT application of the given daemon.
+     * 
+     * @param daemon
+     *          The daemon started by a launch.
+     * @param process
+     *          The process running its PIT application.
+     */
+    static void runs(PitDaemon daemon, IProcess process) {
+        APPLICATIONS.put(daemon, process);
+    }
+
+    /**
+     * Adds a process to the given launch, terminating once the daemon has served it.
+     * 
+     * @param launch
+     *          The launch served by the daemon.
+     * @param daemon
+     *          The daemon started by a previous launch.
+     * @param analysisId
+     *          The identifier of the analysis run by the launch.
+     */
+    static void attach(ILaunch launch, PitDaemon daemon, String analysisId) {
+        Optional<IStreamsProxy> application = Optional.ofNullable(APPLICATIONS.get(daemon))
+                                                      .map(IProcess::getStreamsProxy);
+        PitDaemonProcess process = new PitDaemonProcess(launch, analysisId, application);
+        process.setAttribute(IProcess.ATTR_PROCESS_TYPE, "java");
+        launch.addProcess(process);
+        process.fireEvent(DebugEvent.CREATE);
+        daemon.whenReleased(process::served);
+    }
+
+    private void served() {
+        if (terminated.compareAndSet(false, true)) {
+            streamsProxy.close();
+            fireEvent(DebugEvent.TERMINATE);
+        }
+    }
+
+    private void fireEvent(int kind) {
+        DebugPlugin plugin = DebugPlugin.getDefault();
+        if (plugin != null) {
+            plugin.fireDebugEventSet(new DebugEvent[] { new DebugEvent(this, kind) });
+        }
+    }
+
+    @Override
+    public String getLabel() {
+        return launch.getLaunchConfiguration().getName() + " (running PIT application)";
+    }
+
+    @Override
+    public ILaunch getLaunch() {
+        return launch;
+    }
+
+    @Override
+    public IStreamsProxy getStreamsProxy() {
+        return streamsProxy;
+    }
+
+    @Override
+    public void setAttribute(String key, String value) {
+        attributes.put(key, value);
+    }
+
+    @Override
+    public String getAttribute(String key) {
+        return attributes.get(key);
+    }
+
+    @Override
+    public int getExitValue() throws DebugException {
+        if (!isTerminated()) {
+            throw new DebugException(new Status(IStatus.ERROR,
+                    DebugPlugin.getUniqueIdentifier(), DebugException.TARGET_REQUEST_FAILED,
+                    "The analysis is still running", null));
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean canTerminate() {
+        return !isTerminated();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.get();
+    }
+
+    /**
+     * Cancels the analysis so that the PIT application sends the results gathered
+     * so far. The process terminates right away if the analysis is not running, or
+     * if it is terminated again.
+     */
+    @Override
+    public void terminate() {
+        if (!cancelled.compareAndSet(false, true) || !PitAnalyses.INSTANCE.cancel(analysisId)) {
+            served();
+        }
+    }
+
+    /**
+     * Forwards the output of the PIT application until the launch has been served.
+     */
+    private static final class ForwardingStreamsProxy implements IStreamsProxy {
+
+        private final Optional<IStreamsProxy> application;
+        private final ForwardingStreamMonitor output;
+        private final ForwardingStreamMonitor error;
+
+        ForwardingStreamsProxy(Optional<IStreamsProxy> application) {
+            this.application = application;
+            this.output = new ForwardingStreamMonitor(application.map(IStreamsProxy::getOutputStreamMonitor));
+            this.error = new ForwardingStreamMonitor(application.map(IStreamsProxy::getErrorStreamMonitor));
+        }
+
+        @Override
+        public IStreamMonitor getErrorStreamMonitor() {
+            return error;
+        }
+
+        @Override
+        public IStreamMonitor getOutputStreamMonitor() {
+            return output;
+        }
+
+        @Override
+        public void write(String input) throws IOException {
+            if (application.isPresent()) {
+                application.get().write(input);
+            }
+        }
+
+        void close() {
+            output.close();
+            error.close();
+        }
+    }
+
+    private static final class ForwardingStreamMonitor implements IStreamMonitor, IStreamListener {
+
+        private final Optional<IStreamMonitor> source;
+        private final List<IStreamListener> listeners = new CopyOnWriteArrayList<>();
+        private final StringBuilder contents = new StringBuilder();
+
+        ForwardingStreamMonitor(Optional<IStreamMonitor> source) {
+            this.source = source;
+            source.ifPresent(monitor -> monitor.addListener(this));
+        }
+
+        @Override
+        public synchronized void streamAppended(String text, IStreamMonitor monitor) {
+            contents.append(text);
+            for (IStreamListener listener : listeners) {
+                listener.streamAppended(text, this);
+            }
+        }
+
+        @Override
+        public synchronized void addListener(IStreamListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public synchronized String getContents() {
+            return contents.toString();
+        }
+
+        @Override
+        public void removeListener(IStreamListener listener) {
+            listeners.remove(listener);
+        }
+
+        void close() {
+            source.ifPresent(monitor -> monitor.removeListener(this));
+        }
+    }
+}
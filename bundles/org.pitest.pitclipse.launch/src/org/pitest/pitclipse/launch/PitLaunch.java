@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.launch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.Launch;
+import org.eclipse.debug.core.model.IProcess;
+import org.pitest.pitclipse.core.launch.PitAnalyses;
+import org.pitest.pitclipse.runner.io.SocketProvider;
+
+/**
+ * <p>A launch running PIT analyses.</p>
+ * 
+ * <p>Terminating the launch first cancels its running analyses, so that the PIT
+ * applications can send the results gathered so far, and returns right away: the launch
+ * terminates along with its processes. The processes are killed in background if they
+ * are still running after {@value #CANCELLATION_GRACE_PERIOD_SECONDS} seconds, or as soon
+ * as the launch is terminated again. They are killed right away if none of the analyses
+ * of the launch is running anymore.</p>
+ * 
+ * <p>A PIT application terminating before it connects to Eclipse releases the
+ * port it was expected on, so that Eclipse stops waiting for it. A port bound
+ * again since the application connected is left untouched.</p>
+ */
+public class PitLaunch extends Launch {
+
+    static final long CANCELLATION_GRACE_PERIOD_SECONDS = 10;
+
+    private final List<String> analysisIds = new CopyOnWriteArrayList<>();
+    private final Map<IProcess, Runnable> pendingConnections = new ConcurrentHashMap<>();
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+    public PitLaunch(ILaunchConfiguration launchConfiguration, String mode) {
+        super(launchConfiguration, mode, null);
+    }
+
+    /**
+     * Registers an analysis started by this launch.
+     * 
+     * @param analysisId
+     *          The identifier of the analysis.
+     */
+    void analysisStarted(String analysisId) {
+        analysisIds.add(analysisId);
+    }
+
+    /**
+     * Registers the process of a PIT application that has not connected yet.
+     * 
+     * @param process
+     *          The process running the PIT application.
+     * @param portNumber
+     *          The port bound for the PIT application to connect to.
+     */
+    void connectionExpected(IProcess process, int portNumber) {
+        // The port may be bound again by another launch once the application has connected
+        pendingConnections.put(process, SocketProvider.forPort(portNumber).releaser(portNumber));
+        if (process.isTerminated()) {
+            connectionLost(process);
+        }
+    }
+
+    @Override
+    public void handleDebugEvents(DebugEvent[] events) {
+        super.handleDebugEvents(events);
+        for (DebugEvent event : events) {
+            if (event.getKind() == DebugEvent.TERMINATE && event.getSource() instanceof IProcess) {
+                connectionLost((IProcess) event.getSource());
+            }
+        }
+    }
+
+    private void connectionLost(IProcess process) {
+        Runnable releaser = pendingConnections.remove(process);
+        if (releaser != null) {
+            // Does nothing if the PIT application connected before terminating
+            releaser.run();
+        }
+    }
+
+    @Override
+    public void terminate() throws DebugException {
+        if (cancelled.compareAndSet(false, true) && cancelAnalyses()) {
+            killAfterGracePeriod();
+            return;
+        }
+        super.terminate();
+    }
+
+    /**
+     * Cancels the analyses of this launch that are still running.
+     * 
+     * @return whether at least one analysis was running
+     */
+    private boolean cancelAnalyses() {
+        boolean running = false;
+        for (String analysisId : analysisIds) {
+            running |= PitAnalyses.INSTANCE.cancel(analysisId);
+        }
+        return running;
+    }
+
+    private void killAfterGracePeriod() {
+        Job kill = Job.create("Terminating PIT launch", monitor -> {
+            if (!isTerminated()) {
+                try {
+                    super.terminate();
+                } catch (DebugException e) {
+                    return e.getStatus();
+                }
+            }
+            return Status.OK_STATUS;
+        });
+        kill.setSystem(true);
+        kill.schedule(TimeUnit.SECONDS.toMillis(CANCELLATION_GRACE_PERIOD_SECONDS));
+    }
+}
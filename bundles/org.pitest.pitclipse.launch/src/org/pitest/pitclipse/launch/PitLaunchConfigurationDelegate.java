@@ -21,6 +21,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.jdt.launching.AbstractJavaLaunchConfigurationDelegate;
+import org.pitest.pitclipse.launch.PitLaunchVisitor.LaunchFailedException;
 import org.pitest.pitclipse.runner.config.PitConfiguration;
 import org.pitest.pitclipse.runner.config.PitExecutionMode;
 
@@ -35,7 +36,15 @@ public class PitLaunchConfigurationDelegate extends AbstractJavaLaunchConfigurat
     public void launch(ILaunchConfiguration launchConfig, String mode, ILaunch launch, IProgressMonitor progress)
             throws CoreException {
 
-        pluginExecutionMode().accept(new PitLaunchVisitor(pluginConfiguration(), launchConfig, launch, progress));
+        try {
+            pluginExecutionMode().accept(new PitLaunchVisitor(pluginConfiguration(), launchConfig, launch, progress));
+        } catch (LaunchFailedException e) {
+            // Let Eclipse report why the launch failed, e.g. no code changed since the given revision
+            if (e.getCause() instanceof CoreException) {
+                throw (CoreException) e.getCause();
+            }
+            throw e;
+        }
     }
 
     private PitExecutionMode pluginExecutionMode() {
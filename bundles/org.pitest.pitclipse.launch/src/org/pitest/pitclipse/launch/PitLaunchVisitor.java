@@ -49,7 +49,7 @@ public class PitLaunchVisitor implements PitExecutionModeVisitor<Void> {
         try {
             new ProjectLevelLaunchDelegate(pitConfiguration).launch(configuration, RUN_MODE, launch, monitor);
         } catch (CoreException e) {
-            throw new LaunchFailedException(configuration.getName());
+            throw new LaunchFailedException(configuration.getName(), e);
         }
         return null;
     }
@@ -58,7 +58,7 @@ public class PitLaunchVisitor implements PitExecutionModeVisitor<Void> {
         try {
             new WorkspaceLevelLaunchDelegate(pitConfiguration).launch(configuration, RUN_MODE, launch, monitor);
         } catch (CoreException e) {
-            throw new LaunchFailedException(configuration.getName());
+            throw new LaunchFailedException(configuration.getName(), e);
         }
         return null;
     }
@@ -69,5 +69,9 @@ public class PitLaunchVisitor implements PitExecutionModeVisitor<Void> {
         public LaunchFailedException(String name) {
             super(name);
         }
+
+        public LaunchFailedException(String name, CoreException cause) {
+            super(name, cause);
+        }
     }
 }
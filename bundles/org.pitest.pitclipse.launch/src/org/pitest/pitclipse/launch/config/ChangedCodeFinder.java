@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.launch.config;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.JavaCore;
+import org.pitest.pitclipse.core.launch.LaunchPlanCache;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Finds the lines of code changed since a given git revision.</p>
+ * 
+ * <p>The local git repositories containing the source directories of a launch
+ * are read with the {@code git} executable; no remote is ever contacted. Both
+ * committed and uncommitted changes of the working tree are taken into account,
+ * as well as the untracked Java files, which are considered entirely changed.</p>
+ * 
+ * <p>Changed files are mapped to the compilation units of the workspace, and
+ * their lines are associated to the top-level types they declare.</p>
+ * 
+ * <p>Failures to read the changes are reported as {@link CoreException}s, as is
+ * the absence of changes (with the {@link #NO_CHANGES} code): a launch analyzing
+ * changed code has nothing to do in that case.</p>
+ */
+public class ChangedCodeFinder {
+
+    /**
+     * The code of the status telling that no code changed since the given revision.
+     */
+    public static final int NO_CHANGES = 1;
+
+    private static final String PLUGIN_ID = "org.pitest.pitclipse.launch";
+
+    private static final String JAVA_FILES = "*.java";
+    private static final String NEW_FILE_PREFIX = "+++ ";
+    private static final String DESTINATION_PREFIX = "b/";
+    private static final Pattern HUNK_HEADER = Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@.*");
+
+    /**
+     * Returns the lines changed since the given revision in the given source directories.
+     * 
+     * @param sourceDirs
+     *          The source directories of the launch.
+     * @param baseRevision
+     *          The git revision to compare the working trees with.
+     * @return the changed lines, by top-level type
+     * @throws CoreException if the changes cannot be read from git, or if the types
+     *          declared by a changed file cannot be retrieved
+     */
+    public SetMultimap<String, Integer> getChangedLines(List<File> sourceDirs, String baseRevision)
+            throws CoreException {
+        SetMultimap<String, Integer> changedLines = HashMultimap.create();
+        try {
+            for (File workTree : workTreesOf(sourceDirs)) {
+                for (Map.Entry<File, Set<Integer>> changedFile : changedFiles(workTree, baseRevision).entrySet()) {
+                    for (String type : topLevelTypesOf(changedFile.getKey())) {
+                        changedLines.putAll(type, changedFile.getValue());
+                    }
+                }
+            }
+        } catch (GitDiffException e) {
+            throw new CoreException(new Status(IStatus.ERROR, PLUGIN_ID, e.getMessage(), e));
+        }
+        return ImmutableSetMultimap.copyOf(changedLines);
+    }
+
+    /**
+     * Returns the exception telling that the code to analyze did not change since
+     * the given revision.
+     * 
+     * @param baseRevision
+     *          The git revision the working trees have been compared with.
+     * @return an exception whose status has the {@link #NO_CHANGES} code
+     */
+    public static CoreException noChangesSince(String baseRevision) {
+        return new CoreException(new Status(IStatus.INFO, PLUGIN_ID, NO_CHANGES,
+                "No code to analyze changed since " + baseRevision, null));
+    }
+
+    /**
+     * Returns the lines added or modified by the given output of {@code git diff --unified=0}.
+     * When lines have been removed, the lines around them are considered as changed.
+     * 
+     * @param workTree
+     *          The working tree the paths of the diff are relative to.
+     * @param diff
+     *          The lines of the diff.
+     * @return the changed lines, by file
+     */
+    public static SetMultimap<File, Integer> changedLinesOf(File workTree, List<String> diff) {
+        SetMultimap<File, Integer> changedLines = HashMultimap.create();
+        File changedFile = null;
+        for (String line : diff) {
+            if (line.startsWith(NEW_FILE_PREFIX)) {
+                String path = line.substring(NEW_FILE_PREFIX.length());
+                changedFile = path.startsWith(DESTINATION_PREFIX)
+                        ? new File(workTree, path.substring(DESTINATION_PREFIX.length()))
+                        : null;
+                continue;
+            }
+            Matcher hunk = HUNK_HEADER.matcher(line);
+            if (changedFile != null && hunk.matches()) {
+                int start = Integer.parseInt(hunk.group(1));
+                int count = hunk.group(2) == null ? 1 : Integer.parseInt(hunk.group(2));
+                if (count == 0) {
+                    // lines have been removed after the start line: the code around them has changed
+                    changedLines.put(changedFile, Math.max(1, start));
+                    changedLines.put(changedFile, start + 1);
+                }
+                for (int changed = start; changed < start + count; changed++) {
+                    changedLines.put(changedFile, changed);
+                }
+            }
+        }
+        return changedLines;
+    }
+
+    private static Set<File> workTreesOf(List<File> sourceDirs) {
+        Set<File> workTrees = new LinkedHashSet<>();
+        for (File sourceDir : sourceDirs) {
+            try {
+                List<String> topLevel = git(sourceDir, "rev-parse", "--show-toplevel");
+                if (!topLevel.isEmpty()) {
+                    workTrees.add(new File(topLevel.get(0)));
+                }
+            } catch (GitDiffException notInARepository) {
+                // sources outside of a git repository are not considered as changed
+            }
+        }
+        if (workTrees.isEmpty()) {
+            throw new GitDiffException("None of the source directories belongs to a git repository");
+        }
+        return workTrees;
+    }
+
+    private static Map<File, Set<Integer>> changedFiles(File workTree, String baseRevision) {
+        SetMultimap<File, Integer> changedLines = changedLinesOf(workTree, git(workTree, "-c", "core.quotePath=false",
+                "diff", "--no-color", "--no-ext-diff", "--no-renames", "--unified=0", "--src-prefix=a/",
+                "--dst-prefix=" + DESTINATION_PREFIX, baseRevision, "--", JAVA_FILES));
+        for (String path : git(workTree, "-c", "core.quotePath=false", "ls-files", "--others", "--exclude-standard",
+                "--", JAVA_FILES)) {
+            File untrackedFile = new File(workTree, path);
+            int lineCount = lineCountOf(untrackedFile);
+            for (int line = 1; line <= lineCount; line++) {
+                changedLines.put(untrackedFile, line);
+            }
+        }
+        return Multimaps.asMap(changedLines);
+    }
+
+    private static int lineCountOf(File file) {
+        try {
+            return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size();
+        } catch (IOException e) {
+            throw new GitDiffException("Unable to read " + file, e);
+        }
+    }
+
+    private static Set<String> topLevelTypesOf(File file) throws CoreException {
+        Set<String> types = new LinkedHashSet<>();
+        IFile resource = ResourcesPlugin.getWorkspace().getRoot().getFileForLocation(Path.fromOSString(file.getPath()));
+        if (resource == null) {
+            return types;
+        }
+        IJavaElement element = JavaCore.create(resource);
+        if (element instanceof ICompilationUnit && element.exists()) {
+            for (String type : LaunchPlanCache.INSTANCE.typesOf((ICompilationUnit) element)) {
+                int nestedTypeSeparator = type.indexOf('$');
+                types.add(nestedTypeSeparator < 0 ? type : type.substring(0, nestedTypeSeparator));
+            }
+        }
+        return types;
+    }
+
+    private static List<String> git(File directory, String... arguments) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(ImmutableList.copyOf(arguments));
+        try {
+            Process git = new ProcessBuilder(command).directory(directory)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            List<String> output = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(git.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.add(line);
+                }
+            }
+            int exitCode = git.waitFor();
+            if (exitCode != 0) {
+                throw new GitDiffException(String.join(" ", command) + " failed in " + directory
+                        + " with exit code " + exitCode);
+            }
+            return output;
+        } catch (IOException e) {
+            throw new GitDiffException("Unable to run " + String.join(" ", command), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitDiffException("Interrupted while running " + String.join(" ", command), e);
+        }
+    }
+}
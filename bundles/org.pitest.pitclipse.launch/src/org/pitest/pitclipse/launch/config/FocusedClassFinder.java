@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.launch.config;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchRequestor;
+import org.pitest.pitclipse.core.launch.TestCoverage;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>Narrows the classes to mutate when a single test class is launched
+ * in focused mode.</p>
+ * 
+ * <p>Only the classes the test is known to cover are kept, that is the
+ * classes it covered during the latest analyses, directly or not (see
+ * {@link TestCoverage}), and the types its source directly references,
+ * found by a JDT search. Nested types follow their top-level type.
+ * All the classes are kept when none of them is referenced by the test.</p>
+ * 
+ * <p>Until an analysis has run the test, only the types it directly references
+ * are found: the classes it reaches through them are not mutated.</p>
+ */
+public class FocusedClassFinder implements ClassFinder {
+
+    private final ClassFinder classFinder;
+
+    /**
+     * Creates a new finder narrowing the classes found by another one.
+     * 
+     * @param classFinder
+     *          The finder of all the classes that may be mutated.
+     */
+    public FocusedClassFinder(ClassFinder classFinder) {
+        this.classFinder = classFinder;
+    }
+
+    @Override
+    public List<String> getClasses(LaunchConfigurationWrapper configurationWrapper) throws CoreException {
+        List<String> classes = classFinder.getClasses(configurationWrapper);
+        if (!configurationWrapper.isTestLaunch() || !configurationWrapper.isFocusedTestLaunch()) {
+            return classes;
+        }
+        Set<String> coveredTypes = getCoveredTypes(configurationWrapper.getTestClass());
+        ImmutableList.Builder<String> focusedClasses = ImmutableList.builder();
+        for (String mutatedClass : classes) {
+            if (coveredTypes.contains(topLevelTypeOf(mutatedClass))) {
+                focusedClasses.add(mutatedClass);
+            }
+        }
+        List<String> result = focusedClasses.build();
+        return result.isEmpty() ? classes : result;
+    }
+
+    private static Set<String> getCoveredTypes(IType testClass) throws CoreException {
+        ImmutableSet.Builder<String> coveredTypes = ImmutableSet.builder();
+        for (String coveredClass : TestCoverage.INSTANCE.classesCoveredBy(testClass.getFullyQualifiedName())) {
+            coveredTypes.add(topLevelTypeOf(coveredClass));
+        }
+        SearchRequestor requestor = new SearchRequestor() {
+            @Override
+            public void acceptSearchMatch(SearchMatch match) {
+                if (match.getElement() instanceof IType) {
+                    coveredTypes.add(topLevelTypeOf(((IType) match.getElement()).getFullyQualifiedName()));
+                }
+            }
+        };
+        new SearchEngine().searchDeclarationsOfReferencedTypes(testClass, requestor, new NullProgressMonitor());
+        return coveredTypes.build();
+    }
+
+    private static String topLevelTypeOf(String className) {
+        int nestedTypeSeparator = className.indexOf('$');
+        return nestedTypeSeparator < 0 ? className : className.substring(0, nestedTypeSeparator);
+    }
+}
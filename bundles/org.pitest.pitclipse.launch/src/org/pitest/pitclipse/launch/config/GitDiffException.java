@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.launch.config;
+
+/**
+ * Thrown when the changes of a git repository cannot be read. Reported as a
+ * {@link org.eclipse.core.runtime.CoreException} by {@link ChangedCodeFinder}.
+ */
+final class GitDiffException extends RuntimeException {
+
+    private static final long serialVersionUID = 4022937725862364139L;
+
+    GitDiffException(String message) {
+        super(message);
+    }
+
+    GitDiffException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
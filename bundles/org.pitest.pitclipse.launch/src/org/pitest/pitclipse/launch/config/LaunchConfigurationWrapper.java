@@ -16,6 +16,7 @@
 
 package org.pitest.pitclipse.launch.config;
 
+import static java.util.stream.Collectors.toList;
 import static org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants.ATTR_MAIN_TYPE_NAME;
 import static org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants.ATTR_PROJECT_NAME;
 import static org.pitest.pitclipse.core.PitCoreActivator.getDefault;
@@ -25,6 +26,9 @@ import static org.pitest.pitclipse.core.preferences.PitPreferences.MUTATOR_GROUP
 import java.io.File;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -32,19 +36,26 @@ import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
 import org.pitest.pitclipse.core.Mutators;
+import org.pitest.pitclipse.core.launch.MutatedMethodNotFoundException;
 import org.pitest.pitclipse.core.launch.ProjectClosedException;
 import org.pitest.pitclipse.core.launch.ProjectNotFoundException;
+import org.pitest.pitclipse.core.launch.SurvivorsRerun;
 import org.pitest.pitclipse.core.launch.TestClassNotFoundException;
 import org.pitest.pitclipse.runner.PitOptions;
 import org.pitest.pitclipse.runner.PitOptions.PitOptionsBuilder;
 import org.pitest.pitclipse.runner.config.PitConfiguration;
 
 import com.google.common.base.Splitter;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.SetMultimap;
 
 public class LaunchConfigurationWrapper {
 
@@ -58,16 +69,25 @@ public class LaunchConfigurationWrapper {
     public static final String ATTR_EXCLUDE_CLASSES = "org.pitest.pitclipse.core.test.excludeClasses";
     public static final String ATTR_EXCLUDE_METHODS = "org.pitest.pitclipse.core.test.excludeMethods";
     public static final String ATTR_AVOID_CALLS_TO = "org.pitest.pitclipse.core.test.avoidCallsTo";
+    public static final String ATTR_FOCUSED_TEST_LAUNCH = "org.pitest.pitclipse.core.test.focused";
+    public static final String ATTR_CHANGED_SINCE = "org.pitest.pitclipse.core.test.changedSince";
+    public static final String ATTR_MUTATED_METHOD = "org.pitest.pitclipse.core.test.mutatedMethod";
     private final ProjectFinder projectFinder;
+    private final ChangedCodeFinder changedCodeFinder;
+    private final ReferencingTestFinder referencingTestFinder;
+    private List<IType> referencingTests;
 
     private LaunchConfigurationWrapper(ILaunchConfiguration launchConfig, ProjectFinder projectFinder,
             SourceDirFinder sourceDirFinder, PackageFinder packageFinder, ClassFinder classFinder,
+            ChangedCodeFinder changedCodeFinder, ReferencingTestFinder referencingTestFinder,
             PitConfiguration pitConfiguration) {
         this.launchConfig = launchConfig;
         this.projectFinder = projectFinder;
         this.packageFinder = packageFinder;
         this.classFinder = classFinder;
         this.sourceDirFinder = sourceDirFinder;
+        this.changedCodeFinder = changedCodeFinder;
+        this.referencingTestFinder = referencingTestFinder;
         this.pitConfiguration = pitConfiguration;
     }
 
@@ -113,6 +133,10 @@ public class LaunchConfigurationWrapper {
         return !getLaunchConfig().getAttribute(ATTR_MAIN_TYPE_NAME, "").trim().isEmpty();
     }
 
+    public boolean isFocusedTestLaunch() throws CoreException {
+        return launchConfig.getAttribute(ATTR_FOCUSED_TEST_LAUNCH, false) || pitConfiguration.isFocusedTestLaunch();
+    }
+
     public PitOptions getPitOptions() throws CoreException {
         return getPitOptionsBuilder().build();
     }
@@ -121,7 +145,7 @@ public class LaunchConfigurationWrapper {
         List<String> classPath = getClassesFromProject();
         List<File> sourceDirs = getSourceDirsForProject();
         int threadCount = getThreadCount();
-        File reportDir = getDefault().emptyResultDir();
+        File reportDir = getDefault().newResultDir();
         List<String> excludedClasses = getExcludedClasses();
         List<String> excludedMethods = getExcludedMethods();
         List<String> avoidCallsTo = getAvoidCallsTo();
@@ -134,8 +158,33 @@ public class LaunchConfigurationWrapper {
                 .withExcludedClasses(excludedClasses).withExcludedMethods(excludedMethods)
                 .withAvoidCallsTo(avoidCallsTo).withMutators(mutators).withTimeout(timeout)
                 .withTimeoutFactor(timeoutFactor);
-        if (isIncrementalAnalysis()) {
-            builder.withHistoryLocation(getDefault().getHistoryFile());
+        // A re-run only analyzes some mutants: it would drop the history of the other ones
+        if (isIncrementalAnalysis() && !isSurvivorsRerun()) {
+            builder.withHistoryLocation(getDefault().getHistoryFile(launchConfig.getName()));
+        }
+        String changedSince = getChangedSince();
+        if (!changedSince.isEmpty()) {
+            // Only the classes and lines changed since the given revision are mutated
+            SetMultimap<String, Integer> changedLines = changedCodeFinder.getChangedLines(sourceDirs, changedSince);
+            List<String> changedClasses = changedClasses(classPath, changedLines.keySet());
+            if (changedClasses.isEmpty()) {
+                // PIT would mutate every class of the project otherwise
+                throw ChangedCodeFinder.noChangesSince(changedSince);
+            }
+            builder.withClassesToMutate(changedClasses)
+                   .withIncludedLines(changedLines);
+        }
+        Optional<IMethod> mutatedMethod = getMutatedMethod();
+        if (mutatedMethod.isPresent()) {
+            // Only the given method of its declaring class is mutated
+            IMethod method = mutatedMethod.get();
+            builder.withClassesToMutate(ImmutableList.of(method.getDeclaringType().getFullyQualifiedName('$')))
+                   .withIncludedMethods(mutatedMethodNames(method));
+        }
+        if (isSurvivorsRerun()) {
+            // Only the lines of the surviving mutants of a previous analysis are mutated
+            builder.withClassesToMutate(split(launchConfig.getAttribute(SurvivorsRerun.ATTR_CLASSES_TO_MUTATE, "")))
+                   .withIncludedLines(getRerunLines());
         }
         if (isTestLaunch()) {
             IType testClass = getTestClass();
@@ -144,6 +193,13 @@ public class LaunchConfigurationWrapper {
             List<String> packages = getPackagesToTest();
             builder.withPackagesToTest(packages);
         }
+        List<IType> referencingTests = getReferencingTests();
+        if (!referencingTests.isEmpty()) {
+            // Class names are valid target test globs: only the tests referencing the method are run,
+            // otherwise the tests are selected as for any other launch
+            builder.withPackagesToTest(referencingTests.stream().map(ReferencingTestFinder::nameOf)
+                                                       .collect(toList()));
+        }
         return builder;
     }
 
@@ -158,13 +214,15 @@ public class LaunchConfigurationWrapper {
         private SourceDirFinder sourceDirFinder;
         private PitConfiguration pitConfiguration;
         private ProjectFinder projectFinder;
+        private ChangedCodeFinder changedCodeFinder = new ChangedCodeFinder();
+        private ReferencingTestFinder referencingTestFinder = new ReferencingTestFinder();
 
         private Builder() {
         }
 
         public LaunchConfigurationWrapper build() {
             return new LaunchConfigurationWrapper(launchConfig, projectFinder, sourceDirFinder, packageFinder,
-                    classFinder, pitConfiguration);
+                    classFinder, changedCodeFinder, referencingTestFinder, pitConfiguration);
         }
 
         public Builder withLaunchConfiguration(ILaunchConfiguration configuration) {
@@ -196,6 +254,16 @@ public class LaunchConfigurationWrapper {
             this.pitConfiguration = pitConfiguration;
             return this;
         }
+
+        public Builder withChangedCodeFinder(ChangedCodeFinder changedCodeFinder) {
+            this.changedCodeFinder = changedCodeFinder;
+            return this;
+        }
+
+        public Builder withReferencingTestFinder(ReferencingTestFinder referencingTestFinder) {
+            this.referencingTestFinder = referencingTestFinder;
+            return this;
+        }
     }
 
     private List<String> getExcludedMethods() throws CoreException {
@@ -234,6 +302,116 @@ public class LaunchConfigurationWrapper {
         return results.build();
     }
 
+    private String getChangedSince() throws CoreException {
+        return launchConfig.getAttribute(ATTR_CHANGED_SINCE, "").trim();
+    }
+
+    private static List<String> changedClasses(List<String> classes, Set<String> changedTypes) {
+        ImmutableList.Builder<String> results = ImmutableList.builder();
+        for (String candidate : classes) {
+            int nestedTypeSeparator = candidate.indexOf('$');
+            String topLevelType = nestedTypeSeparator < 0 ? candidate : candidate.substring(0, nestedTypeSeparator);
+            if (changedTypes.contains(topLevelType)) {
+                results.add(candidate);
+            }
+        }
+        return results.build();
+    }
+
+    /**
+     * Returns the only method to mutate, if this launch has been created for a single method.
+     * 
+     * @return the method to mutate, if any
+     * @throws CoreException
+     *          if the launch configuration cannot be read
+     */
+    public Optional<IMethod> getMutatedMethod() throws CoreException {
+        String handle = launchConfig.getAttribute(ATTR_MUTATED_METHOD, "");
+        if (handle.isEmpty()) {
+            return Optional.empty();
+        }
+        IJavaElement element = JavaCore.create(handle);
+        if (!(element instanceof IMethod) || !element.exists()) {
+            throw new MutatedMethodNotFoundException(handle);
+        }
+        return Optional.of((IMethod) element);
+    }
+
+    /**
+     * Returns the tests referencing the only method to mutate, if this launch has been
+     * created for a single method.
+     * 
+     * @return the tests running the mutated method, empty if there is none or if this
+     *         launch is not restricted to a method
+     * @throws CoreException
+     *          if the launch configuration cannot be read or the references cannot be searched
+     */
+    public List<IType> getReferencingTests() throws CoreException {
+        if (referencingTests == null) {
+            Optional<IMethod> mutatedMethod = getMutatedMethod();
+            referencingTests = mutatedMethod.isPresent() ? referencingTestFinder.getTestClasses(mutatedMethod.get())
+                                                         : ImmutableList.of();
+        }
+        return referencingTests;
+    }
+
+    /**
+     * Returns the projects holding {@link #getReferencingTests() the tests referencing the
+     * mutated method}, except the project of this launch.
+     * 
+     * @return the other projects whose tests must be on the class path of the analysis
+     * @throws CoreException
+     *          if the launch configuration cannot be read or the references cannot be searched
+     */
+    public List<IJavaProject> getReferencingTestProjects() throws CoreException {
+        IJavaProject project = getProject();
+        return getReferencingTests().stream().map(IType::getJavaProject)
+                                    .filter(testProject -> !ProjectUtils.sameProject(project, testProject))
+                                    .distinct()
+                                    .collect(toList());
+    }
+
+    /**
+     * The names PIT gives to the method and to the lambdas it declares.
+     */
+    private static List<String> mutatedMethodNames(IMethod method) throws CoreException {
+        String name = method.isConstructor() ? "<init>" : method.getElementName();
+        String lambdaPrefix = method.isConstructor() ? "new" : method.getElementName();
+        return ImmutableList.of(name, "lambda$" + lambdaPrefix + "$*");
+    }
+
+    private boolean isSurvivorsRerun() throws CoreException {
+        return launchConfig.hasAttribute(SurvivorsRerun.ATTR_CLASSES_TO_MUTATE);
+    }
+
+    /**
+     * Returns the identifier of the model into which the results of this launch must be
+     * merged, if it only re-runs some mutants of a previous analysis.
+     * 
+     * @return the identifier given by {@code MergedModels} to the model, if any
+     * @throws CoreException
+     *          if the launch configuration cannot be read
+     */
+    public Optional<String> getMergedModel() throws CoreException {
+        return Optional.ofNullable(launchConfig.getAttribute(SurvivorsRerun.ATTR_MERGED_MODEL, (String) null));
+    }
+
+    private SetMultimap<String, Integer> getRerunLines() throws CoreException {
+        SetMultimap<String, Integer> lines = HashMultimap.create();
+        Map<String, String> linesByClass = launchConfig.getAttribute(SurvivorsRerun.ATTR_INCLUDED_LINES,
+                ImmutableMap.<String, String>of());
+        for (Map.Entry<String, String> entry : linesByClass.entrySet()) {
+            for (String line : split(entry.getValue())) {
+                lines.put(entry.getKey(), Integer.valueOf(line));
+            }
+        }
+        return lines;
+    }
+
+    private static List<String> split(String toSplit) {
+        return ImmutableList.copyOf(Splitter.on(',').trimResults().omitEmptyStrings().split(toSplit));
+    }
+
     private boolean isIncrementalAnalysis() throws CoreException {
         return launchConfig.getAttribute(ATTR_TEST_INCREMENTALLY, false) || pitConfiguration.isIncrementalAnalysis();
     }
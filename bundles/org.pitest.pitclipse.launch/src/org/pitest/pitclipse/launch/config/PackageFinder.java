@@ -28,8 +28,8 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
-import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
+import org.pitest.pitclipse.core.launch.LaunchPlanCache;
 
 import java.util.List;
 import java.util.Set;
@@ -44,47 +44,51 @@ import static org.eclipse.jdt.core.IPackageFragment.DEFAULT_PACKAGE_NAME;
 
 public class PackageFinder {
 
+    private static final String ROOT_PACKAGES = "rootPackages";
+
     private static final class ProjectLevelProxyVisitor implements IResourceProxyVisitor {
-        private final LaunchConfigurationWrapper configurationWrapper;
+        private final IJavaProject project;
         private final Builder<String> builder;
 
-        private ProjectLevelProxyVisitor(LaunchConfigurationWrapper configurationWrapper, Builder<String> builder) {
-            this.configurationWrapper = configurationWrapper;
+        private ProjectLevelProxyVisitor(IJavaProject project, Builder<String> builder) {
+            this.project = project;
             this.builder = builder;
         }
 
         @Override
         public boolean visit(IResourceProxy proxy) throws CoreException {
-            IJavaProject project = configurationWrapper.getProject();
             if (proxy.getType() == FOLDER) {
                 IJavaElement element = JavaCore.create(proxy.requestResource());
                 if (element.getElementType() == PACKAGE_FRAGMENT) {
                     builder.add(element.getElementName() + ".*");
                 } else if (element.getElementType() == PACKAGE_FRAGMENT_ROOT) {
-                    builder.addAll(getPackagesFromRoot(project, element.getHandleIdentifier()));
+                    builder.addAll(getPackagesFromRoot((IPackageFragmentRoot) element));
                 }
             } else if (proxy.getType() == PROJECT) {
-                IPackageFragmentRoot[] packageRoots = project.getAllPackageFragmentRoots();
-                for (IPackageFragmentRoot packageRoot : packageRoots) {
-                    if (!packageRoot.isArchive()) {
-                        builder.addAll(getPackagesFromRoot(project, packageRoot.getHandleIdentifier()));
-                    }
-                }
+                builder.addAll(getPackagesFromProject(project));
             }
             return false;
         }
 
-        private Set<String> getPackagesFromRoot(IJavaProject project, String handleId) throws CoreException {
+        /**
+         * The roots of the project include the ones of the projects on its classpath,
+         * whose packages are cached with these projects so that their changes are seen.
+         */
+        private Set<String> getPackagesFromProject(IJavaProject project) throws CoreException {
             Builder<String> setBuilder = ImmutableSet.builder();
-            IPackageFragmentRoot[] roots = project.getPackageFragmentRoots();
-            for (IPackageFragmentRoot root : roots) {
-                if (handleId.equals(root.getHandleIdentifier())) {
-                    setBuilder.addAll(packagesFrom(root));
+            IPackageFragmentRoot[] packageRoots = project.getAllPackageFragmentRoots();
+            for (IPackageFragmentRoot packageRoot : packageRoots) {
+                if (!packageRoot.isArchive()) {
+                    setBuilder.addAll(getPackagesFromRoot(packageRoot));
                 }
             }
             return setBuilder.build();
         }
 
+        private Set<String> getPackagesFromRoot(IPackageFragmentRoot root) throws CoreException {
+            return LaunchPlanCache.INSTANCE.get(root, ROOT_PACKAGES, p -> packagesFrom(root));
+        }
+
         private Set<String> packagesFrom(IPackageFragmentRoot root) throws CoreException {
             Builder<String> setBuilder = ImmutableSet.builder();
             IJavaElement[] elements = root.getChildren();
@@ -113,9 +117,7 @@ public class PackageFinder {
         private Set<String> classesFromDefaultPackage(IPackageFragment packageFragment) throws CoreException {
             Builder<String> setBuilder = ImmutableSet.builder();
             for (ICompilationUnit c : packageFragment.getCompilationUnits()) {
-                for (IType type : c.getAllTypes()) {
-                    setBuilder.add(type.getFullyQualifiedName());
-                }
+                setBuilder.addAll(LaunchPlanCache.INSTANCE.typesOf(c));
             }
             return setBuilder.build();
         }
@@ -124,7 +126,7 @@ public class PackageFinder {
     public List<String> getPackages(LaunchConfigurationWrapper configurationWrapper) throws CoreException {
         final Builder<String> builder = ImmutableSet.builder();
         IResource[] resources = configurationWrapper.getMappedResources();
-        IResourceProxyVisitor visitor = new ProjectLevelProxyVisitor(configurationWrapper, builder);
+        IResourceProxyVisitor visitor = new ProjectLevelProxyVisitor(configurationWrapper.getProject(), builder);
         for (IResource resource : resources) {
             resource.accept(visitor, NONE);
         }
@@ -25,8 +25,8 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
-import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
+import org.pitest.pitclipse.core.launch.LaunchPlanCache;
 
 import java.util.List;
 import java.util.Set;
@@ -36,13 +36,29 @@ import static com.google.common.collect.ImmutableSet.builder;
 
 public class ProjectLevelClassFinder implements ClassFinder {
 
+    private static final String NON_TEST_CLASSES = "nonTestClasses";
+
     @Override
     public List<String> getClasses(LaunchConfigurationWrapper configurationWrapper) throws CoreException {
         IJavaProject project = configurationWrapper.getProject();
         return copyOf(getClassesFromProject(project));
     }
 
-    public static Set<String> getClassesFromProject(IJavaProject project) throws JavaModelException {
+    /**
+     * Returns the classes declared by the source folders of the given project, except Maven
+     * test folders. The classes are computed once, then kept by {@link LaunchPlanCache}.
+     * 
+     * @param project
+     *          The project from which classes are to be retrieved.
+     * @return the classes declared by the project
+     * @throws CoreException if the classes cannot be retrieved
+     */
+    public static Set<String> getClassesFromProject(IJavaProject project) throws CoreException {
+        return LaunchPlanCache.INSTANCE.get(project, NON_TEST_CLASSES,
+                ProjectLevelClassFinder::findClassesFromProject);
+    }
+
+    private static Set<String> findClassesFromProject(IJavaProject project) throws JavaModelException {
         Builder<String> classPathBuilder = builder();
         IPackageFragmentRoot[] packageRoots = project.getPackageFragmentRoots();
         for (IPackageFragmentRoot packageRoot : packageRoots) {
@@ -88,10 +104,6 @@ public class ProjectLevelClassFinder implements ClassFinder {
     }
 
     private static Set<String> getClassesFromSourceFile(ICompilationUnit javaFile) throws JavaModelException {
-        Builder<String> classPathBuilder = ImmutableSet.builder();
-        for (IType type : javaFile.getAllTypes()) {
-            classPathBuilder.add(type.getFullyQualifiedName());
-        }
-        return classPathBuilder.build();
+        return LaunchPlanCache.INSTANCE.typesOf(javaFile);
     }
 }
@@ -25,6 +25,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.pitest.pitclipse.core.launch.LaunchPlanCache;
 
 import java.io.File;
 import java.net.URI;
@@ -32,10 +33,15 @@ import java.util.List;
 
 public class ProjectLevelSourceDirFinder implements SourceDirFinder {
 
+    private static final String SOURCE_DIRS = "projectLevelSourceDirs";
+
     @Override
     public List<File> getSourceDirs(LaunchConfigurationWrapper configurationWrapper) throws CoreException {
+        return LaunchPlanCache.INSTANCE.get(configurationWrapper.getProject(), SOURCE_DIRS, this::findSourceDirs);
+    }
+
+    private List<File> findSourceDirs(IJavaProject javaProject) throws CoreException {
         Builder<File> sourceDirBuilder = ImmutableSet.builder();
-        IJavaProject javaProject = configurationWrapper.getProject();
         URI location = getProjectLocation(javaProject.getProject());
         IPackageFragmentRoot[] packageRoots = javaProject.getPackageFragmentRoots();
 
@@ -24,11 +24,14 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
+import org.pitest.pitclipse.core.launch.LaunchPlanCache;
 
 import java.util.List;
 
 public class ProjectUtils {
 
+    private static final String PROJECTS_UNDER_TEST = "projectsUnderTest";
+
     private ProjectUtils() {
     }
 
@@ -43,6 +46,30 @@ public class ProjectUtils {
         return resultBuilder.build();
     }
 
+    /**
+     * Returns the open Java projects that are tested by the given project: the project
+     * itself and the projects on its classpath. The projects are computed once, then
+     * kept by {@link LaunchPlanCache}.
+     * 
+     * @param testProject
+     *          The project holding the tests.
+     * @return the projects whose classes can be mutated
+     * @throws CoreException if the projects cannot be retrieved
+     */
+    public static List<IJavaProject> getProjectsUnderTest(IJavaProject testProject) throws CoreException {
+        return LaunchPlanCache.INSTANCE.get(testProject, PROJECTS_UNDER_TEST, ProjectUtils::findProjectsUnderTest);
+    }
+
+    private static List<IJavaProject> findProjectsUnderTest(IJavaProject testProject) throws CoreException {
+        ImmutableList.Builder<IJavaProject> resultBuilder = ImmutableList.builder();
+        for (IJavaProject project : getOpenJavaProjects()) {
+            if (sameProject(testProject, project) || onClassPathOf(testProject, project)) {
+                resultBuilder.add(project);
+            }
+        }
+        return resultBuilder.build();
+    }
+
     public static boolean onClassPathOf(IJavaProject testProject, IJavaProject project) {
         return testProject.isOnClasspath(project);
     }
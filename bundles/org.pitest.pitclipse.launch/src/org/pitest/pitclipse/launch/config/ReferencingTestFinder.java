@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.launch.config;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IAnnotatable;
+import org.eclipse.jdt.core.IAnnotation;
+import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * <p>Finds the tests to run when a single method is mutated.</p>
+ * 
+ * <p>The references to the method are searched by JDT in the sources of its
+ * project and of the projects depending on it. The tests containing them are
+ * kept; production code referencing the method is followed to the tests
+ * calling it, up to {@value #MAX_CALL_DEPTH} calls away.</p>
+ * 
+ * <p>A type is a test if it, one of its superclasses or one of its nested
+ * classes is annotated with {@code @RunWith} or declares a method annotated
+ * with a JUnit 4 or JUnit 5 test annotation, or if it extends JUnit 3
+ * {@code TestCase}. Abstract tests are replaced by their concrete subclasses.</p>
+ */
+public class ReferencingTestFinder {
+
+    /**
+     * The number of calls from production code that are followed to find the tests
+     * that indirectly run the mutated method.
+     */
+    public static final int MAX_CALL_DEPTH = 3;
+
+    private static final Set<String> TEST_METHOD_ANNOTATIONS = ImmutableSet.of("Test", "ParameterizedTest",
+            "RepeatedTest", "TestFactory", "TestTemplate");
+    private static final String RUN_WITH_ANNOTATION = "RunWith";
+    private static final String JUNIT3_TEST_CASE = "junit.framework.TestCase";
+
+    /**
+     * Returns the tests referencing the given method, directly or through production code.
+     * 
+     * @param method
+     *          The mutated method.
+     * @return the tests running the method, sorted by name
+     * @throws CoreException if the references cannot be searched
+     */
+    public List<IType> getTestClasses(IMethod method) throws CoreException {
+        IJavaSearchScope scope = SearchEngine.createJavaSearchScope(
+                projectsDependingOn(method.getJavaProject()), IJavaSearchScope.SOURCES);
+        Set<IType> tests = new TreeSet<>(Comparator.comparing(ReferencingTestFinder::nameOf));
+        Set<IMember> visited = new HashSet<>();
+        visited.add(method);
+        List<IMember> callees = ImmutableList.of(method);
+        for (int depth = 0; depth <= MAX_CALL_DEPTH && !callees.isEmpty(); depth++) {
+            List<IMember> callers = new ArrayList<>();
+            for (IMember caller : referencesTo(callees, scope)) {
+                IType type = topLevelTypeOf(caller);
+                if (isTest(type)) {
+                    tests.addAll(concreteTestsOf(type));
+                } else if (visited.add(caller) && (caller instanceof IMethod || caller instanceof IField)) {
+                    callers.add(caller);
+                }
+            }
+            callees = callers;
+        }
+        return ImmutableList.copyOf(tests);
+    }
+
+    /**
+     * Returns the name of the given test, as expected by PIT.
+     * 
+     * @param test
+     *          A test returned by {@link #getTestClasses(IMethod)}.
+     * @return the fully qualified name of the test
+     */
+    public static String nameOf(IType test) {
+        return test.getFullyQualifiedName('$');
+    }
+
+    private static IJavaElement[] projectsDependingOn(IJavaProject project) throws CoreException {
+        Set<IJavaElement> projects = new LinkedHashSet<>();
+        projects.add(project);
+        for (IJavaProject candidate : ProjectUtils.getOpenJavaProjects()) {
+            if (ProjectUtils.onClassPathOf(candidate, project)) {
+                projects.add(candidate);
+            }
+        }
+        return projects.toArray(new IJavaElement[0]);
+    }
+
+    private static Set<IMember> referencesTo(List<IMember> members, IJavaSearchScope scope) throws CoreException {
+        Set<IMember> callers = new LinkedHashSet<>();
+        SearchRequestor requestor = new SearchRequestor() {
+            @Override
+            public void acceptSearchMatch(SearchMatch match) {
+                if (match.getElement() instanceof IMember) {
+                    callers.add((IMember) match.getElement());
+                }
+            }
+        };
+        SearchPattern references = null;
+        for (IMember member : members) {
+            SearchPattern pattern = SearchPattern.createPattern(member, IJavaSearchConstants.REFERENCES);
+            references = references == null ? pattern : SearchPattern.createOrPattern(references, pattern);
+        }
+        new SearchEngine().search(references, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() },
+                scope, requestor, new NullProgressMonitor());
+        return callers;
+    }
+
+    private static Set<IType> concreteTestsOf(IType test) throws JavaModelException {
+        if (!Flags.isAbstract(test.getFlags())) {
+            return ImmutableSet.of(test);
+        }
+        ImmutableSet.Builder<IType> concreteTests = ImmutableSet.builder();
+        for (IType subtype : test.newTypeHierarchy(new NullProgressMonitor()).getAllSubtypes(test)) {
+            if (!subtype.isBinary() && !Flags.isAbstract(subtype.getFlags())) {
+                concreteTests.add(subtype);
+            }
+        }
+        return concreteTests.build();
+    }
+
+    private static boolean isTest(IType type) throws JavaModelException {
+        if (declaresTests(type)) {
+            return true;
+        }
+        for (IType superclass : type.newSupertypeHierarchy(new NullProgressMonitor()).getAllSuperclasses(type)) {
+            if (JUNIT3_TEST_CASE.equals(superclass.getFullyQualifiedName()) || declaresTests(superclass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean declaresTests(IType type) throws JavaModelException {
+        if (isAnnotatedWith(type, ImmutableSet.of(RUN_WITH_ANNOTATION))) {
+            return true;
+        }
+        for (IMethod method : type.getMethods()) {
+            if (isAnnotatedWith(method, TEST_METHOD_ANNOTATIONS)) {
+                return true;
+            }
+        }
+        // JUnit 5 @Nested tests
+        for (IType nestedType : type.getTypes()) {
+            if (declaresTests(nestedType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Annotations of source types are named as written, qualified or not.
+     */
+    private static boolean isAnnotatedWith(IAnnotatable element, Set<String> simpleNames) throws JavaModelException {
+        for (IAnnotation annotation : element.getAnnotations()) {
+            String name = annotation.getElementName();
+            if (simpleNames.contains(name.substring(name.lastIndexOf('.') + 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static IType topLevelTypeOf(IMember member) {
+        IType type = member instanceof IType ? (IType) member : member.getDeclaringType();
+        while (type.getDeclaringType() != null) {
+            type = type.getDeclaringType();
+        }
+        return type;
+    }
+}
@@ -17,9 +17,7 @@
 package org.pitest.pitclipse.launch.config;
 
 import static org.pitest.pitclipse.launch.config.ProjectLevelClassFinder.getClassesFromProject;
-import static org.pitest.pitclipse.launch.config.ProjectUtils.getOpenJavaProjects;
-import static org.pitest.pitclipse.launch.config.ProjectUtils.onClassPathOf;
-import static org.pitest.pitclipse.launch.config.ProjectUtils.sameProject;
+import static org.pitest.pitclipse.launch.config.ProjectUtils.getProjectsUnderTest;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -35,11 +33,8 @@ public class WorkspaceLevelClassFinder implements ClassFinder {
     public List<String> getClasses(LaunchConfigurationWrapper configurationWrapper) throws CoreException {
         Set<String> classPathBuilder = new HashSet<>();
         IJavaProject testProject = configurationWrapper.getProject();
-        List<IJavaProject> projects = getOpenJavaProjects();
-        for (IJavaProject project : projects) {
-            if (sameProject(testProject, project) || onClassPathOf(testProject, project)) {
-                classPathBuilder.addAll(getClassesFromProject(project));
-            }
+        for (IJavaProject project : getProjectsUnderTest(testProject)) {
+            classPathBuilder.addAll(getClassesFromProject(project));
         }
         return new ArrayList<>(classPathBuilder);
     }
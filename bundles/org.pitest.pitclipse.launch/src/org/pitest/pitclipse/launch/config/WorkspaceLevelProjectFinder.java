@@ -24,20 +24,15 @@ import org.eclipse.jdt.core.IJavaProject;
 
 import java.util.List;
 
-import static org.pitest.pitclipse.launch.config.ProjectUtils.getOpenJavaProjects;
-import static org.pitest.pitclipse.launch.config.ProjectUtils.onClassPathOf;
-import static org.pitest.pitclipse.launch.config.ProjectUtils.sameProject;
+import static org.pitest.pitclipse.launch.config.ProjectUtils.getProjectsUnderTest;
 
 public class WorkspaceLevelProjectFinder implements ProjectFinder {
     @Override
     public List<String> getProjects(LaunchConfigurationWrapper configurationWrapper) throws CoreException {
         Builder<String> results = ImmutableList.builder();
         IJavaProject testProject = configurationWrapper.getProject();
-        List<IJavaProject> projects = getOpenJavaProjects();
-        for (IJavaProject project : projects) {
-            if (sameProject(testProject, project) || onClassPathOf(testProject, project)) {
-                results.add(project.getProject().getName());
-            }
+        for (IJavaProject project : getProjectsUnderTest(testProject)) {
+            results.add(project.getProject().getName());
         }
         return results.build();
     }
@@ -16,9 +16,7 @@
 
 package org.pitest.pitclipse.launch.config;
 
-import static org.pitest.pitclipse.launch.config.ProjectUtils.getOpenJavaProjects;
-import static org.pitest.pitclipse.launch.config.ProjectUtils.onClassPathOf;
-import static org.pitest.pitclipse.launch.config.ProjectUtils.sameProject;
+import static org.pitest.pitclipse.launch.config.ProjectUtils.getProjectsUnderTest;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -26,22 +24,24 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableSet;
+
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.pitest.pitclipse.core.launch.LaunchPlanCache;
 
 public class WorkspaceLevelSourceDirFinder implements SourceDirFinder {
 
+    private static final String SOURCE_DIRS = "workspaceLevelSourceDirs";
+
     @Override
     public List<File> getSourceDirs(LaunchConfigurationWrapper configurationWrapper) throws CoreException {
         List<File> sourceDirs = new ArrayList<>();
         IJavaProject testProject = configurationWrapper.getProject();
-        List<IJavaProject> projects = getOpenJavaProjects();
-        for (IJavaProject project : projects) {
-            if (sameProject(testProject, project) || onClassPathOf(testProject, project)) {
-                sourceDirs.addAll(getSourceDirsFromProject(project));
-            }
+        for (IJavaProject project : getProjectsUnderTest(testProject)) {
+            sourceDirs.addAll(LaunchPlanCache.INSTANCE.get(project, SOURCE_DIRS, this::getSourceDirsFromProject));
         }
         return sourceDirs;
     }
@@ -65,7 +65,7 @@ public class WorkspaceLevelSourceDirFinder implements SourceDirFinder {
                 }
             }
         }
-        return sourceDirs;
+        return ImmutableSet.copyOf(sourceDirs);
     }
 
 }
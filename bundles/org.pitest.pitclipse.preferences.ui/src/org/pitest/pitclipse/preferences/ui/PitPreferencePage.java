@@ -18,6 +18,7 @@ package org.pitest.pitclipse.preferences.ui;
 
 import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.jface.preference.RadioGroupFieldEditor;
 import org.eclipse.jface.preference.StringFieldEditor;
 import org.eclipse.ui.IWorkbench;
@@ -41,6 +42,8 @@ import static org.pitest.pitclipse.runner.config.PitExecutionMode.values;
 
 public class PitPreferencePage extends FieldEditorPreferencePage implements IWorkbenchPreferencePage {
 
+    private static final int MAX_HISTORY_SIZE_LIMIT = 10_000;
+
     public PitPreferencePage() {
         super(GRID);
         setPreferenceStore(PitCoreActivator.getDefault().getPreferenceStore());
@@ -57,11 +60,16 @@ public class PitPreferencePage extends FieldEditorPreferencePage implements IWor
         createExecutionModeRadioButtons();
         createRunInParallelOption();
         createUseIncrementalAnalysisOption();
+        createHistorySizeLimitField();
         createExcludeClassesField();
         createExcludeMethodsField();
         createAvoidCallsToField();
         createPitTimeoutField();
         createPitTimeoutFactorField();
+        createRunnerDaemonOption();
+        createRunnerShardsField();
+        createFocusedTestLaunchOption();
+        createResultCacheOption();
     }
 
     private void createAvoidCallsToField() {
@@ -80,10 +88,36 @@ public class PitPreferencePage extends FieldEditorPreferencePage implements IWor
         addField(new BooleanFieldEditor(INCREMENTAL_ANALYSIS, INCREMENTAL_ANALYSIS_LABEL, getFieldEditorParent()));
     }
 
+    private void createHistorySizeLimitField() {
+        IntegerFieldEditor historySizeLimit = new IntegerFieldEditor(HISTORY_SIZE_LIMIT, HISTORY_SIZE_LIMIT_LABEL,
+                getFieldEditorParent());
+        historySizeLimit.setValidRange(1, MAX_HISTORY_SIZE_LIMIT);
+        addField(historySizeLimit);
+    }
+
     private void createRunInParallelOption() {
         addField(new BooleanFieldEditor(RUN_IN_PARALLEL, RUN_IN_PARALLEL_LABEL, getFieldEditorParent()));
     }
 
+    private void createRunnerDaemonOption() {
+        addField(new BooleanFieldEditor(RUNNER_DAEMON, RUNNER_DAEMON_LABEL, getFieldEditorParent()));
+    }
+
+    private void createRunnerShardsField() {
+        IntegerFieldEditor runnerShards = new IntegerFieldEditor(RUNNER_SHARDS, RUNNER_SHARDS_LABEL,
+                getFieldEditorParent());
+        runnerShards.setValidRange(1, Runtime.getRuntime().availableProcessors());
+        addField(runnerShards);
+    }
+
+    private void createFocusedTestLaunchOption() {
+        addField(new BooleanFieldEditor(FOCUSED_TEST_LAUNCH, FOCUSED_TEST_LAUNCH_LABEL, getFieldEditorParent()));
+    }
+
+    private void createResultCacheOption() {
+        addField(new BooleanFieldEditor(RESULT_CACHE, RESULT_CACHE_LABEL, getFieldEditorParent()));
+    }
+
     private void createPitTimeoutField() {
         addField(new StringFieldEditor(TIMEOUT, TIMEOUT_LABEL, getFieldEditorParent()));
     }
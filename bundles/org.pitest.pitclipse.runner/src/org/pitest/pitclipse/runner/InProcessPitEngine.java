@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.pitest.mutationtest.ListenerArguments;
+import org.pitest.mutationtest.MutationResultListener;
+import org.pitest.classinfo.ClassByteArraySource;
+import org.pitest.coverage.CoverageDatabase;
+import org.pitest.mutationtest.MutationResultListenerFactory;
+import org.pitest.mutationtest.build.CompoundInterceptorFactory;
+import org.pitest.mutationtest.build.CompoundMutationInterceptor;
+import org.pitest.mutationtest.build.MutationInterceptor;
+import org.pitest.mutationtest.config.CompoundTestListener;
+import org.pitest.mutationtest.config.PluginServices;
+import org.pitest.mutationtest.config.ReportOptions;
+import org.pitest.mutationtest.config.SettingsFactory;
+import org.pitest.mutationtest.tooling.AnalysisResult;
+import org.pitest.mutationtest.tooling.EntryPoint;
+import org.pitest.pitclipse.runner.results.Dispatcher;
+import org.pitest.pitclipse.runner.results.Mutations;
+import org.pitest.pitclipse.runner.results.Mutations.Mutation;
+import org.pitest.pitclipse.runner.results.ResultAccumulator;
+import org.pitest.pitclipse.runner.results.mutations.MutationsDispatcher;
+import org.pitest.pitclipse.runner.results.mutations.PitclipseMutationsResultListener;
+import org.pitest.process.JavaExecutableLocator;
+import org.pitest.util.Unchecked;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * <p>Executes PIT through its programmatic entry point.</p>
+ * 
+ * <p>PIT is configured directly from the {@link PitOptions} of the request
+ * (see {@link PitReportOptions}) and mutations are collected by a listener
+ * dedicated to the run, so that no state is shared between two analyses.</p>
+ * 
+ * <p>When the options restrict the lines or the methods to mutate, the mutants
+ * found outside of them are discarded by an {@link IncludedLinesInterceptor}
+ * or an {@link IncludedMethodsInterceptor}.</p>
+ * 
+ * <p>The time spent in each phase of the analysis is measured by a
+ * {@link RunInstrumentation} and returned as {@link RunStatistics}.</p>
+ */
+public enum InProcessPitEngine implements PitExecutionEngine {
+    INSTANCE;
+
+    @Override
+    public PitResults execute(PitRequest request, Dispatcher<PitClassResults> classResultsDispatcher) {
+        return execute(request, classResultsDispatcher, new PitCancellation());
+    }
+
+    /**
+     * <p>Executes the analysis described by the given request, unless it is cancelled.</p>
+     * 
+     * <p>PIT cannot be stopped while it is running, so the cancellation prevents it
+     * from launching new minions instead: the mutants already being analyzed are
+     * processed until they are killed, survive or time out, then PIT fails on the
+     * first mutant that could not be launched. The results of the classes
+     * analyzed so far are then returned as partial results.</p>
+     */
+    @Override
+    public PitResults execute(PitRequest request, Dispatcher<PitClassResults> classResultsDispatcher,
+            PitCancellation cancellation) {
+        return execute(request, classResultsDispatcher, progress -> {
+            // the progress is not followed
+        }, cancellation);
+    }
+
+    /**
+     * <p>Executes the analysis described by the given request, unless it is cancelled.</p>
+     * 
+     * <p>The progress of the analysis is followed by a {@link ProgressReporter}.</p>
+     */
+    @Override
+    public PitResults execute(PitRequest request, Dispatcher<PitClassResults> classResultsDispatcher,
+            Dispatcher<PitProgress> progressDispatcher, PitCancellation cancellation) {
+        ReportOptions reportOptions = PitReportOptions.from(request.getOptions());
+        PluginServices plugins = PluginServices.makeForContextLoader();
+        RunResults runResults = new RunResults();
+        ResultAccumulator<Mutation> analyzedMutations = new ResultAccumulator<>();
+        ProgressReporter progress = new ProgressReporter(progressDispatcher);
+        RunInstrumentation instrumentation = new RunInstrumentation(reportOptions);
+        MutationResultListener runListener = new CompoundTestListener(ImmutableList.of(
+                new PitclipseMutationsResultListener(runResults, classResults -> {
+                    analyzedMutations.addAll(classResults.getMutations().getMutation());
+                    classResultsDispatcher.dispatch(classResults);
+                }),
+                progress));
+        CancellableJavaExecutableLocator javaExecutable = new CancellableJavaExecutableLocator(cancellation);
+
+        AnalysisResult result;
+        try {
+            instrumentation.start();
+            progress.start();
+            result = new EntryPoint().execute(null, reportOptions,
+                    new RunSettingsFactory(reportOptions, plugins, runListener, javaExecutable, instrumentation,
+                            interceptorsFrom(request.getOptions(), progress, instrumentation)),
+                    Collections.emptyMap());
+        } catch (RuntimeException e) {
+            if (javaExecutable.hasRefusedLaunches()) {
+                return partialResults(request, analyzedMutations, instrumentation.toStatistics());
+            }
+            throw e;
+        }
+        if (result.getError().isPresent()) {
+            throw Unchecked.translateCheckedException(result.getError().get());
+        }
+        File htmlResultFile = new File(request.getReportDirectory(), "index.html");
+        return PitResults.builder()
+               .withHtmlResults(htmlResultFile.exists() ? htmlResultFile : null)
+               .withProjects(request.getProjects())
+               .withMutations(runResults.getMutations())
+               .withRunStatistics(instrumentation.toStatistics())
+               .build();
+    }
+
+    private static List<MutationInterceptor> interceptorsFrom(PitOptions options, ProgressReporter progress,
+            RunInstrumentation instrumentation) {
+        ImmutableList.Builder<MutationInterceptor> interceptors = ImmutableList.builder();
+        if (!options.getIncludedLines().isEmpty()) {
+            interceptors.add(new IncludedLinesInterceptor(options.getIncludedLines()));
+        }
+        if (!options.getIncludedMethods().isEmpty()) {
+            interceptors.add(new IncludedMethodsInterceptor(options.getIncludedMethods()));
+        }
+        interceptors.add(progress.mutantCounter());
+        interceptors.add(instrumentation.phaseMarker());
+        return interceptors.build();
+    }
+
+    private static PitResults partialResults(PitRequest request, ResultAccumulator<Mutation> analyzedMutations,
+            RunStatistics runStatistics) {
+        Mutations mutations = new Mutations();
+        mutations.getMutation().addAll(analyzedMutations.toList());
+        return PitResults.builder()
+               .withProjects(request.getProjects())
+               .withMutations(mutations)
+               .withPartial(true)
+               .withRunStatistics(runStatistics)
+               .build();
+    }
+
+    /**
+     * Holds the mutations dispatched at the end of a single run.
+     */
+    private static final class RunResults implements MutationsDispatcher {
+        private Optional<Mutations> mutations = Optional.empty();
+
+        @Override
+        public void dispatch(Mutations result) {
+            mutations = Optional.of(result);
+        }
+
+        Mutations getMutations() {
+            return mutations.orElseGet(Mutations::new);
+        }
+    }
+
+    /**
+     * Adds the listener of the current run to the ones PIT creates
+     * according to the requested output formats, and the interceptors of
+     * the current run (the filters of the included lines and methods, the
+     * counter of mutants, the phase marker) to PIT's interceptors. The listeners
+     * and the minion launches are followed by the instrumentation of the run.
+     */
+    private static final class RunSettingsFactory extends SettingsFactory {
+        private final MutationResultListener runListener;
+        private final CancellableJavaExecutableLocator javaExecutable;
+        private final RunInstrumentation instrumentation;
+        private final List<MutationInterceptor> runInterceptors;
+
+        RunSettingsFactory(ReportOptions options, PluginServices plugins, MutationResultListener runListener,
+                CancellableJavaExecutableLocator javaExecutable, RunInstrumentation instrumentation,
+                List<MutationInterceptor> runInterceptors) {
+            super(options, plugins);
+            this.runListener = runListener;
+            this.javaExecutable = javaExecutable;
+            this.instrumentation = instrumentation;
+            this.runInterceptors = runInterceptors;
+        }
+
+        @Override
+        public CompoundInterceptorFactory getInterceptor() {
+            CompoundInterceptorFactory interceptors = super.getInterceptor();
+            return new CompoundInterceptorFactory(Collections.emptyList(), Collections.emptyList()) {
+                @Override
+                public CompoundMutationInterceptor createInterceptor(ReportOptions data, CoverageDatabase coverage,
+                        ClassByteArraySource source) {
+                    instrumentation.buildStarted(coverage);
+                    return new CompoundMutationInterceptor(ImmutableList.<MutationInterceptor>builder()
+                            .add(interceptors.createInterceptor(data, coverage, source))
+                            .addAll(runInterceptors)
+                            .build());
+                }
+            };
+        }
+
+        @Override
+        public JavaExecutableLocator getJavaExecutable() {
+            javaExecutable.locateWith(super.getJavaExecutable());
+            return () -> {
+                instrumentation.minionLaunching();
+                return javaExecutable.javaExecutable();
+            };
+        }
+
+        @Override
+        public MutationResultListenerFactory createListener() {
+            MutationResultListenerFactory reportListeners = super.createListener();
+            return new MutationResultListenerFactory() {
+                @Override
+                public MutationResultListener getListener(Properties properties, ListenerArguments arguments) {
+                    return new CompoundTestListener(ImmutableList.of(instrumentation,
+                            instrumentation.reportWriting(reportListeners.getListener(properties, arguments)),
+                            instrumentation.pitclipseListener(runListener)));
+                }
+
+                @Override
+                public String name() {
+                    return "PITCLIPSE_RUN";
+                }
+
+                @Override
+                public String description() {
+                    return "Pitclipse per-run mutation result listener";
+                }
+            };
+        }
+    }
+
+    /**
+     * <p>Locates the Java executable used to launch each minion, unless the
+     * analysis has been cancelled.</p>
+     * 
+     * <p>PIT asks for the executable each time it launches a minion, which makes
+     * this locator the place where launches can be refused: once the analysis is
+     * cancelled, each launch fails with a {@link CancellationException}.</p>
+     */
+    private static final class CancellableJavaExecutableLocator implements JavaExecutableLocator {
+        private final PitCancellation cancellation;
+        private final AtomicBoolean refusedLaunches = new AtomicBoolean(false);
+        private volatile JavaExecutableLocator locator;
+
+        CancellableJavaExecutableLocator(PitCancellation cancellation) {
+            this.cancellation = cancellation;
+        }
+
+        void locateWith(JavaExecutableLocator locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public String javaExecutable() {
+            if (cancellation.isCancelled()) {
+                refusedLaunches.set(true);
+                throw new CancellationException("The analysis has been cancelled");
+            }
+            return locator.javaExecutable();
+        }
+
+        boolean hasRefusedLaunches() {
+            return refusedLaunches.get();
+        }
+    }
+
+}
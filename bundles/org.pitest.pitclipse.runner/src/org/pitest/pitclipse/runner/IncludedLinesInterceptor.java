@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.pitest.bytecode.analysis.ClassTree;
+import org.pitest.mutationtest.build.InterceptorType;
+import org.pitest.mutationtest.build.MutationInterceptor;
+import org.pitest.mutationtest.engine.Mutater;
+import org.pitest.mutationtest.engine.MutationDetails;
+
+import com.google.common.collect.SetMultimap;
+
+/**
+ * <p>Discards the mutants found outside of the lines that may be mutated
+ * (see {@link PitOptions#getIncludedLines()}).</p>
+ * 
+ * <p>Mutants are filtered while PIT builds the mutation units, so discarded
+ * mutants are never sent to a minion.</p>
+ */
+final class IncludedLinesInterceptor implements MutationInterceptor {
+
+    private final SetMultimap<String, Integer> includedLines;
+
+    IncludedLinesInterceptor(SetMultimap<String, Integer> includedLines) {
+        this.includedLines = includedLines;
+    }
+
+    @Override
+    public InterceptorType type() {
+        return InterceptorType.FILTER;
+    }
+
+    @Override
+    public void begin(ClassTree clazz) {
+        // lines are looked up for each mutant
+    }
+
+    @Override
+    public Collection<MutationDetails> intercept(Collection<MutationDetails> mutations, Mutater mutater) {
+        return mutations.stream()
+                .filter(this::isIncluded)
+                .collect(Collectors.toList());
+    }
+
+    private boolean isIncluded(MutationDetails mutation) {
+        String mutatedClass = mutation.getClassName().asJavaName();
+        int nestedClassSeparator = mutatedClass.indexOf('$');
+        String topLevelClass = nestedClassSeparator < 0 ? mutatedClass : mutatedClass.substring(0, nestedClassSeparator);
+        if (!includedLines.containsKey(topLevelClass)) {
+            return true;
+        }
+        Set<Integer> lines = includedLines.get(topLevelClass);
+        return lines.contains(mutation.getLineNumber());
+    }
+
+    @Override
+    public void end() {
+        // nothing to release
+    }
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.pitest.bytecode.analysis.ClassTree;
+import org.pitest.mutationtest.build.InterceptorType;
+import org.pitest.mutationtest.build.MutationInterceptor;
+import org.pitest.mutationtest.engine.Mutater;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.util.Glob;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * <p>Discards the mutants found outside of the methods that may be mutated
+ * (see {@link PitOptions#getIncludedMethods()}).</p>
+ * 
+ * <p>Like PIT's own {@code excludedMethods} option, methods are matched by
+ * name only: all the overloads of an included method are mutated.</p>
+ */
+final class IncludedMethodsInterceptor implements MutationInterceptor {
+
+    private final List<Predicate<String>> includedMethods;
+
+    IncludedMethodsInterceptor(List<String> includedMethods) {
+        this.includedMethods = ImmutableList.copyOf(Glob.toGlobPredicates(includedMethods));
+    }
+
+    @Override
+    public InterceptorType type() {
+        return InterceptorType.FILTER;
+    }
+
+    @Override
+    public void begin(ClassTree clazz) {
+        // methods are looked up for each mutant
+    }
+
+    @Override
+    public Collection<MutationDetails> intercept(Collection<MutationDetails> mutations, Mutater mutater) {
+        return mutations.stream()
+                .filter(this::isIncluded)
+                .collect(Collectors.toList());
+    }
+
+    private boolean isIncluded(MutationDetails mutation) {
+        String method = mutation.getMethod().name();
+        return includedMethods.stream().anyMatch(included -> included.test(method));
+    }
+
+    @Override
+    public void end() {
+        // nothing to release
+    }
+}
@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+/**
+ * <p>Sent by Eclipse to a running PIT application in order to cancel the current analysis.</p>
+ * 
+ * <p>On receipt, the PIT application stops launching new mutants, waits for the ones being
+ * analyzed and sends the results gathered so far as {@link PitResults#isPartial() partial}
+ * {@link PitResults}.</p>
+ */
+public enum PitCancelRequest {
+    INSTANCE;
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+/**
+ * <p>Tells a {@link PitExecutionEngine} that the analysis it is running must be cancelled.</p>
+ * 
+ * <p>An instance of this class is used for a single analysis and is thread-safe.</p>
+ */
+public final class PitCancellation {
+
+    private volatile boolean cancelled = false;
+
+    /**
+     * Asks the analysis to stop as soon as possible.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return {@code true} if the analysis has been asked to stop
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
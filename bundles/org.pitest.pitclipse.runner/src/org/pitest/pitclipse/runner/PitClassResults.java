@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.pitest.pitclipse.runner.results.Mutations;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * <p>Results produced by PIT for a single class, while the analysis is still running.</p>
+ * 
+ * <p>Each instance is sent as a frame from the PIT application to Eclipse as soon
+ * as the class has been analyzed. The run is closed by a final {@link PitResults}.</p>
+ */
+public final class PitClassResults implements Serializable {
+    private static final long serialVersionUID = -3315624620584237751L;
+
+    private final String mutatedClass;
+
+    private final Mutations mutations;
+
+    private final ImmutableList<String> coveringTests;
+
+    private PitClassResults(String mutatedClass, Mutations mutations, ImmutableList<String> coveringTests) {
+        this.mutatedClass = mutatedClass;
+        this.mutations = mutations;
+        this.coveringTests = coveringTests;
+    }
+
+    public static PitClassResults from(String mutatedClass, Mutations mutations) {
+        return from(mutatedClass, mutations, ImmutableList.of());
+    }
+
+    public static PitClassResults from(String mutatedClass, Mutations mutations, List<String> coveringTests) {
+        return new PitClassResults(mutatedClass, mutations, ImmutableList.copyOf(coveringTests));
+    }
+
+    public String getMutatedClass() {
+        return mutatedClass;
+    }
+
+    public Mutations getMutations() {
+        return mutations;
+    }
+
+    /**
+     * @return the test classes that cover the mutated class
+     */
+    public List<String> getCoveringTests() {
+        return coveringTests;
+    }
+
+    @Override
+    public String toString() {
+        return "PitClassResults [mutatedClass=" + mutatedClass + ", mutations=" + mutations.getMutation().size()
+                + ", coveringTests=" + coveringTests.size() + "]";
+    }
+
+}
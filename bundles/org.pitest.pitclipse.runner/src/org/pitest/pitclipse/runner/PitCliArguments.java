@@ -113,7 +113,7 @@ public class PitCliArguments {
             builder.add("--historyInputLocation");
             builder.add(historyLocation.getPath());
             builder.add("--historyOutputLocation");
-            builder.add(historyLocation.getPath());
+            builder.add(options.getPendingHistoryLocation().getPath());
         }
         return builder.build();
     }
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import org.pitest.pitclipse.runner.results.Dispatcher;
+
+/**
+ * <p>Executes a PIT analysis.</p>
+ * 
+ * <p>Two engines are available:</p>
+ * <ul>
+ *  <li>{@link InProcessPitEngine}, used by default, configures PIT directly from
+ *      the given {@link PitOptions}
+ *  <li>{@link CommandLinePitEngine} goes through PIT's command line interface and
+ *      can be selected by setting the {@value #ENGINE_PROPERTY} system property
+ *      to {@code cli}.
+ * </ul>
+ */
+public interface PitExecutionEngine {
+
+    /**
+     * Name of the system property that can be set to {@code cli} in order to
+     * execute PIT through its command line interface.
+     */
+    String ENGINE_PROPERTY = "pitclipse.runner.engine";
+
+    /**
+     * Executes the analysis described by the given request.
+     * 
+     * @param request
+     *          The analysis to execute.
+     * @param classResultsDispatcher
+     *          The dispatcher receiving the results of each class as soon as
+     *          PIT has analyzed it.
+     * @return the results of the analysis
+     */
+    PitResults execute(PitRequest request, Dispatcher<PitClassResults> classResultsDispatcher);
+
+    /**
+     * Executes the analysis described by the given request, unless it is cancelled.
+     * Engines that cannot be cancelled run the whole analysis, which is the default.
+     * 
+     * @param request
+     *          The analysis to execute.
+     * @param classResultsDispatcher
+     *          The dispatcher receiving the results of each class as soon as
+     *          PIT has analyzed it.
+     * @param cancellation
+     *          Tells whether the analysis must be stopped before its end.
+     * @return the results of the analysis, {@link PitResults#isPartial() partial}
+     *         if it has been cancelled
+     */
+    default PitResults execute(PitRequest request, Dispatcher<PitClassResults> classResultsDispatcher,
+            PitCancellation cancellation) {
+        return execute(request, classResultsDispatcher);
+    }
+
+    /**
+     * Executes the analysis described by the given request, unless it is cancelled,
+     * reporting its progress along the way. Engines that cannot follow the analysis
+     * do not report any progress, which is the default.
+     * 
+     * @param request
+     *          The analysis to execute.
+     * @param classResultsDispatcher
+     *          The dispatcher receiving the results of each class as soon as
+     *          PIT has analyzed it.
+     * @param progressDispatcher
+     *          The dispatcher receiving the progress of the analysis.
+     * @param cancellation
+     *          Tells whether the analysis must be stopped before its end.
+     * @return the results of the analysis, {@link PitResults#isPartial() partial}
+     *         if it has been cancelled
+     */
+    default PitResults execute(PitRequest request, Dispatcher<PitClassResults> classResultsDispatcher,
+            Dispatcher<PitProgress> progressDispatcher, PitCancellation cancellation) {
+        return execute(request, classResultsDispatcher, cancellation);
+    }
+
+    /**
+     * @return the engine to use by default, according to the {@value #ENGINE_PROPERTY}
+     *         system property
+     */
+    static PitExecutionEngine defaultEngine() {
+        if ("cli".equalsIgnoreCase(System.getProperty(ENGINE_PROPERTY))) {
+            return CommandLinePitEngine.INSTANCE;
+        }
+        return InProcessPitEngine.INSTANCE;
+    }
+}
@@ -30,6 +30,8 @@ import java.util.List;
 
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.SetMultimap;
 
 /**
  * <p>Options used to parameterize a PIT analysis.</p>
@@ -40,6 +42,11 @@ import com.google.common.collect.ImmutableList;
 public final class PitOptions implements Serializable {
 
     private static final long serialVersionUID = 1543633254516962868L;
+
+    /**
+     * Suffix of the file PIT writes the history to, see {@link #getPendingHistoryLocation()}.
+     */
+    public static final String PENDING_HISTORY_SUFFIX = ".pending";
     private final File reportDir;
     private final String classUnderTest;
     private final ImmutableList<String> classesToMutate;
@@ -55,12 +62,15 @@ public final class PitOptions implements Serializable {
     private final int timeout;
     private final BigDecimal timeoutFactor;
     private final boolean useJUnit5;
+    private final ImmutableSetMultimap<String, Integer> includedLines;
+    private final ImmutableList<String> includedMethods;
 
     private PitOptions(String classUnderTest, ImmutableList<String> classesToMutate, ImmutableList<File> sourceDirs, // NOSONAR this is used by our builder
             File reportDir, ImmutableList<String> packages, ImmutableList<String> classPath, int threads, File historyLocation,
             ImmutableList<String> excludedClasses, ImmutableList<String> excludedMethods,
             ImmutableList<String> avoidCallsTo, String mutators, int timeout, BigDecimal timeoutFactor,
-            boolean useJUnit5) {
+            boolean useJUnit5, ImmutableSetMultimap<String, Integer> includedLines,
+            ImmutableList<String> includedMethods) {
         this.classUnderTest = classUnderTest;
         this.threads = threads;
         this.historyLocation = historyLocation;
@@ -76,6 +86,8 @@ public final class PitOptions implements Serializable {
         this.timeout = timeout;
         this.timeoutFactor = timeoutFactor;
         this.useJUnit5 = useJUnit5;
+        this.includedLines = includedLines;
+        this.includedMethods = includedMethods;
     }
 
     public File getReportDirectory() {
@@ -107,6 +119,8 @@ public final class PitOptions implements Serializable {
         private int timeout = 3000;
         private BigDecimal timeoutFactor = BigDecimal.valueOf(1.25);
         private boolean useJUnit5 = false;
+        private ImmutableSetMultimap<String, Integer> includedLines = ImmutableSetMultimap.of();
+        private ImmutableList<String> includedMethods = ImmutableList.of();
 
         private PitOptionsBuilder() {
         }
@@ -142,7 +156,7 @@ public final class PitOptions implements Serializable {
             initialiseHistoryLocation();
             return new PitOptions(classUnderTest, classesToMutate, sourceDirs, reportDir, packages, classPath, threads,
                     historyLocation, excludedClasses, excludedMethods, avoidCallsTo, mutators, timeout, timeoutFactor,
-                    useJUnit5);
+                    useJUnit5, includedLines, includedMethods);
         }
 
         private void initialiseReportDir() {
@@ -250,6 +264,30 @@ public final class PitOptions implements Serializable {
             return this;
         }
 
+        /**
+         * Restricts the mutants of some classes to the given lines.
+         * 
+         * @param includedLines
+         *          The lines to mutate, by top-level class.
+         * @return this builder
+         */
+        public PitOptionsBuilder withIncludedLines(SetMultimap<String, Integer> includedLines) {
+            this.includedLines = ImmutableSetMultimap.copyOf(includedLines);
+            return this;
+        }
+
+        /**
+         * Restricts the mutants to the methods whose name matches one of the given globs.
+         * 
+         * @param includedMethods
+         *          Globs matching the names of the methods to mutate.
+         * @return this builder
+         */
+        public PitOptionsBuilder withIncludedMethods(List<String> includedMethods) {
+            this.includedMethods = copyOf(includedMethods);
+            return this;
+        }
+
         private static List<String> split(String toSplit) {
             return ImmutableList.copyOf(Splitter.on(',').trimResults().omitEmptyStrings().split(toSplit));
         }
@@ -279,6 +317,18 @@ public final class PitOptions implements Serializable {
         return historyLocation;
     }
 
+    /**
+     * <p>Returns the file PIT writes the history of the analysis to, if any.</p>
+     * <p>The history is written aside and only replaces the one found at the
+     * history location once the analysis completed (see {@link PitRunner}), so that
+     * an interrupted analysis cannot leave a truncated history behind.</p>
+     * 
+     * @return the file PIT writes the history to, or {@code null} if there is no history
+     */
+    public File getPendingHistoryLocation() {
+        return historyLocation == null ? null : new File(historyLocation.getPath() + PENDING_HISTORY_SUFFIX);
+    }
+
     public int getThreads() {
         return threads;
     }
@@ -323,12 +373,38 @@ public final class PitOptions implements Serializable {
         return useJUnit5;
     }
 
+    /**
+     * <p>Returns the only lines that may be mutated, by top-level class.</p>
+     * 
+     * <p>The mutants of a class that has no entry, or whose top-level class has
+     * none, are not filtered. PIT's command line has no equivalent option, so
+     * these lines are ignored by {@link CommandLinePitEngine}.</p>
+     * 
+     * @return the lines that may be mutated, by top-level class
+     */
+    public SetMultimap<String, Integer> getIncludedLines() {
+        return includedLines;
+    }
+
+    /**
+     * <p>Returns the globs matching the names of the only methods that may be mutated.</p>
+     * 
+     * <p>The mutants are not filtered when the list is empty. Like the included lines,
+     * these methods are ignored by {@link CommandLinePitEngine}.</p>
+     * 
+     * @return the globs matching the names of the methods that may be mutated
+     */
+    public List<String> getIncludedMethods() {
+        return includedMethods;
+    }
+
     @Override
     public String toString() {
         return "PitOptions [reportDir=" + reportDir + ", classUnderTest=" + classUnderTest + ", classesToMutate=" +
                 classesToMutate + ", sourceDirs=" + sourceDirs + ", packages=" + packages + ", threads=" + threads +
                 ", historyLocation=" + historyLocation + ", excludedClasses=" + excludedClasses +
                 ", excludedMethods=" + excludedMethods + ", avoidCallsTo=" + avoidCallsTo + ", mutators=" + mutators +
-                ", timeoutConst=" + timeout + ", timeoutFactor=" + timeoutFactor + "]";
+                ", timeoutConst=" + timeout + ", timeoutFactor=" + timeoutFactor + ", includedLines=" + includedLines +
+                ", includedMethods=" + includedMethods + "]";
     }
 }
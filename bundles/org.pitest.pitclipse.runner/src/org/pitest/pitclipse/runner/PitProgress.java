@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * <p>The progress of a running PIT analysis.</p>
+ * 
+ * <p>Each instance is sent as a frame from the PIT application to Eclipse, along
+ * with the {@link PitClassResults results of each class}, when the analysis enters
+ * a new phase and regularly while mutants are analyzed.</p>
+ * 
+ * <p>Every mutant analyzed is either killed or survived: mutants that are not
+ * covered by any test are counted as survived.</p>
+ */
+public final class PitProgress implements Serializable {
+    private static final long serialVersionUID = 2830946578104723518L;
+
+    /**
+     * The phases of a PIT analysis, in the order they are run.
+     */
+    public enum Phase {
+        COVERAGE("Computing line coverage"),
+        MUTANT_GENERATION("Generating mutants"),
+        ANALYSIS("Analyzing mutants");
+
+        private final String description;
+
+        Phase(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private final Phase phase;
+
+    private final long mutantsTotal;
+
+    private final long mutantsDone;
+
+    private final long killed;
+
+    private final long survived;
+
+    private final double mutantsPerSecond;
+
+    private PitProgress(Phase phase, long mutantsTotal, long mutantsDone, long killed, long survived,
+            double mutantsPerSecond) {
+        this.phase = phase;
+        this.mutantsTotal = mutantsTotal;
+        this.mutantsDone = mutantsDone;
+        this.killed = killed;
+        this.survived = survived;
+        this.mutantsPerSecond = mutantsPerSecond;
+    }
+
+    /**
+     * @param phase
+     *          The phase the analysis is in.
+     * @param mutantsTotal
+     *          The number of mutants to analyze, 0 until they are generated.
+     * @param mutantsDone
+     *          The number of mutants analyzed so far.
+     * @param killed
+     *          The number of mutants killed so far.
+     * @param survived
+     *          The number of mutants that survived so far.
+     * @param mutantsPerSecond
+     *          The number of mutants analyzed per second since the analysis phase started.
+     * @return the progress of the analysis
+     */
+    public static PitProgress of(Phase phase, long mutantsTotal, long mutantsDone, long killed, long survived,
+            double mutantsPerSecond) {
+        return new PitProgress(phase, mutantsTotal, mutantsDone, killed, survived, mutantsPerSecond);
+    }
+
+    /**
+     * Adds up the progress of the PIT applications running the shards of a
+     * launch. The phase of the slowest application is kept.
+     * 
+     * @param progresses
+     *          The latest progress of each application; must not be empty.
+     * @return the progress of the whole launch
+     */
+    public static PitProgress sum(List<PitProgress> progresses) {
+        Phase phase = Phase.ANALYSIS;
+        long mutantsTotal = 0;
+        long mutantsDone = 0;
+        long killed = 0;
+        long survived = 0;
+        double mutantsPerSecond = 0;
+        for (PitProgress progress : progresses) {
+            if (progress.phase.compareTo(phase) < 0) {
+                phase = progress.phase;
+            }
+            mutantsTotal += progress.mutantsTotal;
+            mutantsDone += progress.mutantsDone;
+            killed += progress.killed;
+            survived += progress.survived;
+            mutantsPerSecond += progress.mutantsPerSecond;
+        }
+        return new PitProgress(phase, mutantsTotal, mutantsDone, killed, survived, mutantsPerSecond);
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public long getMutantsTotal() {
+        return mutantsTotal;
+    }
+
+    public long getMutantsDone() {
+        return mutantsDone;
+    }
+
+    public long getKilled() {
+        return killed;
+    }
+
+    public long getSurvived() {
+        return survived;
+    }
+
+    public double getMutantsPerSecond() {
+        return mutantsPerSecond;
+    }
+
+    /**
+     * Estimates the time left from the number of mutants still to analyze and
+     * the current throughput.
+     * 
+     * @return the estimated number of seconds left, or -1 if unknown
+     */
+    public long getEstimatedSecondsLeft() {
+        if (phase != Phase.ANALYSIS || mutantsPerSecond <= 0) {
+            return -1;
+        }
+        return Math.round(Math.max(0, mutantsTotal - mutantsDone) / mutantsPerSecond);
+    }
+
+    @Override
+    public String toString() {
+        return "PitProgress [phase=" + phase + ", mutantsTotal=" + mutantsTotal + ", mutantsDone=" + mutantsDone
+                + ", killed=" + killed + ", survived=" + survived + ", mutantsPerSecond=" + mutantsPerSecond + "]";
+    }
+}
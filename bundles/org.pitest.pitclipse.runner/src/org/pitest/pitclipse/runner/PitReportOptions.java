@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.pitest.classpath.ClassPath;
+import org.pitest.mutationtest.config.ConfigOption;
+import org.pitest.mutationtest.config.ReportOptions;
+import org.pitest.testapi.TestGroupConfig;
+import org.pitest.util.Glob;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * <p>Turns {@link PitOptions} instances into {@link ReportOptions} that can be
+ * given to PIT's programmatic entry point.</p>
+ * 
+ * <p>The resulting options are the ones PIT would compute from the arguments
+ * produced by {@link PitCliArguments}, except that reports are not written
+ * to timestamped directories: each launch is given a new empty report
+ * directory of its own, so the HTML report can be found at its root.</p>
+ */
+public final class PitReportOptions {
+
+    private static final List<String> OUTPUT_FORMATS = ImmutableList.of("HTML", "PITCLIPSE_SUMMARY");
+
+    private PitReportOptions() {
+    }
+
+    public static ReportOptions from(PitOptions options) {
+        ReportOptions data = new ReportOptions();
+        data.setTestPlugin(options.getUseJUnit5() ? "junit5" : "junit");
+        data.setReportDir(options.getReportDirectory().getPath());
+        data.setShouldCreateTimestampedReports(false);
+        data.setTargetClasses(trimmed(options.getClassesToMutate()));
+        data.setTargetTests(Glob.toGlobPredicates(testsToRunFrom(options)));
+        data.setSourceDirs(options.getSourceDirectories());
+        data.setClassPathElements(classPathFrom(options));
+        data.setMutators(mutatorsFrom(options));
+        data.setFeatures(Collections.emptyList());
+        data.setDependencyAnalysisMaxDistance(ConfigOption.DEPENDENCY_DISTANCE.getDefault(Integer.class));
+        data.setNumberOfThreads(options.getThreads());
+        data.setTimeoutConstant(options.getTimeout());
+        data.setTimeoutFactor(options.getTimeoutFactor().floatValue());
+        data.setLoggingClasses(trimmed(options.getAvoidCallsTo()));
+        data.setExcludedMethods(trimmed(options.getExcludedMethods()));
+        data.setExcludedClasses(trimmed(options.getExcludedClasses()));
+        data.setExcludedTestClasses(Collections.emptyList());
+        data.setVerbose(true);
+        data.addOutputFormats(OUTPUT_FORMATS);
+        data.setFailWhenNoMutations(false);
+        data.setCodePaths(Collections.emptyList());
+        data.setHistoryInputLocation(options.getHistoryLocation());
+        data.setHistoryOutputLocation(options.getPendingHistoryLocation());
+        data.setMaximumAllowedSurvivors(ConfigOption.MAX_SURVIVING.getDefault(Integer.class));
+        data.setFreeFormProperties(new Properties());
+        data.setGroupConfig(new TestGroupConfig(Collections.emptyList(), Collections.emptyList()));
+        data.setIncludedTestMethods(Collections.emptyList());
+        return data;
+    }
+
+    private static List<String> testsToRunFrom(PitOptions options) {
+        List<String> packages = options.getPackages();
+        if (packages.isEmpty()) {
+            return ImmutableList.of(options.getClassUnderTest());
+        }
+        return trimmed(packages);
+    }
+
+    private static List<String> classPathFrom(PitOptions options) {
+        List<String> classPath = new ArrayList<>(ClassPath.getClassPathElementsAsPaths());
+        classPath.addAll(trimmed(options.getClassPath()));
+        return classPath;
+    }
+
+    private static List<String> mutatorsFrom(PitOptions options) {
+        return Splitter.on(',').trimResults().omitEmptyStrings().splitToList(options.getMutators());
+    }
+
+    private static List<String> trimmed(List<String> values) {
+        ImmutableList.Builder<String> builder = ImmutableList.builder();
+        for (String value : values) {
+            builder.add(value.trim());
+        }
+        return builder.build();
+    }
+}
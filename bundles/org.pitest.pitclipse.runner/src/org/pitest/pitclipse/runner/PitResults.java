@@ -38,11 +38,24 @@ public final class PitResults implements Serializable {
 
     private final ImmutableList<String> projects;
 
+    private final boolean runnerAvailable;
+
+    private final boolean partial;
+
+    private final TransferStatistics transferStatistics;
+
+    private final RunStatistics runStatistics;
+
     private PitResults(File htmlResultFile, Mutations mutations,
-            ImmutableList<String> projects) {
+            ImmutableList<String> projects, boolean runnerAvailable, boolean partial,
+            TransferStatistics transferStatistics, RunStatistics runStatistics) {
         this.htmlResultFile = htmlResultFile;
         this.mutations = mutations;
         this.projects = projects;
+        this.runnerAvailable = runnerAvailable;
+        this.partial = partial;
+        this.transferStatistics = transferStatistics;
+        this.runStatistics = runStatistics;
     }
 
     public File getHtmlResultFile() {
@@ -54,12 +67,17 @@ public final class PitResults implements Serializable {
         private File htmlResultFile = null;
         private ImmutableList<String> projects = ImmutableList.of();
         private Mutations mutations = new ObjectFactory().createMutations();
+        private boolean runnerAvailable = false;
+        private boolean partial = false;
+        private TransferStatistics transferStatistics = TransferStatistics.NONE;
+        private RunStatistics runStatistics = RunStatistics.NONE;
 
         private Builder() {
         }
 
         public PitResults build() {
-            return new PitResults(htmlResultFile, mutations, projects);
+            return new PitResults(htmlResultFile, mutations, projects, runnerAvailable, partial, transferStatistics,
+                    runStatistics);
         }
 
         /**
@@ -93,11 +111,63 @@ public final class PitResults implements Serializable {
             this.mutations = mutations;
             return this;
         }
+
+        /**
+         * Indicates whether the PIT application that produced the results
+         * keeps running, waiting for further requests.
+         * 
+         * @param runnerAvailable
+         *          {@code true} if the PIT application accepts further requests
+         * @return this builder
+         */
+        public Builder withRunnerAvailable(boolean runnerAvailable) {
+            this.runnerAvailable = runnerAvailable;
+            return this;
+        }
+
+        /**
+         * Indicates whether the analysis has been cancelled before its end,
+         * in which case the results only hold the mutants analyzed so far.
+         * 
+         * @param partial
+         *          {@code true} if the analysis has been cancelled
+         * @return this builder
+         */
+        public Builder withPartial(boolean partial) {
+            this.partial = partial;
+            return this;
+        }
+
+        /**
+         * Describes how the results have been received by Eclipse.
+         * 
+         * @param transferStatistics
+         *          The statistics of the connection with the PIT application
+         * @return this builder
+         */
+        public Builder withTransferStatistics(TransferStatistics transferStatistics) {
+            this.transferStatistics = transferStatistics;
+            return this;
+        }
+
+        /**
+         * Describes where the time of the analysis has been spent.
+         * 
+         * @param runStatistics
+         *          The statistics measured by the PIT application
+         * @return this builder
+         */
+        public Builder withRunStatistics(RunStatistics runStatistics) {
+            this.runStatistics = runStatistics;
+            return this;
+        }
     }
 
     @Override
     public String toString() {
-        return "PitResults [htmlResultFile=" + htmlResultFile + ", projects=" + projects + "]";
+        return "PitResults [htmlResultFile=" + htmlResultFile + ", projects=" + projects + ", runnerAvailable="
+                + runnerAvailable + ", partial=" + partial + ", transferStatistics=" + transferStatistics
+                + ", runStatistics=" + runStatistics + "]";
     }
 
     public Mutations getMutations() {
@@ -108,6 +178,62 @@ public final class PitResults implements Serializable {
         return new Builder();
     }
 
+    public Builder copyOf() {
+        Builder builder = new Builder();
+        builder.htmlResultFile = htmlResultFile;
+        builder.mutations = mutations;
+        builder.projects = projects;
+        builder.runnerAvailable = runnerAvailable;
+        builder.partial = partial;
+        builder.transferStatistics = transferStatistics;
+        builder.runStatistics = runStatistics;
+        return builder;
+    }
+
+    /**
+     * Returns whether the PIT application that produced these results
+     * keeps running, waiting for further requests on the same connection.
+     * 
+     * @return {@code true} if the PIT application accepts further requests
+     */
+    public boolean isRunnerAvailable() {
+        return runnerAvailable;
+    }
+
+    /**
+     * Returns whether the analysis has been cancelled before its end. Partial results
+     * only hold the mutants analyzed before the cancellation and have no HTML report.
+     * 
+     * @return {@code true} if the analysis has been cancelled
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    /**
+     * Returns how the results have been transferred from the PIT application
+     * to Eclipse: how many bytes have been sent and how well they have been
+     * compressed. Empty statistics are returned when the results have not been
+     * received from a connection using the binary codec.
+     * 
+     * @return the statistics of the connection with the PIT application
+     */
+    public TransferStatistics getTransferStatistics() {
+        return transferStatistics;
+    }
+
+    /**
+     * Returns where the time of the analysis has been spent: the wall time
+     * of each phase, the resources of the PIT application, the slowest classes
+     * and tests. Empty statistics are returned when the analysis has not been
+     * run in process by the PIT application.
+     * 
+     * @return the statistics of the analysis
+     */
+    public RunStatistics getRunStatistics() {
+        return runStatistics;
+    }
+
     public ImmutableList<String> getProjects() {
         return projects;
     }
@@ -17,31 +17,123 @@
 package org.pitest.pitclipse.runner;
 
 import java.io.File;
+import java.io.IOException;
 
-import org.pitest.mutationtest.commandline.MutationCoverageReport;
-import org.pitest.pitclipse.runner.results.Mutations;
-import org.pitest.pitclipse.runner.results.mutations.RecordingMutationsDispatcher;
+import org.pitest.pitclipse.runner.results.Dispatcher;
 import org.pitest.pitclipse.runner.util.PitFileUtils;
 
 import com.google.common.base.Function;
 
 /**
- * Executes PIT.
+ * <p>Executes PIT.</p>
+ * 
+ * <p>Once an analysis completed, the history it wrote replaces the history
+ * of the previous analysis; see {@link PitOptions#getPendingHistoryLocation()}.</p>
+ * 
+ * @see PitExecutionEngine
  */
 public class PitRunner implements Function<PitRequest, PitResults> {
 
+    private final PitExecutionEngine engine;
+    private final Dispatcher<PitClassResults> classResultsDispatcher;
+    private final Dispatcher<PitProgress> progressDispatcher;
+
+    public PitRunner() {
+        this(classResults -> {
+            // results are only returned once the analysis ends
+        });
+    }
+
+    /**
+     * Creates a new runner that streams the results of each class as soon
+     * as PIT has analyzed it.
+     * 
+     * @param classResultsDispatcher
+     *          The dispatcher receiving the results of each analyzed class.
+     */
+    public PitRunner(Dispatcher<PitClassResults> classResultsDispatcher) {
+        this(PitExecutionEngine.defaultEngine(), classResultsDispatcher);
+    }
+
+    /**
+     * Creates a new runner that streams the results of each class as soon
+     * as PIT has analyzed it, as well as the progress of the analysis.
+     * 
+     * @param classResultsDispatcher
+     *          The dispatcher receiving the results of each analyzed class.
+     * @param progressDispatcher
+     *          The dispatcher receiving the progress of the analysis.
+     */
+    public PitRunner(Dispatcher<PitClassResults> classResultsDispatcher, Dispatcher<PitProgress> progressDispatcher) {
+        this(PitExecutionEngine.defaultEngine(), classResultsDispatcher, progressDispatcher);
+    }
+
+    /**
+     * Creates a new runner executing PIT with the given engine.
+     * 
+     * @param engine
+     *          The engine executing PIT.
+     * @param classResultsDispatcher
+     *          The dispatcher receiving the results of each analyzed class.
+     */
+    public PitRunner(PitExecutionEngine engine, Dispatcher<PitClassResults> classResultsDispatcher) {
+        this(engine, classResultsDispatcher, progress -> {
+            // the progress is not reported
+        });
+    }
+
+    /**
+     * Creates a new runner executing PIT with the given engine.
+     * 
+     * @param engine
+     *          The engine executing PIT.
+     * @param classResultsDispatcher
+     *          The dispatcher receiving the results of each analyzed class.
+     * @param progressDispatcher
+     *          The dispatcher receiving the progress of the analysis.
+     */
+    public PitRunner(PitExecutionEngine engine, Dispatcher<PitClassResults> classResultsDispatcher,
+            Dispatcher<PitProgress> progressDispatcher) {
+        this.engine = engine;
+        this.classResultsDispatcher = classResultsDispatcher;
+        this.progressDispatcher = progressDispatcher;
+    }
+
     @Override
     public PitResults apply(PitRequest request) {
-        String[] cliArgs = PitCliArguments.from(request.getOptions());
-        MutationCoverageReport.main(cliArgs);
-        File reportDir = request.getReportDirectory();
-        File htmlResultFile = PitFileUtils.findFile(reportDir, "index.html");
-        Mutations mutations = RecordingMutationsDispatcher.INSTANCE.getDispatchedMutations();
-        return PitResults.builder()
-               .withHtmlResults(htmlResultFile)
-               .withProjects(request.getProjects())
-               .withMutations(mutations)
-               .build();
+        PitResults results = engine.execute(request, classResultsDispatcher);
+        commitHistory(request.getOptions());
+        return results;
+    }
+
+    /**
+     * Executes the given request, unless it is cancelled.
+     * 
+     * @param request
+     *          The analysis to execute.
+     * @param cancellation
+     *          Tells whether the analysis must be stopped before its end.
+     * @return the results of the analysis, partial if it has been cancelled
+     */
+    public PitResults apply(PitRequest request, PitCancellation cancellation) {
+        PitResults results = engine.execute(request, classResultsDispatcher, progressDispatcher, cancellation);
+        if (!results.isPartial()) {
+            commitHistory(request.getOptions());
+        }
+        return results;
+    }
+
+    private static void commitHistory(PitOptions options) {
+        File pendingHistory = options.getPendingHistoryLocation();
+        if (pendingHistory == null || !pendingHistory.isFile()) {
+            return;
+        }
+        try {
+            PitFileUtils.moveAtomically(pendingHistory, options.getHistoryLocation());
+        } catch (IOException e) {
+            // the history of the previous analysis is kept
+            e.printStackTrace();
+        }
     }
 
 }
@@ -25,29 +25,66 @@ import java.util.Optional;
 import org.pitest.pitclipse.runner.client.PitClient;
 
 /**
- * Executes PIT providing a Java main, used by the Pitclipse launcher.
+ * <p>Executes PIT providing a Java main, used by the Pitclipse launcher.</p>
+ * 
+ * <p>The first argument is the port used to connect to Eclipse. When the
+ * {@value #DAEMON_OPTION} option is given as second argument, the runner
+ * keeps serving requests on the same connection once an analysis is over,
+ * until the connection is closed by Eclipse or until the heap used by
+ * the runner exceeds the ratio given by the {@value #MAX_HEAP_RATIO_PROPERTY}
+ * system property (0.75 by default).</p>
+ * 
+ * <p>An analysis can be cancelled by Eclipse, in which case partial results
+ * are sent and the runner exits.</p>
  */
 public class PitRunnerMain {
 
+    public static final String DAEMON_OPTION = "--daemon";
+
+    public static final String MAX_HEAP_RATIO_PROPERTY = "pitclipse.runner.maxHeapRatio";
+
+    private static final double DEFAULT_MAX_HEAP_RATIO = 0.75;
+
     public static void main(String[] args) {
         validateArgs(args);
         int port = parseInt(args[0]);
+        boolean daemon = args.length == 2;
         
         try (PitClient client = new PitClient(port)) {
             client.connect();
+            if (!client.isConnected()) {
+                System.err.println("Could not connect to Eclipse on port " + port);
+                return;
+            }
+            PitRunner runner = new PitRunner(client::sendClassResults, client::sendProgress);
             Optional<PitRequest> request = client.readRequest();
-            Optional<PitResults> results = request.map(new PitRunner());
-
-            results.ifPresent(client::sendResults);
+            while (request.isPresent()) {
+                PitCancellation cancellation = client.listenForCancellation();
+                PitResults results = runner.apply(request.get(), cancellation);
+                boolean keepServing = daemon && !cancellation.isCancelled() && !isHeapThresholdExceeded();
+                client.sendResults(results.copyOf().withRunnerAvailable(keepServing).build());
+                request = keepServing ? client.readNextRequest() : Optional.empty();
+            }
         } catch (IOException e) {
             // An error occurred while closing the client
             e.printStackTrace();
         }
     }
 
+    private static boolean isHeapThresholdExceeded() {
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeap = runtime.totalMemory() - runtime.freeMemory();
+        double maxHeapRatio = DEFAULT_MAX_HEAP_RATIO;
+        try {
+            maxHeapRatio = Double.parseDouble(System.getProperty(MAX_HEAP_RATIO_PROPERTY, String.valueOf(DEFAULT_MAX_HEAP_RATIO)));
+        } catch (NumberFormatException e) {
+            // default ratio is used
+        }
+        return usedHeap > maxHeapRatio * runtime.maxMemory();
+    }
 
     private static void validateArgs(String[] args) {
-        checkArgument(args.length == 1);
+        checkArgument(args.length == 1 || (args.length == 2 && DAEMON_OPTION.equals(args[1])));
     }
 
 }
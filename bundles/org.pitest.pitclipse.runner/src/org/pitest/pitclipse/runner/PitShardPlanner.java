@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * <p>Splits the classes to mutate into shards, each one being analyzed by
+ * its own PIT application.</p>
+ * 
+ * <p>Shards are balanced according to the number of mutants found in each
+ * class by a previous analysis: heaviest classes are assigned first, each one
+ * to the lightest shard so far. Classes that have never been analyzed are
+ * assumed to be as heavy as the average known class.</p>
+ */
+public final class PitShardPlanner {
+
+    private PitShardPlanner() {
+    }
+
+    /**
+     * Splits the given classes into at most {@code shardCount} non-empty shards.
+     * 
+     * @param classes
+     *          The classes to mutate.
+     * @param shardCount
+     *          The expected number of shards.
+     * @param mutantCounts
+     *          The number of mutants found in each class by a previous analysis.
+     *          May be empty.
+     * @return the classes to mutate in each shard
+     */
+    public static List<List<String>> split(List<String> classes, int shardCount, Map<String, Integer> mutantCounts) {
+        int count = Math.max(1, Math.min(shardCount, classes.size()));
+        if (count == 1) {
+            return ImmutableList.of(ImmutableList.copyOf(classes));
+        }
+        int defaultWeight = averageOf(mutantCounts);
+        List<String> byDecreasingWeight = new ArrayList<>(classes);
+        byDecreasingWeight.sort(Comparator.comparingInt((String c) -> mutantCounts.getOrDefault(c, defaultWeight))
+                                          .reversed());
+
+        PriorityQueue<Shard> shards = new PriorityQueue<>(count);
+        for (int i = 0; i < count; i++) {
+            shards.add(new Shard(i));
+        }
+        for (String mutatedClass : byDecreasingWeight) {
+            Shard lightest = shards.poll();
+            lightest.add(mutatedClass, mutantCounts.getOrDefault(mutatedClass, defaultWeight));
+            shards.add(lightest);
+        }
+        List<Shard> ordered = new ArrayList<>(shards);
+        ordered.sort(Comparator.comparingInt(shard -> shard.index));
+        ImmutableList.Builder<List<String>> result = ImmutableList.builder();
+        for (Shard shard : ordered) {
+            result.add(shard.classes.build());
+        }
+        return result.build();
+    }
+
+    private static int averageOf(Map<String, Integer> mutantCounts) {
+        if (mutantCounts.isEmpty()) {
+            return 1;
+        }
+        long total = 0;
+        for (int mutants : mutantCounts.values()) {
+            total += mutants;
+        }
+        return (int) Math.max(1, total / mutantCounts.size());
+    }
+
+    private static final class Shard implements Comparable<Shard> {
+        private final int index;
+        private final ImmutableList.Builder<String> classes = ImmutableList.builder();
+        private long weight = 0;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        void add(String mutatedClass, int mutants) {
+            classes.add(mutatedClass);
+            weight += Math.max(1, mutants);
+        }
+
+        @Override
+        public int compareTo(Shard other) {
+            int byWeight = Long.compare(weight, other.weight);
+            return byWeight != 0 ? byWeight : Integer.compare(index, other.index);
+        }
+    }
+}
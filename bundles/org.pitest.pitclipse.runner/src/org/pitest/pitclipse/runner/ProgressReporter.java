@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.pitest.bytecode.analysis.ClassTree;
+import org.pitest.mutationtest.ClassMutationResults;
+import org.pitest.mutationtest.MutationResult;
+import org.pitest.mutationtest.MutationResultListener;
+import org.pitest.mutationtest.build.InterceptorType;
+import org.pitest.mutationtest.build.MutationInterceptor;
+import org.pitest.mutationtest.engine.Mutater;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.pitclipse.runner.PitProgress.Phase;
+import org.pitest.pitclipse.runner.results.Dispatcher;
+
+/**
+ * <p>Follows a running analysis and dispatches its {@link PitProgress progress}.</p>
+ * 
+ * <p>The mutants to analyze are counted by the {@link #mutantCounter() interceptor}
+ * run last when PIT builds the mutants; being a reporting interceptor, PIT
+ * does not run it when it only looks for mutants before computing the coverage.
+ * Analyzed mutants are counted by this listener.</p>
+ * 
+ * <p>The progress is dispatched each time the analysis enters a new phase, and
+ * at most every {@value #MIN_INTERVAL_MILLIS} ms while mutants are analyzed.</p>
+ */
+final class ProgressReporter implements MutationResultListener {
+
+    static final long MIN_INTERVAL_MILLIS = 250;
+
+    private final Dispatcher<PitProgress> dispatcher;
+    private Phase phase = Phase.COVERAGE;
+    private long mutantsTotal = 0;
+    private long mutantsDone = 0;
+    private long killed = 0;
+    private long survived = 0;
+    private long analysisStart;
+    private long lastDispatch;
+
+    ProgressReporter(Dispatcher<PitProgress> dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Notifies that the analysis started, with the computation of the coverage.
+     */
+    synchronized void start() {
+        dispatch(System.nanoTime());
+    }
+
+    /**
+     * @return an interceptor counting the mutants to analyze
+     */
+    MutationInterceptor mutantCounter() {
+        return new MutationInterceptor() {
+            @Override
+            public InterceptorType type() {
+                return InterceptorType.REPORT;
+            }
+
+            @Override
+            public void begin(ClassTree clazz) {
+                generationStarted();
+            }
+
+            @Override
+            public Collection<MutationDetails> intercept(Collection<MutationDetails> mutations, Mutater mutater) {
+                mutantsGenerated(mutations.size());
+                return mutations;
+            }
+
+            @Override
+            public void end() {
+                // mutants are counted as they are intercepted
+            }
+        };
+    }
+
+    private synchronized void generationStarted() {
+        if (phase == Phase.COVERAGE) {
+            phase = Phase.MUTANT_GENERATION;
+            dispatch(System.nanoTime());
+        }
+    }
+
+    private synchronized void mutantsGenerated(int count) {
+        mutantsTotal += count;
+    }
+
+    @Override
+    public synchronized void runStart() {
+        phase = Phase.ANALYSIS;
+        analysisStart = System.nanoTime();
+        dispatch(analysisStart);
+    }
+
+    @Override
+    public synchronized void handleMutationResult(ClassMutationResults results) {
+        for (MutationResult result : results.getMutations()) {
+            mutantsDone++;
+            if (result.getStatus().isDetected()) {
+                killed++;
+            } else {
+                survived++;
+            }
+        }
+        long now = System.nanoTime();
+        if (now - lastDispatch >= TimeUnit.MILLISECONDS.toNanos(MIN_INTERVAL_MILLIS)) {
+            dispatch(now);
+        }
+    }
+
+    @Override
+    public synchronized void runEnd() {
+        dispatch(System.nanoTime());
+    }
+
+    private void dispatch(long now) {
+        lastDispatch = now;
+        double elapsedSeconds = (now - analysisStart) / 1e9;
+        double mutantsPerSecond = phase == Phase.ANALYSIS && elapsedSeconds > 0 ? mutantsDone / elapsedSeconds : 0;
+        dispatcher.dispatch(PitProgress.of(phase, mutantsTotal, mutantsDone, killed, survived, mutantsPerSecond));
+    }
+}
@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.pitest.bytecode.analysis.ClassTree;
+import org.pitest.classinfo.ClassName;
+import org.pitest.coverage.CoverageDatabase;
+import org.pitest.coverage.TestInfo;
+import org.pitest.mutationtest.ClassMutationResults;
+import org.pitest.mutationtest.DetectionStatus;
+import org.pitest.mutationtest.MutationResult;
+import org.pitest.mutationtest.MutationResultListener;
+import org.pitest.mutationtest.build.InterceptorType;
+import org.pitest.mutationtest.build.MutationInterceptor;
+import org.pitest.mutationtest.config.ReportOptions;
+import org.pitest.mutationtest.engine.Mutater;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.pitclipse.runner.RunStatistics.ClassStatistics;
+import org.pitest.pitclipse.runner.RunStatistics.Phase;
+import org.pitest.pitclipse.runner.RunStatistics.TestStatistics;
+
+/**
+ * <p>Measures where the time of an analysis run in process is spent, and
+ * turns the measures into {@link RunStatistics}.</p>
+ * 
+ * <p>PIT does not expose its own timings, so the phases are delimited by
+ * the calls it makes to Pitclipse's extensions, in this order:
+ * <ol>
+ *  <li>PIT scans the classpath, then looks for mutants a first time: the
+ *  {@link #buildStarted(CoverageDatabase) first interceptor} is created and the
+ *  {@link #phaseMarker() phase marker} is called for each class
+ *  <li>PIT scans the classpath for tests, then computes the coverage: the
+ *  first {@link #minionLaunching() minion is launched}
+ *  <li>PIT builds the mutants to analyze: the second interceptor is created
+ *  <li>PIT analyzes the mutants between {@link #runStart()} and {@link #runEnd()}
+ * </ol>
+ * The time spent writing the reports and in Pitclipse's listeners is measured
+ * by {@link #reportWriting(MutationResultListener) wrapping} the listeners.</p>
+ */
+final class RunInstrumentation implements MutationResultListener {
+
+    private static final long UNSET = -1;
+
+    private final int threads;
+    private final float timeoutFactor;
+    private final long timeoutConstant;
+    private final LongSupplier nanoTime;
+    private final AtomicLong reportNanos = new AtomicLong();
+    private final AtomicLong listenerNanos = new AtomicLong();
+    private final Map<String, ClassCost> classCosts = new HashMap<>();
+    private final Map<String, Long> testMillis = new HashMap<>();
+    private long start;
+    private long gcMillisAtStart;
+    private int builds = 0;
+    private long preScanStart = UNSET;
+    private long preScanEnd = UNSET;
+    private long coverageStart = UNSET;
+    private long mainBuildStart = UNSET;
+    private long analysisStart = UNSET;
+    private long analysisEnd = UNSET;
+    private long mutantsAnalyzed = 0;
+    private CoverageDatabase coverage;
+
+    RunInstrumentation(ReportOptions options) {
+        this(options, System::nanoTime);
+    }
+
+    /**
+     * @param options
+     *          The options of the analysis.
+     * @param nanoTime
+     *          The clock the phases are timed with, in nanoseconds.
+     */
+    RunInstrumentation(ReportOptions options, LongSupplier nanoTime) {
+        this.threads = options.getNumberOfThreads();
+        this.timeoutFactor = options.getTimeoutFactor();
+        this.timeoutConstant = options.getTimeoutConstant();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Starts measuring, just before PIT is called.
+     */
+    synchronized void start() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        gcMillisAtStart = gcMillis();
+        start = nanoTime.getAsLong();
+    }
+
+    /**
+     * Notifies that PIT builds the mutants, either to know whether there are
+     * some to analyze, or to analyze them once the coverage is computed.
+     * 
+     * @param coverageDatabase
+     *          The coverage used to build the mutants.
+     */
+    synchronized void buildStarted(CoverageDatabase coverageDatabase) {
+        builds++;
+        if (builds == 1) {
+            preScanStart = elapsed();
+        } else {
+            mainBuildStart = elapsed();
+            coverage = coverageDatabase;
+        }
+    }
+
+    /**
+     * Notifies that PIT launches a minion, either to compute the coverage
+     * or to analyze mutants.
+     */
+    synchronized void minionLaunching() {
+        if (coverageStart == UNSET) {
+            coverageStart = elapsed();
+        }
+    }
+
+    /**
+     * @return an interceptor telling when PIT is done with each class while
+     *          looking for mutants
+     */
+    MutationInterceptor phaseMarker() {
+        return new MutationInterceptor() {
+            @Override
+            public InterceptorType type() {
+                return InterceptorType.OTHER;
+            }
+
+            @Override
+            public void begin(ClassTree clazz) {
+                // the time is taken once the class is done
+            }
+
+            @Override
+            public Collection<MutationDetails> intercept(Collection<MutationDetails> mutations, Mutater mutater) {
+                return mutations;
+            }
+
+            @Override
+            public void end() {
+                classScanned();
+            }
+        };
+    }
+
+    private synchronized void classScanned() {
+        if (builds == 1 && coverageStart == UNSET) {
+            preScanEnd = elapsed();
+        }
+    }
+
+    /**
+     * @param listener
+     *          A listener writing PIT's reports.
+     * @return a listener measuring the time spent in the given one
+     */
+    MutationResultListener reportWriting(MutationResultListener listener) {
+        return new TimedListener(listener, reportNanos);
+    }
+
+    /**
+     * @param listener
+     *          A listener added by Pitclipse.
+     * @return a listener measuring the time spent in the given one
+     */
+    MutationResultListener pitclipseListener(MutationResultListener listener) {
+        return new TimedListener(listener, listenerNanos);
+    }
+
+    @Override
+    public synchronized void runStart() {
+        analysisStart = elapsed();
+    }
+
+    @Override
+    public synchronized void handleMutationResult(ClassMutationResults results) {
+        String className = results.getMutatedClass().asJavaName();
+        ClassCost cost = classCosts.computeIfAbsent(className, name -> new ClassCost(meanTestMillis(name)));
+        for (MutationResult result : results.getMutations()) {
+            mutantsAnalyzed++;
+            cost.add(result);
+        }
+    }
+
+    @Override
+    public synchronized void runEnd() {
+        analysisEnd = elapsed();
+    }
+
+    private double meanTestMillis(String className) {
+        if (coverage == null) {
+            return 0;
+        }
+        Collection<TestInfo> tests = coverage.getTestsForClass(ClassName.fromString(className));
+        if (tests.isEmpty()) {
+            return 0;
+        }
+        long totalMillis = 0;
+        for (TestInfo test : tests) {
+            totalMillis += test.getTime();
+            testMillis.put(test.getName(), (long) test.getTime());
+        }
+        return (double) totalMillis / tests.size();
+    }
+
+    /**
+     * @return the statistics of the analysis, measured until now
+     */
+    synchronized RunStatistics toStatistics() {
+        long end = elapsed();
+        long preScanStarted = preScanStart == UNSET ? end : preScanStart;
+        long preScanEnded = orElse(preScanEnd, orElse(coverageStart, orElse(mainBuildStart, end)));
+        long coverageStarted = coverageStart == UNSET ? orElse(mainBuildStart, preScanEnded) : coverageStart;
+        long mainBuildStarted = orElse(mainBuildStart, coverageStarted);
+        long analysisStarted = orElse(analysisStart, mainBuildStarted);
+        long analysisEnded = analysisStart == UNSET ? analysisStarted : orElse(analysisEnd, end);
+        return RunStatistics.builder()
+                .withMillis(Phase.CLASSPATH_SCAN, millis(preScanStarted + coverageStarted - preScanEnded))
+                .withMillis(Phase.COVERAGE, millis(mainBuildStarted - coverageStarted))
+                .withMillis(Phase.MUTANT_GENERATION,
+                        millis(preScanEnded - preScanStarted + analysisStarted - mainBuildStarted))
+                .withMillis(Phase.ANALYSIS, millis(analysisEnded - analysisStarted))
+                .withMillis(Phase.REPORT_WRITING, millis(reportNanos.get()))
+                .withListenerMillis(millis(listenerNanos.get()))
+                .withPeakHeapBytes(peakHeapBytes())
+                .withGcMillis(gcMillis() - gcMillisAtStart)
+                .withThreads(threads)
+                .withMutantsAnalyzed(mutantsAnalyzed)
+                .withSlowestClasses(slowestClasses())
+                .withSlowestTests(slowestTests())
+                .build();
+    }
+
+    private List<ClassStatistics> slowestClasses() {
+        List<ClassStatistics> classes = new ArrayList<>(classCosts.size());
+        classCosts.forEach((className, cost) -> classes.add(cost.toStatistics(className)));
+        classes.sort(Comparator.comparingLong(ClassStatistics::getEstimatedMillis).reversed());
+        return classes.subList(0, Math.min(RunStatistics.SLOWEST_COUNT, classes.size()));
+    }
+
+    private List<TestStatistics> slowestTests() {
+        List<TestStatistics> tests = new ArrayList<>(testMillis.size());
+        testMillis.forEach((testName, millis) -> tests.add(new TestStatistics(testName, millis)));
+        tests.sort(Comparator.comparingLong(TestStatistics::getMillis).reversed());
+        return tests.subList(0, Math.min(RunStatistics.SLOWEST_COUNT, tests.size()));
+    }
+
+    private long elapsed() {
+        return nanoTime.getAsLong() - start;
+    }
+
+    private static long orElse(long time, long defaultTime) {
+        return time == UNSET ? defaultTime : time;
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, nanos));
+    }
+
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            // -1 when the collection time is not available
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * Adds up the cost of the mutants of a class.
+     */
+    private final class ClassCost {
+        private final double meanTestMillis;
+        private long mutants = 0;
+        private long testsRun = 0;
+        private long timedOut = 0;
+        private double estimatedMillis = 0;
+
+        ClassCost(double meanTestMillis) {
+            this.meanTestMillis = meanTestMillis;
+        }
+
+        void add(MutationResult result) {
+            mutants++;
+            testsRun += result.getNumberOfTestsRun();
+            double normalMillis = result.getNumberOfTestsRun() * meanTestMillis;
+            if (result.getStatus() == DetectionStatus.TIMED_OUT) {
+                timedOut++;
+                estimatedMillis += normalMillis * timeoutFactor + timeoutConstant;
+            } else {
+                estimatedMillis += normalMillis;
+            }
+        }
+
+        ClassStatistics toStatistics(String className) {
+            return new ClassStatistics(className, mutants, testsRun, timedOut, Math.round(estimatedMillis));
+        }
+    }
+
+    /**
+     * Forwards the events to a listener, adding up the time spent in it.
+     */
+    private final class TimedListener implements MutationResultListener {
+        private final MutationResultListener listener;
+        private final AtomicLong nanos;
+
+        TimedListener(MutationResultListener listener, AtomicLong nanos) {
+            this.listener = listener;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public void runStart() {
+            long start = nanoTime.getAsLong();
+            try {
+                listener.runStart();
+            } finally {
+                nanos.addAndGet(nanoTime.getAsLong() - start);
+            }
+        }
+
+        @Override
+        public void handleMutationResult(ClassMutationResults results) {
+            long start = nanoTime.getAsLong();
+            try {
+                listener.handleMutationResult(results);
+            } finally {
+                nanos.addAndGet(nanoTime.getAsLong() - start);
+            }
+        }
+
+        @Override
+        public void runEnd() {
+            long start = nanoTime.getAsLong();
+            try {
+                listener.runEnd();
+            } finally {
+                nanos.addAndGet(nanoTime.getAsLong() - start);
+            }
+        }
+    }
+}
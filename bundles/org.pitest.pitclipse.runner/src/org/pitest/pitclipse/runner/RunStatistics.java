@@ -0,0 +1,393 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+/**
+ * <p>Describes where the time of an analysis has been spent by the PIT
+ * application that ran it.</p>
+ * 
+ * <p>The statistics hold the wall time of each {@link Phase phase}, the time
+ * spent by Pitclipse's own listeners, the memory and garbage collection of
+ * the JVM coordinating the analysis, the throughput of the minions and the
+ * classes and tests that cost the most.</p>
+ * 
+ * <p>The cost of a class is estimated from the number of tests run against
+ * its mutants and from the time these tests took while the coverage was
+ * computed; mutants that timed out are counted with PIT's timeout.</p>
+ */
+public final class RunStatistics implements Serializable {
+    private static final long serialVersionUID = -3460928176613541930L;
+
+    /**
+     * The number of classes and tests kept by {@link #getSlowestClasses()}
+     * and {@link #getSlowestTests()}.
+     */
+    public static final int SLOWEST_COUNT = 10;
+
+    public static final RunStatistics NONE = builder().build();
+
+    /**
+     * The phases of an analysis whose wall time is measured.
+     */
+    public enum Phase {
+        CLASSPATH_SCAN("Classpath scanning"),
+        COVERAGE("Coverage collection"),
+        MUTANT_GENERATION("Mutant generation"),
+        ANALYSIS("Minion analysis"),
+        REPORT_WRITING("Report writing");
+
+        private final String description;
+
+        Phase(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private final ImmutableMap<Phase, Long> phaseMillis;
+
+    private final long listenerMillis;
+
+    private final long peakHeapBytes;
+
+    private final long gcMillis;
+
+    private final int threads;
+
+    private final long mutantsAnalyzed;
+
+    private final ImmutableList<ClassStatistics> slowestClasses;
+
+    private final ImmutableList<TestStatistics> slowestTests;
+
+    private RunStatistics(ImmutableMap<Phase, Long> phaseMillis, long listenerMillis, long peakHeapBytes,
+            long gcMillis, int threads, long mutantsAnalyzed, ImmutableList<ClassStatistics> slowestClasses,
+            ImmutableList<TestStatistics> slowestTests) {
+        this.phaseMillis = phaseMillis;
+        this.listenerMillis = listenerMillis;
+        this.peakHeapBytes = peakHeapBytes;
+        this.gcMillis = gcMillis;
+        this.threads = threads;
+        this.mutantsAnalyzed = mutantsAnalyzed;
+        this.slowestClasses = slowestClasses;
+        this.slowestTests = slowestTests;
+    }
+
+    /**
+     * @param phase
+     *          A phase of the analysis.
+     * @return the wall time of the phase, in milliseconds
+     */
+    public long getMillis(Phase phase) {
+        return phaseMillis.getOrDefault(phase, 0L);
+    }
+
+    /**
+     * @return the time spent in the listeners Pitclipse adds to PIT, in milliseconds
+     */
+    public long getListenerMillis() {
+        return listenerMillis;
+    }
+
+    /**
+     * @return the sum of the peak usage of the heap memory pools of the JVM
+     *          coordinating the analysis, in bytes; the JVMs of combined
+     *          statistics run side by side, so their peaks are added up
+     */
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    /**
+     * @return the time spent collecting garbage by the JVM coordinating the
+     *          analysis, in milliseconds; the times of the JVMs of combined
+     *          statistics are added up
+     */
+    public long getGcMillis() {
+        return gcMillis;
+    }
+
+    /**
+     * @return the number of threads running the minions
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getMutantsAnalyzed() {
+        return mutantsAnalyzed;
+    }
+
+    /**
+     * @return the number of mutants analyzed per second by each thread during
+     *          the {@link Phase#ANALYSIS analysis}, 0 if unknown
+     */
+    public double getMutantsPerSecondPerThread() {
+        long analysisMillis = getMillis(Phase.ANALYSIS);
+        if (analysisMillis == 0 || threads == 0) {
+            return 0;
+        }
+        return mutantsAnalyzed * 1000.0 / analysisMillis / threads;
+    }
+
+    /**
+     * @return {@code true} if nothing has been measured, for instance because
+     *          the analysis has not been run in process
+     */
+    public boolean isEmpty() {
+        return threads == 0;
+    }
+
+    /**
+     * @return the classes whose mutants cost the most, the most costly first
+     */
+    public ImmutableList<ClassStatistics> getSlowestClasses() {
+        return slowestClasses;
+    }
+
+    /**
+     * @return the slowest tests covering the mutated classes, the slowest first
+     */
+    public ImmutableList<TestStatistics> getSlowestTests() {
+        return slowestTests;
+    }
+
+    /**
+     * Combines the statistics of PIT applications that ran side by side,
+     * for instance the shards of a launch: the wall time of each phase is
+     * the longest one, the other values are added up. A test run by several
+     * of them is listed once, with its longest time.
+     * 
+     * @param other
+     *          The statistics to combine with these ones.
+     * @return the statistics of both PIT applications
+     */
+    public RunStatistics combine(RunStatistics other) {
+        Builder combined = builder();
+        for (Phase phase : Phase.values()) {
+            combined.withMillis(phase, Math.max(getMillis(phase), other.getMillis(phase)));
+        }
+        return combined.withListenerMillis(listenerMillis + other.listenerMillis)
+                       .withPeakHeapBytes(peakHeapBytes + other.peakHeapBytes)
+                       .withGcMillis(gcMillis + other.gcMillis)
+                       .withThreads(threads + other.threads)
+                       .withMutantsAnalyzed(mutantsAnalyzed + other.mutantsAnalyzed)
+                       .withSlowestClasses(slowest(Iterables.concat(slowestClasses, other.slowestClasses),
+                               Comparator.comparingLong(ClassStatistics::getEstimatedMillis)))
+                       .withSlowestTests(slowest(longestByName(slowestTests, other.slowestTests),
+                               Comparator.comparingLong(TestStatistics::getMillis)))
+                       .build();
+    }
+
+    private static <T> List<T> slowest(Iterable<T> candidates, Comparator<T> cost) {
+        List<T> all = Lists.newArrayList(candidates);
+        all.sort(cost.reversed());
+        return all.subList(0, Math.min(SLOWEST_COUNT, all.size()));
+    }
+
+    private static Iterable<TestStatistics> longestByName(List<TestStatistics> some, List<TestStatistics> others) {
+        Map<String, TestStatistics> tests = new LinkedHashMap<>();
+        for (TestStatistics test : Iterables.concat(some, others)) {
+            tests.merge(test.getTestName(), test, (known, same) -> known.getMillis() >= same.getMillis() ? known : same);
+        }
+        return tests.values();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return "RunStatistics [phaseMillis=" + phaseMillis + ", listenerMillis=" + listenerMillis
+                + ", peakHeapBytes=" + peakHeapBytes + ", gcMillis=" + gcMillis + ", threads=" + threads
+                + ", mutantsAnalyzed=" + mutantsAnalyzed + ", slowestClasses=" + slowestClasses
+                + ", slowestTests=" + slowestTests + "]";
+    }
+
+    public static final class Builder {
+        private final Map<Phase, Long> phaseMillis = new EnumMap<>(Phase.class);
+        private long listenerMillis = 0;
+        private long peakHeapBytes = 0;
+        private long gcMillis = 0;
+        private int threads = 0;
+        private long mutantsAnalyzed = 0;
+        private ImmutableList<ClassStatistics> slowestClasses = ImmutableList.of();
+        private ImmutableList<TestStatistics> slowestTests = ImmutableList.of();
+
+        private Builder() {
+        }
+
+        public RunStatistics build() {
+            return new RunStatistics(ImmutableMap.copyOf(phaseMillis), listenerMillis, peakHeapBytes, gcMillis,
+                    threads, mutantsAnalyzed, slowestClasses, slowestTests);
+        }
+
+        public Builder withMillis(Phase phase, long millis) {
+            phaseMillis.put(phase, millis);
+            return this;
+        }
+
+        public Builder withListenerMillis(long listenerMillis) {
+            this.listenerMillis = listenerMillis;
+            return this;
+        }
+
+        public Builder withPeakHeapBytes(long peakHeapBytes) {
+            this.peakHeapBytes = peakHeapBytes;
+            return this;
+        }
+
+        public Builder withGcMillis(long gcMillis) {
+            this.gcMillis = gcMillis;
+            return this;
+        }
+
+        public Builder withThreads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder withMutantsAnalyzed(long mutantsAnalyzed) {
+            this.mutantsAnalyzed = mutantsAnalyzed;
+            return this;
+        }
+
+        public Builder withSlowestClasses(List<ClassStatistics> slowestClasses) {
+            this.slowestClasses = ImmutableList.copyOf(slowestClasses);
+            return this;
+        }
+
+        public Builder withSlowestTests(List<TestStatistics> slowestTests) {
+            this.slowestTests = ImmutableList.copyOf(slowestTests);
+            return this;
+        }
+    }
+
+    /**
+     * The estimated cost of the mutants of a class.
+     */
+    public static final class ClassStatistics implements Serializable {
+        private static final long serialVersionUID = 4711097305394820616L;
+
+        private final String className;
+
+        private final long mutants;
+
+        private final long testsRun;
+
+        private final long timedOut;
+
+        private final long estimatedMillis;
+
+        /**
+         * @param className
+         *          The name of the mutated class.
+         * @param mutants
+         *          The number of mutants of the class analyzed.
+         * @param testsRun
+         *          The number of tests run against these mutants.
+         * @param timedOut
+         *          The number of mutants that timed out.
+         * @param estimatedMillis
+         *          The estimated time spent analyzing the mutants.
+         */
+        public ClassStatistics(String className, long mutants, long testsRun, long timedOut, long estimatedMillis) {
+            this.className = className;
+            this.mutants = mutants;
+            this.testsRun = testsRun;
+            this.timedOut = timedOut;
+            this.estimatedMillis = estimatedMillis;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public long getMutants() {
+            return mutants;
+        }
+
+        public long getTestsRun() {
+            return testsRun;
+        }
+
+        public long getTimedOut() {
+            return timedOut;
+        }
+
+        public long getEstimatedMillis() {
+            return estimatedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "ClassStatistics [className=" + className + ", mutants=" + mutants + ", testsRun=" + testsRun
+                    + ", timedOut=" + timedOut + ", estimatedMillis=" + estimatedMillis + "]";
+        }
+    }
+
+    /**
+     * The time a test took while the coverage was computed.
+     */
+    public static final class TestStatistics implements Serializable {
+        private static final long serialVersionUID = -2015813407771391054L;
+
+        private final String testName;
+
+        private final long millis;
+
+        /**
+         * @param testName
+         *          The name of the test, as given by PIT.
+         * @param millis
+         *          The time the test took.
+         */
+        public TestStatistics(String testName, long millis) {
+            this.testName = testName;
+            this.millis = millis;
+        }
+
+        public String getTestName() {
+            return testName;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return "TestStatistics [testName=" + testName + ", millis=" + millis + "]";
+        }
+    }
+}
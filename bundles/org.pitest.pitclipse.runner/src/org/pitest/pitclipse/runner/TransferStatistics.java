@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import java.io.Serializable;
+
+/**
+ * <p>Describes how the results of an analysis have been transferred from
+ * the PIT application to Eclipse.</p>
+ * 
+ * <p>Frames above a size threshold may be compressed; the statistics tell
+ * how many bytes have been saved and how much time it took, so that the
+ * threshold can be tuned.</p>
+ */
+public final class TransferStatistics implements Serializable {
+    private static final long serialVersionUID = -1964315846043387419L;
+
+    public static final TransferStatistics NONE = new TransferStatistics(0, 0, 0, 0, 0, 0);
+
+    private final long frames;
+
+    private final long compressedFrames;
+
+    private final long rawBytes;
+
+    private final long transferredBytes;
+
+    private final long compressionNanos;
+
+    private final long decompressionNanos;
+
+    /**
+     * @param frames
+     *          The number of frames received.
+     * @param compressedFrames
+     *          The number of frames that were compressed.
+     * @param rawBytes
+     *          The size of the frames before compression.
+     * @param transferredBytes
+     *          The size of the frames as sent over the connection.
+     * @param compressionNanos
+     *          The time spent by the PIT application to compress the frames.
+     * @param decompressionNanos
+     *          The time spent by Eclipse to decompress the frames.
+     */
+    public TransferStatistics(long frames, long compressedFrames, long rawBytes, long transferredBytes,
+            long compressionNanos, long decompressionNanos) {
+        this.frames = frames;
+        this.compressedFrames = compressedFrames;
+        this.rawBytes = rawBytes;
+        this.transferredBytes = transferredBytes;
+        this.compressionNanos = compressionNanos;
+        this.decompressionNanos = decompressionNanos;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public long getCompressedFrames() {
+        return compressedFrames;
+    }
+
+    public long getRawBytes() {
+        return rawBytes;
+    }
+
+    public long getTransferredBytes() {
+        return transferredBytes;
+    }
+
+    public long getCompressionNanos() {
+        return compressionNanos;
+    }
+
+    public long getDecompressionNanos() {
+        return decompressionNanos;
+    }
+
+    /**
+     * @return the size of the frames before compression divided by the size
+     *          of the frames as sent, 1 if nothing has been sent
+     */
+    public double getCompressionRatio() {
+        return transferredBytes == 0 ? 1 : (double) rawBytes / transferredBytes;
+    }
+
+    /**
+     * Adds up the statistics of two connections, for instance those of
+     * the PIT applications running the shards of a launch.
+     * 
+     * @param other
+     *          The statistics to add.
+     * @return the statistics of both connections
+     */
+    public TransferStatistics plus(TransferStatistics other) {
+        return new TransferStatistics(frames + other.frames, compressedFrames + other.compressedFrames,
+                rawBytes + other.rawBytes, transferredBytes + other.transferredBytes,
+                compressionNanos + other.compressionNanos, decompressionNanos + other.decompressionNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "TransferStatistics [frames=" + frames + ", compressedFrames=" + compressedFrames + ", rawBytes="
+                + rawBytes + ", transferredBytes=" + transferredBytes + ", compressionNanos=" + compressionNanos
+                + ", decompressionNanos=" + decompressionNanos + "]";
+    }
+}
@@ -19,9 +19,16 @@ package org.pitest.pitclipse.runner.client;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import org.pitest.pitclipse.runner.PitCancelRequest;
+import org.pitest.pitclipse.runner.PitCancellation;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitProgress;
 import org.pitest.pitclipse.runner.PitRequest;
 import org.pitest.pitclipse.runner.PitResults;
+import org.pitest.pitclipse.runner.io.ConnectionClosedException;
 import org.pitest.pitclipse.runner.io.ObjectStreamSocket;
 import org.pitest.pitclipse.runner.io.SocketProvider;
 
@@ -35,9 +42,10 @@ public class PitClient implements Closeable {
     private final int portNumber;
     private final SocketProvider socketProvider;
     private Optional<ObjectStreamSocket> socket = Optional.empty();
+    private Optional<CompletableFuture<Optional<PitRequest>>> requestWatched = Optional.empty();
 
     public PitClient(int portNumber) {
-        this(portNumber, new SocketProvider());
+        this(portNumber, SocketProvider.forPort(portNumber));
     }
 
     /**
@@ -55,7 +63,42 @@ public class PitClient implements Closeable {
         socket = socketProvider.connectTo(portNumber);
     }
 
-    public void sendResults(PitResults results) {
+    /**
+     * Returns whether the connection with Eclipse has been established.
+     * 
+     * @return {@code true} if {@link #connect()} succeeded
+     */
+    public boolean isConnected() {
+        return socket.isPresent();
+    }
+
+    /**
+     * Sends the results of a single class, while the analysis is still running.
+     * 
+     * @param results
+     *          The results of the class.
+     */
+    public synchronized void sendClassResults(PitClassResults results) {
+        socket.ifPresent(objectStreamSocket -> objectStreamSocket.write(results));
+    }
+
+    /**
+     * Sends the progress of the analysis, while it is still running.
+     * 
+     * @param progress
+     *          The progress of the analysis.
+     */
+    public synchronized void sendProgress(PitProgress progress) {
+        socket.ifPresent(objectStreamSocket -> objectStreamSocket.write(progress));
+    }
+
+    /**
+     * Sends the final results of the analysis, closing the run.
+     * 
+     * @param results
+     *          The results of the analysis.
+     */
+    public synchronized void sendResults(PitResults results) {
         socket.ifPresent(objectStreamSocket -> objectStreamSocket.write(results));
     }
 
@@ -63,6 +106,69 @@ public class PitClient implements Closeable {
         return socket.map(ObjectStreamSocket::read);
     }
 
+    /**
+     * <p>Waits for a further request, once the previous one has been served.</p>
+     * 
+     * <p>Returns an empty optional if Eclipse closed the connection.</p>
+     * 
+     * @return the next request to serve, if any
+     */
+    public Optional<PitRequest> readNextRequest() {
+        if (requestWatched.isPresent()) {
+            CompletableFuture<Optional<PitRequest>> nextRequest = requestWatched.get();
+            requestWatched = Optional.empty();
+            try {
+                return nextRequest.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+        try {
+            return readRequest();
+        } catch (ConnectionClosedException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * <p>Listens for a {@link PitCancelRequest} while the current request is served.</p>
+     * 
+     * <p>Incoming messages are read by a background thread until the next request
+     * is received, which is then returned by {@link #readNextRequest()}. The returned
+     * cancellation is also triggered if Eclipse closes the connection, as nobody would
+     * be waiting for the results anymore.</p>
+     * 
+     * @return the cancellation of the request being served
+     */
+    public PitCancellation listenForCancellation() {
+        PitCancellation cancellation = new PitCancellation();
+        if (!socket.isPresent()) {
+            return cancellation;
+        }
+        ObjectStreamSocket objectStreamSocket = socket.get();
+        CompletableFuture<Optional<PitRequest>> nextRequest = new CompletableFuture<>();
+        requestWatched = Optional.of(nextRequest);
+        Thread watcher = new Thread(() -> {
+            try {
+                Object message = objectStreamSocket.read();
+                while (message instanceof PitCancelRequest) {
+                    cancellation.cancel();
+                    message = objectStreamSocket.read();
+                }
+                nextRequest.complete(Optional.of((PitRequest) message));
+            } catch (ConnectionClosedException e) {
+                cancellation.cancel();
+                nextRequest.complete(Optional.empty());
+            } catch (RuntimeException e) {
+                cancellation.cancel();
+                nextRequest.completeExceptionally(e);
+            }
+        }, "pitclipse-cancellation-listener");
+        watcher.setDaemon(true);
+        watcher.start();
+        return cancellation;
+    }
+
     @Override
     public void close() throws IOException {
         if (socket.isPresent()) {
@@ -17,6 +17,7 @@
 package org.pitest.pitclipse.runner.client;
 
 import org.pitest.pitclipse.runner.PitRequest;
+import org.pitest.pitclipse.runner.PitResults;
 import org.pitest.pitclipse.runner.server.PitServer;
 
 /**
@@ -26,14 +27,24 @@ import org.pitest.pitclipse.runner.server.PitServer;
  * <ol>
  *  <li>Ensures that the given server is connected to a {@link PitClient}
  *  <li>Sends the request to the client so that the PIT analysis can start
+ *  <li>Forwards the results of each class as they are analyzed
  *  <li>Waits for analysis results
  * </ol>
+ * 
+ * <p>The connection is closed once results are received, unless it is
+ * asked to be kept open and the PIT application accepts further requests.</p>
+ * 
+ * <p>The analysis can be {@link #cancel() cancelled} from another thread while
+ * results are awaited, in which case partial results are handled.</p>
  */
 public class PitCommunicator implements Runnable {
 
     private final PitRequest request;
     private final PitResultHandler resultHandler;
     private final PitServer server;
+    private final boolean keepConnectionOpen;
+    private volatile boolean awaitingResults = false;
+    private volatile boolean cancelled = false;
 
     /**
      * Creates a new communicator to ease the connection with a running PIT application.
@@ -46,22 +57,74 @@ public class PitCommunicator implements Runnable {
      *          The handler used to process PIT results.
      */
     public PitCommunicator(PitServer server, PitRequest request, PitResultHandler resultHandler) {
+        this(server, request, resultHandler, false);
+    }
+
+    /**
+     * Creates a new communicator to ease the connection with a running PIT application.
+     * 
+     * @param server
+     *          The server used to communicate with the PIT application.
+     * @param request
+     *          The parameters of the PIT analysis to launch.
+     * @param resultHandler
+     *          The handler used to process PIT results.
+     * @param keepConnectionOpen
+     *          Whether the connection must be kept open so that further requests can
+     *          be sent to the same PIT application.
+     */
+    public PitCommunicator(PitServer server, PitRequest request, PitResultHandler resultHandler,
+            boolean keepConnectionOpen) {
         this.server = server;
         this.request = request;
         this.resultHandler = resultHandler;
+        this.keepConnectionOpen = keepConnectionOpen;
     }
 
     @Override
     public void run() {
+        boolean closeConnection = true;
         try {
-            server.listen();
+            if (!keepConnectionOpen || !server.isConnected()) {
+                server.listen();
+            }
             server.sendRequest(request);
-            resultHandler.handle(server.receiveResults());
+            awaitingResults = true;
+            if (cancelled) {
+                server.cancel();
+            }
+            PitResults results = server.receiveResults(resultHandler::handleClassResults, resultHandler::handleProgress);
+            awaitingResults = false;
+            closeConnection = !keepConnectionOpen || !results.isRunnerAvailable();
+            resultHandler.handle(results);
         } catch (Exception e) {
+            closeConnection = true;
             e.printStackTrace();
             throw e;
         } finally {
-            server.close();
+            awaitingResults = false;
+            if (closeConnection) {
+                server.close();
+            }
         }
     }
+
+    /**
+     * Asks the PIT application to stop the analysis and to send the results
+     * gathered so far. If the request has not been sent yet, the analysis is
+     * cancelled as soon as it is.
+     */
+    public void cancel() {
+        cancelled = true;
+        if (awaitingResults) {
+            server.cancel();
+        }
+    }
+
+    /**
+     * @return whether the analysis has been {@link #cancel() cancelled}
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
 }
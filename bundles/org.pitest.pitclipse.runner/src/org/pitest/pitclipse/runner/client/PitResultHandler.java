@@ -16,6 +16,8 @@
 
 package org.pitest.pitclipse.runner.client;
 
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitProgress;
 import org.pitest.pitclipse.runner.PitResults;
 
 /**
@@ -31,5 +33,27 @@ public interface PitResultHandler {
      *          The results to process.
      */
     void handle(PitResults results);
+
+    /**
+     * Processes the results of a single class, received while the
+     * analysis is still running. Does nothing by default.
+     * 
+     * @param results
+     *          The results to process.
+     */
+    default void handleClassResults(PitClassResults results) {
+        // only the final results are processed by default
+    }
+
+    /**
+     * Processes the progress of the analysis, received while it is still
+     * running. Does nothing by default.
+     * 
+     * @param progress
+     *          The progress of the analysis.
+     */
+    default void handleProgress(PitProgress progress) {
+        // the progress is ignored by default
+    }
     
 }
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.client;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitProgress;
+import org.pitest.pitclipse.runner.PitResults;
+import org.pitest.pitclipse.runner.RunStatistics;
+import org.pitest.pitclipse.runner.TransferStatistics;
+import org.pitest.pitclipse.runner.results.Mutations;
+import org.pitest.pitclipse.runner.results.ObjectFactory;
+
+/**
+ * <p>Gathers the results of an analysis split across several PIT applications.</p>
+ * 
+ * <p>Each PIT application sends its results to its own {@link Shard}. The
+ * results of each class are forwarded as soon as they are received, and so
+ * is the progress of the whole analysis, adding up the latest progress of
+ * every shard. Once
+ * every shard has sent its results, or has failed, the results of all the
+ * shards are merged and given to the delegate handler. The merged results are
+ * {@link PitResults#isPartial() partial} if a shard failed or sent partial
+ * results.</p>
+ * 
+ * <p>Each PIT application writes its own HTML report: the merged results point
+ * to an index linking the reports of all the shards, written in the directory
+ * holding them.</p>
+ * 
+ * <p>Instances of this class are <strong>thread-safe</strong>: each shard is
+ * expected to be served by its own thread.</p>
+ */
+public class ShardedResultHandler {
+
+    private final PitResultHandler delegate;
+    private final int shardCount;
+    private final List<PitResults> receivedResults = new ArrayList<>();
+    private final List<Shard> shards = new ArrayList<>();
+    private int completedShards = 0;
+    private boolean shardFailed = false;
+
+    /**
+     * Creates a new handler waiting for the results of the given number of shards.
+     * 
+     * @param delegate
+     *          The handler processing the merged results.
+     * @param shardCount
+     *          The number of shards the analysis is split into.
+     */
+    public ShardedResultHandler(PitResultHandler delegate, int shardCount) {
+        this.delegate = delegate;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * @return a new handler processing the results of a single shard
+     */
+    public synchronized Shard newShard() {
+        Shard shard = new Shard();
+        shards.add(shard);
+        return shard;
+    }
+
+    private void complete(PitResults shardResults) {
+        PitResults merged = null;
+        synchronized (this) {
+            if (shardResults != null) {
+                receivedResults.add(shardResults);
+            } else {
+                shardFailed = true;
+            }
+            completedShards++;
+            if (completedShards == shardCount && !receivedResults.isEmpty()) {
+                merged = merge(receivedResults, shardFailed);
+            }
+        }
+        if (merged != null) {
+            delegate.handle(merged);
+        }
+    }
+
+    private synchronized void forward(PitClassResults classResults) {
+        delegate.handleClassResults(classResults);
+    }
+
+    private synchronized void forward(Shard shard, PitProgress progress) {
+        shard.latestProgress = progress;
+        List<PitProgress> progresses = new ArrayList<>(shards.size());
+        for (Shard someShard : shards) {
+            if (someShard.latestProgress != null) {
+                progresses.add(someShard.latestProgress);
+            }
+        }
+        delegate.handleProgress(PitProgress.sum(progresses));
+    }
+
+    static PitResults merge(List<PitResults> results, boolean shardFailed) {
+        Mutations mutations = new ObjectFactory().createMutations();
+        List<File> htmlResultFiles = new ArrayList<>();
+        boolean partial = shardFailed;
+        TransferStatistics transferStatistics = TransferStatistics.NONE;
+        RunStatistics runStatistics = RunStatistics.NONE;
+        for (PitResults shardResults : results) {
+            mutations.getMutation().addAll(shardResults.getMutations().getMutation());
+            transferStatistics = transferStatistics.plus(shardResults.getTransferStatistics());
+            runStatistics = runStatistics.combine(shardResults.getRunStatistics());
+            partial |= shardResults.isPartial();
+            if (shardResults.getHtmlResultFile() != null) {
+                htmlResultFiles.add(shardResults.getHtmlResultFile());
+            }
+        }
+        return PitResults.builder()
+                .withHtmlResults(indexOf(htmlResultFiles))
+                .withProjects(results.get(0).getProjects())
+                .withMutations(mutations)
+                .withTransferStatistics(transferStatistics)
+                .withRunStatistics(runStatistics)
+                .withPartial(partial)
+                .build();
+    }
+
+    /**
+     * Returns an HTML file linking the given reports, written in the deepest
+     * directory holding all of them. Falls back to the first report if the
+     * index cannot be written.
+     */
+    static File indexOf(List<File> htmlResultFiles) {
+        if (htmlResultFiles.size() < 2) {
+            return htmlResultFiles.isEmpty() ? null : htmlResultFiles.get(0);
+        }
+        Path directory = htmlResultFiles.get(0).getAbsoluteFile().toPath().getParent();
+        for (File htmlResultFile : htmlResultFiles) {
+            while (directory != null && !htmlResultFile.getAbsoluteFile().toPath().startsWith(directory)) {
+                directory = directory.getParent();
+            }
+        }
+        if (directory == null) {
+            return htmlResultFiles.get(0);
+        }
+        StringBuilder index = new StringBuilder()
+                .append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n")
+                .append("<title>Pit Test Coverage Report</title>\n</head>\n<body>\n")
+                .append("<h1>Pit Test Coverage Report</h1>\n")
+                .append("<p>The analysis has been split across several PIT applications, ")
+                .append("each one with its own report:</p>\n")
+                .append("<ul>\n");
+        for (int i = 0; i < htmlResultFiles.size(); i++) {
+            Path report = directory.relativize(htmlResultFiles.get(i).getAbsoluteFile().toPath());
+            index.append("<li><a href=\"").append(report.toString().replace(File.separatorChar, '/'))
+                 .append("\">Report ").append(i + 1).append("</a></li>\n");
+        }
+        index.append("</ul>\n</body>\n</html>\n");
+        File indexFile = directory.resolve("index.html").toFile();
+        try {
+            Files.write(indexFile.toPath(), index.toString().getBytes(StandardCharsets.UTF_8));
+            return indexFile;
+        } catch (IOException e) {
+            return htmlResultFiles.get(0);
+        }
+    }
+
+    /**
+     * Processes the results sent by one of the PIT applications.
+     * A shard completes only once, either with results or by failing.
+     */
+    public final class Shard implements PitResultHandler {
+        private boolean completed = false;
+        private PitProgress latestProgress;
+
+        private Shard() {
+        }
+
+        @Override
+        public void handle(PitResults results) {
+            if (markCompleted()) {
+                complete(results);
+            }
+        }
+
+        @Override
+        public void handleClassResults(PitClassResults results) {
+            forward(results);
+        }
+
+        @Override
+        public void handleProgress(PitProgress progress) {
+            forward(this, progress);
+        }
+
+        /**
+         * Notifies that this shard will not send any result.
+         */
+        public void failed() {
+            if (markCompleted()) {
+                complete(null);
+            }
+        }
+
+        private synchronized boolean markCompleted() {
+            boolean firstCompletion = !completed;
+            completed = true;
+            return firstCompletion;
+        }
+    }
+}
@@ -25,6 +25,7 @@ public class PitConfiguration {
     public static final String DEFAULT_MUTATORS = "DEFAULTS";
     public static final String DEFAULT_EXCLUDED_CLASSES = "*Test";
     public static final int DEFAULT_TIMEOUT = 3000;
+    public static final int DEFAULT_RUNNER_SHARDS = 1;
     public static final BigDecimal DEFAULT_TIMEOUT_FACTOR = BigDecimal.valueOf(1.25);
 
     private final PitExecutionMode executionMode;
@@ -36,10 +37,15 @@ public class PitConfiguration {
     private final String mutators;
     private final int timeout;
     private final BigDecimal timeoutFactor;
+    private final boolean runnerDaemon;
+    private final int runnerShards;
+    private final boolean focusedTestLaunch;
+    private final boolean resultCache;
 
     private PitConfiguration(PitExecutionMode executionMode, boolean parallelExecution, boolean incrementalAnalysis, // NOSONAR this is used by our builder
             String excludedClasses, String excludedMethods, String avoidCallsTo, String mutators, int timeout,
-            BigDecimal timeoutFactor) {
+            BigDecimal timeoutFactor, boolean runnerDaemon, int runnerShards, boolean focusedTestLaunch,
+            boolean resultCache) {
         this.executionMode = executionMode;
         this.parallelExecution = parallelExecution;
         this.incrementalAnalysis = incrementalAnalysis;
@@ -49,6 +55,10 @@ public class PitConfiguration {
         this.mutators = mutators;
         this.timeout = timeout;
         this.timeoutFactor = timeoutFactor;
+        this.runnerDaemon = runnerDaemon;
+        this.runnerShards = runnerShards;
+        this.focusedTestLaunch = focusedTestLaunch;
+        this.resultCache = resultCache;
     }
 
     public static Builder builder() {
@@ -77,6 +87,10 @@ public class PitConfiguration {
         private String mutators = DEFAULT_MUTATORS;
         private int timeout = DEFAULT_TIMEOUT;
         private BigDecimal timeoutFactor = DEFAULT_TIMEOUT_FACTOR;
+        private boolean runnerDaemon = false;
+        private int runnerShards = DEFAULT_RUNNER_SHARDS;
+        private boolean focusedTestLaunch = false;
+        private boolean resultCache = false;
 
         private Builder() {
         }
@@ -123,7 +137,8 @@ public class PitConfiguration {
 
         public PitConfiguration build() {
             return new PitConfiguration(executionMode, parallelExecution, incrementalAnalysis, excludedClasses,
-                    excludedMethods, avoidCallsTo, mutators, timeout, timeoutFactor);
+                    excludedMethods, avoidCallsTo, mutators, timeout, timeoutFactor, runnerDaemon,
+                    runnerShards, focusedTestLaunch, resultCache);
         }
 
         public Builder withTimeoutFactor(BigDecimal timeoutFactor) {
@@ -131,6 +146,26 @@ public class PitConfiguration {
             return this;
         }
 
+        public Builder withRunnerDaemon(boolean runnerDaemon) {
+            this.runnerDaemon = runnerDaemon;
+            return this;
+        }
+
+        public Builder withRunnerShards(int runnerShards) {
+            this.runnerShards = runnerShards;
+            return this;
+        }
+
+        public Builder withFocusedTestLaunch(boolean focusedTestLaunch) {
+            this.focusedTestLaunch = focusedTestLaunch;
+            return this;
+        }
+
+        public Builder withResultCache(boolean resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
     }
 
     public String getExcludedClasses() {
@@ -156,4 +191,20 @@ public class PitConfiguration {
     public BigDecimal getTimeoutFactor() {
         return timeoutFactor;
     }
+
+    public boolean isRunnerDaemon() {
+        return runnerDaemon;
+    }
+
+    public int getRunnerShards() {
+        return runnerShards;
+    }
+
+    public boolean isFocusedTestLaunch() {
+        return focusedTestLaunch;
+    }
+
+    public boolean isResultCache() {
+        return resultCache;
+    }
 }
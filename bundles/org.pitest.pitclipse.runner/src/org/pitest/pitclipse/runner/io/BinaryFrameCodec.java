@@ -0,0 +1,578 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitProgress;
+import org.pitest.pitclipse.runner.PitProgress.Phase;
+import org.pitest.pitclipse.runner.PitResults;
+import org.pitest.pitclipse.runner.RunStatistics;
+import org.pitest.pitclipse.runner.RunStatistics.ClassStatistics;
+import org.pitest.pitclipse.runner.RunStatistics.TestStatistics;
+import org.pitest.pitclipse.runner.TransferStatistics;
+import org.pitest.pitclipse.runner.results.DetectionStatus;
+import org.pitest.pitclipse.runner.results.Mutations;
+import org.pitest.pitclipse.runner.results.Mutations.Mutation;
+import org.pitest.pitclipse.runner.results.ObjectFactory;
+
+/**
+ * <p>A compact codec dedicated to the results of PIT analyses.</p>
+ * 
+ * <p>Each object is sent as a frame made of its length, encoded as a varint,
+ * followed by its content. {@link PitResults}, {@link PitClassResults} and
+ * {@link PitProgress} are written field by field: numbers are encoded as varints and strings (class,
+ * method, file and mutator names...) are sent only once per analysis, then
+ * referenced by their index in a dictionary shared by both ends. Both ends clear
+ * their dictionary once {@link PitResults} close an analysis, so that it does not
+ * grow across the analyses of a daemon reusing its connection. Any other
+ * object is written with Java serialization.</p>
+ * 
+ * <p>The HTML report given by received {@link PitResults} is dropped if it does
+ * not exist, as PIT applications do when they do not write it.</p>
+ * 
+ * <p>The {@link #DEFLATED} variant compresses with Deflate the frames whose
+ * size exceeds the threshold given by the {@value #COMPRESSION_THRESHOLD_PROPERTY}
+ * system property (2 KiB by default). Its frames start with their length
+ * shifted left by one bit, the lowest bit telling whether the frame is
+ * compressed; a compressed frame then holds its original length and the time
+ * spent compressing it. Either way, the statistics of the frames received since
+ * the previous {@link PitResults}, connections being reused by daemons, are
+ * attached to the {@link PitResults} received.</p>
+ */
+public enum BinaryFrameCodec implements FrameCodec {
+    INSTANCE,
+    DEFLATED;
+
+    /**
+     * Name of the system property giving the size, in bytes, from which
+     * frames are compressed.
+     */
+    public static final String COMPRESSION_THRESHOLD_PROPERTY = "pitclipse.runner.compressionThreshold";
+
+    static final byte ID = 1;
+    static final byte DEFLATED_ID = 2;
+
+    private static final int DEFAULT_COMPRESSION_THRESHOLD = 2048;
+
+    private static final int SERIALIZED_OBJECT = 0;
+    private static final int CLASS_RESULTS = 1;
+    private static final int RESULTS = 2;
+    private static final int PROGRESS = 3;
+
+    private static final int NULL_STRING = 0;
+    private static final int NEW_STRING = 1;
+    private static final int FIRST_STRING_REFERENCE = 2;
+
+    private static final DetectionStatus[] STATUSES = DetectionStatus.values();
+    private static final Phase[] PHASES = Phase.values();
+    private static final RunStatistics.Phase[] RUN_PHASES = RunStatistics.Phase.values();
+
+    @Override
+    public byte getId() {
+        return this == DEFLATED ? DEFLATED_ID : ID;
+    }
+
+    @Override
+    public Encoder newEncoder(OutputStream outputStream) {
+        if (this == DEFLATED) {
+            return new BinaryEncoder(outputStream,
+                    Integer.getInteger(COMPRESSION_THRESHOLD_PROPERTY, DEFAULT_COMPRESSION_THRESHOLD));
+        }
+        return new BinaryEncoder(outputStream);
+    }
+
+    @Override
+    public Decoder newDecoder(InputStream inputStream) {
+        return new BinaryDecoder(inputStream, this == DEFLATED);
+    }
+
+    private static final class BinaryEncoder implements Encoder {
+        private final OutputStream outputStream;
+        private final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        private final DataOutputStream frameContent = new DataOutputStream(frame);
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final Deflater deflater;
+        private final int compressionThreshold;
+        private byte[] compressed = new byte[0];
+
+        BinaryEncoder(OutputStream outputStream) {
+            this.outputStream = new BufferedOutputStream(outputStream);
+            this.deflater = null;
+            this.compressionThreshold = 0;
+        }
+
+        BinaryEncoder(OutputStream outputStream, int compressionThreshold) {
+            this.outputStream = new BufferedOutputStream(outputStream);
+            this.deflater = new Deflater(Deflater.BEST_SPEED);
+            this.compressionThreshold = compressionThreshold;
+        }
+
+        @Override
+        public void write(Object someObject) throws IOException {
+            frame.reset();
+            if (someObject instanceof PitClassResults) {
+                writeClassResults((PitClassResults) someObject);
+            } else if (someObject instanceof PitResults) {
+                writeResults((PitResults) someObject);
+            } else if (someObject instanceof PitProgress) {
+                writeProgress((PitProgress) someObject);
+            } else {
+                writeSerializedObject(someObject);
+            }
+            frameContent.flush();
+            if (deflater == null) {
+                writeVarint(outputStream, frame.size());
+                frame.writeTo(outputStream);
+            } else if (frame.size() < compressionThreshold) {
+                writeVarint(outputStream, (long) frame.size() << 1);
+                frame.writeTo(outputStream);
+            } else {
+                writeCompressedFrame();
+            }
+            outputStream.flush();
+        }
+
+        private void writeCompressedFrame() throws IOException {
+            long start = System.nanoTime();
+            byte[] rawFrame = frame.toByteArray();
+            deflater.reset();
+            deflater.setInput(rawFrame);
+            deflater.finish();
+            if (compressed.length < rawFrame.length) {
+                compressed = new byte[rawFrame.length];
+            }
+            int compressedLength = 0;
+            while (!deflater.finished()) {
+                if (compressedLength == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+            }
+            long elapsed = System.nanoTime() - start;
+            if (compressedLength >= rawFrame.length) {
+                // not worth it
+                writeVarint(outputStream, (long) rawFrame.length << 1);
+                outputStream.write(rawFrame);
+                return;
+            }
+            writeVarint(outputStream, ((long) compressedLength << 1) | 1);
+            writeVarint(outputStream, rawFrame.length);
+            writeVarint(outputStream, elapsed);
+            outputStream.write(compressed, 0, compressedLength);
+        }
+
+        private void writeClassResults(PitClassResults results) throws IOException {
+            frameContent.write(CLASS_RESULTS);
+            writeString(results.getMutatedClass());
+            writeMutations(results.getMutations());
+            writeVarint(frameContent, results.getCoveringTests().size());
+            for (String test : results.getCoveringTests()) {
+                writeString(test);
+            }
+        }
+
+        private void writeResults(PitResults results) throws IOException {
+            frameContent.write(RESULTS);
+            File htmlResultFile = results.getHtmlResultFile();
+            writeString(htmlResultFile == null ? null : htmlResultFile.getPath());
+            writeVarint(frameContent, results.getProjects().size());
+            for (String project : results.getProjects()) {
+                writeString(project);
+            }
+            frameContent.writeBoolean(results.isRunnerAvailable());
+            frameContent.writeBoolean(results.isPartial());
+            writeMutations(results.getMutations());
+            writeRunStatistics(results.getRunStatistics());
+            // the analysis is over: the next one may not share any string with it
+            dictionary.clear();
+        }
+
+        private void writeRunStatistics(RunStatistics statistics) throws IOException {
+            for (RunStatistics.Phase phase : RUN_PHASES) {
+                writeVarint(frameContent, statistics.getMillis(phase));
+            }
+            writeVarint(frameContent, statistics.getListenerMillis());
+            writeVarint(frameContent, statistics.getPeakHeapBytes());
+            writeVarint(frameContent, statistics.getGcMillis());
+            writeVarint(frameContent, statistics.getThreads());
+            writeVarint(frameContent, statistics.getMutantsAnalyzed());
+            writeVarint(frameContent, statistics.getSlowestClasses().size());
+            for (ClassStatistics slowClass : statistics.getSlowestClasses()) {
+                writeString(slowClass.getClassName());
+                writeVarint(frameContent, slowClass.getMutants());
+                writeVarint(frameContent, slowClass.getTestsRun());
+                writeVarint(frameContent, slowClass.getTimedOut());
+                writeVarint(frameContent, slowClass.getEstimatedMillis());
+            }
+            writeVarint(frameContent, statistics.getSlowestTests().size());
+            for (TestStatistics slowTest : statistics.getSlowestTests()) {
+                writeString(slowTest.getTestName());
+                writeVarint(frameContent, slowTest.getMillis());
+            }
+        }
+
+        private void writeProgress(PitProgress progress) throws IOException {
+            frameContent.write(PROGRESS);
+            frameContent.write(progress.getPhase().ordinal());
+            writeVarint(frameContent, progress.getMutantsTotal());
+            writeVarint(frameContent, progress.getMutantsDone());
+            writeVarint(frameContent, progress.getKilled());
+            writeVarint(frameContent, progress.getSurvived());
+            frameContent.writeDouble(progress.getMutantsPerSecond());
+        }
+
+        private void writeSerializedObject(Object someObject) throws IOException {
+            frameContent.write(SERIALIZED_OBJECT);
+            ObjectOutputStream objectStream = new ObjectOutputStream(frameContent);
+            objectStream.writeObject(someObject);
+            objectStream.flush();
+        }
+
+        private void writeMutations(Mutations mutations) throws IOException {
+            List<Mutation> allMutations = mutations.getMutation();
+            writeVarint(frameContent, allMutations.size());
+            for (Mutation mutation : allMutations) {
+                writeString(mutation.getMutatedClass());
+                writeString(mutation.getMutatedMethod());
+                writeString(mutation.getSourceFile());
+                writeString(mutation.getMutator());
+                writeString(mutation.getKillingTest());
+                writeString(mutation.getDescription());
+                writeNumber(mutation.getLineNumber());
+                writeNumber(mutation.getIndex());
+                DetectionStatus status = mutation.getStatus();
+                frameContent.write(status == null ? 0 : status.ordinal() + 1);
+                Boolean detected = mutation.isDetected();
+                frameContent.write(detected == null ? 0 : (detected ? 2 : 1));
+            }
+        }
+
+        private void writeNumber(BigInteger number) throws IOException {
+            writeVarint(frameContent, number == null ? 0 : number.longValueExact() + 1);
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarint(frameContent, NULL_STRING);
+                return;
+            }
+            Integer reference = dictionary.get(value);
+            if (reference != null) {
+                writeVarint(frameContent, FIRST_STRING_REFERENCE + (long) reference);
+                return;
+            }
+            dictionary.put(value, dictionary.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(frameContent, NEW_STRING);
+            writeVarint(frameContent, bytes.length);
+            frameContent.write(bytes);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (deflater != null) {
+                deflater.end();
+            }
+            outputStream.close();
+        }
+    }
+
+    private static final class BinaryDecoder implements Decoder {
+        private static final ObjectFactory OBJECT_FACTORY = new ObjectFactory();
+
+        private final InputStream inputStream;
+        private final List<String> dictionary = new ArrayList<>();
+        private final Inflater inflater;
+        private DataInputStream frameContent;
+        private long frames;
+        private long compressedFrames;
+        private long rawBytes;
+        private long transferredBytes;
+        private long compressionNanos;
+        private long decompressionNanos;
+
+        BinaryDecoder(InputStream inputStream, boolean compressed) {
+            this.inputStream = new BufferedInputStream(inputStream);
+            this.inflater = compressed ? new Inflater() : null;
+        }
+
+        @Override
+        public Object read() throws IOException, ClassNotFoundException {
+            byte[] frame = readFrame();
+            frameContent = new DataInputStream(new ByteArrayInputStream(frame));
+            int kind = frameContent.read();
+            switch (kind) {
+            case CLASS_RESULTS:
+                return readClassResults();
+            case RESULTS:
+                return readResults();
+            case PROGRESS:
+                return readProgress();
+            case SERIALIZED_OBJECT:
+                return new ObjectInputStream(frameContent).readObject();
+            default:
+                throw new IOException("Unknown frame kind: " + kind);
+            }
+        }
+
+        private byte[] readFrame() throws IOException {
+            long header = readVarint(inputStream);
+            if (inflater == null) {
+                byte[] frame = readBytes((int) header);
+                countFrame(frame.length, frame.length);
+                return frame;
+            }
+            if ((header & 1) == 0) {
+                byte[] frame = readBytes((int) (header >>> 1));
+                countFrame(frame.length, frame.length);
+                return frame;
+            }
+            int rawLength = (int) readVarint(inputStream);
+            compressionNanos += readVarint(inputStream);
+            byte[] compressed = readBytes((int) (header >>> 1));
+            long start = System.nanoTime();
+            byte[] frame = new byte[rawLength];
+            inflater.reset();
+            inflater.setInput(compressed);
+            int inflatedLength;
+            try {
+                inflatedLength = inflate(frame);
+            } catch (DataFormatException e) {
+                throw new IOException(e);
+            }
+            if (inflatedLength > rawLength) {
+                throw new IOException("Compressed frame longer than the declared " + rawLength + " bytes");
+            } else if (inflatedLength < rawLength) {
+                throw new IOException("Compressed frame of " + inflatedLength + " bytes instead of the declared "
+                        + rawLength);
+            }
+            decompressionNanos += System.nanoTime() - start;
+            compressedFrames++;
+            countFrame(rawLength, compressed.length);
+            return frame;
+        }
+
+        /**
+         * Inflates the current compressed frame into the given array. Returns more than
+         * its length if the inflated frame does not fit.
+         */
+        private int inflate(byte[] frame) throws IOException, DataFormatException {
+            int inflatedLength = 0;
+            while (!inflater.finished() && inflatedLength <= frame.length) {
+                int inflated = inflatedLength < frame.length
+                        ? inflater.inflate(frame, inflatedLength, frame.length - inflatedLength)
+                        : inflater.inflate(new byte[1]);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new EOFException("Truncated compressed frame");
+                }
+                inflatedLength += inflated;
+            }
+            return inflatedLength;
+        }
+
+        private byte[] readBytes(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            new DataInputStream(inputStream).readFully(bytes);
+            return bytes;
+        }
+
+        private void countFrame(long frameRawBytes, long frameTransferredBytes) {
+            frames++;
+            rawBytes += frameRawBytes;
+            transferredBytes += frameTransferredBytes;
+        }
+
+        private PitClassResults readClassResults() throws IOException {
+            String mutatedClass = readString();
+            Mutations mutations = readMutations();
+            int testCount = (int) readVarint(frameContent);
+            List<String> coveringTests = new ArrayList<>(testCount);
+            for (int i = 0; i < testCount; i++) {
+                coveringTests.add(readString());
+            }
+            return PitClassResults.from(mutatedClass, mutations, coveringTests);
+        }
+
+        private PitResults readResults() throws IOException {
+            TransferStatistics transferStatistics = new TransferStatistics(frames, compressedFrames, rawBytes,
+                    transferredBytes, compressionNanos, decompressionNanos);
+            resetTransferStatistics();
+            String htmlResultPath = readString();
+            File htmlResultFile = htmlResultPath == null ? null : new File(htmlResultPath);
+            int projectCount = (int) readVarint(frameContent);
+            List<String> projects = new ArrayList<>(projectCount);
+            for (int i = 0; i < projectCount; i++) {
+                projects.add(readString());
+            }
+            boolean runnerAvailable = frameContent.readBoolean();
+            boolean partial = frameContent.readBoolean();
+            PitResults results = PitResults.builder()
+                    .withHtmlResults(htmlResultFile != null && htmlResultFile.exists() ? htmlResultFile : null)
+                    .withProjects(projects)
+                    .withRunnerAvailable(runnerAvailable)
+                    .withPartial(partial)
+                    .withMutations(readMutations())
+                    .withRunStatistics(readRunStatistics())
+                    .withTransferStatistics(transferStatistics)
+                    .build();
+            // the encoder has cleared its dictionary too
+            dictionary.clear();
+            return results;
+        }
+
+        private void resetTransferStatistics() {
+            frames = 0;
+            compressedFrames = 0;
+            rawBytes = 0;
+            transferredBytes = 0;
+            compressionNanos = 0;
+            decompressionNanos = 0;
+        }
+
+        private RunStatistics readRunStatistics() throws IOException {
+            RunStatistics.Builder statistics = RunStatistics.builder();
+            for (RunStatistics.Phase phase : RUN_PHASES) {
+                statistics.withMillis(phase, readVarint(frameContent));
+            }
+            statistics.withListenerMillis(readVarint(frameContent))
+                      .withPeakHeapBytes(readVarint(frameContent))
+                      .withGcMillis(readVarint(frameContent))
+                      .withThreads((int) readVarint(frameContent))
+                      .withMutantsAnalyzed(readVarint(frameContent));
+            int classCount = (int) readVarint(frameContent);
+            List<ClassStatistics> slowestClasses = new ArrayList<>(classCount);
+            for (int i = 0; i < classCount; i++) {
+                slowestClasses.add(new ClassStatistics(readString(), readVarint(frameContent),
+                        readVarint(frameContent), readVarint(frameContent), readVarint(frameContent)));
+            }
+            int testCount = (int) readVarint(frameContent);
+            List<TestStatistics> slowestTests = new ArrayList<>(testCount);
+            for (int i = 0; i < testCount; i++) {
+                slowestTests.add(new TestStatistics(readString(), readVarint(frameContent)));
+            }
+            return statistics.withSlowestClasses(slowestClasses).withSlowestTests(slowestTests).build();
+        }
+
+        private PitProgress readProgress() throws IOException {
+            Phase phase = PHASES[frameContent.readUnsignedByte()];
+            long mutantsTotal = readVarint(frameContent);
+            long mutantsDone = readVarint(frameContent);
+            long killed = readVarint(frameContent);
+            long survived = readVarint(frameContent);
+            return PitProgress.of(phase, mutantsTotal, mutantsDone, killed, survived, frameContent.readDouble());
+        }
+
+        private Mutations readMutations() throws IOException {
+            int mutationCount = (int) readVarint(frameContent);
+            Mutations mutations = OBJECT_FACTORY.createMutations();
+            List<Mutation> allMutations = mutations.getMutation();
+            for (int i = 0; i < mutationCount; i++) {
+                Mutation mutation = OBJECT_FACTORY.createMutationsMutation();
+                mutation.setMutatedClass(readString());
+                mutation.setMutatedMethod(readString());
+                mutation.setSourceFile(readString());
+                mutation.setMutator(readString());
+                mutation.setKillingTest(readString());
+                mutation.setDescription(readString());
+                mutation.setLineNumber(readNumber());
+                mutation.setIndex(readNumber());
+                int status = frameContent.readUnsignedByte();
+                mutation.setStatus(status == 0 ? null : STATUSES[status - 1]);
+                int detected = frameContent.readUnsignedByte();
+                mutation.setDetected(detected == 0 ? null : detected == 2);
+                allMutations.add(mutation);
+            }
+            return mutations;
+        }
+
+        private BigInteger readNumber() throws IOException {
+            long number = readVarint(frameContent);
+            return number == 0 ? null : BigInteger.valueOf(number - 1);
+        }
+
+        private String readString() throws IOException {
+            long reference = readVarint(frameContent);
+            if (reference == NULL_STRING) {
+                return null;
+            }
+            if (reference >= FIRST_STRING_REFERENCE) {
+                return dictionary.get((int) (reference - FIRST_STRING_REFERENCE));
+            }
+            byte[] bytes = new byte[(int) readVarint(frameContent)];
+            frameContent.readFully(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            dictionary.add(value);
+            return value;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (inflater != null) {
+                inflater.end();
+            }
+            inputStream.close();
+        }
+    }
+
+    static void writeVarint(OutputStream outputStream, long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            outputStream.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        outputStream.write((int) remaining);
+    }
+
+    static long readVarint(InputStream inputStream) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = inputStream.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
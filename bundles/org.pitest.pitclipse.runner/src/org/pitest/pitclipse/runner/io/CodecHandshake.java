@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * <p>Agrees on the {@link FrameCodec} used by a connection.</p>
+ * 
+ * <p>Both ends send the identifiers of the codecs they support, then
+ * pick the first codec of the leading end (the one listening) that is also
+ * supported by the other end. Java serialization is always supported, so
+ * that both ends can always fall back to it.</p>
+ */
+public final class CodecHandshake {
+
+    /**
+     * Name of the system property that can be set to {@code java} in order to
+     * disable the binary codec, or to {@code binary} in order to disable the
+     * compression of its frames.
+     */
+    public static final String CODEC_PROPERTY = "pitclipse.runner.codec";
+
+    private static final int PREAMBLE = 0x50495443; // "PITC"
+
+    private final ImmutableList<FrameCodec> supportedCodecs;
+    private final boolean leading;
+
+    private CodecHandshake(List<FrameCodec> supportedCodecs, boolean leading) {
+        this.supportedCodecs = ImmutableSet.<FrameCodec>builder()
+                .addAll(supportedCodecs)
+                .add(JavaSerializationCodec.INSTANCE)
+                .build()
+                .asList();
+        this.leading = leading;
+    }
+
+    /**
+     * @param supportedCodecs
+     *          The codecs supported by this end, by order of preference.
+     * @return a handshake for the end whose preferences win
+     */
+    public static CodecHandshake leading(List<FrameCodec> supportedCodecs) {
+        return new CodecHandshake(supportedCodecs, true);
+    }
+
+    /**
+     * @param supportedCodecs
+     *          The codecs supported by this end.
+     * @return a handshake for the end that follows the preferences of the other one
+     */
+    public static CodecHandshake following(List<FrameCodec> supportedCodecs) {
+        return new CodecHandshake(supportedCodecs, false);
+    }
+
+    /**
+     * @return the codecs to use by default, according to the {@value #CODEC_PROPERTY}
+     *         system property
+     */
+    public static List<FrameCodec> defaultCodecs() {
+        if ("java".equalsIgnoreCase(System.getProperty(CODEC_PROPERTY))) {
+            return ImmutableList.of(JavaSerializationCodec.INSTANCE);
+        }
+        if ("binary".equalsIgnoreCase(System.getProperty(CODEC_PROPERTY))) {
+            return ImmutableList.of(BinaryFrameCodec.INSTANCE, JavaSerializationCodec.INSTANCE);
+        }
+        return ImmutableList.of(BinaryFrameCodec.DEFLATED, BinaryFrameCodec.INSTANCE, JavaSerializationCodec.INSTANCE);
+    }
+
+    /**
+     * Exchanges the supported codecs with the other end of the connection.
+     * 
+     * @param inputStream
+     *          The stream used to read from the other end.
+     * @param outputStream
+     *          The stream used to write to the other end.
+     * @return the codec to use
+     * @throws IOException if the other end does not follow the protocol
+     */
+    public FrameCodec negotiate(InputStream inputStream, OutputStream outputStream) throws IOException {
+        writePreamble(outputStream);
+        List<Byte> otherCodecs = readPreamble(inputStream);
+        if (leading) {
+            for (FrameCodec codec : supportedCodecs) {
+                if (otherCodecs.contains(codec.getId())) {
+                    return codec;
+                }
+            }
+        } else {
+            for (Byte id : otherCodecs) {
+                for (FrameCodec codec : supportedCodecs) {
+                    if (codec.getId() == id) {
+                        return codec;
+                    }
+                }
+            }
+        }
+        return JavaSerializationCodec.INSTANCE;
+    }
+
+    private void writePreamble(OutputStream outputStream) throws IOException {
+        // written at once since the underlying stream is not buffered
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream preamble = new DataOutputStream(bytes);
+        preamble.writeInt(PREAMBLE);
+        preamble.writeByte(supportedCodecs.size());
+        for (FrameCodec codec : supportedCodecs) {
+            preamble.writeByte(codec.getId());
+        }
+        preamble.flush();
+        bytes.writeTo(outputStream);
+        outputStream.flush();
+    }
+
+    private static List<Byte> readPreamble(InputStream inputStream) throws IOException {
+        // not buffered: no byte beyond the preamble must be consumed
+        DataInputStream preamble = new DataInputStream(inputStream);
+        int header = preamble.readInt();
+        if (header != PREAMBLE) {
+            throw new IOException("Unexpected preamble: " + Integer.toHexString(header));
+        }
+        int codecCount = preamble.readUnsignedByte();
+        List<Byte> codecs = new ArrayList<>(codecCount);
+        for (int i = 0; i < codecCount; i++) {
+            codecs.add(preamble.readByte());
+        }
+        return codecs;
+    }
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.io;
+
+import java.io.EOFException;
+
+/**
+ * Thrown when an object is read from a connection that has been closed
+ * by the other end.
+ */
+public final class ConnectionClosedException extends RuntimeException {
+    private static final long serialVersionUID = -2871420967853262041L;
+
+    public ConnectionClosedException(EOFException e) {
+        super(e);
+    }
+}
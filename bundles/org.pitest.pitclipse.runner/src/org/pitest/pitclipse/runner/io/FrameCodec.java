@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * <p>Defines how objects are turned into bytes, and back, when they are sent
+ * between Eclipse and the PIT application.</p>
+ * 
+ * <p>The codec used by a connection is chosen by a {@link CodecHandshake}
+ * when the connection is established.</p>
+ */
+public interface FrameCodec {
+
+    /**
+     * @return the identifier of this codec, exchanged during the handshake
+     */
+    byte getId();
+
+    /**
+     * Creates an encoder writing frames to the given stream.
+     * 
+     * @param outputStream
+     *          The stream to write to.
+     * @return a new encoder, to be used by a single connection
+     * @throws IOException if the encoder cannot be initialised
+     */
+    Encoder newEncoder(OutputStream outputStream) throws IOException;
+
+    /**
+     * Creates a decoder reading frames from the given stream.
+     * 
+     * @param inputStream
+     *          The stream to read from.
+     * @return a new decoder, to be used by a single connection
+     * @throws IOException if the decoder cannot be initialised
+     */
+    Decoder newDecoder(InputStream inputStream) throws IOException;
+
+    /**
+     * Writes objects as frames.
+     */
+    interface Encoder extends Closeable {
+        void write(Object someObject) throws IOException;
+    }
+
+    /**
+     * Reads objects from frames.
+     */
+    interface Decoder extends Closeable {
+        Object read() throws IOException, ClassNotFoundException;
+    }
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * <p>A codec relying on Java serialization.</p>
+ * 
+ * <p>Supports any {@link java.io.Serializable} object and is always available
+ * as a fallback when no other codec can be agreed on.</p>
+ */
+public enum JavaSerializationCodec implements FrameCodec {
+    INSTANCE;
+
+    static final byte ID = 0;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public Encoder newEncoder(OutputStream outputStream) throws IOException {
+        return new ObjectEncoder(new ObjectOutputStream(outputStream));
+    }
+
+    @Override
+    public Decoder newDecoder(InputStream inputStream) throws IOException {
+        return new ObjectDecoder(new ObjectInputStream(inputStream));
+    }
+
+    static final class ObjectEncoder implements Encoder {
+        private final ObjectOutputStream outputStream;
+
+        ObjectEncoder(ObjectOutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void write(Object someObject) throws IOException {
+            outputStream.writeObject(someObject);
+            // Do not keep references to the objects already written:
+            // many of them may be sent during a single analysis
+            outputStream.reset();
+            outputStream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            outputStream.close();
+        }
+    }
+
+    static final class ObjectDecoder implements Decoder {
+        private final ObjectInputStream inputStream;
+
+        ObjectDecoder(ObjectInputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public Object read() throws IOException, ClassNotFoundException {
+            return inputStream.readObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+    }
+}
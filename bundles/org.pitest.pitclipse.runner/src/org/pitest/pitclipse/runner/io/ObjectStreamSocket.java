@@ -17,28 +17,40 @@
 package org.pitest.pitclipse.runner.io;
 
 import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.net.Socket;
 
+import org.pitest.pitclipse.runner.io.FrameCodec.Decoder;
+import org.pitest.pitclipse.runner.io.FrameCodec.Encoder;
+import org.pitest.pitclipse.runner.io.JavaSerializationCodec.ObjectDecoder;
+import org.pitest.pitclipse.runner.io.JavaSerializationCodec.ObjectEncoder;
+
 /**
- * Wraps a {@link Socket} in order to ease read an write operations involving objects.
+ * <p>Wraps a {@link Socket} in order to ease read an write operations involving objects.</p>
+ * 
+ * <p>Objects are turned into bytes by a {@link FrameCodec}. Any other connection
+ * providing streams, such as a Unix domain socket, can be wrapped as well.</p>
  */
 public class ObjectStreamSocket implements Closeable {
 
-    private final Socket underlyingSocket;
-    private final ObjectInputStream inputStream;
-    private final ObjectOutputStream outputStream;
+    private final Closeable underlyingSocket;
+    private final Decoder decoder;
+    private final Encoder encoder;
 
-    private ObjectStreamSocket(Socket underlyingSocket, ObjectInputStream inputStream, ObjectOutputStream outputStream) {
+    private ObjectStreamSocket(Closeable underlyingSocket, Decoder decoder, Encoder encoder) {
         this.underlyingSocket = underlyingSocket;
-        this.inputStream = inputStream;
-        this.outputStream = outputStream;
+        this.decoder = decoder;
+        this.encoder = encoder;
     }
 
     /**
      * Creates a new instance to ease read and write operations involving objects on the given socket.
+     * Objects are sent with Java serialization.
      * 
      * @param underlyingSocket
      *          The socket on which objects must be read or written.
@@ -47,9 +59,64 @@ public class ObjectStreamSocket implements Closeable {
      */
     public static ObjectStreamSocket make(Socket underlyingSocket) {
         try {
-            ObjectOutputStream outputStream = new ObjectOutputStream(underlyingSocket.getOutputStream());
-            ObjectInputStream inputStream = new ObjectInputStream(underlyingSocket.getInputStream());
-            return make(underlyingSocket, inputStream, outputStream);
+            return make(underlyingSocket, underlyingSocket.getInputStream(), underlyingSocket.getOutputStream(),
+                    JavaSerializationCodec.INSTANCE);
+        } catch (IOException e) {
+            throw new StreamInitialisationException(e);
+        }
+    }
+
+    /**
+     * Creates a new instance to ease read and write operations involving objects on the given socket.
+     * The codec used to send objects is negotiated with the other end of the socket.
+     * 
+     * @param underlyingSocket
+     *          The socket on which objects must be read or written.
+     * @param handshake
+     *          The handshake used to choose the codec.
+     *          
+     * @return a new {@link ObjectStreamSocket}.
+     */
+    public static ObjectStreamSocket make(Socket underlyingSocket, CodecHandshake handshake) {
+        try {
+            return make(underlyingSocket, underlyingSocket.getInputStream(), underlyingSocket.getOutputStream(),
+                    handshake);
+        } catch (IOException e) {
+            throw new StreamInitialisationException(e);
+        }
+    }
+
+    /**
+     * Creates a new instance to ease read and write operations involving objects on the given connection.
+     * The codec used to send objects is negotiated with the other end of the connection.
+     * 
+     * @param connection
+     *          The connection on which objects must be read or written, closed along with the streams.
+     * @param inputStream
+     *          The stream used to read from the connection.
+     * @param outputStream
+     *          The stream used to write to the connection.
+     * @param handshake
+     *          The handshake used to choose the codec.
+     *          
+     * @return a new {@link ObjectStreamSocket}.
+     */
+    static ObjectStreamSocket make(Closeable connection, InputStream inputStream, OutputStream outputStream,
+            CodecHandshake handshake) {
+        try {
+            FrameCodec codec = handshake.negotiate(inputStream, outputStream);
+            return make(connection, inputStream, outputStream, codec);
+        } catch (IOException e) {
+            throw new StreamInitialisationException(e);
+        }
+    }
+
+    private static ObjectStreamSocket make(Closeable connection, InputStream inputStream, OutputStream outputStream,
+            FrameCodec codec) {
+        try {
+            Encoder encoder = codec.newEncoder(outputStream);
+            Decoder decoder = codec.newDecoder(inputStream);
+            return new ObjectStreamSocket(connection, decoder, encoder);
         } catch (IOException e) {
             throw new StreamInitialisationException(e);
         }
@@ -65,7 +132,7 @@ public class ObjectStreamSocket implements Closeable {
      */
     static ObjectStreamSocket make(Socket underlyingSocket, ObjectInputStream inputStream,
             ObjectOutputStream outputStream) {
-        return new ObjectStreamSocket(underlyingSocket, inputStream, outputStream);
+        return new ObjectStreamSocket(underlyingSocket, new ObjectDecoder(inputStream), new ObjectEncoder(outputStream));
     }
 
     /**
@@ -77,12 +144,15 @@ public class ObjectStreamSocket implements Closeable {
      * @return the object read
      * 
      * @throws ClassCastException if the object cannot be casted to &lt;T&gt;
+     * @throws ConnectionClosedException if the other end closed the connection
      * @throws ReadException if an error occurs while reading the socket
      */
     @SuppressWarnings("unchecked")
     public <T> T read() {
         try {
-            return (T) inputStream.readObject();
+            return (T) decoder.read();
+        } catch (EOFException e) {
+            throw new ConnectionClosedException(e);
         } catch (Exception e) {
             throw new ReadException(e);
         }
@@ -96,8 +166,7 @@ public class ObjectStreamSocket implements Closeable {
      */
     public void write(Object someObject) {
         try {
-            outputStream.writeObject(someObject);
-            outputStream.flush();
+            encoder.write(someObject);
         } catch (Exception e) {
             throw new WriteException(e);
         }
@@ -121,11 +190,11 @@ public class ObjectStreamSocket implements Closeable {
     }
 
     private void tryCloseInputStream() throws IOException {
-        inputStream.close();
+        decoder.close();
     }
 
     private void tryCloseOutputStream() throws IOException {
-        outputStream.close();
+        encoder.close();
     }
 
     private void closeSocket() throws IOException {
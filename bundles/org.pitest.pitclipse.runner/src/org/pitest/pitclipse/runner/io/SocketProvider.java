@@ -16,22 +16,48 @@
 
 package org.pitest.pitclipse.runner.io;
 
-import java.util.Optional;
-
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Provides objects easing reading objects and writing objects to a given port.
+ * <p>Provides objects easing reading objects and writing objects to a given port.</p>
+ * 
+ * <p>Eclipse {@link #bind() binds} the port before launching the PIT application,
+ * so that the connection is queued by the system as soon as the application
+ * connects, whether Eclipse already waits for it or not: the application needs
+ * a single connection attempt and Eclipse never has to guess when it is ready.</p>
+ * 
+ * <p>Both sides wait for a bounded time, given in milliseconds by the
+ * {@value #CONNECT_TIMEOUT_PROPERTY} (5 seconds by default) and
+ * {@value #ACCEPT_TIMEOUT_PROPERTY} (60 seconds by default) system properties.</p>
+ * 
+ * <p>Connections go through TCP; see {@link #forPort(int)} for other transports.</p>
  */
 public class SocketProvider {
 
-    private static final int DEFAULT_TIMEOUT = 5000;
-    private static final int RETRY_COUNT = 100;
+    public static final String CONNECT_TIMEOUT_PROPERTY = "pitclipse.connectTimeout";
+
+    public static final String ACCEPT_TIMEOUT_PROPERTY = "pitclipse.acceptTimeout";
+
+    private static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+    private static final int DEFAULT_ACCEPT_TIMEOUT = 60000;
+
+    private static final InetAddress LOOPBACK = InetAddress.getLoopbackAddress();
+
+    /**
+     * The ports bound by {@link #bind()} that are not connected yet.
+     */
+    private static final Map<Integer, ServerSocket> BOUND_SOCKETS = new ConcurrentHashMap<>();
+
     private ServerSocketFactory serverSocketFactory;
 
     /**
@@ -59,79 +85,175 @@ public class SocketProvider {
         this.serverSocketFactory = serverSocketFactory;
     }
 
+    /**
+     * Returns the provider handling the given port: numbers greater than any TCP
+     * port denote {@link UnixDomainSocketProvider Unix domain sockets}.
+     * 
+     * @param portNumber
+     *          The number identifying the connection.
+     * 
+     * @return the provider able to listen or to connect to the given port
+     */
+    public static SocketProvider forPort(int portNumber) {
+        if (portNumber >= UnixDomainSocketProvider.FIRST_PORT) {
+            return new UnixDomainSocketProvider();
+        }
+        return new SocketProvider();
+    }
+
+    /**
+     * <p>Binds a free port and keeps it bound until a client connects to it.</p>
+     * 
+     * <p>Unlike {@link #getFreePort()}, the port cannot be taken by another
+     * application before {@link #listen(int)} is called. If nobody listens on
+     * the port eventually, it must be {@link #release(int) released}.</p>
+     * 
+     * @return the number of the bound port
+     */
+    public int bind() {
+        try {
+            ServerSocket serverSocket = serverSocketFactory.create(0);
+            BOUND_SOCKETS.put(serverSocket.getLocalPort(), serverSocket);
+            return serverSocket.getLocalPort();
+        } catch (IOException e) {
+            throw new SocketCreationException(e);
+        }
+    }
+
+    /**
+     * <p>Releases a port bound by {@link #bind()}.</p>
+     * 
+     * <p>If {@link #listen(int)} is waiting for a client on this port, it stops
+     * waiting and fails. Does nothing once a client is connected.</p>
+     * 
+     * @param portNumber The number of the port to release.
+     */
+    public void release(int portNumber) {
+        ServerSocket serverSocket = BOUND_SOCKETS.remove(portNumber);
+        if (serverSocket != null) {
+            closeQuietly(serverSocket);
+        }
+    }
+
+    /**
+     * <p>Returns an action releasing the port currently bound by {@link #bind()}
+     * with the given number, like {@link #release(int)}.</p>
+     * 
+     * <p>The action only releases the socket bound when this method is called: it
+     * does nothing once a client is connected, even if the same port has been
+     * bound again since, e.g. for another PIT application.</p>
+     * 
+     * @param portNumber The number of the port to release.
+     * @return the action releasing the port
+     */
+    public Runnable releaser(int portNumber) {
+        ServerSocket serverSocket = BOUND_SOCKETS.get(portNumber);
+        return () -> {
+            if (serverSocket != null && BOUND_SOCKETS.remove(portNumber, serverSocket)) {
+                closeQuietly(serverSocket);
+            }
+        };
+    }
+
     /**
      * <p>
      * Returns an object allowing to write objects to the given port.
      * </p>
      * 
      * <p>
-     * This method blocks until a client accepts the connection.
+     * This method blocks until a client accepts the connection, within the timeout
+     * given by the {@value #ACCEPT_TIMEOUT_PROPERTY} system property.
      * </p>
      * 
      * @param portNumber The number of port to listen for a client.
      * 
      * @return an object allowing to write and read objects from the given port
+     * 
+     * @throws SocketCreationException if no client connects in time
      */
     public ObjectStreamSocket listen(int portNumber) {
-        try (ServerSocket serverSocket = serverSocketFactory.create(portNumber)) {
+        return listen(portNumber, acceptTimeout());
+    }
+
+    static int acceptTimeout() {
+        return Integer.getInteger(ACCEPT_TIMEOUT_PROPERTY, DEFAULT_ACCEPT_TIMEOUT);
+    }
+
+    /**
+     * <p>
+     * Returns an object allowing to write objects to the given port.
+     * </p>
+     * 
+     * <p>
+     * The port is bound if it has not been {@link #bind() bound} yet. This method
+     * blocks until a client accepts the connection, the given timeout expires or
+     * the port is {@link #release(int) released}.
+     * </p>
+     * 
+     * @param portNumber The number of port to listen for a client.
+     * @param timeoutMillis The maximum time to wait for a client, 0 meaning forever.
+     * 
+     * @return an object allowing to write and read objects from the given port
+     * 
+     * @throws SocketCreationException if no client connects in time
+     */
+    public ObjectStreamSocket listen(int portNumber, int timeoutMillis) {
+        ServerSocket serverSocket = null;
+        try {
+            serverSocket = BOUND_SOCKETS.remove(portNumber);
+            if (serverSocket == null) {
+                serverSocket = serverSocketFactory.create(portNumber);
+            }
+            // Keep the socket known while waiting, so that the port can be released
+            BOUND_SOCKETS.put(portNumber, serverSocket);
+            serverSocket.setSoTimeout(timeoutMillis);
             Socket connection = serverSocket.accept();
-            return ObjectStreamSocket.make(connection);
+            return ObjectStreamSocket.make(connection, CodecHandshake.leading(CodecHandshake.defaultCodecs()));
+        } catch (SocketTimeoutException e) {
+            throw new SocketCreationException(new SocketTimeoutException(
+                    "No PIT application connected to port " + portNumber + " within " + timeoutMillis + " ms"));
         } catch (IOException e) {
             throw new SocketCreationException(e);
+        } finally {
+            if (serverSocket != null) {
+                BOUND_SOCKETS.remove(portNumber, serverSocket);
+                closeQuietly(serverSocket);
+            }
         }
     }
 
-    private long currentTime() {
-        return System.currentTimeMillis();
-    }
-
     /**
      * <p>
      * Returns an object allowing to write objects to the given port.
      * </p>
      * 
      * <p>
-     * This method blocks until a server accepts the connection
-     * within a timeout (5 seconds).
+     * The port is expected to be {@link #bind() bound} already, hence a single
+     * connection attempt is made, bounded by the timeout given by the
+     * {@value #CONNECT_TIMEOUT_PROPERTY} system property.
      * </p>
      * 
      * @param portNumber The number of port to connect to a server.
      * 
-     * @return an object allowing to write objects to the given port
+     * @return an object allowing to write objects to the given port,
+     *          or an empty optional if the connection failed
      */
     public Optional<ObjectStreamSocket> connectTo(int portNumber) {
-        long startInMillis = currentTime();
-        Optional<ObjectStreamSocket> socket;
-        do {
-            socket = doConnect(portNumber);
-            if (!socket.isPresent()) {
-                try {
-                    Thread.sleep(DEFAULT_TIMEOUT / RETRY_COUNT);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return socket;
-                }
-            }
-        } while (!socket.isPresent()
-                && (currentTime() - startInMillis < DEFAULT_TIMEOUT));
-
-        return socket;
-    }
-
-    private Optional<ObjectStreamSocket> doConnect(int portNumber) {
+        Socket socket = new Socket(); // NOSONAR the socket is used in a returned object
         try {
-            InetAddress localhost = InetAddress.getByName(null);
-            Socket socket = new Socket(); // NOSONAR the socket is used in a returned object
-            SocketAddress endpoint = new InetSocketAddress(localhost, portNumber);
-            socket.connect(endpoint, DEFAULT_TIMEOUT);
-            return Optional.of(ObjectStreamSocket.make(socket));
+            SocketAddress endpoint = new InetSocketAddress(LOOPBACK, portNumber);
+            socket.connect(endpoint, Integer.getInteger(CONNECT_TIMEOUT_PROPERTY, DEFAULT_CONNECT_TIMEOUT));
+            return Optional.of(ObjectStreamSocket.make(socket, CodecHandshake.following(CodecHandshake.defaultCodecs())));
         } catch (Exception e) {
+            closeQuietly(socket);
             return Optional.empty();
         }
     }
 
     /**
-     * Returns the number of a port that is not currently used
+     * Returns the number of a port that is not currently used. The port is
+     * released right away: prefer {@link #bind()} when the port is to be
+     * listened on later.
      * 
      * @return the number of a port that can be used
      */
@@ -143,4 +265,12 @@ public class SocketProvider {
         }
     }
 
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // nothing left to do with it
+        }
+    }
+
 }
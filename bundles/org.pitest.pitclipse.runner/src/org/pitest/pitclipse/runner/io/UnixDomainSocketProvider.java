@@ -0,0 +1,332 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Provides connections going through Unix domain sockets rather than TCP,
+ * available from Java 16.</p>
+ * 
+ * <p>Connections are identified by numbers greater than any TCP port, so that
+ * they can be used wherever a port number is expected; each one of them is bound
+ * to a file of the directory given by the {@value #DIRECTORY_PROPERTY} system
+ * property. When this property is not set, a temporary directory only readable
+ * by the current user is created.</p>
+ * 
+ * <p>Unix domain sockets are not reachable through the network and spare the
+ * TCP stack; since the numbers are allocated by this class, no free port has
+ * to be looked for.</p>
+ * 
+ * @see SocketProvider#forPort(int)
+ */
+public class UnixDomainSocketProvider extends SocketProvider {
+
+    public static final String DIRECTORY_PROPERTY = "pitclipse.socketDirectory";
+
+    /**
+     * The first number identifying a Unix domain socket.
+     */
+    public static final int FIRST_PORT = 0x10000;
+
+    private static final AtomicInteger NEXT_PORT = new AtomicInteger(FIRST_PORT);
+
+    /**
+     * The sockets bound by {@link #bind()} that are not connected yet.
+     */
+    private static final Map<Integer, ServerSocketChannel> BOUND_CHANNELS = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService TIMEOUTS = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Pitclipse socket timeouts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static volatile Path directory;
+
+    /**
+     * Returns whether the running JVM supports Unix domain sockets.
+     * 
+     * @return {@code true} if this provider can be used
+     */
+    public static boolean isSupported() {
+        return UnixDomainSockets.SUPPORTED;
+    }
+
+    /**
+     * Returns the directory holding the files the sockets are bound to.
+     * 
+     * @return the directory of the sockets
+     */
+    public static Path getDirectory() {
+        if (directory == null) {
+            synchronized (UnixDomainSocketProvider.class) {
+                if (directory == null) {
+                    directory = createDirectory();
+                }
+            }
+        }
+        return directory;
+    }
+
+    private static Path createDirectory() {
+        String configuredDirectory = System.getProperty(DIRECTORY_PROPERTY);
+        if (configuredDirectory != null) {
+            return Paths.get(configuredDirectory);
+        }
+        try {
+            Path temporaryDirectory = Files.createTempDirectory("pitclipse");
+            temporaryDirectory.toFile().deleteOnExit();
+            return temporaryDirectory;
+        } catch (IOException e) {
+            throw new SocketCreationException(e);
+        }
+    }
+
+    @Override
+    public int bind() {
+        try {
+            int portNumber = NEXT_PORT.getAndIncrement();
+            Path file = fileOf(portNumber);
+            while (Files.exists(file)) {
+                // left by another instance of Eclipse sharing the directory
+                portNumber = NEXT_PORT.getAndIncrement();
+                file = fileOf(portNumber);
+            }
+            ServerSocketChannel channel = UnixDomainSockets.openServerChannel();
+            channel.bind(UnixDomainSockets.addressOf(file));
+            file.toFile().deleteOnExit();
+            BOUND_CHANNELS.put(portNumber, channel);
+            return portNumber;
+        } catch (IOException e) {
+            throw new SocketCreationException(e);
+        }
+    }
+
+    @Override
+    public void release(int portNumber) {
+        ServerSocketChannel channel = BOUND_CHANNELS.remove(portNumber);
+        if (channel != null) {
+            closeQuietly(channel, portNumber);
+        }
+    }
+
+    @Override
+    public Runnable releaser(int portNumber) {
+        ServerSocketChannel channel = BOUND_CHANNELS.get(portNumber);
+        return () -> {
+            if (channel != null && BOUND_CHANNELS.remove(portNumber, channel)) {
+                closeQuietly(channel, portNumber);
+            }
+        };
+    }
+
+    @Override
+    public ObjectStreamSocket listen(int portNumber, int timeoutMillis) {
+        ServerSocketChannel channel = BOUND_CHANNELS.get(portNumber);
+        if (channel == null) {
+            throw new SocketCreationException(new IOException("No socket bound for " + portNumber));
+        }
+        // Server channels have no timeout: the channel is closed to stop waiting
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        ScheduledFuture<?> timeout = timeoutMillis <= 0 ? null : TIMEOUTS.schedule(() -> {
+            timedOut.set(true);
+            release(portNumber);
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        try {
+            SocketChannel connection = channel.accept();
+            return ObjectStreamSocket.make(connection, inputStreamOf(connection), outputStreamOf(connection),
+                    CodecHandshake.leading(CodecHandshake.defaultCodecs()));
+        } catch (IOException e) {
+            if (timedOut.get()) {
+                throw new SocketCreationException(new SocketTimeoutException(
+                        "No PIT application connected to " + fileOf(portNumber) + " within " + timeoutMillis + " ms"));
+            }
+            throw new SocketCreationException(e);
+        } finally {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            release(portNumber);
+        }
+    }
+
+    @Override
+    public Optional<ObjectStreamSocket> connectTo(int portNumber) {
+        try {
+            SocketChannel connection = UnixDomainSockets.openChannel(); // NOSONAR the channel is used in a returned object
+            try {
+                connection.connect(UnixDomainSockets.addressOf(fileOf(portNumber)));
+                return Optional.of(ObjectStreamSocket.make(connection, inputStreamOf(connection),
+                        outputStreamOf(connection), CodecHandshake.following(CodecHandshake.defaultCodecs())));
+            } catch (Exception e) {
+                connection.close();
+                return Optional.empty();
+            }
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Path fileOf(int portNumber) {
+        return getDirectory().resolve(portNumber + ".sock");
+    }
+
+    private static void closeQuietly(ServerSocketChannel channel, int portNumber) {
+        try {
+            channel.close();
+            Files.deleteIfExists(fileOf(portNumber));
+        } catch (IOException e) {
+            // nothing left to do with it
+        }
+    }
+
+    /**
+     * Unlike {@link java.nio.channels.Channels#newInputStream(java.nio.channels.ReadableByteChannel)},
+     * does not prevent the channel from being written while a read is blocked.
+     */
+    private static InputStream inputStreamOf(SocketChannel channel) {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] oneByte = new byte[1];
+                return read(oneByte, 0, 1) < 0 ? -1 : oneByte[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+                return channel.read(ByteBuffer.wrap(bytes, offset, length));
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    private static OutputStream outputStreamOf(SocketChannel channel) {
+        return new OutputStream() {
+            @Override
+            public void write(int oneByte) throws IOException {
+                write(new byte[] { (byte) oneByte }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    /**
+     * Gives access to the Java 16 API through reflection, since this bundle
+     * targets Java 8.
+     */
+    private static final class UnixDomainSockets {
+        private static final boolean SUPPORTED;
+        private static final ProtocolFamily UNIX;
+        private static final Method ADDRESS_OF;
+        private static final Method OPEN_CHANNEL;
+        private static final Method OPEN_SERVER_CHANNEL;
+
+        static {
+            ProtocolFamily unix = null;
+            Method addressOf = null;
+            Method openChannel = null;
+            Method openServerChannel = null;
+            try {
+                unix = StandardProtocolFamily.valueOf("UNIX");
+                addressOf = Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", Path.class);
+                openChannel = SocketChannel.class.getMethod("open", ProtocolFamily.class);
+                openServerChannel = ServerSocketChannel.class.getMethod("open", ProtocolFamily.class);
+            } catch (IllegalArgumentException | ReflectiveOperationException e) {
+                // Java 15 or older
+            }
+            UNIX = unix;
+            ADDRESS_OF = addressOf;
+            OPEN_CHANNEL = openChannel;
+            OPEN_SERVER_CHANNEL = openServerChannel;
+            SUPPORTED = openServerChannel != null;
+        }
+
+        private UnixDomainSockets() {
+        }
+
+        static SocketAddress addressOf(Path file) throws IOException {
+            return (SocketAddress) invoke(ADDRESS_OF, file);
+        }
+
+        static SocketChannel openChannel() throws IOException {
+            return (SocketChannel) invoke(OPEN_CHANNEL, UNIX);
+        }
+
+        static ServerSocketChannel openServerChannel() throws IOException {
+            return (ServerSocketChannel) invoke(OPEN_SERVER_CHANNEL, UNIX);
+        }
+
+        private static Object invoke(Method staticMethod, Object argument) throws IOException {
+            if (!SUPPORTED) {
+                throw new IOException("Unix domain sockets require Java 16 or later");
+            }
+            try {
+                return staticMethod.invoke(null, argument);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.model;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * <p>Operations on the sorted lists holding the children of the nodes of a {@link MutationsModel}.</p>
+ * 
+ * <p>Lists are never modified: a new list is returned instead, so that a list
+ * given to a client remains unchanged.</p>
+ */
+final class ChildNodes {
+
+    private ChildNodes() {
+        // utility class
+    }
+
+    /**
+     * Returns the node whose key is equal to the expected one, {@code null} if there is none.
+     * Nodes must be sorted by key.
+     */
+    static <T, K> T find(List<T> nodes, Function<? super T, K> key, Comparator<? super K> keyOrdering,
+            K expectedKey) {
+        int low = 0;
+        int high = nodes.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            T node = nodes.get(middle);
+            int comparison = keyOrdering.compare(key.apply(node), expectedKey);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a copy of the sorted nodes with the given node inserted at its place.
+     */
+    static <T> ImmutableList<T> inserted(List<T> nodes, T node, Comparator<? super T> ordering) {
+        int low = 0;
+        int high = nodes.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ordering.compare(nodes.get(middle), node) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return ImmutableList.<T>builder().addAll(nodes.subList(0, low)).add(node)
+                .addAll(nodes.subList(low, nodes.size())).build();
+    }
+
+    /**
+     * Returns a copy of the nodes without the given one.
+     */
+    static <T> ImmutableList<T> removed(List<T> nodes, T node) {
+        ImmutableList.Builder<T> remainingNodes = ImmutableList.builder();
+        for (T each : nodes) {
+            if (each != node) {
+                remainingNodes.add(each);
+            }
+        }
+        return remainingNodes.build();
+    }
+}
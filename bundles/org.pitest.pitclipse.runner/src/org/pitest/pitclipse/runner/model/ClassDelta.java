@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.model;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * <p>A change to the mutations of a single class of a {@link MutationsModel}.</p>
+ * 
+ * <p>The mutations carried by a delta may have any status: they are dispatched
+ * to the matching {@link Status} nodes when the delta is applied.</p>
+ */
+public final class ClassDelta {
+
+    /**
+     * The kinds of changes that can be applied to a class.
+     */
+    public enum Kind {
+        /** The mutations are added to the ones already known for the class. */
+        ADD,
+        /** The mutations replace the ones already known for the class. */
+        REPLACE,
+        /**
+         * The mutations replace the ones already known for the class that have
+         * the same method, line, mutator and description; the others are kept.
+         */
+        UPDATE,
+        /** The class and all its mutations are removed. */
+        REMOVE
+    }
+
+    private final Kind kind;
+    private final String projectName;
+    private final String packageName;
+    private final String className;
+    private final ImmutableList<Mutation> mutations;
+
+    private ClassDelta(Kind kind, String projectName, String packageName, String className, List<Mutation> mutations) {
+        this.kind = kind;
+        this.projectName = projectName;
+        this.packageName = packageName;
+        this.className = className;
+        this.mutations = ImmutableList.copyOf(mutations);
+    }
+
+    public static ClassDelta add(String projectName, String packageName, String className, List<Mutation> mutations) {
+        return new ClassDelta(Kind.ADD, projectName, packageName, className, mutations);
+    }
+
+    public static ClassDelta replace(String projectName, String packageName, String className,
+            List<Mutation> mutations) {
+        return new ClassDelta(Kind.REPLACE, projectName, packageName, className, mutations);
+    }
+
+    public static ClassDelta update(String projectName, String packageName, String className,
+            List<Mutation> mutations) {
+        return new ClassDelta(Kind.UPDATE, projectName, packageName, className, mutations);
+    }
+
+    public static ClassDelta remove(String projectName, String packageName, String className) {
+        return new ClassDelta(Kind.REMOVE, projectName, packageName, className, ImmutableList.<Mutation>of());
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public List<Mutation> getMutations() {
+        return mutations;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassDelta [kind=" + kind + ", projectName=" + projectName + ", packageName=" + packageName
+                + ", className=" + className + ", mutations=" + mutations.size() + "]";
+    }
+}
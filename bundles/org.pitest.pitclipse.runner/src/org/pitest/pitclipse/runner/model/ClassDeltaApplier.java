@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.pitest.pitclipse.runner.model.ClassDelta.Kind;
+import org.pitest.pitclipse.runner.results.DetectionStatus;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Ordering;
+
+/**
+ * <p>Applies a {@link ClassDelta} to a {@link MutationsModel}.</p>
+ * 
+ * <p>Only the nodes on the path from the model to the changed classes are updated:
+ * children are looked up and inserted by binary search, and the counts of the ancestors
+ * are adjusted by the number of added or removed mutations. Every other node is left
+ * untouched. Nodes left empty by a removal are removed as well.</p>
+ * 
+ * <p>The changes are recorded as events, to be sent to the listeners of the model
+ * once the delta has been fully applied.</p>
+ */
+final class ClassDeltaApplier {
+
+    private static final Ordering<String> NAME_ORDERING = Ordering.natural().nullsLast();
+
+    private final MutationsModel model;
+    private final List<Consumer<MutationsModelListener>> events = new ArrayList<>();
+
+    ClassDeltaApplier(MutationsModel model) {
+        this.model = model;
+    }
+
+    List<Consumer<MutationsModelListener>> apply(ClassDelta delta) {
+        Map<DetectionStatus, ClassMutations> currentClasses = currentClasses(delta);
+        List<Mutation> mutations = delta.getKind() == Kind.UPDATE ? updatedMutations(currentClasses, delta)
+                : delta.getMutations();
+        Map<DetectionStatus, ClassMutations> newClasses = newClasses(delta.getClassName(), mutations);
+        if (delta.getKind() != Kind.ADD && currentClasses.equals(newClasses)) {
+            return events;
+        }
+        if (delta.getKind() != Kind.ADD) {
+            currentClasses.values().forEach(this::remove);
+            currentClasses.clear();
+        }
+        for (Map.Entry<DetectionStatus, ClassMutations> entry : newClasses.entrySet()) {
+            ClassMutations currentClass = currentClasses.get(entry.getKey());
+            if (currentClass == null) {
+                add(entry.getKey(), delta, entry.getValue());
+            } else {
+                merge(currentClass, entry.getValue());
+            }
+        }
+        return events;
+    }
+
+    private Map<DetectionStatus, ClassMutations> currentClasses(ClassDelta delta) {
+        Map<DetectionStatus, ClassMutations> classes = new EnumMap<>(DetectionStatus.class);
+        for (Status status : model.getStatuses()) {
+            ProjectMutations project = findProject(status, delta);
+            PackageMutations pkg = project == null ? null : findPackage(project, delta);
+            ClassMutations cls = pkg == null ? null
+                    : ChildNodes.find(pkg.getClassMutations(), ClassMutations::getClassName, NAME_ORDERING,
+                            delta.getClassName());
+            if (cls != null && status.getDetectionStatus() != null) {
+                classes.put(status.getDetectionStatus(), cls);
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Returns the mutations of the delta along with the current mutations of the class,
+     * whatever their status, that none of them match.
+     */
+    private static List<Mutation> updatedMutations(Map<DetectionStatus, ClassMutations> currentClasses,
+            ClassDelta delta) {
+        Set<List<Object>> updatedKeys = new HashSet<>();
+        for (Mutation mutation : delta.getMutations()) {
+            updatedKeys.add(keyOf(mutation));
+        }
+        List<Mutation> mutations = new ArrayList<>(delta.getMutations());
+        for (ClassMutations cls : currentClasses.values()) {
+            for (Mutation mutation : cls.getMutations()) {
+                if (!updatedKeys.contains(keyOf(mutation))) {
+                    mutations.add(mutation);
+                }
+            }
+        }
+        return mutations;
+    }
+
+    private static List<Object> keyOf(Mutation mutation) {
+        return Arrays.asList(mutation.getMutatedMethod(), mutation.getLineNumber(), mutation.getMutator(),
+                mutation.getDescription());
+    }
+
+    private static Map<DetectionStatus, ClassMutations> newClasses(String className, List<Mutation> mutations) {
+        Map<DetectionStatus, List<Mutation>> mutationsByStatus = new EnumMap<>(DetectionStatus.class);
+        for (Mutation mutation : mutations) {
+            if (mutation.getStatus() != null) {
+                mutationsByStatus.computeIfAbsent(mutation.getStatus(), s -> new ArrayList<>()).add(mutation);
+            }
+        }
+        Map<DetectionStatus, ClassMutations> classes = new EnumMap<>(DetectionStatus.class);
+        for (Map.Entry<DetectionStatus, List<Mutation>> entry : mutationsByStatus.entrySet()) {
+            classes.put(entry.getKey(), ClassMutations.builder().withClassName(className)
+                    .withMutations(entry.getValue()).build());
+        }
+        return classes;
+    }
+
+    private void add(DetectionStatus detectionStatus, ClassDelta delta, ClassMutations cls) {
+        Status status = findStatus(detectionStatus);
+        if (status == null) {
+            Status newStatus = Status.builder().withDetectionStatus(detectionStatus)
+                    .withProjectMutations(ImmutableList.of(newProject(delta, cls))).build();
+            model.add(newStatus);
+            nodeAdded(model, newStatus);
+            nodeChanged(model);
+            return;
+        }
+        ProjectMutations project = findProject(status, delta);
+        if (project == null) {
+            ProjectMutations newProject = newProject(delta, cls);
+            status.add(newProject);
+            nodeAdded(status, newProject);
+            statusChanged(status);
+            return;
+        }
+        PackageMutations pkg = findPackage(project, delta);
+        if (pkg == null) {
+            PackageMutations newPackage = newPackage(delta, cls);
+            project.add(newPackage);
+            nodeAdded(project, newPackage);
+            projectChanged(project);
+            return;
+        }
+        pkg.add(cls);
+        nodeAdded(pkg, cls);
+        packageChanged(pkg);
+    }
+
+    private void merge(ClassMutations currentClass, ClassMutations cls) {
+        PackageMutations pkg = currentClass.getPackageMutations();
+        ClassMutations mergedClass = ClassMutations.builder().withClassName(currentClass.getClassName())
+                .withMutations(Iterables.concat(currentClass.getMutations(), cls.getMutations())).build();
+        pkg.remove(currentClass);
+        pkg.add(mergedClass);
+        nodeRemoved(pkg, currentClass);
+        nodeAdded(pkg, mergedClass);
+        packageChanged(pkg);
+    }
+
+    private void remove(ClassMutations cls) {
+        PackageMutations pkg = cls.getPackageMutations();
+        ProjectMutations project = pkg.getProjectMutations();
+        Status status = project.getStatus();
+        if (pkg.getClassMutations().size() > 1) {
+            pkg.remove(cls);
+            nodeRemoved(pkg, cls);
+            packageChanged(pkg);
+        } else if (project.getPackageMutations().size() > 1) {
+            project.remove(pkg);
+            nodeRemoved(project, pkg);
+            projectChanged(project);
+        } else if (status.getProjectMutations().size() > 1) {
+            status.remove(project);
+            nodeRemoved(status, project);
+            statusChanged(status);
+        } else {
+            model.remove(status);
+            nodeRemoved(model, status);
+            nodeChanged(model);
+        }
+    }
+
+    private Status findStatus(DetectionStatus detectionStatus) {
+        for (Status status : model.getStatuses()) {
+            if (status.getDetectionStatus() == detectionStatus) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    private static ProjectMutations findProject(Status status, ClassDelta delta) {
+        return ChildNodes.find(status.getProjectMutations(), ProjectMutations::getProjectName, NAME_ORDERING,
+                delta.getProjectName());
+    }
+
+    private static PackageMutations findPackage(ProjectMutations project, ClassDelta delta) {
+        return ChildNodes.find(project.getPackageMutations(), PackageMutations::getPackageName, NAME_ORDERING,
+                delta.getPackageName());
+    }
+
+    private static ProjectMutations newProject(ClassDelta delta, ClassMutations cls) {
+        return ProjectMutations.builder().withProjectName(delta.getProjectName())
+                .withPackageMutations(ImmutableList.of(newPackage(delta, cls))).build();
+    }
+
+    private static PackageMutations newPackage(ClassDelta delta, ClassMutations cls) {
+        return PackageMutations.builder().withPackageName(delta.getPackageName())
+                .withClassMutations(ImmutableList.of(cls)).build();
+    }
+
+    private void packageChanged(PackageMutations pkg) {
+        nodeChanged(pkg);
+        projectChanged(pkg.getProjectMutations());
+    }
+
+    private void projectChanged(ProjectMutations project) {
+        nodeChanged(project);
+        statusChanged(project.getStatus());
+    }
+
+    private void statusChanged(Status status) {
+        nodeChanged(status);
+        nodeChanged(model);
+    }
+
+    private void nodeAdded(Visitable parent, Visitable node) {
+        events.add(listener -> listener.nodeAdded(parent, node));
+    }
+
+    private void nodeRemoved(Visitable parent, Visitable node) {
+        events.add(listener -> listener.nodeRemoved(parent, node));
+    }
+
+    private void nodeChanged(Visitable node) {
+        events.add(listener -> listener.nodeChanged(node));
+    }
+}
@@ -16,8 +16,6 @@
 
 package org.pitest.pitclipse.runner.model;
 
-import static com.google.common.collect.Collections2.transform;
-
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -28,14 +26,16 @@ import com.google.common.collect.Ordering;
 public class ClassMutations implements Visitable, Countable {
     private final String className;
     private final ImmutableList<Mutation> mutations;
-    private final PackageMutations packageMutations;
+    private PackageMutations packageMutations;
 
     private ClassMutations(PackageMutations packageMutations, String className, ImmutableList<Mutation> mutations) {
         this.packageMutations = packageMutations;
         this.className = className;
-        this.mutations = ImmutableList.copyOf(
-                transform(mutations, input -> input.copyOf().withClassMutation(ClassMutations.this).build())
-        );
+        ImmutableList.Builder<Mutation> adoptedMutations = ImmutableList.builder();
+        for (Mutation mutation : mutations) {
+            adoptedMutations.add(mutation.adoptedBy(this));
+        }
+        this.mutations = adoptedMutations.build();
     }
 
     @Override
@@ -55,6 +55,16 @@ public class ClassMutations implements Visitable, Countable {
         return packageMutations;
     }
 
+    /**
+     * Returns this node, or a copy of it if it already belongs to another package, linked to the given package.
+     */
+    ClassMutations adoptedBy(PackageMutations parent) {
+        ClassMutations classMutations = packageMutations == null || packageMutations == parent ? this
+                : copyOf().build();
+        classMutations.packageMutations = parent;
+        return classMutations;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -16,24 +16,28 @@
 
 package org.pitest.pitclipse.runner.model;
 
-import static com.google.common.collect.Collections2.filter;
-import static com.google.common.collect.ImmutableList.copyOf;
-import static com.google.common.collect.Multimaps.filterKeys;
-import static com.google.common.collect.Multimaps.transformValues;
-
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.pitest.pitclipse.runner.PitResults;
 import org.pitest.pitclipse.runner.results.DetectionStatus;
 import org.pitest.pitclipse.runner.results.Mutations;
 
-import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
 import com.google.common.collect.Ordering;
 
+/**
+ * <p>Builds the {@link MutationsModel} corresponding to the results of a PIT analysis.</p>
+ * 
+ * <p>Mutations are grouped by status and by class in a single pass over the results.
+ * The projects and the package of each mutated class are then resolved once and shared
+ * by all the statuses, so that the {@link ProjectStructureService} is queried a number
+ * of times that only depends on the number of mutated classes and of projects.</p>
+ */
 public class ModelBuilder {
 
     private static final Ordering<Mutation> MUTATION_ORDERING = Ordering.from(MutationSorter.INSTANCE);
@@ -51,90 +55,125 @@ public class ModelBuilder {
         return MutationsModel.make(statuses);
     }
 
+    /**
+     * Returns the deltas replacing, in a {@link MutationsModel}, the mutations of each class
+     * having at least one of the given mutations by these mutations.
+     * 
+     * @param projects
+     *          The projects the mutated classes may belong to.
+     * @param mutations
+     *          The mutations found by PIT, for one or several classes.
+     * @return one delta per mutated class and project the class belongs to
+     */
+    public List<ClassDelta> buildDeltasFrom(List<String> projects, Mutations mutations) {
+        Map<String, List<Mutation>> mutationsByClass = new LinkedHashMap<>();
+        for (Mutations.Mutation dtoMutation : mutations.getMutation()) {
+            if (dtoMutation.getStatus() != null) {
+                mutationsByClass.computeIfAbsent(dtoMutation.getMutatedClass(), c -> new ArrayList<>())
+                        .add(toModel(dtoMutation));
+            }
+        }
+        ImmutableList.Builder<ClassDelta> deltas = ImmutableList.builder();
+        for (Map.Entry<String, List<Mutation>> entry : mutationsByClass.entrySet()) {
+            String className = entry.getKey();
+            List<Mutation> classMutations = MUTATION_ORDERING.immutableSortedCopy(entry.getValue());
+            for (ClassLocation location : locate(className, projects)) {
+                deltas.add(ClassDelta.replace(location.project, location.pkg, className, classMutations));
+            }
+        }
+        return deltas.build();
+    }
+
     private List<Status> buildMutationModelFor(List<String> projects, Mutations mutations) {
+        Map<DetectionStatus, Map<String, List<Mutation>>> mutationsByStatusAndClass = indexByStatusAndClass(mutations);
+        Map<String, List<ClassLocation>> locationsByClass = new HashMap<>();
+
         ImmutableList.Builder<Status> builder = ImmutableList.builder();
-        for (DetectionStatus status : DetectionStatus.values()) {
-            List<org.pitest.pitclipse.runner.results.Mutations.Mutation> mutationsForStatus = selectMutationsByStatus(
-                    mutations, status);
-            if (!mutationsForStatus.isEmpty()) {
-                ImmutableList.Builder<ProjectMutations> projectMutations = ImmutableList.builder();
-                for (String project : projects) {
-                    ProjectMutations projectMutation = buildProjectMutation(project, mutationsForStatus);
-                    if (!projectMutation.getPackageMutations().isEmpty()) {
-                        projectMutations.add(projectMutation);
-                    }
+        for (Map.Entry<DetectionStatus, Map<String, List<Mutation>>> entry : mutationsByStatusAndClass.entrySet()) {
+            Map<String, Map<String, List<ClassMutations>>> packagesByProject = new HashMap<>();
+            for (Map.Entry<String, List<Mutation>> classEntry : entry.getValue().entrySet()) {
+                String className = classEntry.getKey();
+                ClassMutations classMutations = ClassMutations.builder().withClassName(className)
+                        .withMutations(MUTATION_ORDERING.immutableSortedCopy(classEntry.getValue())).build();
+                List<ClassLocation> locations = locationsByClass.computeIfAbsent(className,
+                        c -> locate(c, projects));
+                for (ClassLocation location : locations) {
+                    packagesByProject.computeIfAbsent(location.project, p -> new LinkedHashMap<>())
+                            .computeIfAbsent(location.pkg, p -> new ArrayList<>())
+                            .add(classMutations);
                 }
-                builder.add(Status.builder().withDetectionStatus(status).withProjectMutations(projectMutations.build())
-                        .build());
             }
+            builder.add(Status.builder().withDetectionStatus(entry.getKey())
+                    .withProjectMutations(projectMutationsFrom(projects, packagesByProject)).build());
         }
         return builder.build();
     }
 
-    private List<org.pitest.pitclipse.runner.results.Mutations.Mutation> selectMutationsByStatus(
-            Mutations mutations, final DetectionStatus status) {
-        List<org.pitest.pitclipse.runner.results.Mutations.Mutation> allMutations = copyOf(mutations.getMutation());
-        Collection<org.pitest.pitclipse.runner.results.Mutations.Mutation> filtered = filter(allMutations,
-                new Predicate<org.pitest.pitclipse.runner.results.Mutations.Mutation>() {
-                    @Override
-                    public boolean apply(org.pitest.pitclipse.runner.results.Mutations.Mutation mutation) {
-                        return status == mutation.getStatus();
-                    }
-                });
-        return ImmutableList.copyOf(filtered);
+    /**
+     * Groups the mutations by status, then by mutated class, keeping the order in which
+     * classes appear in the results.
+     */
+    private static Map<DetectionStatus, Map<String, List<Mutation>>> indexByStatusAndClass(Mutations mutations) {
+        Map<DetectionStatus, Map<String, List<Mutation>>> mutationsByStatus = new EnumMap<>(DetectionStatus.class);
+        for (Mutations.Mutation dtoMutation : mutations.getMutation()) {
+            DetectionStatus status = dtoMutation.getStatus();
+            if (status == null) {
+                continue;
+            }
+            mutationsByStatus.computeIfAbsent(status, s -> new LinkedHashMap<>())
+                    .computeIfAbsent(dtoMutation.getMutatedClass(), c -> new ArrayList<>())
+                    .add(toModel(dtoMutation));
+        }
+        return mutationsByStatus;
     }
 
-    private ProjectMutations buildProjectMutation(String project,
-            List<org.pitest.pitclipse.runner.results.Mutations.Mutation> mutations) {
-        List<PackageMutations> packages = buildPackageMutationsFor(project, mutations);
-        return ProjectMutations.builder().withProjectName(project)
-                .withPackageMutations(packages).build();
+    private static Mutation toModel(Mutations.Mutation dtoMutation) {
+        return Mutation.builder().withKillingTest(dtoMutation.getKillingTest())
+                .withLineNumber(dtoMutation.getLineNumber().intValue())
+                .withMutatedMethod(dtoMutation.getMutatedMethod())
+                .withMutator(dtoMutation.getMutator()).withStatus(dtoMutation.getStatus())
+                .withDescription(dtoMutation.getDescription()).build();
     }
 
-    private List<PackageMutations> buildPackageMutationsFor(String project,
-            List<org.pitest.pitclipse.runner.results.Mutations.Mutation> mutations) {
-        List<ClassMutations> classMutations = buildClassMutationsFor(project, mutations);
-        return packageMutationsFrom(project, classMutations);
+    private List<ClassLocation> locate(String className, List<String> projects) {
+        List<ClassLocation> locations = new ArrayList<>(1);
+        for (String project : projects) {
+            if (eclipseStructureService.isClassInProject(className, project)) {
+                locations.add(new ClassLocation(project, eclipseStructureService.packageFrom(project, className)));
+            }
+        }
+        return locations;
     }
 
-    private List<PackageMutations> packageMutationsFrom(final String project, List<ClassMutations> classMutations) {
-        Multimap<String, ClassMutations> mutationsByPackage = Multimaps.index(classMutations,
-                mutations -> eclipseStructureService.packageFrom(project, mutations.getClassName()));
-        ImmutableList.Builder<PackageMutations> builder = ImmutableList.builder();
-        for (String pkg : mutationsByPackage.keySet()) {
-            builder.add(PackageMutations.builder().withPackageName(pkg).withClassMutations(mutationsByPackage.get(pkg))
-                    .build());
+    private static List<ProjectMutations> projectMutationsFrom(List<String> projects,
+            Map<String, Map<String, List<ClassMutations>>> packagesByProject) {
+        ImmutableList.Builder<ProjectMutations> projectMutations = ImmutableList.builder();
+        for (String project : projects) {
+            Map<String, List<ClassMutations>> classesByPackage = packagesByProject.get(project);
+            if (classesByPackage == null) {
+                continue;
+            }
+            ImmutableList.Builder<PackageMutations> packages = ImmutableList.builder();
+            for (Map.Entry<String, List<ClassMutations>> pkg : classesByPackage.entrySet()) {
+                packages.add(PackageMutations.builder().withPackageName(pkg.getKey())
+                        .withClassMutations(pkg.getValue()).build());
+            }
+            projectMutations.add(ProjectMutations.builder().withProjectName(project)
+                    .withPackageMutations(packages.build()).build());
         }
-        return builder.build();
+        return projectMutations.build();
     }
 
-    private List<ClassMutations> buildClassMutationsFor(final String project,
-            List<org.pitest.pitclipse.runner.results.Mutations.Mutation> mutations) {
-        Multimap<String, org.pitest.pitclipse.runner.results.Mutations.Mutation> mutationsByClass = Multimaps.index(
-                mutations, Mutations.Mutation::getMutatedClass);
-        Multimap<String, org.pitest.pitclipse.runner.results.Mutations.Mutation> mutationsForProject = filterKeys(
-                mutationsByClass, new Predicate<String>() {
-                    @Override
-                    public boolean apply(String mutatedClass) {
-                        return eclipseStructureService.isClassInProject(mutatedClass, project);
-                    }
-                });
-        Multimap<String, Mutation> transformedMutations = transformValues(mutationsForProject,
-                dtoMutation -> Mutation.builder().withKillingTest(dtoMutation.getKillingTest())
-                        .withLineNumber(dtoMutation.getLineNumber().intValue())
-                        .withMutatedMethod(dtoMutation.getMutatedMethod())
-                        .withMutator(dtoMutation.getMutator()).withStatus(dtoMutation.getStatus())
-                        .withDescription(dtoMutation.getDescription()).build());
-        return classMutationsFrom(transformedMutations);
-    }
+    /**
+     * The project and the package a mutated class belongs to.
+     */
+    private static final class ClassLocation {
+        private final String project;
+        private final String pkg;
 
-    private List<ClassMutations> classMutationsFrom(Multimap<String, Mutation> mutationsByClass) {
-        ImmutableList.Builder<ClassMutations> builder = ImmutableList.builder();
-        for (String className : mutationsByClass.keySet()) {
-            ImmutableList<Mutation> unsortedMutations = copyOf(mutationsByClass.get(className));
-            ImmutableList<Mutation> sortedMutations = MUTATION_ORDERING.immutableSortedCopy(unsortedMutations);
-            builder.add(ClassMutations.builder().withClassName(className).withMutations(sortedMutations).build());
+        ClassLocation(String project, String pkg) {
+            this.project = project;
+            this.pkg = pkg;
         }
-        return builder.build();
     }
 }
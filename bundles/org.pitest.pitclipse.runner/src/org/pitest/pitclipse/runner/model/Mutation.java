@@ -28,7 +28,7 @@ public class Mutation implements Visitable {
     private final String mutator;
     private final DetectionStatus status;
     private final String description;
-    private final ClassMutations classMutations;
+    private ClassMutations classMutations;
 
     private Mutation(ClassMutations classMutations, String killingTest, int lineNumber, String mutatedMethod,
             String mutator, DetectionStatus status, String description) {
@@ -74,6 +74,15 @@ public class Mutation implements Visitable {
         return classMutations;
     }
 
+    /**
+     * Returns this mutation, or a copy of it if it already belongs to another class, linked to the given class.
+     */
+    Mutation adoptedBy(ClassMutations parent) {
+        Mutation mutation = classMutations == null || classMutations == parent ? this : copyOf().build();
+        mutation.classMutations = parent;
+        return mutation;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
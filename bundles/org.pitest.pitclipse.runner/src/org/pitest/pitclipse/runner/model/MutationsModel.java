@@ -21,11 +21,18 @@ import com.google.common.collect.Ordering;
 
 import org.pitest.pitclipse.runner.results.DetectionStatus;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
-import static com.google.common.collect.Collections2.transform;
 import static org.pitest.pitclipse.runner.results.DetectionStatus.KILLED;
 import static org.pitest.pitclipse.runner.results.DetectionStatus.MEMORY_ERROR;
 import static org.pitest.pitclipse.runner.results.DetectionStatus.NON_VIABLE;
@@ -36,6 +43,23 @@ import static org.pitest.pitclipse.runner.results.DetectionStatus.STARTED;
 import static org.pitest.pitclipse.runner.results.DetectionStatus.SURVIVED;
 import static org.pitest.pitclipse.runner.results.DetectionStatus.TIMED_OUT;
 
+/**
+ * <p>The mutations found by a PIT analysis, grouped by status, project, package and class.</p>
+ * 
+ * <p>A model can be updated while the analysis is running by applying {@link ClassDelta}s
+ * to it. Each applied delta is reported to the registered {@link MutationsModelListener}s
+ * as node-level events, so that views only need to refresh the affected nodes.</p>
+ * 
+ * <p>A model is not thread-safe: it must only be updated by the thread owning it,
+ * typically the UI thread. A model meant to be shared must be {@link #freeze() frozen}
+ * first; it can no longer be updated, but {@link #copyOf(MutationsModel) copies} of it
+ * can. {@link #EMPTY_MODEL} is frozen; use {@link #empty()} to get a model that will be
+ * filled by deltas.</p>
+ * 
+ * <p>A model may know its {@link #getOrigin() origin}, that is what produced it, so that
+ * its analysis can be run again. A model built from the results of a cancelled or failed
+ * analysis is {@link #isPartial() partial}.</p>
+ */
 public class MutationsModel implements Visitable, Countable {
 
     private enum StatusComparator implements Comparator<Status> {
@@ -50,21 +74,220 @@ public class MutationsModel implements Visitable, Countable {
         }
     }
 
-    public static final MutationsModel EMPTY_MODEL = make(ImmutableList.<Status>of());
+    private static final Ordering<Status> STATUS_ORDERING = Ordering.from(StatusComparator.INSTANCE);
 
-    private final ImmutableList<Status> statuses;
+    public static final MutationsModel EMPTY_MODEL = make(ImmutableList.<Status>of()).freeze();
+
+    private final Map<DetectionStatus, Long> countByStatus = new EnumMap<>(DetectionStatus.class);
+    private final List<MutationsModelListener> listeners = new CopyOnWriteArrayList<>();
+    private ImmutableList<Status> statuses;
+    private long count;
+    private volatile boolean frozen;
+    private volatile String origin;
+    private volatile boolean partial;
 
     private MutationsModel(ImmutableList<Status> statuses) {
-        this.statuses = ImmutableList.copyOf(
-                transform(statuses, input -> input.copyOf().withModel(MutationsModel.this).build())
-        );
+        ImmutableList.Builder<Status> adoptedStatuses = ImmutableList.builder();
+        long sum = 0L;
+        for (Status status : statuses) {
+            adoptedStatuses.add(status.adoptedBy(this));
+            if (status.getDetectionStatus() != null) {
+                countByStatus.merge(status.getDetectionStatus(), status.count(), Long::sum);
+            }
+            sum += status.count();
+        }
+        this.statuses = adoptedStatuses.build();
+        this.count = sum;
     }
 
     public static MutationsModel make(List<Status> statuses) {
-        ImmutableList<Status> sortedStatuses = Ordering.from(StatusComparator.INSTANCE).immutableSortedCopy(statuses);
+        ImmutableList<Status> sortedStatuses = STATUS_ORDERING.immutableSortedCopy(statuses);
         return new MutationsModel(sortedStatuses);
     }
 
+    /**
+     * Returns a new model, without any mutation, that can be updated with deltas.
+     * 
+     * @return a new empty model
+     */
+    public static MutationsModel empty() {
+        return make(ImmutableList.<Status>of());
+    }
+
+    /**
+     * Returns a copy of the given model that can be updated with deltas.
+     * 
+     * @param model
+     *          The model to copy, which may be frozen.
+     * @return a new model with the same mutations
+     */
+    public static MutationsModel copyOf(MutationsModel model) {
+        // The nodes of the given model are adopted, hence copied, by the new one
+        MutationsModel copy = new MutationsModel(model.statuses);
+        copy.origin = model.origin;
+        copy.partial = model.partial;
+        return copy;
+    }
+
+    /**
+     * Adds a status to this model, then updates its counts.
+     */
+    void add(Status status) {
+        statuses = ChildNodes.inserted(statuses, status.adoptedBy(this), STATUS_ORDERING);
+        countChanged(status.getDetectionStatus(), status.count());
+    }
+
+    /**
+     * Removes a status from this model, then updates its counts.
+     */
+    void remove(Status status) {
+        statuses = ChildNodes.removed(statuses, status);
+        countChanged(status.getDetectionStatus(), -status.count());
+    }
+
+    void countChanged(DetectionStatus status, long difference) {
+        count += difference;
+        if (status != null) {
+            countByStatus.merge(status, difference, Long::sum);
+        }
+    }
+
+    public void addListener(MutationsModelListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MutationsModelListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Applies the given delta right away, then notifies the listeners of the changed nodes.
+     * Must be called by the thread owning this model.
+     * 
+     * @param delta
+     *          The change to make to this model.
+     */
+    public void apply(ClassDelta delta) {
+        checkUpdatable();
+        List<Consumer<MutationsModelListener>> events = new ClassDeltaApplier(this).apply(delta);
+        for (Consumer<MutationsModelListener> event : events) {
+            for (MutationsModelListener listener : listeners) {
+                event.accept(listener);
+            }
+        }
+    }
+
+    /**
+     * Makes this model hold the same mutations as the given one, typically the complete
+     * model of the analysis that filled this one with deltas. Only the classes whose
+     * mutations differ are replaced or removed, so that the listeners are only notified
+     * of the nodes that actually changed. The origin of the given model, and whether it is
+     * partial, are taken as well. Must be called by the thread owning this model.
+     * 
+     * @param target
+     *          The model holding the mutations this one must hold, which may be frozen.
+     */
+    public void update(MutationsModel target) {
+        checkUpdatable();
+        Map<List<String>, List<Mutation>> targetClasses = mutationsByClass(target);
+        for (List<String> location : mutationsByClass(this).keySet()) {
+            if (!targetClasses.containsKey(location)) {
+                apply(ClassDelta.remove(location.get(0), location.get(1), location.get(2)));
+            }
+        }
+        for (Map.Entry<List<String>, List<Mutation>> entry : targetClasses.entrySet()) {
+            List<String> location = entry.getKey();
+            apply(ClassDelta.replace(location.get(0), location.get(1), location.get(2), entry.getValue()));
+        }
+        this.origin = target.origin;
+        this.partial = target.partial;
+    }
+
+    /**
+     * Returns the mutations of each class of the given model, whatever their status,
+     * indexed by project, package and class name.
+     */
+    private static Map<List<String>, List<Mutation>> mutationsByClass(MutationsModel model) {
+        Map<List<String>, List<Mutation>> mutationsByClass = new LinkedHashMap<>();
+        for (Status status : model.statuses) {
+            for (ProjectMutations project : status.getProjectMutations()) {
+                for (PackageMutations pkg : project.getPackageMutations()) {
+                    for (ClassMutations classMutations : pkg.getClassMutations()) {
+                        List<String> location = Arrays.asList(project.getProjectName(), pkg.getPackageName(),
+                                classMutations.getClassName());
+                        mutationsByClass.computeIfAbsent(location, l -> new ArrayList<>())
+                                        .addAll(classMutations.getMutations());
+                    }
+                }
+            }
+        }
+        return mutationsByClass;
+    }
+
+    /**
+     * Prevents any further update of this model, so that it can be shared between threads.
+     * 
+     * @return this model
+     */
+    public MutationsModel freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Records what produced this model. Must be called before the model is frozen.
+     * 
+     * @param origin
+     *          Identifies what produced this model, such as the launch configuration of the analysis.
+     * @return this model
+     */
+    public MutationsModel withOrigin(String origin) {
+        checkUpdatable();
+        this.origin = origin;
+        return this;
+    }
+
+    /**
+     * Returns what produced this model, if known. Copies of a model have the same origin.
+     * 
+     * @return what produced this model, if known
+     */
+    public Optional<String> getOrigin() {
+        return Optional.ofNullable(origin);
+    }
+
+    /**
+     * Records that some results of the analysis are missing from this model. Must be called
+     * before the model is frozen.
+     * 
+     * @return this model
+     */
+    public MutationsModel asPartial() {
+        checkUpdatable();
+        this.partial = true;
+        return this;
+    }
+
+    /**
+     * Returns whether some results of the analysis are missing from this model, because
+     * the analysis has been cancelled or has failed. Copies of a partial model are partial.
+     * 
+     * @return whether some results of the analysis are missing
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    private void checkUpdatable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("A frozen model cannot be updated");
+        }
+    }
+
     public List<Status> getStatuses() {
         return statuses;
     }
@@ -98,10 +321,17 @@ public class MutationsModel implements Visitable, Countable {
 
     @Override
     public long count() {
-        long sum = 0L;
-        for (Status status : statuses) {
-            sum += status.count();
-        }
-        return sum;
+        return count;
+    }
+
+    /**
+     * Returns the number of mutations having the given status.
+     * 
+     * @param status
+     *          The status of the mutations to count.
+     * @return the number of mutations having the given status
+     */
+    public long count(DetectionStatus status) {
+        return countByStatus.getOrDefault(status, 0L);
     }
 }
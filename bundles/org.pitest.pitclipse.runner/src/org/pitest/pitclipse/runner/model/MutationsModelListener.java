@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.model;
+
+/**
+ * <p>Notified of the changes made to a {@link MutationsModel} when
+ * {@link ClassDelta}s are applied to it.</p>
+ * 
+ * <p>Node events are reported by the thread applying the deltas, once the
+ * model is consistent again: counts of the ancestors are already updated.</p>
+ */
+public interface MutationsModelListener {
+
+    /**
+     * Called when a node has been added to the model.
+     * 
+     * @param parent
+     *          The node the new node has been added to.
+     * @param node
+     *          The added node, along with all its children.
+     */
+    void nodeAdded(Visitable parent, Visitable node);
+
+    /**
+     * Called when a node has been removed from the model.
+     * 
+     * @param parent
+     *          The node the node has been removed from.
+     * @param node
+     *          The removed node, along with all its children.
+     */
+    void nodeRemoved(Visitable parent, Visitable node);
+
+    /**
+     * Called when the count of a node has changed because of nodes
+     * added to or removed from its descendants.
+     * 
+     * @param node
+     *          The node whose count has changed.
+     */
+    void nodeChanged(Visitable node);
+}
@@ -20,21 +20,26 @@ import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Ordering;
 
-import static com.google.common.collect.Collections2.transform;
-
 import java.util.Objects;
 
 public class PackageMutations implements Visitable, Countable {
     private final String packageName;
-    private final ImmutableList<ClassMutations> classMutations;
-    private final ProjectMutations projectMutations;
+    private ImmutableList<ClassMutations> classMutations;
+    private long count;
+    private ProjectMutations projectMutations;
 
     private PackageMutations(ProjectMutations projectMutations, String packageName,
             ImmutableList<ClassMutations> mutations) {
         this.projectMutations = projectMutations;
         this.packageName = packageName;
-        this.classMutations = ImmutableList.copyOf(transform(mutations,
-                input -> input.copyOf().withPackageMutations(PackageMutations.this).build()));
+        ImmutableList.Builder<ClassMutations> adoptedMutations = ImmutableList.builder();
+        long sum = 0L;
+        for (ClassMutations classMutation : mutations) {
+            adoptedMutations.add(classMutation.adoptedBy(this));
+            sum += classMutation.count();
+        }
+        this.classMutations = adoptedMutations.build();
+        this.count = sum;
     }
 
     public String getPackageName() {
@@ -49,12 +54,48 @@ public class PackageMutations implements Visitable, Countable {
         return projectMutations;
     }
 
+    /**
+     * Returns this node, or a copy of it if it already belongs to another project, linked to the given project.
+     */
+    PackageMutations adoptedBy(ProjectMutations parent) {
+        PackageMutations packageMutations = projectMutations == null || projectMutations == parent ? this
+                : copyOf().build();
+        packageMutations.projectMutations = parent;
+        return packageMutations;
+    }
+
+    /**
+     * Adds a class to this package, then updates the counts of this package and of its ancestors.
+     */
+    void add(ClassMutations node) {
+        classMutations = ChildNodes.inserted(classMutations, node.adoptedBy(this), Builder.CLASS_ORDERING);
+        countChanged(node.count());
+    }
+
+    /**
+     * Removes a class from this package, then updates the counts of this package and of its ancestors.
+     */
+    void remove(ClassMutations node) {
+        classMutations = ChildNodes.removed(classMutations, node);
+        countChanged(-node.count());
+    }
+
+    void countChanged(long difference) {
+        count += difference;
+        if (projectMutations != null) {
+            projectMutations.countChanged(difference);
+        }
+    }
+
     @Override
     public <T> T accept(MutationsModelVisitor<T> visitor) {
         return visitor.visitPackage(this);
     }
 
     public static class Builder {
+        private static final Ordering<ClassMutations> CLASS_ORDERING = Ordering.natural().nullsLast()
+                .onResultOf(ClassName.GET);
+
         private String packageName;
         private ImmutableList<ClassMutations> mutations;
         private ProjectMutations projectMutations;
@@ -68,7 +109,7 @@ public class PackageMutations implements Visitable, Countable {
         }
 
         public Builder withClassMutations(Iterable<ClassMutations> mutations) {
-            this.mutations = Ordering.natural().nullsLast().onResultOf(ClassName.GET).immutableSortedCopy(mutations);
+            this.mutations = CLASS_ORDERING.immutableSortedCopy(mutations);
             return this;
         }
 
@@ -125,10 +166,6 @@ public class PackageMutations implements Visitable, Countable {
 
     @Override
     public long count() {
-        long sum = 0L;
-        for (ClassMutations classMutation : classMutations) {
-            sum += classMutation.count();
-        }
-        return sum;
+        return count;
     }
 }
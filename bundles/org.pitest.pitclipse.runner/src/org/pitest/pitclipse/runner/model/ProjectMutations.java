@@ -23,18 +23,26 @@ import com.google.common.collect.Ordering;
 import java.util.List;
 import java.util.Objects;
 
-import static com.google.common.collect.Collections2.transform;
-
 public class ProjectMutations implements Visitable, Countable {
+    private static final Ordering<PackageMutations> PACKAGE_ORDERING = Ordering.natural().nullsLast()
+            .onResultOf(PackageName.GET);
+
     private final String projectName;
-    private final ImmutableList<PackageMutations> packageMutations;
-    private final Status status;
+    private ImmutableList<PackageMutations> packageMutations;
+    private long count;
+    private Status status;
 
     private ProjectMutations(Status status, String projectName, ImmutableList<PackageMutations> packageMutations) {
         this.status = status;
         this.projectName = projectName;
-        this.packageMutations = ImmutableList.copyOf(transform(packageMutations,
-                input -> input.copyOf().withProjectMutations(ProjectMutations.this).build()));
+        ImmutableList.Builder<PackageMutations> adoptedMutations = ImmutableList.builder();
+        long sum = 0L;
+        for (PackageMutations packageMutation : packageMutations) {
+            adoptedMutations.add(packageMutation.adoptedBy(this));
+            sum += packageMutation.count();
+        }
+        this.packageMutations = adoptedMutations.build();
+        this.count = sum;
     }
 
     @Override
@@ -72,8 +80,7 @@ public class ProjectMutations implements Visitable, Countable {
         }
 
         public Builder withPackageMutations(List<PackageMutations> packages) {
-            this.packageMutations = Ordering.natural().nullsLast().onResultOf(PackageName.GET)
-                    .immutableSortedCopy(packages);
+            this.packageMutations = PACKAGE_ORDERING.immutableSortedCopy(packages);
             return this;
         }
 
@@ -113,17 +120,45 @@ public class ProjectMutations implements Visitable, Countable {
 
     @Override
     public long count() {
-        long sum = 0L;
-        for (PackageMutations packageMutation : packageMutations) {
-            sum += packageMutation.count();
-        }
-        return sum;
+        return count;
     }
 
     public Status getStatus() {
         return status;
     }
 
+    /**
+     * Returns this node, or a copy of it if it already belongs to another status, linked to the given status.
+     */
+    ProjectMutations adoptedBy(Status parent) {
+        ProjectMutations projectMutations = status == null || status == parent ? this : copyOf().build();
+        projectMutations.status = parent;
+        return projectMutations;
+    }
+
+    /**
+     * Adds a package to this project, then updates the counts of this project and of its ancestors.
+     */
+    void add(PackageMutations node) {
+        packageMutations = ChildNodes.inserted(packageMutations, node.adoptedBy(this), PACKAGE_ORDERING);
+        countChanged(node.count());
+    }
+
+    /**
+     * Removes a package from this project, then updates the counts of this project and of its ancestors.
+     */
+    void remove(PackageMutations node) {
+        packageMutations = ChildNodes.removed(packageMutations, node);
+        countChanged(-node.count());
+    }
+
+    void countChanged(long difference) {
+        count += difference;
+        if (status != null) {
+            status.countChanged(difference);
+        }
+    }
+
     private enum PackageName implements Function<PackageMutations, String> {
         GET;
 
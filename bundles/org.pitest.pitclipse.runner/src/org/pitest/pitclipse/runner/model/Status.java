@@ -25,21 +25,28 @@ import org.pitest.pitclipse.runner.results.DetectionStatus;
 import java.util.List;
 import java.util.Objects;
 
-import static com.google.common.collect.Collections2.transform;
-
 public class Status implements Visitable, Countable {
 
+    private static final Ordering<ProjectMutations> PROJECT_ORDERING = Ordering.natural().nullsLast()
+            .onResultOf(ProjectName.GET);
+
     private final DetectionStatus detectionStatus;
-    private final ImmutableList<ProjectMutations> projectMutations;
-    private final MutationsModel mutationsModel;
+    private ImmutableList<ProjectMutations> projectMutations;
+    private long count;
+    private MutationsModel mutationsModel;
 
     private Status(MutationsModel mutationsModel, DetectionStatus detectionStatus,
             ImmutableList<ProjectMutations> projectMutations) {
         this.mutationsModel = mutationsModel;
         this.detectionStatus = detectionStatus;
-        this.projectMutations = ImmutableList.copyOf(
-                transform(projectMutations, input -> input.copyOf().withStatus(Status.this).build())
-        );
+        ImmutableList.Builder<ProjectMutations> adoptedMutations = ImmutableList.builder();
+        long sum = 0L;
+        for (ProjectMutations projectMutation : projectMutations) {
+            adoptedMutations.add(projectMutation.adoptedBy(this));
+            sum += projectMutation.count();
+        }
+        this.projectMutations = adoptedMutations.build();
+        this.count = sum;
     }
 
     public DetectionStatus getDetectionStatus() {
@@ -64,8 +71,7 @@ public class Status implements Visitable, Countable {
         }
 
         public Builder withProjectMutations(List<ProjectMutations> projectMutations) {
-            this.projectMutations = Ordering.natural().nullsLast().onResultOf(ProjectName.GET)
-                    .immutableSortedCopy(projectMutations);
+            this.projectMutations = PROJECT_ORDERING.immutableSortedCopy(projectMutations);
             return this;
         }
 
@@ -108,11 +114,7 @@ public class Status implements Visitable, Countable {
 
     @Override
     public long count() {
-        long sum = 0L;
-        for (ProjectMutations projectMutation : projectMutations) {
-            sum += projectMutation.count();
-        }
-        return sum;
+        return count;
     }
 
     private enum ProjectName implements Function<ProjectMutations, String> {
@@ -132,4 +134,36 @@ public class Status implements Visitable, Countable {
     public MutationsModel getMutationsModel() {
         return mutationsModel;
     }
+
+    /**
+     * Returns this node, or a copy of it if it already belongs to another model, linked to the given model.
+     */
+    Status adoptedBy(MutationsModel parent) {
+        Status status = mutationsModel == null || mutationsModel == parent ? this : copyOf().build();
+        status.mutationsModel = parent;
+        return status;
+    }
+
+    /**
+     * Adds a project to this status, then updates the counts of this status and of its ancestors.
+     */
+    void add(ProjectMutations node) {
+        projectMutations = ChildNodes.inserted(projectMutations, node.adoptedBy(this), PROJECT_ORDERING);
+        countChanged(node.count());
+    }
+
+    /**
+     * Removes a project from this status, then updates the counts of this status and of its ancestors.
+     */
+    void remove(ProjectMutations node) {
+        projectMutations = ChildNodes.removed(projectMutations, node);
+        countChanged(-node.count());
+    }
+
+    void countChanged(long difference) {
+        count += difference;
+        if (mutationsModel != null) {
+            mutationsModel.countChanged(detectionStatus, difference);
+        }
+    }
 }
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.results;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>Collects the results produced during a PIT analysis.</p>
+ * 
+ * <p>Elements are stored in fixed-size chunks so that appending one never
+ * copies the elements already collected: collecting <i>n</i> results takes
+ * a time linear in <i>n</i>. The collected results are published once, as
+ * an immutable list, by {@link #toList()}.</p>
+ * 
+ * <p>This class is thread-safe.</p>
+ * 
+ * @param <T> the type of the collected results
+ */
+public class ResultAccumulator<T> {
+
+    static final int CHUNK_SIZE = 1024;
+
+    private final List<Object[]> chunks = new ArrayList<>();
+    private Object[] currentChunk;
+    private int size;
+
+    /**
+     * Appends the given element to the results.
+     * 
+     * @param element
+     *          The element to append.
+     */
+    public synchronized void add(T element) {
+        int positionInChunk = size % CHUNK_SIZE;
+        if (positionInChunk == 0) {
+            currentChunk = new Object[CHUNK_SIZE];
+            chunks.add(currentChunk);
+        }
+        currentChunk[positionInChunk] = element;
+        size++;
+    }
+
+    /**
+     * Appends all the given elements to the results.
+     * 
+     * @param elements
+     *          The elements to append.
+     */
+    public synchronized void addAll(Collection<? extends T> elements) {
+        for (T element : elements) {
+            add(element);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Removes all the results collected so far.
+     */
+    public synchronized void clear() {
+        chunks.clear();
+        currentChunk = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the collected results, in the order they have been added.
+     * 
+     * @return an immutable list holding all the collected results
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized ImmutableList<T> toList() {
+        ImmutableList.Builder<T> builder = ImmutableList.builder();
+        int remaining = size;
+        for (Object[] chunk : chunks) {
+            int length = Math.min(remaining, CHUNK_SIZE);
+            for (int i = 0; i < length; i++) {
+                builder.add((T) chunk[i]);
+            }
+            remaining -= length;
+        }
+        return builder.build();
+    }
+}
@@ -38,7 +38,8 @@ public class MutationsResultListenerFactory implements MutationResultListenerFac
 
     @Override
     public MutationResultListener getListener(Properties properties, ListenerArguments listenerArguments) {
-        return new PitclipseMutationsResultListener(RecordingMutationsDispatcher.INSTANCE);
+        return new PitclipseMutationsResultListener(RecordingMutationsDispatcher.INSTANCE,
+                StreamingMutationsDispatcher.INSTANCE);
     }
 
     @Override
@@ -16,45 +16,77 @@
 
 package org.pitest.pitclipse.runner.results.mutations;
 
-import com.google.common.collect.ImmutableList;
-
+import org.pitest.coverage.TestInfo;
 import org.pitest.mutationtest.ClassMutationResults;
 import org.pitest.mutationtest.MutationResult;
 import org.pitest.mutationtest.MutationResultListener;
 import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.pitclipse.runner.PitClassResults;
 import org.pitest.pitclipse.runner.results.DetectionStatusCoverter;
+import org.pitest.pitclipse.runner.results.Dispatcher;
 import org.pitest.pitclipse.runner.results.Mutations;
 import org.pitest.pitclipse.runner.results.Mutations.Mutation;
 import org.pitest.pitclipse.runner.results.ObjectFactory;
+import org.pitest.pitclipse.runner.results.ResultAccumulator;
+
+import com.google.common.collect.ImmutableList;
 
 import java.math.BigInteger;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * <p>Listens for mutations results sent by PIT in order to make them all available to Pitclipse.</p>
  * 
- * <p>Once PIT analysis ends, the results are dispatched as a {@link Mutations} instance.</p>
+ * <p>The results of each class are dispatched as soon as they are available as a
+ * {@link PitClassResults} instance. Once PIT analysis ends, all the results are
+ * dispatched as a {@link Mutations} instance.</p>
  * 
  * <p>Instances of this class are provided to PIT thanks to {@link MutationsResultListenerFactory}.</p>
  */
 public class PitclipseMutationsResultListener implements MutationResultListener {
 
     private final MutationsDispatcher dispatcher;
+    private final Dispatcher<PitClassResults> classResultsDispatcher;
     private static final ObjectFactory OBJECT_FACTORY = new ObjectFactory();
-    private ImmutableList<Mutation> mutations = ImmutableList.of();
+    private final ResultAccumulator<Mutation> mutations;
 
     public PitclipseMutationsResultListener(MutationsDispatcher dispatcher) {
+        this(dispatcher, classResults -> {
+            // results are only dispatched once the analysis ends
+        });
+    }
+
+    public PitclipseMutationsResultListener(MutationsDispatcher dispatcher,
+            Dispatcher<PitClassResults> classResultsDispatcher) {
+        this(dispatcher, classResultsDispatcher, new ResultAccumulator<>());
+    }
+
+    /**
+     * For testing purposes.
+     */
+    PitclipseMutationsResultListener(MutationsDispatcher dispatcher,
+            Dispatcher<PitClassResults> classResultsDispatcher, ResultAccumulator<Mutation> mutations) {
         this.dispatcher = dispatcher;
+        this.classResultsDispatcher = classResultsDispatcher;
+        this.mutations = mutations;
     }
 
     @Override
     public void runStart() {
-        // nothing to do
+        mutations.clear();
     }
 
     @Override
     public void handleMutationResult(ClassMutationResults results) {
+        Mutations classMutations = OBJECT_FACTORY.createMutations();
+        Set<String> coveringTests = new TreeSet<>();
         for (final MutationResult result : results.getMutations()) {
             MutationDetails details = result.getDetails();
+            for (TestInfo test : details.getTestsInOrder()) {
+                definingClassOf(test).ifPresent(coveringTests::add);
+            }
             final Mutation mutation = OBJECT_FACTORY.createMutationsMutation();
             mutation.setIndex(BigInteger.valueOf(details.getFirstIndex()));
             result.getKillingTest().ifPresent(mutation::setKillingTest);
@@ -67,15 +99,26 @@ public class PitclipseMutationsResultListener implements MutationResultListener
             mutation.setDetected(result.getStatus().isDetected());
             mutation.setDescription(details.getDescription());
 
-            this.mutations = ImmutableList.<Mutation>builder().addAll(mutations).add(mutation).build();
+            classMutations.getMutation().add(mutation);
         }
+        mutations.addAll(classMutations.getMutation());
+        String mutatedClass = results.getMutatedClass().asJavaName();
+        classResultsDispatcher.dispatch(PitClassResults.from(mutatedClass, classMutations,
+                ImmutableList.copyOf(coveringTests)));
+    }
 
+    private static Optional<String> definingClassOf(TestInfo test) {
+        try {
+            return Optional.of(TestInfo.toDefiningClassName().apply(test).asJavaName());
+        } catch (NullPointerException unknownClass) { // NOSONAR PIT gives no other way to know the class is missing
+            return Optional.empty();
+        }
     }
 
     @Override
     public void runEnd() {
         Mutations createdMutations = OBJECT_FACTORY.createMutations();
-        createdMutations.getMutation().addAll(this.mutations);
+        createdMutations.getMutation().addAll(mutations.toList());
         dispatcher.dispatch(createdMutations);
     }
 }
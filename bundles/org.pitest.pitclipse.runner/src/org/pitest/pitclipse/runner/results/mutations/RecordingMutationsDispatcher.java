@@ -22,18 +22,30 @@ import org.pitest.pitclipse.runner.results.Mutations;
 
 /**
  * <p>A singleton providing access to the latest mutations computed by PIT.</p>
+ * 
+ * <p>PIT notifies its listeners from the thread that started the analysis, hence
+ * mutations are recorded per thread: analyses run concurrently by different
+ * threads do not see each other's mutations.</p>
  */
 public enum RecordingMutationsDispatcher implements MutationsDispatcher {
     INSTANCE;
 
-    private volatile Optional<Mutations> dispatchedMutations = Optional.empty();
+    private final ThreadLocal<Optional<Mutations>> dispatchedMutations = ThreadLocal.withInitial(Optional::empty);
 
     @Override
     public void dispatch(Mutations result) {
-        dispatchedMutations = Optional.of(result);
+        dispatchedMutations.set(Optional.of(result));
     }
 
     public Mutations getDispatchedMutations() {
-        return dispatchedMutations.orElseGet(Mutations::new);
+        return dispatchedMutations.get().orElseGet(Mutations::new);
+    }
+
+    /**
+     * Forgets the mutations dispatched so far by the current thread, so that
+     * the results of a previous analysis cannot leak into the next one.
+     */
+    public void reset() {
+        dispatchedMutations.remove();
     }
 }
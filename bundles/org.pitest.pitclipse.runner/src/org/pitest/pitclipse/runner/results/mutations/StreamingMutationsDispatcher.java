@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.results.mutations;
+
+import java.util.Optional;
+
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.results.Dispatcher;
+
+/**
+ * <p>A singleton forwarding the results of each class analyzed by PIT
+ * to the dispatcher registered for the current run, if any.</p>
+ * 
+ * <p>Listeners are instantiated by PIT itself, hence this singleton is the
+ * only way for them to reach the connection opened by the runner.</p>
+ * 
+ * <p>PIT notifies its listeners from the thread that started the analysis,
+ * hence a dispatcher is registered for the current thread only.</p>
+ */
+public enum StreamingMutationsDispatcher implements Dispatcher<PitClassResults> {
+    INSTANCE;
+
+    private final ThreadLocal<Optional<Dispatcher<PitClassResults>>> target = ThreadLocal.withInitial(Optional::empty);
+
+    @Override
+    public void dispatch(PitClassResults result) {
+        target.get().ifPresent(dispatcher -> dispatcher.dispatch(result));
+    }
+
+    /**
+     * Forwards all the results dispatched from now on by the current thread
+     * to the given dispatcher.
+     * 
+     * @param dispatcher
+     *          The dispatcher to which results must be forwarded.
+     */
+    public void streamTo(Dispatcher<PitClassResults> dispatcher) {
+        target.set(Optional.of(dispatcher));
+    }
+
+    /**
+     * Stops forwarding the results dispatched by the current thread.
+     */
+    public void stopStreaming() {
+        target.remove();
+    }
+}
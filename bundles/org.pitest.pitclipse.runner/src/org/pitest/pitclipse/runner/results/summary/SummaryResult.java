@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -42,6 +43,27 @@ public class SummaryResult implements Serializable {
         this.summaries = summaries;
     }
 
+    /**
+     * Returns a summary made of the given class summaries.
+     * 
+     * @param summaries
+     *          The summaries of the analysed classes.
+     * @return a summary of the whole analysis
+     */
+    static SummaryResult of(Collection<ClassSummary> summaries) {
+        return new SummaryResult(ImmutableList.copyOf(summaries));
+    }
+
+    /**
+     * <p>Returns a new summary made of this one and of the given class summary.</p>
+     * 
+     * <p>This copies all the summaries already known: when many classes are to be
+     * summed up, prefer collecting them first then calling {@link #of(Collection)}.</p>
+     * 
+     * @param classSummary
+     *          The summary to add.
+     * @return a new summary
+     */
     public SummaryResult update(ClassSummary classSummary) {
         Builder<ClassSummary> builder = ImmutableList.builder();
         builder.addAll(getSummaries());
@@ -24,6 +24,7 @@ import org.pitest.coverage.CoverageDatabase;
 import org.pitest.mutationtest.ClassMutationResults;
 import org.pitest.mutationtest.MutationResultListener;
 import org.pitest.pitclipse.runner.results.Dispatcher;
+import org.pitest.pitclipse.runner.results.ResultAccumulator;
 
 import java.util.List;
 
@@ -36,7 +37,7 @@ import java.util.List;
  */
 public class SummaryResultListener implements MutationResultListener {
 
-    private SummaryResult result = SummaryResult.EMPTY;
+    private final ResultAccumulator<ClassSummary> summaries = new ResultAccumulator<>();
     private final Dispatcher<SummaryResult> dispatcher;
     private final CoverageDatabase coverage;
 
@@ -55,7 +56,7 @@ public class SummaryResultListener implements MutationResultListener {
 
     @Override
     public void runStart() {
-        result = SummaryResult.EMPTY;
+        summaries.clear();
     }
 
     @Override
@@ -63,13 +64,12 @@ public class SummaryResultListener implements MutationResultListener {
         List<ClassName> classUnderTest = ImmutableList.of(results.getMutatedClass());
         int coveredLines = coverage.getNumberOfCoveredLines(classUnderTest);
         for (ClassInfo info : coverage.getClassInfo(classUnderTest)) {
-            ClassSummary classSummary = ClassSummary.from(results, info, coveredLines);
-            result = result.update(classSummary);
+            summaries.add(ClassSummary.from(results, info, coveredLines));
         }
     }
 
     @Override
     public void runEnd() {
-        dispatcher.dispatch(result);
+        dispatcher.dispatch(SummaryResult.of(summaries.toList()));
     }
 }
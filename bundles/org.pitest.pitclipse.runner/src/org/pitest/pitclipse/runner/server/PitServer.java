@@ -16,23 +16,31 @@
 
 package org.pitest.pitclipse.runner.server;
 
+import org.pitest.pitclipse.runner.PitCancelRequest;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitProgress;
 import org.pitest.pitclipse.runner.PitRequest;
 import org.pitest.pitclipse.runner.PitResults;
 import org.pitest.pitclipse.runner.client.PitClient;
 import org.pitest.pitclipse.runner.io.ObjectStreamSocket;
+import org.pitest.pitclipse.runner.io.SocketCreationException;
 import org.pitest.pitclipse.runner.io.SocketProvider;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.function.Consumer;
 
 /**
  * <p>A server used to communicate with a running PIT application.</p>
- *
+ * 
  * <p>More specifically, it allows to:
  * <ul>
  *  <li>{@link #sendRequest(PitRequest) send} a {@link PitRequest request} 
  *  to the {@link PitClient PIT client} to parameterize and launch the analyze
- *  <li>{@link #receiveResults() receive} the results of PIT's analysis
+ *  <li>{@link #receiveResults(Consumer, Consumer) receive} the results of each class
+ *  as soon as they are analyzed and the progress of the analysis, then the final
+ *  results of PIT's analysis
+ *  <li>{@link #cancel() cancel} the running analysis
  * </ul>
  * 
  * <p>This server is supposed to be launched from Eclipse side.</p>
@@ -41,7 +49,8 @@ public class PitServer implements Closeable {
 
     private final int port;
     private final SocketProvider socketProvider;
-    private ObjectStreamSocket socket;
+    private volatile ObjectStreamSocket socket;
+    private volatile boolean closed = false;
 
     public PitServer(int port, SocketProvider socketProvider) {
         this.port = port;
@@ -56,11 +65,17 @@ public class PitServer implements Closeable {
      *          The port used to communicate with the PIT application.
      */
     public PitServer(int port) {
-        this(port, new SocketProvider());
+        this(port, SocketProvider.forPort(port));
     }
 
     /**
-     * Waits for the connection to be established with the PIT application.
+     * <p>Waits for the connection to be established with the PIT application.</p>
+     * 
+     * <p>The wait is bounded by the timeout of {@link SocketProvider#listen(int)}
+     * and stops as soon as the port is {@link SocketProvider#release(int) released},
+     * for instance because the PIT application terminated before connecting.</p>
+     * 
+     * @throws SocketCreationException if the PIT application did not connect
      */
     public void listen() {
         socket = socketProvider.listen(port);
@@ -75,14 +90,37 @@ public class PitServer implements Closeable {
      * @param request
      *          The parameters to be used by the PIT analysis.
      */
-    public void sendRequest(PitRequest request) {
+    public synchronized void sendRequest(PitRequest request) {
         // FIXME Handle the case where listen() has not been called
         //       Making listen() return a Connection object would do the trick
         socket.write(request);
     }
 
+    /**
+     * <p>Asks the PIT application to cancel the running analysis.</p>
+     * 
+     * <p>The PIT application then sends partial results, which are received
+     * as usual. Nothing happens if the connection is not established.</p>
+     */
+    public synchronized void cancel() {
+        if (isConnected()) {
+            socket.write(PitCancelRequest.INSTANCE);
+        }
+    }
+
+    /**
+     * Returns whether the connection with the PIT application is established
+     * and has not been closed yet.
+     * 
+     * @return {@code true} if requests can be sent to the PIT application
+     */
+    public boolean isConnected() {
+        return socket != null && !closed;
+    }
+
     @Override
     public void close() {
+        closed = true;
         try {
             socket.close();
         } catch (IOException e) {
@@ -96,9 +134,60 @@ public class PitServer implements Closeable {
      * <p>This method blocks until results are made available by
      * the running PIT application.</p>
      * 
+     * <p>The results of each class, if streamed by the PIT application, are
+     * ignored.</p>
+     * 
      * @return the results of PIT analysis
      */
     public PitResults receiveResults() {
-        return socket.read();
+        return receiveResults(classResults -> {
+            // only the final results matter
+        });
+    }
+
+    /**
+     * <p>Receives the results of the PIT analysis.</p>
+     * 
+     * <p>The results of each class are passed to the given handler as soon as
+     * they are received. This method blocks until the final results are made
+     * available by the running PIT application.</p>
+     * 
+     * @param classResultsHandler
+     *          The handler called with the results of each analyzed class.
+     * 
+     * @return the results of PIT analysis
+     */
+    public PitResults receiveResults(Consumer<PitClassResults> classResultsHandler) {
+        return receiveResults(classResultsHandler, progress -> {
+            // the progress is ignored
+        });
+    }
+
+    /**
+     * <p>Receives the results of the PIT analysis.</p>
+     * 
+     * <p>The results of each class and the progress of the analysis are passed
+     * to the given handlers as soon as they are received. This method blocks until
+     * the final results are made available by the running PIT application.</p>
+     * 
+     * @param classResultsHandler
+     *          The handler called with the results of each analyzed class.
+     * @param progressHandler
+     *          The handler called with the progress of the analysis.
+     * 
+     * @return the results of PIT analysis
+     */
+    public PitResults receiveResults(Consumer<PitClassResults> classResultsHandler,
+            Consumer<PitProgress> progressHandler) {
+        Object frame = socket.read();
+        while (frame instanceof PitClassResults || frame instanceof PitProgress) {
+            if (frame instanceof PitProgress) {
+                progressHandler.accept((PitProgress) frame);
+            } else {
+                classResultsHandler.accept((PitClassResults) frame);
+            }
+            frame = socket.read();
+        }
+        return (PitResults) frame;
     }
 }
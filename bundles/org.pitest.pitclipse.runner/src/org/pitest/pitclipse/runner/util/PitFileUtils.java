@@ -17,6 +17,9 @@ package org.pitest.pitclipse.runner.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 /**
  * @author Lorenzo Bettini
@@ -37,6 +40,25 @@ public class PitFileUtils {
         }
     }
 
+    /**
+     * Replaces a file with another one, atomically when the file system supports it:
+     * readers of the target see either its previous content or the new one.
+     * 
+     * @param source
+     *          The file holding the new content.
+     * @param target
+     *          The file to replace.
+     * @throws IOException if the file cannot be moved
+     */
+    public static void moveAtomically(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     /**
      * Searches for a file with the given name in the given directory,
      * recursively.
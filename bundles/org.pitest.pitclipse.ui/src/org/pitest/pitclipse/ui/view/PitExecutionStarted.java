@@ -25,11 +25,15 @@ import static org.pitest.pitclipse.runner.model.MutationsModel.EMPTY_MODEL;
 /**
  * <p>Empty Pitclipse's {@link MutationsView}.</p>
  * 
- *  <p>Called by Pitclipse's core each time PIT is launched.</p>
+ *  <p>Called by Pitclipse's core each time PIT is launched. The view is left as is when
+ *  the results of the launch are merged into the model it shows.</p>
  */
 public class PitExecutionStarted implements ResultNotifier<PitRuntimeOptions> {
     @Override
     public void handleResults(PitRuntimeOptions options) {
+        if (options.getMergedModel().isPresent()) {
+            return;
+        }
         MutationsView mutationsView = PitViewFinder.INSTANCE.getMutationsView();
         mutationsView.updateWith(EMPTY_MODEL);
     }
@@ -25,10 +25,14 @@ import org.eclipse.swt.browser.Browser;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.ui.IActionBars;
 import org.eclipse.ui.part.ViewPart;
+import org.pitest.pitclipse.core.PitCoreActivator;
 import org.pitest.pitclipse.ui.utils.PitclipseUiUtils;
 
 /**
- * A view displaying the HTML report generated by PIT.
+ * <p>A view displaying the HTML report generated by PIT.</p>
+ * 
+ * <p>The displayed report is held until another one replaces it or the view is
+ * closed, so that its directory is not deleted meanwhile.</p>
  */
 public class PitView extends ViewPart implements SummaryView {
     public static final String VIEW_ID = "org.pitest.pitclipse.ui.view.PitView";
@@ -38,6 +42,7 @@ public class PitView extends ViewPart implements SummaryView {
     public static final String FORWARD_BUTTON_TEXT = ">";
     private Browser browser = null;
     private String homeUrlString = null;
+    private File report = null;
 
     @Override
     public synchronized void createPartControl(Composite parent) {
@@ -96,6 +101,7 @@ public class PitView extends ViewPart implements SummaryView {
 
     @Override
     public synchronized void update(File result) {
+        display(result);
         if (result == null) {
             resetBrowser();
         } else {
@@ -104,8 +110,21 @@ public class PitView extends ViewPart implements SummaryView {
         }
     }
 
+    private void display(File result) {
+        if (result != null) {
+            PitCoreActivator.getDefault().holdResult(result);
+        }
+        if (report != null) {
+            PitCoreActivator.getDefault().releaseResult(report);
+        }
+        report = result;
+    }
+
     @Override
     public void dispose() {
+        synchronized (this) {
+            display(null);
+        }
         PitclipseUiUtils.disposeSafely(browser);
         super.dispose();
     }
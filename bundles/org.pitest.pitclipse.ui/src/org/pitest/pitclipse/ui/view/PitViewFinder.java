@@ -21,10 +21,14 @@ import org.eclipse.ui.IViewPart;
 import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.PlatformUI;
+import org.pitest.pitclipse.runner.PitResults;
+import org.pitest.pitclipse.runner.model.ClassDelta;
 import org.pitest.pitclipse.runner.model.MutationsModel;
 import org.pitest.pitclipse.ui.view.mutations.MutationsView;
+import org.pitest.pitclipse.ui.view.statistics.StatisticsView;
 
 import java.io.File;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -38,6 +42,7 @@ public enum PitViewFinder {
 
     private static final String PIT_SUMMARY_VIEW = "org.pitest.pitclipse.ui.view.PitView";
     private static final String PIT_MUTATIONS_VIEW = "org.pitest.pitclipse.ui.view.mutations.PitMutationsView";
+    private static final String PIT_STATISTICS_VIEW = "org.pitest.pitclipse.ui.view.statistics.PitStatisticsView";
 
     private static final class MissingViewException extends RuntimeException {
         private static final long serialVersionUID = 6672829886156086528L;
@@ -51,9 +56,21 @@ public enum PitViewFinder {
         private static Set<String> initialisedViews = newHashSet();
         private final AtomicReference<IViewPart> viewRef = new AtomicReference<>();
         private final String viewId;
+        private final boolean activate;
 
         public ViewSearch(String viewId) {
+            this(viewId, true);
+        }
+
+        /**
+         * @param viewId
+         *          The id of the view to find.
+         * @param activate
+         *          Whether the view must be opened the first time it is searched.
+         */
+        public ViewSearch(String viewId, boolean activate) {
             this.viewId = viewId;
+            this.activate = activate;
         }
 
         @Override
@@ -71,7 +88,9 @@ public enum PitViewFinder {
         }
 
         private IViewPart tryFindView(String viewId) throws PartInitException {
-            activateViewOnceAndOnceOnly(viewId);
+            if (activate) {
+                activateViewOnceAndOnceOnly(viewId);
+            }
             IWorkbenchPage activePage = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
             return activePage.findView(viewId);
         }
@@ -110,8 +129,26 @@ public enum PitViewFinder {
         }
     }
 
+    /**
+     * Returns the <i>PIT Run Statistics</i> view, which is not opened
+     * if it is not already.
+     * 
+     * @return the view, or a view doing nothing if it is not open
+     */
+    public StatisticsView getStatisticsView() {
+        StatisticsView view = getView(PIT_STATISTICS_VIEW, false);
+        if (null == view) {
+            return NoOpStatisticsView.INSTANCE;
+        }
+        return view;
+    }
+
     private <T extends IViewPart> T getView(String viewId) {
-        ViewSearch viewSearch = new ViewSearch(viewId);
+        return getView(viewId, true);
+    }
+
+    private <T extends IViewPart> T getView(String viewId, boolean activate) {
+        ViewSearch viewSearch = new ViewSearch(viewId, activate);
         Display.getDefault().syncExec(viewSearch);
         return viewSearch.getView();
     }
@@ -130,5 +167,19 @@ public enum PitViewFinder {
         public void updateWith(MutationsModel mutations) {
             // Do nothing
         }
+
+        @Override
+        public void applyDeltas(MutationsModel mutations, List<ClassDelta> deltas) {
+            // Keep the model consistent in case the view is opened later
+            deltas.forEach(mutations::apply);
+        }
+    }
+
+    private enum NoOpStatisticsView implements StatisticsView {
+        INSTANCE;
+        @Override
+        public void update(PitResults results) {
+            // Do nothing
+        }
     }
 }
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.ui.view.mutations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.swt.widgets.Display;
+import org.pitest.pitclipse.core.extension.point.ResultNotifier;
+import org.pitest.pitclipse.runner.model.ClassDelta;
+import org.pitest.pitclipse.runner.model.MutationsModel;
+import org.pitest.pitclipse.ui.view.PitViewFinder;
+
+/**
+ * <p>Updates the <i>PIT Mutations</i> view while a PIT analysis is running.</p>
+ * 
+ * <p>This class is registered through the {@code org.pitest.pitclipse.core.mutations.deltas}
+ * extension point, which creates an instance for each analysis. The deltas of the analysis
+ * are applied to a model owned by this instance, in the UI thread only; deltas received
+ * in the meantime are applied together.</p>
+ */
+public class MutationDeltasNotifier implements ResultNotifier<List<ClassDelta>> {
+
+    private final MutationsModel model = MutationsModel.empty();
+    private final Queue<ClassDelta> pendingDeltas = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean applyScheduled = new AtomicBoolean();
+
+    @Override
+    public void handleResults(List<ClassDelta> deltas) {
+        pendingDeltas.addAll(deltas);
+        if (applyScheduled.compareAndSet(false, true)) {
+            Display.getDefault().asyncExec(this::applyPendingDeltas);
+        }
+    }
+
+    private void applyPendingDeltas() {
+        applyScheduled.set(false);
+        List<ClassDelta> deltas = new ArrayList<>();
+        for (ClassDelta delta = pendingDeltas.poll(); delta != null; delta = pendingDeltas.poll()) {
+            deltas.add(delta);
+        }
+        PitViewFinder.INSTANCE.getMutationsView().applyDeltas(model, deltas);
+    }
+}
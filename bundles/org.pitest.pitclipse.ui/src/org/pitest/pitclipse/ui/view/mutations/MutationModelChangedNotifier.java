@@ -24,7 +24,7 @@ import org.pitest.pitclipse.ui.view.PitViewFinder;
  * <p>Updates the <i>PIT Mutations</i> view with given PIT results.</p>
  * 
  * <p>This class is registered through the {@code org.pitest.pitclipse.core.mutations.results} 
- * extension point and is hence called each time a new results are produced by PIT.</p>
+ * extension point and is hence called with the complete model of each PIT analysis.</p>
  */
 public class MutationModelChangedNotifier implements ResultNotifier<MutationsModel> {
 
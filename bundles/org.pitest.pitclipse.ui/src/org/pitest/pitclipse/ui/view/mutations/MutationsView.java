@@ -16,8 +16,22 @@
 
 package org.pitest.pitclipse.ui.view.mutations;
 
+import java.util.List;
+
+import org.pitest.pitclipse.runner.model.ClassDelta;
 import org.pitest.pitclipse.runner.model.MutationsModel;
 
 public interface MutationsView {
     void updateWith(MutationsModel mutations);
+
+    /**
+     * Applies the given deltas to the given model, then shows the model if it is not
+     * shown yet. Must be called from the UI thread.
+     * 
+     * @param mutations
+     *          The model being built while an analysis is running.
+     * @param deltas
+     *          The changes to apply to the model.
+     */
+    void applyDeltas(MutationsModel mutations, List<ClassDelta> deltas);
 }
@@ -16,25 +16,63 @@
 
 package org.pitest.pitclipse.ui.view.mutations;
 
+import java.util.List;
+
+import org.eclipse.jface.action.MenuManager;
+import org.eclipse.jface.action.Separator;
+import org.eclipse.jface.viewers.IElementComparer;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.IWorkbenchActionConstants;
 import org.eclipse.ui.part.ViewPart;
+import org.pitest.pitclipse.runner.model.ClassDelta;
 import org.pitest.pitclipse.runner.model.MutationsModel;
+import org.pitest.pitclipse.runner.model.MutationsModelListener;
+import org.pitest.pitclipse.runner.model.ProjectMutations;
+import org.pitest.pitclipse.runner.model.Status;
+import org.pitest.pitclipse.runner.model.Visitable;
 
+/**
+ * <p>Shows the mutations detected by PIT as a tree.</p>
+ * 
+ * <p>The tree is virtual: items are only created when they are revealed, so that
+ * large analyses can be shown without freezing the UI.</p>
+ * 
+ * <p>While an analysis is running, the view shows a model built from the deltas of
+ * the analysis; only the nodes they change are refreshed. Once the analysis has ended,
+ * its complete model is applied to the shown one the same way, so that only the
+ * classes whose mutations differ are refreshed, and a warning is shown if some of its
+ * results are missing. The tree is only rebuilt when the view starts showing another
+ * model.</p>
+ * 
+ * <p>The surviving mutants of the selected nodes can be re-run from the context menu:
+ * their new statuses are merged into the shown model.</p>
+ */
 public class PitMutationsView extends ViewPart implements MutationsView {
 
-    private static final int TREE_STYLE = SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL;
+    private static final int TREE_STYLE = SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL | SWT.VIRTUAL;
+
+    /**
+     * Statuses and projects are expanded, packages are shown collapsed.
+     */
+    private static final int EXPANDED_LEVELS = 3;
+    private static final String PARTIAL_RESULTS = "Partial results: the analysis has been cancelled or has failed";
+    private final ModelChangesListener modelListener = new ModelChangesListener();
     private TreeViewer viewer;
+    private MutationsModel model = MutationsModel.EMPTY_MODEL;
 
     @Override
     public void createPartControl(Composite parent) {
         createTreeViewer(parent);
+        createContextMenu();
     }
 
     private void createTreeViewer(Composite parent) {
         viewer = new TreeViewer(parent, TREE_STYLE);
+        viewer.setComparer(IdentityComparer.INSTANCE);
+        viewer.setUseHashlookup(true);
         viewer.setContentProvider(new ViewContentProvider());
         viewer.setLabelProvider(new ViewLabelProvider());
         viewer.addDoubleClickListener(ExpandingDoubleClick.LISTENER);
@@ -42,27 +80,128 @@ public class PitMutationsView extends ViewPart implements MutationsView {
         viewer.setInput(MutationsModel.EMPTY_MODEL);
     }
 
+    private void createContextMenu() {
+        RerunSurvivorsAction rerunSurvivors = new RerunSurvivorsAction(viewer);
+        viewer.addSelectionChangedListener(rerunSurvivors);
+        MenuManager menuManager = new MenuManager();
+        menuManager.add(rerunSurvivors);
+        menuManager.add(new Separator(IWorkbenchActionConstants.MB_ADDITIONS));
+        viewer.getControl().setMenu(menuManager.createContextMenu(viewer.getControl()));
+        getSite().registerContextMenu(menuManager, viewer);
+    }
+
     @Override
     public void setFocus() {
         viewer.getControl().setFocus();
     }
 
+    @Override
+    public void dispose() {
+        model.removeListener(modelListener);
+        super.dispose();
+    }
+
     @Override
     public void updateWith(MutationsModel mutations) {
-        Display.getDefault().asyncExec(new ViewUpdater(mutations));
+        Display.getDefault().asyncExec(() -> {
+            if (viewer.getControl().isDisposed()) {
+                return;
+            }
+            if (mutations.count() == 0) {
+                show(mutations);
+            } else if (model.isFrozen()) {
+                // The results of later re-runs will be applied to the copy
+                show(MutationsModel.copyOf(mutations));
+            } else {
+                applyModel(mutations);
+            }
+        });
+    }
+
+    /**
+     * Makes the shown model, which is owned by the UI thread, hold the mutations of the
+     * given one. Only the nodes of the classes whose mutations differ are refreshed.
+     */
+    private void applyModel(MutationsModel mutations) {
+        viewer.getControl().setRedraw(false);
+        try {
+            model.update(mutations);
+        } finally {
+            viewer.getControl().setRedraw(true);
+        }
+        setContentDescription(model.isPartial() ? PARTIAL_RESULTS : "");
+    }
+
+    @Override
+    public void applyDeltas(MutationsModel mutations, List<ClassDelta> deltas) {
+        if (viewer.getControl().isDisposed()) {
+            deltas.forEach(mutations::apply);
+            return;
+        }
+        if (mutations != model) {
+            deltas.forEach(mutations::apply);
+            show(mutations);
+            return;
+        }
+        viewer.getControl().setRedraw(false);
+        try {
+            deltas.forEach(mutations::apply);
+        } finally {
+            viewer.getControl().setRedraw(true);
+        }
+    }
+
+    private void show(MutationsModel mutations) {
+        model.removeListener(modelListener);
+        model = mutations;
+        viewer.setInput(mutations);
+        viewer.expandToLevel(EXPANDED_LEVELS);
+        setContentDescription(mutations.isPartial() ? PARTIAL_RESULTS : "");
+        mutations.addListener(modelListener);
     }
 
-    private class ViewUpdater implements Runnable {
-        private final MutationsModel mutations;
+    /**
+     * Refreshes the nodes changed by the deltas applied to the shown model.
+     */
+    private class ModelChangesListener implements MutationsModelListener {
+
+        @Override
+        public void nodeAdded(Visitable parent, Visitable node) {
+            viewer.refresh(parent);
+            if (node instanceof Status) {
+                viewer.expandToLevel(node, EXPANDED_LEVELS - 1);
+            } else if (node instanceof ProjectMutations) {
+                viewer.expandToLevel(node, EXPANDED_LEVELS - 2);
+            }
+        }
 
-        private ViewUpdater(MutationsModel mutations) {
-            this.mutations = mutations;
+        @Override
+        public void nodeRemoved(Visitable parent, Visitable node) {
+            viewer.refresh(parent);
+        }
+
+        @Override
+        public void nodeChanged(Visitable node) {
+            if (node != model) {
+                viewer.update(node, null);
+            }
+        }
+    }
+
+    /**
+     * Each node of the model is shown once: there is no need to compare them deeply.
+     */
+    private enum IdentityComparer implements IElementComparer {
+        INSTANCE;
+
+        @Override
+        public boolean equals(Object a, Object b) {
+            return a == b;
         }
 
         @Override
-        public void run() {
-            viewer.setInput(mutations);
-            viewer.expandAll();
+        public int hashCode(Object element) {
+            return System.identityHashCode(element);
         }
     }
 }
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.ui.view.mutations;
+
+import static org.pitest.pitclipse.core.preferences.PitPreferences.INDIVIDUAL_MUTATORS;
+import static org.pitest.pitclipse.core.preferences.PitPreferences.MUTATOR_GROUP;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.viewers.ISelectionChangedListener;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.SelectionChangedEvent;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.pitest.pitclipse.core.Mutators;
+import org.pitest.pitclipse.core.launch.MergedModels;
+import org.pitest.pitclipse.core.launch.SurvivorsRerun;
+import org.pitest.pitclipse.runner.model.ClassMutations;
+import org.pitest.pitclipse.runner.model.Mutation;
+import org.pitest.pitclipse.runner.model.MutationsModel;
+import org.pitest.pitclipse.runner.model.MutationsModelVisitor;
+import org.pitest.pitclipse.runner.model.PackageMutations;
+import org.pitest.pitclipse.runner.model.ProjectMutations;
+import org.pitest.pitclipse.runner.model.Status;
+import org.pitest.pitclipse.runner.model.Visitable;
+
+/**
+ * <p>Re-runs the surviving mutants selected in the mutations view.</p>
+ * 
+ * <p>The launch configuration that produced the shown model, recorded as its
+ * {@link MutationsModel#getOrigin() origin}, is launched again, restricted to the
+ * classes and lines of the selected surviving mutants and to the mutators that
+ * produced them. The new statuses of these mutants are merged into the shown
+ * model instead of replacing it.</p>
+ */
+public class RerunSurvivorsAction extends Action implements ISelectionChangedListener {
+
+    private final StructuredViewer viewer;
+
+    /**
+     * Creates a new action re-running the surviving mutants selected in the given viewer.
+     * 
+     * @param viewer
+     *          The viewer showing the mutations.
+     */
+    public RerunSurvivorsAction(StructuredViewer viewer) {
+        super("Re-run Surviving Mutants");
+        this.viewer = viewer;
+        setEnabled(false);
+    }
+
+    @Override
+    public void selectionChanged(SelectionChangedEvent event) {
+        setEnabled(shownModel().flatMap(MutationsModel::getOrigin).isPresent()
+                && !survivorsIn((IStructuredSelection) event.getSelection()).isEmpty());
+    }
+
+    @Override
+    public void run() {
+        SurvivorsRerun rerun = survivorsIn((IStructuredSelection) viewer.getSelection());
+        Optional<MutationsModel> model = shownModel();
+        if (rerun.isEmpty() || !model.isPresent()) {
+            return;
+        }
+        Optional<ILaunchConfiguration> configuration = model.get().getOrigin()
+                                                              .flatMap(RerunSurvivorsAction::launchConfiguration);
+        if (!configuration.isPresent()) {
+            MessageDialog.openInformation(viewer.getControl().getShell(), getText(),
+                    "The PIT launch that produced these mutants cannot be found.");
+            return;
+        }
+        // The shown model keeps being updated by the UI thread: the launch is given a snapshot
+        String mergedModel = MergedModels.INSTANCE.add(MutationsModel.copyOf(model.get()).freeze());
+        Job.create("Re-running surviving mutants", monitor -> {
+            try {
+                rerunConfiguration(configuration.get(), rerun, mergedModel).launch(ILaunchManager.RUN_MODE, monitor);
+            } catch (CoreException e) {
+                return e.getStatus();
+            } finally {
+                // The launch has taken the model, unless it failed before
+                MergedModels.INSTANCE.take(mergedModel);
+            }
+            return org.eclipse.core.runtime.Status.OK_STATUS;
+        }).schedule();
+    }
+
+    private Optional<MutationsModel> shownModel() {
+        Object input = viewer.getInput();
+        return input instanceof MutationsModel ? Optional.of((MutationsModel) input) : Optional.empty();
+    }
+
+    /**
+     * Returns a copy of the given configuration, not meant to be saved, that only
+     * re-runs the given mutants and merges their results into the given model.
+     */
+    private static ILaunchConfiguration rerunConfiguration(ILaunchConfiguration configuration, SurvivorsRerun rerun,
+            String mergedModel) throws CoreException {
+        ILaunchConfigurationWorkingCopy workingCopy = configuration.getWorkingCopy();
+        workingCopy.setAttribute(SurvivorsRerun.ATTR_CLASSES_TO_MUTATE, rerun.getClassesToMutate());
+        workingCopy.setAttribute(SurvivorsRerun.ATTR_INCLUDED_LINES, rerun.getIncludedLines());
+        workingCopy.setAttribute(SurvivorsRerun.ATTR_MERGED_MODEL, mergedModel);
+        Optional<String> mutators = rerun.getMutators();
+        if (mutators.isPresent()) {
+            workingCopy.setAttribute(MUTATOR_GROUP, Mutators.CUSTOM.name());
+            workingCopy.setAttribute(INDIVIDUAL_MUTATORS, mutators.get());
+        }
+        return workingCopy;
+    }
+
+    private static Optional<ILaunchConfiguration> launchConfiguration(String memento) {
+        try {
+            ILaunchConfiguration configuration = DebugPlugin.getDefault().getLaunchManager()
+                                                            .getLaunchConfiguration(memento);
+            return configuration.exists() ? Optional.of(configuration) : Optional.empty();
+        } catch (CoreException e) {
+            // The configuration has been deleted or moved since the launch
+            return Optional.empty();
+        }
+    }
+
+    private static SurvivorsRerun survivorsIn(IStructuredSelection selection) {
+        List<Mutation> mutations = new ArrayList<>();
+        for (Object element : selection.toList()) {
+            if (element instanceof Visitable) {
+                ((Visitable) element).accept(new MutationCollector(mutations));
+            }
+        }
+        return SurvivorsRerun.of(mutations);
+    }
+
+    /**
+     * Collects the mutations found under the visited node.
+     */
+    private static final class MutationCollector implements MutationsModelVisitor<Void> {
+        private final List<Mutation> mutations;
+
+        private MutationCollector(List<Mutation> mutations) {
+            this.mutations = mutations;
+        }
+
+        @Override
+        public Void visitModel(MutationsModel mutationsModel) {
+            mutationsModel.getStatuses().forEach(this::visitStatus);
+            return null;
+        }
+
+        @Override
+        public Void visitStatus(Status status) {
+            status.getProjectMutations().forEach(this::visitProject);
+            return null;
+        }
+
+        @Override
+        public Void visitProject(ProjectMutations projectMutations) {
+            projectMutations.getPackageMutations().forEach(this::visitPackage);
+            return null;
+        }
+
+        @Override
+        public Void visitPackage(PackageMutations packageMutations) {
+            packageMutations.getClassMutations().forEach(this::visitClass);
+            return null;
+        }
+
+        @Override
+        public Void visitClass(ClassMutations classMutations) {
+            mutations.addAll(classMutations.getMutations());
+            return null;
+        }
+
+        @Override
+        public Void visitMutation(Mutation mutation) {
+            mutations.add(mutation);
+            return null;
+        }
+    }
+}
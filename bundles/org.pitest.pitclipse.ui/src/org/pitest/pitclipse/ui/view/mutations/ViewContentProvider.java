@@ -16,7 +16,12 @@
 
 package org.pitest.pitclipse.ui.view.mutations;
 
-import org.eclipse.jface.viewers.ITreeContentProvider;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jface.viewers.ILazyTreeContentProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.Viewer;
 import org.pitest.pitclipse.runner.model.ClassMutations;
 import org.pitest.pitclipse.runner.model.Mutation;
 import org.pitest.pitclipse.runner.model.MutationsModel;
@@ -26,77 +31,87 @@ import org.pitest.pitclipse.runner.model.ProjectMutations;
 import org.pitest.pitclipse.runner.model.Status;
 import org.pitest.pitclipse.runner.model.Visitable;
 
-public class ViewContentProvider implements ITreeContentProvider {
+/**
+ * <p>Provides the nodes of a {@link MutationsModel} to a virtual {@link TreeViewer}.</p>
+ * 
+ * <p>A node is only provided when the corresponding tree item is revealed, and the
+ * number of children of a node is read from the model without building them.</p>
+ */
+public class ViewContentProvider implements ILazyTreeContentProvider {
+
+    private TreeViewer viewer;
 
     @Override
-    public Object[] getElements(Object element) {
-        return handleElementsOrChildren(element);
+    public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+        this.viewer = (TreeViewer) viewer;
     }
 
     @Override
-    public Object[] getChildren(Object element) {
-        return handleElementsOrChildren(element);
+    public void updateElement(Object parent, int index) {
+        List<?> children = childrenOf(parent);
+        if (index < children.size()) {
+            Object child = children.get(index);
+            viewer.replace(parent, index, child);
+            viewer.setChildCount(child, childrenOf(child).size());
+        }
     }
 
-    private Object[] handleElementsOrChildren(Object element) {
-        if (element instanceof Visitable) {
-            Visitable visitable = (Visitable) element;
-            return visitable.accept(Structure.VISITOR);
+    @Override
+    public void updateChildCount(Object element, int currentChildCount) {
+        int childCount = childrenOf(element).size();
+        if (childCount != currentChildCount) {
+            viewer.setChildCount(element, childCount);
         }
-        return nothing();
     }
 
-    @Override
-    public Object getParent(Object element) {
+    private static List<?> childrenOf(Object element) {
         if (element instanceof Visitable) {
             Visitable visitable = (Visitable) element;
-            return visitable.accept(Parent.VISITOR);
+            return visitable.accept(Children.VISITOR);
         }
-        return null;
+        return Collections.emptyList();
     }
 
     @Override
-    public boolean hasChildren(Object element) {
+    public Object getParent(Object element) {
         if (element instanceof Visitable) {
             Visitable visitable = (Visitable) element;
-            Object[] children = visitable.accept(Structure.VISITOR);
-            return children.length > 0;
+            return visitable.accept(Parent.VISITOR);
         }
-        return false;
+        return null;
     }
 
-    private enum Structure implements MutationsModelVisitor<Object[]> {
+    private enum Children implements MutationsModelVisitor<List<?>> {
         VISITOR;
 
         @Override
-        public Object[] visitModel(MutationsModel mutationsModel) {
-            return mutationsModel.getStatuses().toArray();
-
+        public List<?> visitModel(MutationsModel mutationsModel) {
+            return mutationsModel.getStatuses();
         }
 
         @Override
-        public Object[] visitProject(ProjectMutations projectMutations) {
-            return projectMutations.getPackageMutations().toArray();
+        public List<?> visitProject(ProjectMutations projectMutations) {
+            return projectMutations.getPackageMutations();
         }
 
         @Override
-        public Object[] visitPackage(PackageMutations packageMutations) {
-            return packageMutations.getClassMutations().toArray();
+        public List<?> visitPackage(PackageMutations packageMutations) {
+            return packageMutations.getClassMutations();
         }
 
         @Override
-        public Object[] visitClass(ClassMutations classMutations) {
-            return classMutations.getMutations().toArray();
+        public List<?> visitClass(ClassMutations classMutations) {
+            return classMutations.getMutations();
         }
 
         @Override
-        public Object[] visitMutation(Mutation mutation) {
-            return nothing();
+        public List<?> visitMutation(Mutation mutation) {
+            return Collections.emptyList();
         }
 
         @Override
-        public Object[] visitStatus(Status status) {
-            return status.getProjectMutations().toArray();
+        public List<?> visitStatus(Status status) {
+            return status.getProjectMutations();
         }
     }
 
@@ -133,8 +148,4 @@ public class ViewContentProvider implements ITreeContentProvider {
             return mutation.getClassMutations();
         }
     }
-
-    private static final Object[] nothing() {
-        return new Object[0];
-    }
 }
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.ui.view.statistics;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.TreeViewerColumn;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.part.ViewPart;
+import org.pitest.pitclipse.runner.PitResults;
+
+/**
+ * <p>Shows where the time of the latest analysis has been spent: the wall time of
+ * each phase, the resources of the PIT application, the throughput of the minions,
+ * the transfer of the results to Eclipse and the slowest classes and tests.</p>
+ * 
+ * <p>The view can be opened after the analysis: it then shows the latest results
+ * received.</p>
+ */
+public class PitStatisticsView extends ViewPart implements StatisticsView {
+    public static final String VIEW_ID = "org.pitest.pitclipse.ui.view.statistics.PitStatisticsView";
+
+    private static final AtomicReference<PitResults> LATEST_RESULTS = new AtomicReference<>();
+    private static final int NAME_COLUMN_WIDTH = 300;
+    private static final int VALUE_COLUMN_WIDTH = 400;
+
+    private TreeViewer viewer;
+
+    /**
+     * Keeps the given results, to be shown when the view is opened.
+     * 
+     * @param results
+     *          The latest results produced by PIT.
+     */
+    static void remember(PitResults results) {
+        LATEST_RESULTS.set(results);
+    }
+
+    @Override
+    public void createPartControl(Composite parent) {
+        viewer = new TreeViewer(parent, SWT.FULL_SELECTION | SWT.H_SCROLL | SWT.V_SCROLL);
+        viewer.getTree().setHeaderVisible(true);
+        viewer.setContentProvider(RowContentProvider.INSTANCE);
+        addColumn("Statistic", NAME_COLUMN_WIDTH, new ColumnLabelProvider() {
+            @Override
+            public String getText(Object element) {
+                return ((StatisticsRow) element).getName();
+            }
+        });
+        addColumn("Value", VALUE_COLUMN_WIDTH, new ColumnLabelProvider() {
+            @Override
+            public String getText(Object element) {
+                return ((StatisticsRow) element).getValue();
+            }
+        });
+        PitResults results = LATEST_RESULTS.get();
+        if (results != null) {
+            show(results);
+        }
+    }
+
+    private void addColumn(String title, int width, ColumnLabelProvider labelProvider) {
+        TreeViewerColumn column = new TreeViewerColumn(viewer, SWT.LEFT);
+        column.getColumn().setText(title);
+        column.getColumn().setWidth(width);
+        column.setLabelProvider(labelProvider);
+    }
+
+    @Override
+    public void setFocus() {
+        viewer.getControl().setFocus();
+    }
+
+    @Override
+    public void update(PitResults results) {
+        Display.getDefault().asyncExec(() -> {
+            if (!viewer.getControl().isDisposed()) {
+                show(results);
+            }
+        });
+    }
+
+    private void show(PitResults results) {
+        viewer.setInput(StatisticsRow.from(results));
+        viewer.expandAll();
+    }
+
+    /**
+     * Provides the rows of the view, given as a list of top-level rows.
+     */
+    private enum RowContentProvider implements ITreeContentProvider {
+        INSTANCE;
+
+        @Override
+        public Object[] getElements(Object input) {
+            return ((List<?>) input).toArray();
+        }
+
+        @Override
+        public Object[] getChildren(Object parent) {
+            return ((StatisticsRow) parent).getChildren().toArray();
+        }
+
+        @Override
+        public Object getParent(Object element) {
+            return null;
+        }
+
+        @Override
+        public boolean hasChildren(Object element) {
+            return !((StatisticsRow) element).getChildren().isEmpty();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.ui.view.statistics;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.pitest.pitclipse.runner.PitResults;
+import org.pitest.pitclipse.runner.RunStatistics;
+import org.pitest.pitclipse.runner.RunStatistics.ClassStatistics;
+import org.pitest.pitclipse.runner.RunStatistics.Phase;
+import org.pitest.pitclipse.runner.RunStatistics.TestStatistics;
+import org.pitest.pitclipse.runner.TransferStatistics;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * <p>A row of the <i>PIT Run Statistics</i> view: a named value, possibly
+ * grouping other rows.</p>
+ * 
+ * <p>The share of each phase is computed from the phases that run one after
+ * the other; the reports are written while the mutants are analyzed, so their
+ * time is shown without a share.</p>
+ */
+final class StatisticsRow {
+    private static final double MEGABYTE = 1024.0 * 1024.0;
+    private static final ImmutableList<Phase> SEQUENTIAL_PHASES = ImmutableList.of(Phase.CLASSPATH_SCAN,
+            Phase.COVERAGE, Phase.MUTANT_GENERATION, Phase.ANALYSIS);
+
+    private final String name;
+    private final String value;
+    private final ImmutableList<StatisticsRow> children;
+
+    private StatisticsRow(String name, String value, List<StatisticsRow> children) {
+        this.name = name;
+        this.value = value;
+        this.children = ImmutableList.copyOf(children);
+    }
+
+    private static StatisticsRow row(String name, String value) {
+        return new StatisticsRow(name, value, ImmutableList.of());
+    }
+
+    private static StatisticsRow group(String name, List<StatisticsRow> children) {
+        return new StatisticsRow(name, "", children);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getValue() {
+        return value;
+    }
+
+    ImmutableList<StatisticsRow> getChildren() {
+        return children;
+    }
+
+    /**
+     * @param results
+     *          The results of an analysis.
+     * @return the rows describing the statistics of the analysis
+     */
+    static ImmutableList<StatisticsRow> from(PitResults results) {
+        RunStatistics run = results.getRunStatistics();
+        if (run.isEmpty()) {
+            return ImmutableList.of(row("No statistics", "The analysis was not run in process"));
+        }
+        return ImmutableList.of(
+                group("Phases", phases(run)),
+                group("Coordinator JVM", ImmutableList.of(
+                        row("Peak heap", String.format(Locale.ROOT, "%.1f MB", run.getPeakHeapBytes() / MEGABYTE)),
+                        row("GC time", duration(run.getGcMillis())))),
+                group("Throughput", ImmutableList.of(
+                        row("Threads", Integer.toString(run.getThreads())),
+                        row("Mutants analyzed", Long.toString(run.getMutantsAnalyzed())),
+                        row("Mutants per second per thread",
+                                String.format(Locale.ROOT, "%.2f", run.getMutantsPerSecondPerThread())))),
+                group("Transfer", transfer(results.getTransferStatistics())),
+                group("Slowest classes", slowestClasses(run)),
+                group("Slowest tests", slowestTests(run)));
+    }
+
+    private static List<StatisticsRow> phases(RunStatistics run) {
+        long sequentialMillis = 0;
+        for (Phase phase : SEQUENTIAL_PHASES) {
+            sequentialMillis += run.getMillis(phase);
+        }
+        ImmutableList.Builder<StatisticsRow> rows = ImmutableList.builder();
+        for (Phase phase : SEQUENTIAL_PHASES) {
+            long millis = run.getMillis(phase);
+            double share = sequentialMillis == 0 ? 0 : 100.0 * millis / sequentialMillis;
+            rows.add(row(phase.getDescription(),
+                    duration(millis) + String.format(Locale.ROOT, " (%.0f%%)", share)));
+        }
+        rows.add(row(Phase.REPORT_WRITING.getDescription(), duration(run.getMillis(Phase.REPORT_WRITING))));
+        rows.add(row("Pitclipse listeners", duration(run.getListenerMillis())));
+        return rows.build();
+    }
+
+    private static List<StatisticsRow> transfer(TransferStatistics transfer) {
+        return ImmutableList.of(
+                row("Frames", transfer.getFrames() + " (" + transfer.getCompressedFrames() + " compressed)"),
+                row("Bytes", transfer.getTransferredBytes() + " sent for " + transfer.getRawBytes()
+                        + String.format(Locale.ROOT, " (ratio %.2f)", transfer.getCompressionRatio())));
+    }
+
+    private static List<StatisticsRow> slowestClasses(RunStatistics run) {
+        ImmutableList.Builder<StatisticsRow> rows = ImmutableList.builder();
+        for (ClassStatistics slowClass : run.getSlowestClasses()) {
+            rows.add(row(slowClass.getClassName(), "~" + duration(slowClass.getEstimatedMillis()) + ", "
+                    + slowClass.getMutants() + " mutants, " + slowClass.getTestsRun() + " tests run, "
+                    + slowClass.getTimedOut() + " timed out"));
+        }
+        return rows.build();
+    }
+
+    private static List<StatisticsRow> slowestTests(RunStatistics run) {
+        ImmutableList.Builder<StatisticsRow> rows = ImmutableList.builder();
+        for (TestStatistics slowTest : run.getSlowestTests()) {
+            rows.add(row(slowTest.getTestName(), duration(slowTest.getMillis())));
+        }
+        return rows.build();
+    }
+
+    private static String duration(long millis) {
+        if (millis < 1000) {
+            return millis + " ms";
+        }
+        return String.format(Locale.ROOT, "%.1f s", millis / 1000.0);
+    }
+}
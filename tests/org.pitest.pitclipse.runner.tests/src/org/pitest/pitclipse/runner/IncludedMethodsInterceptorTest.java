@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Test;
+import org.pitest.classinfo.ClassName;
+import org.pitest.mutationtest.engine.Location;
+import org.pitest.mutationtest.engine.MethodName;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.MutationIdentifier;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class IncludedMethodsInterceptorTest {
+
+    private final IncludedMethodsInterceptor interceptor = new IncludedMethodsInterceptor(
+            ImmutableList.of("doFoo", "lambda$doFoo$*"));
+
+    @Test
+    public void mutantsOutsideOfIncludedMethodsAreDiscarded() {
+        List<MutationDetails> mutations = ImmutableList.of(aMutant("doFoo", 10), aMutant("doBar", 11),
+                aMutant("doFoo", 12));
+
+        assertThat(linesOf(interceptor.intercept(mutations, null)), is(equalTo(ImmutableList.of(10, 12))));
+    }
+
+    @Test
+    public void methodsAreMatchedByGlobs() {
+        List<MutationDetails> mutations = ImmutableList.of(aMutant("lambda$doFoo$0", 10),
+                aMutant("lambda$doBar$0", 11), aMutant("doFooAgain", 12));
+
+        assertThat(linesOf(interceptor.intercept(mutations, null)), is(equalTo(ImmutableList.of(10))));
+    }
+
+    private static MutationDetails aMutant(String mutatedMethod, int line) {
+        Location location = new Location(ClassName.fromString("org.example.Foo"),
+                MethodName.fromString(mutatedMethod), "()V");
+        return new MutationDetails(new MutationIdentifier(location, 0, "SomeMutator"), "Foo.java",
+                "replaced return value", line, 0);
+    }
+
+    private static List<Integer> linesOf(Collection<MutationDetails> mutations) {
+        ImmutableList.Builder<Integer> lines = ImmutableList.builder();
+        for (MutationDetails mutation : mutations) {
+            lines.add(mutation.getLineNumber());
+        }
+        return lines.build();
+    }
+}
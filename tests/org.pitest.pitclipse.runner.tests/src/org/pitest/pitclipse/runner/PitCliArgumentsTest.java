@@ -263,7 +263,7 @@ public class PitCliArgumentsTest {
             resultBuilder.addAll(addIfKnown("--targetClasses", targetClasses));
             resultBuilder.addAll(addIfKnown("--sourceDirs", sourceDirs));
             resultBuilder.addAll(addIfKnown("--historyInputLocation", historyLocation));
-            resultBuilder.addAll(addIfKnown("--historyOutputLocation", historyLocation));
+            resultBuilder.addAll(addIfKnown("--historyOutputLocation", pendingHistoryLocation()));
             resultBuilder.addAll(addIfKnown("--excludedClasses", excludedClasses));
             resultBuilder.addAll(addIfKnown("--excludedMethods", excludedMethods));
             resultBuilder.addAll(addIfKnown("--avoidCallsTo", avoidCallsTo));
@@ -356,6 +356,13 @@ public class PitCliArgumentsTest {
             return ImmutableList.of(param, someValue);
         }
 
+        private File pendingHistoryLocation() {
+            if (null == historyLocation) {
+                return null;
+            }
+            return new File(historyLocation.getPath() + PitOptions.PENDING_HISTORY_SUFFIX);
+        }
+
         private List<String> addIfKnown(String param, File someFile) {
             if (null == someFile) {
                 return ImmutableList.of();
@@ -17,6 +17,8 @@
 package org.pitest.pitclipse.runner;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -148,6 +150,23 @@ public class PitOptionsTest {
         assertEquals(TEST_CLASS1, options.getClassUnderTest());
     }
 
+    @Test
+    public void includedLinesAreKept() {
+        PitOptions options = PitOptions.builder().withSourceDirectory(testSrcDir).withClassUnderTest(TEST_CLASS1)
+                .withIncludedLines(ImmutableSetMultimap.of(TEST_CLASS2, 12, TEST_CLASS2, 13)).build();
+        assertEquals(ImmutableSet.of(12, 13), options.getIncludedLines().get(TEST_CLASS2));
+        assertTrue(options.getIncludedLines().get(TEST_CLASS1).isEmpty());
+    }
+
+    @Test
+    public void includedMethodsAreKept() {
+        PitOptions options = PitOptions.builder().withSourceDirectory(testSrcDir).withClassUnderTest(TEST_CLASS1)
+                .withIncludedMethods(ImmutableList.of("doFoo", "lambda$doFoo$*")).build();
+        assertEquals(ImmutableList.of("doFoo", "lambda$doFoo$*"), options.getIncludedMethods());
+        assertTrue(PitOptions.builder().withSourceDirectory(testSrcDir).withClassUnderTest(TEST_CLASS1).build()
+                .getIncludedMethods().isEmpty());
+    }
+
     @Test
     public void testPackagesSupplied() {
         PitOptions options = PitOptions.builder().withSourceDirectory(testSrcDir).withPackagesToTest(PACKAGES)
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pitest.mutationtest.config.ReportOptions;
+
+import java.io.File;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.junit.Assert.assertTrue;
+
+public class PitReportOptionsTest {
+
+    private static final String TEST_CLASS = PitOptionsTest.class.getCanonicalName();
+    private static final List<String> CLASSES_TO_MUTATE = ImmutableList.of("org.example.Foo", " org.example.Bar");
+    private static final List<String> PACKAGES = ImmutableList.of("org.example.*", "org.other.*");
+    private static final List<String> EXCLUDED_CLASSES = ImmutableList.of("com*ITest", "*IntTest");
+    private static final List<String> EXCLUDED_METHODS = ImmutableList.of("*toString*", "leaveMeAlone*");
+    private static final String MUTATORS = "FOO, BAR";
+
+    private final FileSystemSupport fileSystemSupport = new FileSystemSupport();
+
+    private final File testSrcDir = fileSystemSupport.randomDir();
+    private final File reportDir = fileSystemSupport.randomDir();
+
+    private ReportOptions reportOptions;
+
+    @Before
+    public void setup() {
+        for (File dir : ImmutableList.of(testSrcDir, reportDir)) {
+            assertTrue("Could not create directories for test", dir.mkdirs());
+            dir.deleteOnExit();
+        }
+    }
+
+    @Test
+    public void optionsAreGivenToPit() {
+        PitOptions options = PitOptions.builder().withSourceDirectory(testSrcDir).withClassUnderTest(TEST_CLASS)
+                .withClassesToMutate(CLASSES_TO_MUTATE).withReportDirectory(reportDir)
+                .withExcludedClasses(EXCLUDED_CLASSES).withExcludedMethods(EXCLUDED_METHODS)
+                .withMutators(MUTATORS).withThreads(3).build();
+        whenReportOptionsAreMadeFrom(options);
+        assertThat(reportOptions.getReportDir(), is(equalTo(reportDir.getPath())));
+        assertThat(reportOptions.getSourceDirs(), hasItems(testSrcDir));
+        assertThat(reportOptions.getTargetClasses(), hasItems("org.example.Foo", "org.example.Bar"));
+        assertThat(reportOptions.getTargetTestsFilter().test(TEST_CLASS), is(true));
+        assertThat(reportOptions.getExcludedClasses(), hasItems("com*ITest", "*IntTest"));
+        assertThat(reportOptions.getExcludedMethods(), hasItems("*toString*", "leaveMeAlone*"));
+        assertThat(reportOptions.getMutators(), is(equalTo(ImmutableList.of("FOO", "BAR"))));
+        assertThat(reportOptions.getNumberOfThreads(), is(3));
+        assertThat(reportOptions.getTimeoutConstant(), is(3000L));
+        assertThat(reportOptions.getTestPlugin(), is(equalTo("junit")));
+    }
+
+    @Test
+    public void reportsAreNotTimestamped() {
+        PitOptions options = PitOptions.builder().withSourceDirectory(testSrcDir).withClassUnderTest(TEST_CLASS)
+                .withReportDirectory(reportDir).build();
+        whenReportOptionsAreMadeFrom(options);
+        assertThat(reportOptions.shouldCreateTimeStampedReports(), is(false));
+    }
+
+    @Test
+    public void packagesAreUsedToFindTests() {
+        PitOptions options = PitOptions.builder().withSourceDirectory(testSrcDir).withPackagesToTest(PACKAGES)
+                .withReportDirectory(reportDir).build();
+        whenReportOptionsAreMadeFrom(options);
+        assertThat(reportOptions.getTargetTestsFilter().test("org.other.SomeTest"), is(true));
+        assertThat(reportOptions.getTargetTestsFilter().test("org.unknown.SomeTest"), is(false));
+    }
+
+    @Test
+    public void emptyMutatorsLetPitUseItsDefaults() {
+        PitOptions options = PitOptions.builder().withSourceDirectory(testSrcDir).withClassUnderTest(TEST_CLASS)
+                .withReportDirectory(reportDir).withMutators("").withAvoidCallsTo(emptyList()).build();
+        whenReportOptionsAreMadeFrom(options);
+        assertThat(reportOptions.getMutators(), is(empty()));
+        assertThat(reportOptions.getLoggingClasses(), is(equalTo(new ReportOptions().getLoggingClasses())));
+    }
+
+    @Test
+    public void junit5PluginIsUsedWhenRequired() {
+        PitOptions options = PitOptions.builder().withSourceDirectory(testSrcDir).withClassUnderTest(TEST_CLASS)
+                .withReportDirectory(reportDir).withUseJUnit5(true).build();
+        whenReportOptionsAreMadeFrom(options);
+        assertThat(reportOptions.getTestPlugin(), is(equalTo("junit5")));
+    }
+
+    private void whenReportOptionsAreMadeFrom(PitOptions options) {
+        reportOptions = PitReportOptions.from(options);
+    }
+}
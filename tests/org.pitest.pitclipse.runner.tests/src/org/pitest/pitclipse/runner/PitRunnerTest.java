@@ -19,11 +19,13 @@ package org.pitest.pitclipse.runner;
 import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toSet;
 import static org.eclipse.core.runtime.FileLocator.getBundleFile;
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 
@@ -33,6 +35,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -84,6 +88,36 @@ public class PitRunnerTest {
         assertThat(results, is(serializable()));
     }
 
+    @Test
+    public void shouldMeasureWhereTheTimeOfTheAnalysisIsSpent() throws IOException {
+        PitRequest request = PitRequest.builder()
+            .withPitOptions(
+                options(
+                    PitOptionsTest.class.getCanonicalName(),
+                    asList("org.pitest.pitclipse.runner.*")))
+            .withProjects(PROJECTS).build();
+        PitResults results = new PitRunner().apply(request);
+        RunStatistics statistics = results.getRunStatistics();
+        assertThat(statistics.getMutantsAnalyzed(), is((long) results.getMutations().getMutation().size()));
+        assertThat(statistics.getThreads(), is(greaterThan(0)));
+        assertThat(statistics.getPeakHeapBytes(), is(greaterThan(0L)));
+        assertThat(statistics.getSlowestClasses(), not(empty()));
+    }
+
+    @Test
+    public void shouldRunPitestThroughTheCommandLine() throws IOException {
+        PitRequest request = PitRequest.builder()
+            .withPitOptions(
+                options(
+                    PitOptionsTest.class.getCanonicalName(),
+                    asList("org.pitest.pitclipse.runner.*")))
+            .withProjects(PROJECTS).build();
+        PitResults results = new PitRunner(CommandLinePitEngine.INSTANCE, classResults -> { }).apply(request);
+        assertThat(results, is(notNullValue()));
+        assertThat(results.getHtmlResultFile(), is(aFileThatExists()));
+        assertThat(results.getMutations().getMutation(), not(empty()));
+    }
+
     @Test
     public void shouldRunPitestEvenWhenNoMutant() throws IOException {
         PitRequest request = PitRequest.builder()
@@ -100,6 +134,33 @@ public class PitRunnerTest {
         assertThat(results, is(serializable()));
     }
 
+    @Test
+    public void shouldReplaceHistoryOnceTheAnalysisCompleted() throws IOException {
+        PitOptions options = optionsWithHistory();
+        write(options.getHistoryLocation(), "previous history");
+        write(options.getPendingHistoryLocation(), "new history");
+        PitRunner runner = new PitRunner((request, dispatcher) -> PitResults.builder().build(), classResults -> { });
+
+        runner.apply(PitRequest.builder().withPitOptions(options).withProjects(PROJECTS).build());
+
+        assertThat(read(options.getHistoryLocation()), is(equalTo("new history")));
+        assertThat(options.getPendingHistoryLocation().exists(), is(false));
+    }
+
+    @Test
+    public void shouldKeepHistoryWhenTheAnalysisIsCancelled() throws IOException {
+        PitOptions options = optionsWithHistory();
+        write(options.getHistoryLocation(), "previous history");
+        write(options.getPendingHistoryLocation(), "partial history");
+        PitRunner runner = new PitRunner((request, dispatcher) -> PitResults.builder().withPartial(true).build(),
+                classResults -> { });
+
+        runner.apply(PitRequest.builder().withPitOptions(options).withProjects(PROJECTS).build(),
+                new PitCancellation());
+
+        assertThat(read(options.getHistoryLocation()), is(equalTo("previous history")));
+    }
+
     @Test 
     public void shouldFindAllAvailableMutationResultListeners() {
         ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
@@ -155,6 +216,24 @@ public class PitRunnerTest {
                        .build();
     }
     
+    private static PitOptions optionsWithHistory() throws IOException {
+        File history = Files.createTempDirectory("history").resolve("history.out").toFile();
+        return PitOptions.builder()
+            .withSourceDirectory(new File(System.getProperty("user.dir") + File.separator + "src"))
+            .withClassUnderTest(EmptyClass.class.getCanonicalName())
+            .withClassesToMutate(asList("org.pitest.pitclipse.example.empty.*"))
+            .withHistoryLocation(history)
+            .build();
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
     private static List<String> classPathWithPitestAndJUnit() throws IOException {
         final String jarDir = "lib";
         return asList(
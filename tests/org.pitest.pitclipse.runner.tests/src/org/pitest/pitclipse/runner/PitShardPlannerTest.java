@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+public class PitShardPlannerTest {
+
+    private static final List<String> CLASSES = ImmutableList.of("A", "B", "C", "D", "E", "F");
+
+    @Test
+    public void classesAreNotSplitWhenASingleShardIsRequired() {
+        List<List<String>> shards = PitShardPlanner.split(CLASSES, 1, Collections.emptyMap());
+        assertThat(shards, is(equalTo(ImmutableList.of(CLASSES))));
+    }
+
+    @Test
+    public void thereAreNeverMoreShardsThanClasses() {
+        List<List<String>> shards = PitShardPlanner.split(ImmutableList.of("A", "B"), 4, Collections.emptyMap());
+        assertThat(shards.size(), is(2));
+    }
+
+    @Test
+    public void unknownClassesAreEvenlySplit() {
+        List<List<String>> shards = PitShardPlanner.split(CLASSES, 3, Collections.emptyMap());
+        assertThat(shards.size(), is(3));
+        for (List<String> shard : shards) {
+            assertThat(shard.size(), is(2));
+        }
+    }
+
+    @Test
+    public void shardsAreBalancedAccordingToPreviousMutantCounts() {
+        Map<String, Integer> mutantCounts = ImmutableMap.<String, Integer>builder()
+                .put("A", 100).put("B", 10).put("C", 10).put("D", 10).put("E", 10).put("F", 60)
+                .build();
+        List<List<String>> shards = PitShardPlanner.split(CLASSES, 2, mutantCounts);
+        assertThat(shards.get(0), containsInAnyOrder("A"));
+        assertThat(shards.get(1), containsInAnyOrder("F", "B", "C", "D", "E"));
+    }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+
+package org.pitest.pitclipse.runner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.pitest.mutationtest.ClassMutationResults;
+import org.pitest.mutationtest.MutationResultListener;
+import org.pitest.mutationtest.config.ReportOptions;
+import org.pitest.pitclipse.runner.RunStatistics.Phase;
+
+public class RunInstrumentationTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final RunInstrumentation instrumentation = new RunInstrumentation(options(), nanos::get);
+
+    @Test
+    public void theTimeOfAnAnalysisIsSplitByPhase() {
+        instrumentation.start();
+        elapse(100);
+        instrumentation.buildStarted(null);
+        elapse(30);
+        instrumentation.phaseMarker().end();
+        elapse(200);
+        instrumentation.minionLaunching();
+        elapse(1000);
+        instrumentation.buildStarted(null);
+        elapse(50);
+        // the main build marks the classes too, and minions are launched to analyze the mutants
+        instrumentation.phaseMarker().end();
+        instrumentation.minionLaunching();
+        instrumentation.runStart();
+        elapse(4000);
+        instrumentation.minionLaunching();
+        instrumentation.runEnd();
+        instrumentation.reportWriting(listenerTaking(70)).runEnd();
+        instrumentation.pitclipseListener(listenerTaking(20)).runEnd();
+
+        RunStatistics statistics = instrumentation.toStatistics();
+
+        assertThat(statistics.getMillis(Phase.CLASSPATH_SCAN), is(300L));
+        assertThat(statistics.getMillis(Phase.MUTANT_GENERATION), is(80L));
+        assertThat(statistics.getMillis(Phase.COVERAGE), is(1000L));
+        assertThat(statistics.getMillis(Phase.ANALYSIS), is(4000L));
+        assertThat(statistics.getMillis(Phase.REPORT_WRITING), is(70L));
+        assertThat(statistics.getListenerMillis(), is(20L));
+        assertThat(statistics.getThreads(), is(2));
+    }
+
+    @Test
+    public void anAnalysisWithoutMutantsOnlyScansTheClasspath() {
+        instrumentation.start();
+        elapse(100);
+        instrumentation.buildStarted(null);
+        elapse(30);
+        instrumentation.phaseMarker().end();
+        elapse(10);
+
+        RunStatistics statistics = instrumentation.toStatistics();
+
+        assertThat(statistics.getMillis(Phase.CLASSPATH_SCAN), is(100L));
+        assertThat(statistics.getMillis(Phase.MUTANT_GENERATION), is(30L));
+        assertThat(statistics.getMillis(Phase.COVERAGE), is(0L));
+        assertThat(statistics.getMillis(Phase.ANALYSIS), is(0L));
+    }
+
+    private void elapse(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private MutationResultListener listenerTaking(long millis) {
+        return new MutationResultListener() {
+            @Override
+            public void runStart() {
+                // nothing to do
+            }
+
+            @Override
+            public void handleMutationResult(ClassMutationResults results) {
+                // nothing to do
+            }
+
+            @Override
+            public void runEnd() {
+                elapse(millis);
+            }
+        };
+    }
+
+    private static ReportOptions options() {
+        ReportOptions options = new ReportOptions();
+        options.setNumberOfThreads(2);
+        return options;
+    }
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+import org.pitest.pitclipse.runner.RunStatistics.ClassStatistics;
+import org.pitest.pitclipse.runner.RunStatistics.Phase;
+import org.pitest.pitclipse.runner.RunStatistics.TestStatistics;
+
+import com.google.common.collect.ImmutableList;
+
+public class RunStatisticsTest {
+
+    @Test
+    public void emptyStatisticsHaveNoThroughput() {
+        assertThat(RunStatistics.NONE.getMillis(Phase.ANALYSIS), is(0L));
+        assertThat(RunStatistics.NONE.getMutantsPerSecondPerThread(), is(0.0));
+        assertThat(RunStatistics.NONE.isEmpty(), is(true));
+    }
+
+    @Test
+    public void statisticsOfShardsAreCombined() {
+        RunStatistics first = RunStatistics.builder()
+                .withMillis(Phase.COVERAGE, 1000)
+                .withMillis(Phase.ANALYSIS, 2000)
+                .withPeakHeapBytes(100)
+                .withGcMillis(10)
+                .withThreads(1)
+                .withMutantsAnalyzed(20)
+                .withSlowestClasses(ImmutableList.of(aClassCosting(300), aClassCosting(100)))
+                .build();
+        RunStatistics second = RunStatistics.builder()
+                .withMillis(Phase.COVERAGE, 3000)
+                .withMillis(Phase.ANALYSIS, 1000)
+                .withPeakHeapBytes(50)
+                .withGcMillis(5)
+                .withThreads(1)
+                .withMutantsAnalyzed(20)
+                .withSlowestClasses(ImmutableList.of(aClassCosting(200)))
+                .build();
+
+        RunStatistics combined = first.combine(second);
+
+        assertThat(combined.getMillis(Phase.COVERAGE), is(3000L));
+        assertThat(combined.getMillis(Phase.ANALYSIS), is(2000L));
+        assertThat(combined.getPeakHeapBytes(), is(150L));
+        assertThat(combined.getGcMillis(), is(15L));
+        assertThat(combined.getThreads(), is(2));
+        assertThat(combined.getMutantsPerSecondPerThread(), is(10.0));
+        assertThat(combined.getSlowestClasses().get(0).getEstimatedMillis(), is(300L));
+        assertThat(combined.getSlowestClasses().get(1).getEstimatedMillis(), is(200L));
+        assertThat(combined.getSlowestClasses().get(2).getEstimatedMillis(), is(100L));
+    }
+
+    @Test
+    public void onlyTheSlowestClassesAreKept() {
+        ImmutableList.Builder<ClassStatistics> classes = ImmutableList.builder();
+        for (int i = 0; i < RunStatistics.SLOWEST_COUNT; i++) {
+            classes.add(aClassCosting(i));
+        }
+        RunStatistics statistics = RunStatistics.builder().withSlowestClasses(classes.build()).build();
+
+        RunStatistics combined = statistics.combine(statistics);
+
+        assertThat(combined.getSlowestClasses().size(), is(equalTo(RunStatistics.SLOWEST_COUNT)));
+        assertThat(combined.getSlowestClasses().get(0).getEstimatedMillis(),
+                is((long) RunStatistics.SLOWEST_COUNT - 1));
+    }
+
+    @Test
+    public void testsRunBySeveralShardsAreListedOnceWithTheirLongestTime() {
+        RunStatistics first = RunStatistics.builder()
+                .withSlowestTests(ImmutableList.of(new TestStatistics("shared", 30), new TestStatistics("first", 20)))
+                .build();
+        RunStatistics second = RunStatistics.builder()
+                .withSlowestTests(ImmutableList.of(new TestStatistics("shared", 50), new TestStatistics("second", 10)))
+                .build();
+
+        RunStatistics combined = first.combine(second);
+
+        assertThat(combined.getSlowestTests().size(), is(3));
+        assertThat(combined.getSlowestTests().get(0).getTestName(), is("shared"));
+        assertThat(combined.getSlowestTests().get(0).getMillis(), is(50L));
+        assertThat(combined.getSlowestTests().get(1).getTestName(), is("first"));
+        assertThat(combined.getSlowestTests().get(2).getTestName(), is("second"));
+    }
+
+    private static ClassStatistics aClassCosting(long estimatedMillis) {
+        return new ClassStatistics("org.example.Class" + estimatedMillis, 1, 1, 0, estimatedMillis);
+    }
+}
@@ -24,14 +24,21 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.pitest.pitclipse.runner.AbstractPitRunnerTest;
+import org.pitest.pitclipse.runner.PitCancelRequest;
+import org.pitest.pitclipse.runner.PitCancellation;
+import org.pitest.pitclipse.runner.PitClassResults;
 import org.pitest.pitclipse.runner.PitRequest;
 import org.pitest.pitclipse.runner.PitResults;
 import org.pitest.pitclipse.runner.PitRunnerTestContext;
+import org.pitest.pitclipse.runner.io.ConnectionClosedException;
 import org.pitest.pitclipse.runner.io.ObjectStreamSocket;
 import org.pitest.pitclipse.runner.io.SocketProvider;
+import org.pitest.pitclipse.runner.results.ObjectFactory;
 
+import java.io.EOFException;
 import java.io.IOException;
 
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -72,6 +79,55 @@ public class PitClientTest extends AbstractPitRunnerTest {
         thenTheResultsAreSent();
     }
 
+    @Test
+    public void clientSendsClassResultsWhileAnalysisIsRunning() {
+        givenThePortNumber(PORT);
+        whenThePitClientIsStarted();
+        PitClassResults classResults = PitClassResults.from("Foo", new ObjectFactory().createMutations());
+        context.getPitClient().sendClassResults(classResults);
+        verify(connectionSocket).write(classResults);
+    }
+
+    @Test
+    public void noRequestIsReadOnceTheServerHasClosedTheConnection() {
+        givenThePortNumber(PORT);
+        whenThePitClientIsStarted();
+        when(connectionSocket.read()).thenThrow(new ConnectionClosedException(new EOFException()));
+        assertThat(context.getPitClient().readNextRequest().isPresent(), is(false));
+    }
+
+    @Test
+    public void cancelRequestCancelsTheRunningAnalysis() {
+        givenThePortNumber(PORT);
+        whenThePitClientIsStarted();
+        when(connectionSocket.read()).thenReturn(PitCancelRequest.INSTANCE, REQUEST);
+        PitCancellation cancellation = context.getPitClient().listenForCancellation();
+        Optional<PitRequest> nextRequest = context.getPitClient().readNextRequest();
+        assertThat(cancellation.isCancelled(), is(true));
+        assertThat(nextRequest.get(), areEqualTo(REQUEST));
+    }
+
+    @Test
+    public void analysisIsNotCancelledByTheNextRequest() {
+        givenThePortNumber(PORT);
+        whenThePitClientIsStarted();
+        when(connectionSocket.read()).thenReturn(REQUEST);
+        PitCancellation cancellation = context.getPitClient().listenForCancellation();
+        Optional<PitRequest> nextRequest = context.getPitClient().readNextRequest();
+        assertThat(cancellation.isCancelled(), is(false));
+        assertThat(nextRequest.get(), areEqualTo(REQUEST));
+    }
+
+    @Test
+    public void closingTheConnectionCancelsTheRunningAnalysis() {
+        givenThePortNumber(PORT);
+        whenThePitClientIsStarted();
+        when(connectionSocket.read()).thenThrow(new ConnectionClosedException(new EOFException()));
+        PitCancellation cancellation = context.getPitClient().listenForCancellation();
+        assertThat(context.getPitClient().readNextRequest().isPresent(), is(false));
+        assertThat(cancellation.isCancelled(), is(true));
+    }
+
     @Test
     public void closingClientClosesTheSocket() throws IOException {
         givenThePortNumber(PORT);
@@ -18,16 +18,22 @@ package org.pitest.pitclipse.runner.client;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.pitest.pitclipse.runner.PitClassResults;
 import org.pitest.pitclipse.runner.PitOptions;
 import org.pitest.pitclipse.runner.PitRequest;
 import org.pitest.pitclipse.runner.PitResults;
+import org.pitest.pitclipse.runner.results.ObjectFactory;
 import org.pitest.pitclipse.runner.server.PitServer;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -44,6 +50,12 @@ public class PitCommunicatorTest {
 
     private static final PitResults RESULTS = null;
 
+    private static final PitResults RESULTS_OF_AVAILABLE_RUNNER = PitResults.builder().withRunnerAvailable(true)
+            .build();
+
+    private static final PitClassResults CLASS_RESULTS = PitClassResults.from("Test Class",
+            new ObjectFactory().createMutations());
+
     @Mock
     private PitServer server;
 
@@ -57,6 +69,20 @@ public class PitCommunicatorTest {
         thenTheResultsAreHandled();
     }
 
+    @Test
+    public void classResultsAreForwardedToTheHandler() throws IOException {
+        whenPitCommunicatorIsRunAndClassResultsAreStreamed();
+        thenTheServerIsCalled();
+        thenTheClassResultsAreHandledBeforeTheResults();
+    }
+
+    @Test
+    public void connectionIsKeptOpenWhileTheRunnerIsAvailable() throws IOException {
+        givenTheServerIsAlreadyConnected();
+        whenPitCommunicatorIsRunByADaemon();
+        thenTheRequestIsSentWithoutListeningNorClosing();
+    }
+
     @Test(expected = RuntimeException.class)
     public void clientIsClosedOnException() throws IOException {
         try {
@@ -68,13 +94,33 @@ public class PitCommunicatorTest {
     }
 
     private void whenPitCommunicatorIsRun() {
-        when(server.receiveResults()).thenReturn(RESULTS);
+        when(server.receiveResults(any(), any())).thenReturn(RESULTS);
+        PitCommunicator communicator = new PitCommunicator(server, REQUEST, handler);
+        communicator.run();
+    }
+
+    private void whenPitCommunicatorIsRunAndClassResultsAreStreamed() {
+        when(server.receiveResults(any(), any())).thenAnswer(invocation -> {
+            Consumer<PitClassResults> classResultsHandler = invocation.getArgument(0);
+            classResultsHandler.accept(CLASS_RESULTS);
+            return RESULTS;
+        });
         PitCommunicator communicator = new PitCommunicator(server, REQUEST, handler);
         communicator.run();
     }
 
+    private void givenTheServerIsAlreadyConnected() {
+        when(server.isConnected()).thenReturn(true);
+    }
+
+    private void whenPitCommunicatorIsRunByADaemon() {
+        when(server.receiveResults(any(), any())).thenReturn(RESULTS_OF_AVAILABLE_RUNNER);
+        PitCommunicator communicator = new PitCommunicator(server, REQUEST, handler, true);
+        communicator.run();
+    }
+
     private void whenPitCommunicatorGetsAnError() {
-        when(server.receiveResults()).thenThrow(new RuntimeException("Boom"));
+        when(server.receiveResults(any(), any())).thenThrow(new RuntimeException("Boom"));
         PitCommunicator communicator = new PitCommunicator(server, REQUEST, handler);
         communicator.run();
     }
@@ -82,16 +128,31 @@ public class PitCommunicatorTest {
     private void thenTheServerIsCalled() throws IOException {
         verify(server).listen();
         verify(server).sendRequest(REQUEST);
-        verify(server).receiveResults();
+        verify(server).receiveResults(any(), any());
         verify(server).close();
         verifyNoMoreInteractions(server);
     }
 
+    private void thenTheRequestIsSentWithoutListeningNorClosing() {
+        verify(server).isConnected();
+        verify(server).sendRequest(REQUEST);
+        verify(server).receiveResults(any(), any());
+        verifyNoMoreInteractions(server);
+        verify(handler).handle(RESULTS_OF_AVAILABLE_RUNNER);
+    }
+
     private void thenTheResultsAreHandled() {
         verify(handler).handle(RESULTS);
         verifyNoMoreInteractions(handler);
     }
 
+    private void thenTheClassResultsAreHandledBeforeTheResults() {
+        InOrder inOrder = inOrder(handler);
+        inOrder.verify(handler).handleClassResults(CLASS_RESULTS);
+        inOrder.verify(handler).handle(RESULTS);
+        verifyNoMoreInteractions(handler);
+    }
+
     private void thenResultsAreNotHandled() {
         verifyZeroInteractions(handler);
     }
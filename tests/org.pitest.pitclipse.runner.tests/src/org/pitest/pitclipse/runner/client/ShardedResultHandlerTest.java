@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.client;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitProgress;
+import org.pitest.pitclipse.runner.PitProgress.Phase;
+import org.pitest.pitclipse.runner.PitResults;
+import org.pitest.pitclipse.runner.results.Mutations;
+import org.pitest.pitclipse.runner.results.ObjectFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ShardedResultHandlerTest {
+
+    private static final ObjectFactory OBJECT_FACTORY = new ObjectFactory();
+
+    @Mock
+    private PitResultHandler delegate;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void resultsAreMergedOnceAllShardsAreDone() {
+        ShardedResultHandler handler = new ShardedResultHandler(delegate, 2);
+        ShardedResultHandler.Shard firstShard = handler.newShard();
+        ShardedResultHandler.Shard secondShard = handler.newShard();
+
+        firstShard.handle(resultsWithMutations(2));
+        verify(delegate, never()).handle(any());
+        secondShard.handle(resultsWithMutations(3));
+
+        thenTheMergedResultsContain(5);
+        assertThat(mergedResults().isPartial(), is(false));
+    }
+
+    @Test
+    public void failedShardsDoNotPreventOtherResultsFromBeingReported() {
+        ShardedResultHandler handler = new ShardedResultHandler(delegate, 2);
+        ShardedResultHandler.Shard firstShard = handler.newShard();
+        ShardedResultHandler.Shard secondShard = handler.newShard();
+
+        firstShard.handle(resultsWithMutations(2));
+        firstShard.failed();
+        verify(delegate, never()).handle(any());
+        secondShard.failed();
+
+        thenTheMergedResultsContain(2);
+        assertThat(mergedResults().isPartial(), is(true));
+    }
+
+    @Test
+    public void resultsAreMergedAsPartialWhenAShardSentPartialResults() {
+        ShardedResultHandler handler = new ShardedResultHandler(delegate, 2);
+        ShardedResultHandler.Shard firstShard = handler.newShard();
+        ShardedResultHandler.Shard secondShard = handler.newShard();
+
+        firstShard.handle(resultsWithMutations(2));
+        secondShard.handle(PitResults.builder().withProjects(ImmutableList.of("project"))
+                .withMutations(OBJECT_FACTORY.createMutations()).withPartial(true).build());
+
+        thenTheMergedResultsContain(2);
+        assertThat(mergedResults().isPartial(), is(true));
+    }
+
+    @Test
+    public void classResultsAreForwardedImmediately() {
+        ShardedResultHandler handler = new ShardedResultHandler(delegate, 2);
+        PitClassResults classResults = PitClassResults.from("Foo", OBJECT_FACTORY.createMutations());
+
+        handler.newShard().handleClassResults(classResults);
+
+        verify(delegate).handleClassResults(classResults);
+    }
+
+    @Test
+    public void progressOfAllShardsIsAddedUp() {
+        ShardedResultHandler handler = new ShardedResultHandler(delegate, 2);
+        ShardedResultHandler.Shard firstShard = handler.newShard();
+        ShardedResultHandler.Shard secondShard = handler.newShard();
+
+        firstShard.handleProgress(PitProgress.of(Phase.ANALYSIS, 10, 4, 3, 1, 2.0));
+        secondShard.handleProgress(PitProgress.of(Phase.MUTANT_GENERATION, 6, 0, 0, 0, 0.0));
+
+        ArgumentCaptor<PitProgress> progress = ArgumentCaptor.forClass(PitProgress.class);
+        verify(delegate, times(2)).handleProgress(progress.capture());
+        PitProgress launchProgress = progress.getValue();
+        assertThat(launchProgress.getPhase(), is(Phase.MUTANT_GENERATION));
+        assertThat(launchProgress.getMutantsTotal(), is(16L));
+        assertThat(launchProgress.getMutantsDone(), is(4L));
+        assertThat(launchProgress.getKilled(), is(3L));
+    }
+
+    @Test
+    public void mergedResultsLinkTheReportOfEveryShard() throws IOException {
+        ShardedResultHandler handler = new ShardedResultHandler(delegate, 2);
+        File firstReport = reportOf("shard-0");
+        File secondReport = reportOf("shard-1");
+
+        handler.newShard().handle(resultsWithReport(firstReport));
+        handler.newShard().handle(resultsWithReport(secondReport));
+
+        File index = mergedResults().getHtmlResultFile();
+        assertThat(index, is(equalTo(new File(folder.getRoot(), "index.html"))));
+        String content = new String(Files.readAllBytes(index.toPath()), StandardCharsets.UTF_8);
+        assertThat(content, containsString("href=\"shard-0/index.html\""));
+        assertThat(content, containsString("href=\"shard-1/index.html\""));
+    }
+
+    @Test
+    public void theReportOfASingleShardIsUsedAsIs() throws IOException {
+        ShardedResultHandler handler = new ShardedResultHandler(delegate, 2);
+        File report = reportOf("shard-0");
+
+        handler.newShard().handle(resultsWithReport(report));
+        handler.newShard().failed();
+
+        assertThat(mergedResults().getHtmlResultFile(), is(equalTo(report)));
+    }
+
+    private File reportOf(String shard) throws IOException {
+        File report = new File(folder.newFolder(shard), "index.html");
+        Files.write(report.toPath(), "<html></html>".getBytes(StandardCharsets.UTF_8));
+        return report;
+    }
+
+    private static PitResults resultsWithReport(File report) {
+        return PitResults.builder().withProjects(ImmutableList.of("project"))
+                .withMutations(OBJECT_FACTORY.createMutations()).withHtmlResults(report).build();
+    }
+
+    private void thenTheMergedResultsContain(int mutationCount) {
+        PitResults mergedResults = mergedResults();
+        assertThat(mergedResults.getMutations().getMutation().size(), is(mutationCount));
+        assertThat(mergedResults.getProjects(), is(equalTo(ImmutableList.of("project"))));
+    }
+
+    private PitResults mergedResults() {
+        ArgumentCaptor<PitResults> mergedResults = ArgumentCaptor.forClass(PitResults.class);
+        verify(delegate).handle(mergedResults.capture());
+        return mergedResults.getValue();
+    }
+
+    private static PitResults resultsWithMutations(int count) {
+        Mutations mutations = OBJECT_FACTORY.createMutations();
+        for (int i = 0; i < count; i++) {
+            mutations.getMutation().add(OBJECT_FACTORY.createMutationsMutation());
+        }
+        return PitResults.builder().withProjects(ImmutableList.of("project")).withMutations(mutations).build();
+    }
+}
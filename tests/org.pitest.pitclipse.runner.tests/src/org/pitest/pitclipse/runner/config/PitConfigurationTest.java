@@ -42,6 +42,12 @@ public class PitConfigurationTest {
         thenTheDefaultMutatorsAreUsed();
     }
 
+    @Test
+    public void testLaunchesAreNotFocusedByDefault() {
+        givenNoFocusIsSupplied();
+        thenAllClassesAreMutatedByTestLaunches();
+    }
+
     private void givenNoExecutionScopeIsSupplied() {
         defaultConfig();
     }
@@ -50,6 +56,10 @@ public class PitConfigurationTest {
         defaultConfig();
     }
 
+    private void givenNoFocusIsSupplied() {
+        defaultConfig();
+    }
+
     private void thenTheDefaultScopeIsProjectLevel() {
         assertEquals(PROJECT_ISOLATION, config.getExecutionMode());
     }
@@ -58,6 +68,10 @@ public class PitConfigurationTest {
         assertThat(config.getMutators(), is(equalTo(DEFAULT_MUTATORS)));
     }
 
+    private void thenAllClassesAreMutatedByTestLaunches() {
+        assertThat(config.isFocusedTestLaunch(), is(false));
+    }
+
     @Before
     public void cleanup() {
         config = null;
@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.io;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Test;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitProgress;
+import org.pitest.pitclipse.runner.PitProgress.Phase;
+import org.pitest.pitclipse.runner.PitResults;
+import org.pitest.pitclipse.runner.RunStatistics;
+import org.pitest.pitclipse.runner.RunStatistics.ClassStatistics;
+import org.pitest.pitclipse.runner.RunStatistics.TestStatistics;
+import org.pitest.pitclipse.runner.TransferStatistics;
+import org.pitest.pitclipse.runner.io.FrameCodec.Decoder;
+import org.pitest.pitclipse.runner.io.FrameCodec.Encoder;
+import org.pitest.pitclipse.runner.results.DetectionStatus;
+import org.pitest.pitclipse.runner.results.Mutations;
+import org.pitest.pitclipse.runner.results.Mutations.Mutation;
+import org.pitest.pitclipse.runner.results.ObjectFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+public class BinaryFrameCodecTest {
+
+    private static final ObjectFactory OBJECT_FACTORY = new ObjectFactory();
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    @Test
+    public void classResultsAreReadAsWritten() throws Exception {
+        Encoder encoder = BinaryFrameCodec.INSTANCE.newEncoder(bytes);
+        encoder.write(PitClassResults.from("org.example.Foo", someMutations(2)));
+
+        PitClassResults results = (PitClassResults) aDecoder().read();
+
+        assertThat(results.getMutatedClass(), is(equalTo("org.example.Foo")));
+        assertThat(results.getMutations().getMutation().size(), is(2));
+        Mutation mutation = results.getMutations().getMutation().get(1);
+        assertThat(mutation.getMutatedClass(), is(equalTo("org.example.Foo")));
+        assertThat(mutation.getMutatedMethod(), is(equalTo("doFoo")));
+        assertThat(mutation.getMutator(), is(equalTo("SomeMutator")));
+        assertThat(mutation.getSourceFile(), is(equalTo("Foo.java")));
+        assertThat(mutation.getDescription(), is(equalTo("replaced return value 1")));
+        assertThat(mutation.getKillingTest(), is(nullValue()));
+        assertThat(mutation.getLineNumber(), is(equalTo(BigInteger.valueOf(301))));
+        assertThat(mutation.getIndex(), is(equalTo(BigInteger.ONE)));
+        assertThat(mutation.getStatus(), is(DetectionStatus.SURVIVED));
+        assertThat(mutation.isDetected(), is(false));
+    }
+
+    @Test
+    public void coveringTestsAreReadAsWritten() throws Exception {
+        Encoder encoder = BinaryFrameCodec.INSTANCE.newEncoder(bytes);
+        encoder.write(PitClassResults.from("org.example.Foo", someMutations(1),
+                ImmutableList.of("org.example.FooTest", "org.example.BarTest")));
+
+        PitClassResults results = (PitClassResults) aDecoder().read();
+
+        assertThat(results.getCoveringTests(),
+                is(equalTo(ImmutableList.of("org.example.FooTest", "org.example.BarTest"))));
+        assertThat(results.getMutations().getMutation().size(), is(1));
+    }
+
+    @Test
+    public void resultsAreReadAsWritten() throws Exception {
+        Encoder encoder = BinaryFrameCodec.INSTANCE.newEncoder(bytes);
+        encoder.write(PitResults.builder().withProjects(ImmutableList.of("Project X", "Project Y"))
+                .withMutations(someMutations(3)).build());
+
+        PitResults results = (PitResults) aDecoder().read();
+
+        assertThat(results.getHtmlResultFile(), is(nullValue()));
+        assertThat(results.getProjects(), is(equalTo(ImmutableList.of("Project X", "Project Y"))));
+        assertThat(results.getMutations().getMutation().size(), is(3));
+        assertThat(results.isPartial(), is(false));
+    }
+
+    @Test
+    public void runStatisticsAreReadAsWritten() throws Exception {
+        Encoder encoder = BinaryFrameCodec.INSTANCE.newEncoder(bytes);
+        encoder.write(PitResults.builder().withRunStatistics(RunStatistics.builder()
+                .withMillis(RunStatistics.Phase.COVERAGE, 1500)
+                .withMillis(RunStatistics.Phase.ANALYSIS, 4000)
+                .withListenerMillis(12)
+                .withPeakHeapBytes(64L << 20)
+                .withGcMillis(80)
+                .withThreads(2)
+                .withMutantsAnalyzed(40)
+                .withSlowestClasses(ImmutableList.of(new ClassStatistics("org.example.Foo", 30, 90, 1, 3200)))
+                .withSlowestTests(ImmutableList.of(new TestStatistics("org.example.FooTest.testFoo", 250)))
+                .build()).build());
+
+        RunStatistics statistics = ((PitResults) aDecoder().read()).getRunStatistics();
+
+        assertThat(statistics.getMillis(RunStatistics.Phase.CLASSPATH_SCAN), is(0L));
+        assertThat(statistics.getMillis(RunStatistics.Phase.COVERAGE), is(1500L));
+        assertThat(statistics.getMillis(RunStatistics.Phase.ANALYSIS), is(4000L));
+        assertThat(statistics.getListenerMillis(), is(12L));
+        assertThat(statistics.getPeakHeapBytes(), is(64L << 20));
+        assertThat(statistics.getGcMillis(), is(80L));
+        assertThat(statistics.getMutantsPerSecondPerThread(), is(5.0));
+        ClassStatistics slowestClass = statistics.getSlowestClasses().get(0);
+        assertThat(slowestClass.getClassName(), is(equalTo("org.example.Foo")));
+        assertThat(slowestClass.getTestsRun(), is(90L));
+        assertThat(slowestClass.getTimedOut(), is(1L));
+        assertThat(slowestClass.getEstimatedMillis(), is(3200L));
+        assertThat(statistics.getSlowestTests().get(0).getTestName(), is(equalTo("org.example.FooTest.testFoo")));
+        assertThat(statistics.getSlowestTests().get(0).getMillis(), is(250L));
+    }
+
+    @Test
+    public void partialResultsAreReadAsWritten() throws Exception {
+        Encoder encoder = BinaryFrameCodec.INSTANCE.newEncoder(bytes);
+        encoder.write(PitResults.builder().withMutations(someMutations(1)).withPartial(true).build());
+
+        PitResults results = (PitResults) aDecoder().read();
+
+        assertThat(results.isPartial(), is(true));
+        assertThat(results.isRunnerAvailable(), is(false));
+        assertThat(results.getMutations().getMutation().size(), is(1));
+    }
+
+    @Test
+    public void progressIsReadAsWritten() throws Exception {
+        Encoder encoder = BinaryFrameCodec.INSTANCE.newEncoder(bytes);
+        encoder.write(PitProgress.of(Phase.ANALYSIS, 120, 30, 25, 5, 12.5));
+
+        PitProgress progress = (PitProgress) aDecoder().read();
+
+        assertThat(progress.getPhase(), is(Phase.ANALYSIS));
+        assertThat(progress.getMutantsTotal(), is(120L));
+        assertThat(progress.getMutantsDone(), is(30L));
+        assertThat(progress.getKilled(), is(25L));
+        assertThat(progress.getSurvived(), is(5L));
+        assertThat(progress.getMutantsPerSecond(), is(12.5));
+        assertThat(progress.getEstimatedSecondsLeft(), is(7L));
+    }
+
+    @Test
+    public void otherObjectsAreSerialized() throws Exception {
+        Encoder encoder = BinaryFrameCodec.INSTANCE.newEncoder(bytes);
+        encoder.write("echo");
+        encoder.write(PitClassResults.from("org.example.Foo", someMutations(1)));
+
+        Decoder decoder = aDecoder();
+
+        assertThat(decoder.read(), is(equalTo("echo")));
+        assertThat(((PitClassResults) decoder.read()).getMutatedClass(), is(equalTo("org.example.Foo")));
+    }
+
+    @Test
+    public void stringsAlreadySentAreReferenced() throws IOException {
+        Encoder encoder = BinaryFrameCodec.INSTANCE.newEncoder(bytes);
+        encoder.write(PitClassResults.from("org.example.Foo", someMutations(10)));
+        int firstFrameSize = bytes.size();
+        encoder.write(PitClassResults.from("org.example.Foo", someMutations(10)));
+        int secondFrameSize = bytes.size() - firstFrameSize;
+
+        assertThat(secondFrameSize, is(lessThan(firstFrameSize)));
+    }
+
+    @Test
+    public void stringsAreSentAgainOnceAnAnalysisEnds() throws Exception {
+        Encoder encoder = BinaryFrameCodec.INSTANCE.newEncoder(bytes);
+        encoder.write(PitClassResults.from("org.example.Foo", someMutations(10)));
+        int firstFrameSize = bytes.size();
+        encoder.write(PitResults.builder().build());
+        int resultsSize = bytes.size();
+        encoder.write(PitClassResults.from("org.example.Foo", someMutations(10)));
+        int nextAnalysisFrameSize = bytes.size() - resultsSize;
+
+        assertThat(nextAnalysisFrameSize, is(equalTo(firstFrameSize)));
+        Decoder decoder = aDecoder();
+        decoder.read();
+        decoder.read();
+        PitClassResults results = (PitClassResults) decoder.read();
+        assertThat(results.getMutatedClass(), is(equalTo("org.example.Foo")));
+        assertThat(results.getMutations().getMutation().get(9).getDescription(),
+                is(equalTo("replaced return value 9")));
+    }
+
+    @Test
+    public void missingHtmlReportsAreDropped() throws Exception {
+        File report = File.createTempFile("index", ".html");
+        Encoder encoder = BinaryFrameCodec.INSTANCE.newEncoder(bytes);
+        encoder.write(PitResults.builder().withHtmlResults(report).build());
+        encoder.write(PitResults.builder().withHtmlResults(report).build());
+        Decoder decoder = aDecoder();
+
+        assertThat(((PitResults) decoder.read()).getHtmlResultFile(), is(equalTo(report)));
+        assertThat(report.delete(), is(true));
+        assertThat(((PitResults) decoder.read()).getHtmlResultFile(), is(nullValue()));
+    }
+
+    @Test
+    public void largeFramesAreCompressed() throws Exception {
+        Encoder encoder = BinaryFrameCodec.DEFLATED.newEncoder(bytes);
+        encoder.write(PitResults.builder().withProjects(ImmutableList.of("Project X"))
+                .withMutations(someMutations(500)).build());
+
+        PitResults results = (PitResults) BinaryFrameCodec.DEFLATED
+                .newDecoder(new ByteArrayInputStream(bytes.toByteArray())).read();
+
+        assertThat(results.getMutations().getMutation().size(), is(500));
+        assertThat(results.getMutations().getMutation().get(499).getDescription(),
+                is(equalTo("replaced return value 499")));
+        TransferStatistics statistics = results.getTransferStatistics();
+        assertThat(statistics.getFrames(), is(1L));
+        assertThat(statistics.getCompressedFrames(), is(1L));
+        assertThat(statistics.getTransferredBytes(), is(lessThan(statistics.getRawBytes())));
+        assertThat(statistics.getCompressionRatio(), is(greaterThan(1.0)));
+    }
+
+    @Test
+    public void smallFramesAreNotCompressed() throws Exception {
+        Encoder encoder = BinaryFrameCodec.DEFLATED.newEncoder(bytes);
+        encoder.write(PitClassResults.from("org.example.Foo", someMutations(1)));
+        encoder.write(PitResults.builder().build());
+
+        Decoder decoder = BinaryFrameCodec.DEFLATED.newDecoder(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertThat(((PitClassResults) decoder.read()).getMutatedClass(), is(equalTo("org.example.Foo")));
+        TransferStatistics statistics = ((PitResults) decoder.read()).getTransferStatistics();
+        assertThat(statistics.getFrames(), is(2L));
+        assertThat(statistics.getCompressedFrames(), is(0L));
+        assertThat(statistics.getTransferredBytes(), is(equalTo(statistics.getRawBytes())));
+    }
+
+    @Test
+    public void statisticsOnlyCountTheFramesOfTheirOwnResults() throws Exception {
+        Encoder encoder = BinaryFrameCodec.DEFLATED.newEncoder(bytes);
+        encoder.write(PitClassResults.from("org.example.Foo", someMutations(1)));
+        encoder.write(PitResults.builder().build());
+        encoder.write(PitResults.builder().withMutations(someMutations(500)).build());
+
+        Decoder decoder = BinaryFrameCodec.DEFLATED.newDecoder(new ByteArrayInputStream(bytes.toByteArray()));
+        decoder.read();
+        assertThat(((PitResults) decoder.read()).getTransferStatistics().getFrames(), is(2L));
+
+        TransferStatistics statistics = ((PitResults) decoder.read()).getTransferStatistics();
+        assertThat(statistics.getFrames(), is(1L));
+        assertThat(statistics.getCompressedFrames(), is(1L));
+    }
+
+    @Test(expected = IOException.class)
+    public void compressedFramesLongerThanDeclaredAreRejected() throws Exception {
+        writeCompressedFrame("some frame content", 4);
+
+        BinaryFrameCodec.DEFLATED.newDecoder(new ByteArrayInputStream(bytes.toByteArray())).read();
+    }
+
+    @Test(expected = IOException.class)
+    public void compressedFramesShorterThanDeclaredAreRejected() throws Exception {
+        writeCompressedFrame("some frame content", 100);
+
+        BinaryFrameCodec.DEFLATED.newDecoder(new ByteArrayInputStream(bytes.toByteArray())).read();
+    }
+
+    @Test
+    public void varintsAreReadAsWritten() throws IOException {
+        long[] values = { 0, 1, 127, 128, 300, Integer.MAX_VALUE, Long.MAX_VALUE };
+        for (long value : values) {
+            BinaryFrameCodec.writeVarint(bytes, value);
+        }
+        ByteArrayInputStream input = new ByteArrayInputStream(bytes.toByteArray());
+        for (long value : values) {
+            assertThat(BinaryFrameCodec.readVarint(input), is(value));
+        }
+    }
+
+    private void writeCompressedFrame(String content, int declaredLength) throws IOException {
+        Deflater deflater = new Deflater();
+        deflater.setInput(content.getBytes(StandardCharsets.UTF_8));
+        deflater.finish();
+        byte[] compressed = new byte[256];
+        int compressedLength = deflater.deflate(compressed);
+        deflater.end();
+        BinaryFrameCodec.writeVarint(bytes, ((long) compressedLength << 1) | 1);
+        BinaryFrameCodec.writeVarint(bytes, declaredLength);
+        BinaryFrameCodec.writeVarint(bytes, 0);
+        bytes.write(compressed, 0, compressedLength);
+    }
+
+    private Decoder aDecoder() {
+        return BinaryFrameCodec.INSTANCE.newDecoder(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private static Mutations someMutations(int count) {
+        Mutations mutations = OBJECT_FACTORY.createMutations();
+        for (int i = 0; i < count; i++) {
+            Mutation mutation = OBJECT_FACTORY.createMutationsMutation();
+            mutation.setMutatedClass("org.example.Foo");
+            mutation.setMutatedMethod("doFoo");
+            mutation.setMutator("SomeMutator");
+            mutation.setSourceFile("Foo.java");
+            mutation.setDescription("replaced return value " + i);
+            mutation.setLineNumber(BigInteger.valueOf(300L + i));
+            mutation.setIndex(BigInteger.ONE);
+            mutation.setStatus(DetectionStatus.SURVIVED);
+            mutation.setDetected(false);
+            mutations.getMutation().add(mutation);
+        }
+        return mutations;
+    }
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.io;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CodecHandshakeTest {
+
+    private static final List<FrameCodec> ALL_CODECS = ImmutableList.of(BinaryFrameCodec.INSTANCE,
+            JavaSerializationCodec.INSTANCE);
+
+    private static final List<FrameCodec> JAVA_ONLY = ImmutableList.of(JavaSerializationCodec.INSTANCE);
+
+    @Test
+    public void binaryCodecIsChosenWhenBothEndsSupportIt() throws IOException {
+        assertThat(negotiate(CodecHandshake.leading(ALL_CODECS), ALL_CODECS),
+                is(sameInstance(BinaryFrameCodec.INSTANCE)));
+        assertThat(negotiate(CodecHandshake.following(ALL_CODECS), ALL_CODECS),
+                is(sameInstance(BinaryFrameCodec.INSTANCE)));
+    }
+
+    @Test
+    public void javaSerializationIsUsedAsAFallback() throws IOException {
+        assertThat(negotiate(CodecHandshake.leading(ALL_CODECS), JAVA_ONLY),
+                is(sameInstance(JavaSerializationCodec.INSTANCE)));
+        assertThat(negotiate(CodecHandshake.following(JAVA_ONLY), ALL_CODECS),
+                is(sameInstance(JavaSerializationCodec.INSTANCE)));
+    }
+
+    @Test(expected = IOException.class)
+    public void unexpectedPreambleIsRejected() throws IOException {
+        ByteArrayInputStream garbage = new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6 });
+        CodecHandshake.leading(ALL_CODECS).negotiate(garbage, new ByteArrayOutputStream());
+    }
+
+    /**
+     * Negotiates with another end whose preamble is produced by a handshake supporting given codecs.
+     */
+    private static FrameCodec negotiate(CodecHandshake handshake, List<FrameCodec> otherCodecs) throws IOException {
+        ByteArrayOutputStream otherPreamble = new ByteArrayOutputStream();
+        try {
+            CodecHandshake.following(otherCodecs).negotiate(new ByteArrayInputStream(new byte[0]), otherPreamble);
+        } catch (IOException e) {
+            // expected: only the preamble written by the other end matters
+        }
+        return handshake.negotiate(new ByteArrayInputStream(otherPreamble.toByteArray()), new ByteArrayOutputStream());
+    }
+}
@@ -24,6 +24,7 @@ import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.pitest.pitclipse.runner.io.SocketProviderTestFixture.ECHO;
+import static org.pitest.pitclipse.runner.io.SocketProviderTestFixture.aBoundPort;
 import static org.pitest.pitclipse.runner.io.SocketProviderTestFixture.aFreePort;
 import static org.pitest.pitclipse.runner.io.SocketProviderTestFixture.connectTo;
 import static org.pitest.pitclipse.runner.io.SocketProviderTestFixture.listenOn;
@@ -35,6 +36,7 @@ import java.net.ServerSocket;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
 import org.junit.Test;
@@ -74,13 +76,67 @@ public class SocketProviderTest {
 
     @Test
     public void canConnectToAPortThatIsBeingListenedOn() throws Exception {
-        int port = aFreePort();
+        int port = aBoundPort();
         Future<ReturnStatus> result = listenOn(port);
         Future<String> msg = readMessageFrom(port);
         assertThat(result.get(5, SECONDS), is(SUCCESS));
         assertThat(msg.get(5, SECONDS), is(ECHO));
     }
 
+    @Test
+    public void canConnectToABoundPortBeforeItIsListenedOn() throws Exception {
+        int port = aBoundPort();
+        Future<String> msg = readMessageFrom(port);
+        Future<ReturnStatus> result = listenOn(port);
+        assertThat(result.get(5, SECONDS), is(SUCCESS));
+        assertThat(msg.get(5, SECONDS), is(ECHO));
+    }
+
+    @Test(expected = SocketCreationException.class)
+    public void listeningFailsWhenNoClientConnectsInTime() {
+        new SocketProvider().listen(aBoundPort(), 100);
+    }
+
+    @Test
+    public void releasingAPortStopsListeningOnIt() throws Exception {
+        SocketProvider socketProvider = new SocketProvider();
+        int port = aBoundPort();
+        Future<ReturnStatus> result = listenOn(port);
+        // the port may be released before the server starts listening on it
+        for (int i = 0; i < 100 && !result.isDone(); i++) {
+            socketProvider.release(port);
+            Thread.sleep(10);
+        }
+        try {
+            result.get(5, SECONDS);
+            fail("should not get here");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getClass().getCanonicalName(),
+                    e.getCause() instanceof SocketCreationException);
+        }
+    }
+
+    @Test
+    public void aReleaserDoesNotReleaseThePortOnceBoundAgain() throws Exception {
+        int port = aBoundPort();
+        Runnable releaser = new SocketProvider().releaser(port);
+        Future<String> firstMsg = readMessageFrom(port);
+        assertThat(listenOn(port).get(5, SECONDS), is(SUCCESS));
+        assertThat(firstMsg.get(5, SECONDS), is(ECHO));
+
+        // the port is bound again, e.g. for another PIT application
+        Future<ReturnStatus> result = listenOn(port);
+        // the port may be bound again after the releaser has run
+        for (int i = 0; i < 100 && !result.isDone(); i++) {
+            releaser.run();
+            Thread.sleep(10);
+        }
+        Future<String> secondMsg = readMessageFrom(port);
+
+        assertThat(result.get(5, SECONDS), is(SUCCESS));
+        assertThat(secondMsg.get(5, SECONDS), is(ECHO));
+    }
+
     @Test
     public void errorOnListen() {
         try {
@@ -43,6 +43,10 @@ class SocketProviderTestFixture {
         return new SocketProvider().getFreePort();
     }
 
+    static int aBoundPort() {
+        return new SocketProvider().bind();
+    }
+
     static Optional<ObjectStreamSocket> connectTo(int port) {
         return new SocketProvider().connectTo(port);
     }
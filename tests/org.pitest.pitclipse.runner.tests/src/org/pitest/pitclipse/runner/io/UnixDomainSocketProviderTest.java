@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.io;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assume.assumeTrue;
+import static org.pitest.pitclipse.runner.io.SocketProviderTestFixture.ECHO;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class UnixDomainSocketProviderTest {
+
+    private static final ExecutorService EXECUTOR_SERVICE = Executors.newCachedThreadPool();
+
+    private final UnixDomainSocketProvider socketProvider = new UnixDomainSocketProvider();
+
+    @Before
+    public void requireJava16() {
+        assumeTrue(UnixDomainSocketProvider.isSupported());
+    }
+
+    @Test
+    public void boundSocketsAreNumberedAfterTcpPorts() {
+        int port = socketProvider.bind();
+        socketProvider.release(port);
+        assertThat(port, is(greaterThanOrEqualTo(UnixDomainSocketProvider.FIRST_PORT)));
+    }
+
+    @Test
+    public void providerIsChosenFromThePortNumber() {
+        assertThat(SocketProvider.forPort(UnixDomainSocketProvider.FIRST_PORT),
+                is(instanceOf(UnixDomainSocketProvider.class)));
+        assertThat(SocketProvider.forPort(UnixDomainSocketProvider.FIRST_PORT - 1).getClass(),
+                is(equalTo(SocketProvider.class)));
+    }
+
+    @Test
+    public void objectsAreSentThroughABoundSocket() throws Exception {
+        int port = socketProvider.bind();
+        Future<String> message = EXECUTOR_SERVICE.submit(() -> {
+            try (ObjectStreamSocket client = socketProvider.connectTo(port).get()) {
+                return client.read();
+            }
+        });
+        try (ObjectStreamSocket server = socketProvider.listen(port)) {
+            server.write(ECHO);
+            assertThat(message.get(5, SECONDS), is(ECHO));
+        }
+    }
+
+    @Test
+    public void cannotConnectToASocketThatIsNotBound() {
+        int port = socketProvider.bind();
+        socketProvider.release(port);
+        assertThat(socketProvider.connectTo(port), is(equalTo(Optional.<ObjectStreamSocket>empty())));
+    }
+
+    @Test(expected = SocketCreationException.class)
+    public void listeningFailsWhenNoClientConnectsInTime() {
+        socketProvider.listen(socketProvider.bind(), 100);
+    }
+}
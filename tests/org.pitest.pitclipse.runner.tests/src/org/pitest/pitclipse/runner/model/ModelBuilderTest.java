@@ -45,6 +45,7 @@ import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Lists.newArrayList;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.when;
 import static org.pitest.pitclipse.runner.results.DetectionStatus.KILLED;
@@ -105,6 +106,71 @@ public class ModelBuilderTest {
                 .andTheNumberOfSurvivedClassMutationsWillBe(PACKAGE_B, CLASS_B, 1);
     }
 
+    @Test
+    public void mutationsAreCountedByStatus() {
+        givenAClass(CLASS_A).inPackage(PACKAGE_A).isIn(PROJECT_1).hasADetectedMutationOnLine(124)
+                .andHasADetectedMutationOnLine(123).andHasASurvivingMutationOnLine(234);
+        andClass(CLASS_B).inPackage(PACKAGE_B).isIn(PROJECT_1).hasASurvivingMutationOnLine(345);
+        whenTheModelIsBuilt();
+        assertThat(actualModel.count(KILLED), is(equalTo(2L)));
+        assertThat(actualModel.count(SURVIVED), is(equalTo(2L)));
+        assertThat(actualModel.count(DetectionStatus.NO_COVERAGE), is(equalTo(0L)));
+    }
+
+    @Test
+    public void eachNodeIsLinkedToItsParent() {
+        givenAClass(CLASS_A).inPackage(PACKAGE_A).isIn(PROJECT_1).hasADetectedMutationOnLine(124)
+                .andHasASurvivingMutationOnLine(234);
+        andClass(CLASS_B).inPackage(PACKAGE_B).isIn(PROJECT_1).hasASurvivingMutationOnLine(345);
+        whenTheModelIsBuilt();
+        for (Status status : actualModel.getStatuses()) {
+            assertThat(status.getMutationsModel(), is(sameInstance(actualModel)));
+            for (ProjectMutations project : status.getProjectMutations()) {
+                assertThat(project.getStatus(), is(sameInstance(status)));
+                for (PackageMutations pkg : project.getPackageMutations()) {
+                    assertThat(pkg.getProjectMutations(), is(sameInstance(project)));
+                    for (ClassMutations classMutations : pkg.getClassMutations()) {
+                        assertThat(classMutations.getPackageMutations(), is(sameInstance(pkg)));
+                        for (Mutation mutation : classMutations.getMutations()) {
+                            assertThat(mutation.getClassMutations(), is(sameInstance(classMutations)));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void eachClassIsLocatedOnceWhateverTheNumberOfStatuses() {
+        int projectCount = 30;
+        int classCount = 1_000;
+        List<String> projects = newArrayList();
+        for (int p = 0; p < projectCount; p++) {
+            projects.add("project" + p);
+        }
+        Builder<Mutations.Mutation> allMutations = ImmutableList.builder();
+        for (int c = 0; c < classCount; c++) {
+            for (DetectionStatus status : DetectionStatus.values()) {
+                Mutations.Mutation mutation = new Mutations.Mutation();
+                mutation.setMutatedClass("foo.Class" + c);
+                mutation.setStatus(status);
+                mutation.setLineNumber(BigInteger.valueOf(c));
+                mutation.setMutator(MUTATOR);
+                allMutations.add(mutation);
+            }
+        }
+        Mutations results = new Mutations();
+        results.getMutation().addAll(allMutations.build());
+        CountingStructureService structureService = new CountingStructureService(projectCount);
+
+        MutationsModel model = new ModelBuilder(structureService).buildFrom(PitResults.builder()
+                .withHtmlResults(TMP_DIR).withMutations(results).withProjects(projects).build());
+
+        assertThat(model.count(), is(equalTo((long) classCount * DetectionStatus.values().length)));
+        assertThat(structureService.projectLookups, is(equalTo(classCount * projectCount)));
+        assertThat(structureService.packageLookups, is(equalTo(classCount)));
+    }
+
     private CountContext thenTheNumberOfModelMutationsWillBe(long count) {
         CountContext context = new CountContext();
         return context.thenTheNumberOfModelMutationsWillBe(count);
@@ -389,4 +455,30 @@ public class ModelBuilderTest {
             return mutationsForClass;
         }
     }
+
+    /**
+     * Spreads classes over projects and counts how many times it is queried.
+     */
+    private static class CountingStructureService implements ProjectStructureService {
+        private final int projectCount;
+        private int projectLookups;
+        private int packageLookups;
+
+        CountingStructureService(int projectCount) {
+            this.projectCount = projectCount;
+        }
+
+        @Override
+        public String packageFrom(String project, String mutatedClass) {
+            packageLookups++;
+            return mutatedClass.substring(0, mutatedClass.lastIndexOf('.'));
+        }
+
+        @Override
+        public boolean isClassInProject(String mutatedClass, String project) {
+            projectLookups++;
+            int index = Integer.parseInt(mutatedClass.substring(mutatedClass.lastIndexOf("Class") + 5));
+            return project.equals("project" + index % projectCount);
+        }
+    }
 }
@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.model;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Test;
+import org.pitest.pitclipse.runner.results.DetectionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.pitest.pitclipse.runner.results.DetectionStatus.KILLED;
+import static org.pitest.pitclipse.runner.results.DetectionStatus.SURVIVED;
+
+public class MutationsModelTest {
+
+    private static final String PROJECT = "project1";
+    private static final String PACKAGE = "foo.bar";
+    private static final String CLASS_A = "foo.bar.A";
+    private static final String CLASS_B = "foo.bar.B";
+
+    private final MutationsModel model = MutationsModel.empty();
+    private final RecordingListener listener = new RecordingListener();
+
+    @Test
+    public void deltasBuildTheSameModelAsTheWholeResults() {
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_B, ImmutableList.of(mutation(SURVIVED, 3))));
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A,
+                ImmutableList.of(mutation(KILLED, 1), mutation(SURVIVED, 2))));
+
+        MutationsModel expectedModel = MutationsModel.make(ImmutableList.of(
+                status(KILLED, classMutations(CLASS_A, mutation(KILLED, 1))),
+                status(SURVIVED, classMutations(CLASS_A, mutation(SURVIVED, 2)),
+                        classMutations(CLASS_B, mutation(SURVIVED, 3)))));
+        assertThat(model, is(equalTo(expectedModel)));
+        assertThat(model.count(), is(3L));
+        assertThat(model.count(SURVIVED), is(2L));
+        assertThat(model.getStatuses().get(0).getProjectMutations().get(0).count(), is(2L));
+    }
+
+    @Test
+    public void addedMutationsAreMergedWithTheKnownOnes() {
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(KILLED, 2))));
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(KILLED, 1))));
+
+        MutationsModel expectedModel = MutationsModel.make(ImmutableList.of(
+                status(KILLED, classMutations(CLASS_A, mutation(KILLED, 1), mutation(KILLED, 2)))));
+        assertThat(model, is(equalTo(expectedModel)));
+        assertThat(model.count(KILLED), is(2L));
+    }
+
+    @Test
+    public void onlyTheChangedNodesAreReported() {
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(KILLED, 1))));
+        model.addListener(listener);
+
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_B, ImmutableList.of(mutation(KILLED, 2))));
+
+        PackageMutations pkg = model.getStatuses().get(0).getProjectMutations().get(0).getPackageMutations().get(0);
+        ClassMutations classB = pkg.getClassMutations().get(1);
+        assertThat(listener.events.get(0), is(equalTo("added " + classB + " to " + pkg)));
+        assertThat(listener.events.size(), is(5));
+        assertThat(pkg.getClassMutations().get(0).getClassName(), is(CLASS_A));
+        assertThat(classB.getPackageMutations(), is(sameInstance(pkg)));
+        assertThat(pkg.count(), is(2L));
+    }
+
+    @Test
+    public void replacingAClassWithTheSameMutationsChangesNothing() {
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(KILLED, 1))));
+        ClassMutations classA = firstClass();
+        model.addListener(listener);
+
+        model.apply(ClassDelta.replace(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(KILLED, 1))));
+
+        assertThat(listener.events.isEmpty(), is(true));
+        assertThat(firstClass(), is(sameInstance(classA)));
+    }
+
+    @Test
+    public void replacedMutationsMayChangeStatus() {
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(SURVIVED, 1))));
+
+        model.apply(ClassDelta.replace(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(KILLED, 1))));
+
+        MutationsModel expectedModel = MutationsModel.make(ImmutableList.of(
+                status(KILLED, classMutations(CLASS_A, mutation(KILLED, 1)))));
+        assertThat(model, is(equalTo(expectedModel)));
+        assertThat(model.count(SURVIVED), is(0L));
+    }
+
+    @Test
+    public void updatedMutationsReplaceOnlyTheMatchingOnes() {
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A,
+                ImmutableList.of(mutation(SURVIVED, 1), mutation(SURVIVED, 2), mutation(KILLED, 3))));
+
+        model.apply(ClassDelta.update(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(KILLED, 2))));
+
+        MutationsModel expectedModel = MutationsModel.make(ImmutableList.of(
+                status(KILLED, classMutations(CLASS_A, mutation(KILLED, 2), mutation(KILLED, 3))),
+                status(SURVIVED, classMutations(CLASS_A, mutation(SURVIVED, 1)))));
+        assertThat(model, is(equalTo(expectedModel)));
+        assertThat(model.count(SURVIVED), is(1L));
+        assertThat(model.count(), is(3L));
+    }
+
+    @Test
+    public void nodesLeftEmptyAreRemoved() {
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(KILLED, 1))));
+        Status killed = model.getStatuses().get(0);
+        model.addListener(listener);
+
+        model.apply(ClassDelta.remove(PROJECT, PACKAGE, CLASS_A));
+
+        assertThat(model, is(equalTo(MutationsModel.EMPTY_MODEL)));
+        assertThat(model.count(), is(0L));
+        assertThat(listener.events.get(0), is(equalTo("removed " + killed + " from " + model)));
+    }
+
+    @Test
+    public void updatingAModelWithTheSameMutationsChangesNothing() {
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A,
+                ImmutableList.of(mutation(KILLED, 1), mutation(SURVIVED, 2))));
+        ClassMutations classA = firstClass();
+        model.addListener(listener);
+
+        model.update(MutationsModel.make(ImmutableList.of(
+                status(KILLED, classMutations(CLASS_A, mutation(KILLED, 1))),
+                status(SURVIVED, classMutations(CLASS_A, mutation(SURVIVED, 2))))).freeze());
+
+        assertThat(listener.events.isEmpty(), is(true));
+        assertThat(firstClass(), is(sameInstance(classA)));
+    }
+
+    @Test
+    public void updatingAModelOnlyChangesTheClassesThatDiffer() {
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(KILLED, 1))));
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_B, ImmutableList.of(mutation(KILLED, 2))));
+        ClassMutations classA = firstClass();
+        MutationsModel completeModel = MutationsModel.make(ImmutableList.of(
+                status(KILLED, classMutations(CLASS_A, mutation(KILLED, 1)),
+                        classMutations(CLASS_B, mutation(KILLED, 2), mutation(KILLED, 3)))))
+                .withOrigin("launch").asPartial().freeze();
+
+        model.update(completeModel);
+
+        assertThat(model, is(equalTo(completeModel)));
+        assertThat(firstClass(), is(sameInstance(classA)));
+        assertThat(model.count(), is(3L));
+        assertThat(model.getOrigin(), is(Optional.of("launch")));
+        assertThat(model.isPartial(), is(true));
+    }
+
+    @Test
+    public void updatingAModelRemovesTheClassesItNoLongerHas() {
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(KILLED, 1))));
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_B, ImmutableList.of(mutation(KILLED, 2))));
+        MutationsModel completeModel = MutationsModel.make(ImmutableList.of(
+                status(KILLED, classMutations(CLASS_B, mutation(KILLED, 2))))).freeze();
+
+        model.update(completeModel);
+
+        assertThat(model, is(equalTo(completeModel)));
+        assertThat(model.count(), is(1L));
+    }
+
+    @Test
+    public void copiesOfAFrozenModelCanBeUpdatedAlone() {
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(SURVIVED, 1))));
+        model.freeze();
+
+        MutationsModel copy = MutationsModel.copyOf(model);
+        copy.apply(ClassDelta.update(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(KILLED, 1))));
+
+        assertThat(model.count(SURVIVED), is(1L));
+        assertThat(copy.count(SURVIVED), is(0L));
+        assertThat(copy.count(KILLED), is(1L));
+        assertThat(model.getStatuses().get(0).getMutationsModel(), is(sameInstance(model)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void frozenModelsCannotBeUpdated() {
+        model.freeze();
+        model.apply(ClassDelta.add(PROJECT, PACKAGE, CLASS_A, ImmutableList.of(mutation(KILLED, 1))));
+    }
+
+    @Test
+    public void copiesKeepTheOriginOfTheirModel() {
+        model.withOrigin("launch").freeze();
+
+        assertThat(MutationsModel.copyOf(model).getOrigin(), is(Optional.of("launch")));
+    }
+
+    @Test
+    public void copiesOfPartialModelsArePartial() {
+        model.asPartial().freeze();
+
+        assertThat(model.isPartial(), is(true));
+        assertThat(MutationsModel.copyOf(model).isPartial(), is(true));
+        assertThat(MutationsModel.empty().isPartial(), is(false));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void theOriginOfFrozenModelsCannotBeChanged() {
+        model.freeze();
+        model.withOrigin("launch");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void theSharedEmptyModelCannotBeUpdated() {
+        MutationsModel.EMPTY_MODEL.apply(ClassDelta.remove(PROJECT, PACKAGE, CLASS_A));
+    }
+
+    private ClassMutations firstClass() {
+        return model.getStatuses().get(0).getProjectMutations().get(0).getPackageMutations().get(0)
+                .getClassMutations().get(0);
+    }
+
+    private static Status status(DetectionStatus detectionStatus, ClassMutations... classes) {
+        PackageMutations pkg = PackageMutations.builder().withPackageName(PACKAGE)
+                .withClassMutations(ImmutableList.copyOf(classes)).build();
+        ProjectMutations project = ProjectMutations.builder().withProjectName(PROJECT)
+                .withPackageMutations(ImmutableList.of(pkg)).build();
+        return Status.builder().withDetectionStatus(detectionStatus)
+                .withProjectMutations(ImmutableList.of(project)).build();
+    }
+
+    private static ClassMutations classMutations(String className, Mutation... mutations) {
+        return ClassMutations.builder().withClassName(className).withMutations(ImmutableList.copyOf(mutations))
+                .build();
+    }
+
+    private static Mutation mutation(DetectionStatus status, int lineNumber) {
+        return Mutation.builder().withStatus(status).withLineNumber(lineNumber).withMutatedMethod("doFoo")
+                .withMutator("SomeMutator").withDescription("mutation on line " + lineNumber).build();
+    }
+
+    private static class RecordingListener implements MutationsModelListener {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void nodeAdded(Visitable parent, Visitable node) {
+            events.add("added " + node + " to " + parent);
+        }
+
+        @Override
+        public void nodeRemoved(Visitable parent, Visitable node) {
+            events.add("removed " + node + " from " + parent);
+        }
+
+        @Override
+        public void nodeChanged(Visitable node) {
+            events.add("changed " + node);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package org.pitest.pitclipse.runner.results;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ResultAccumulatorTest {
+
+    private final ResultAccumulator<Integer> accumulator = new ResultAccumulator<>();
+
+    @Test
+    public void nothingIsCollectedByDefault() {
+        assertThat(accumulator.size(), is(0));
+        assertThat(accumulator.toList(), is(equalTo(ImmutableList.<Integer>of())));
+    }
+
+    @Test
+    public void resultsSpanningSeveralChunksAreKeptInOrder() {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 3 * ResultAccumulator.CHUNK_SIZE + 7; i++) {
+            accumulator.add(i);
+            expected.add(i);
+        }
+
+        assertThat(accumulator.size(), is(expected.size()));
+        assertThat(accumulator.toList(), is(equalTo(expected)));
+    }
+
+    @Test
+    public void clearedAccumulatorCanBeReused() {
+        accumulator.addAll(ImmutableList.of(1, 2, 3));
+        accumulator.clear();
+        accumulator.add(4);
+
+        assertThat(accumulator.toList(), is(equalTo(ImmutableList.of(4))));
+    }
+
+    @Test
+    public void resultsCanBeAddedConcurrently() throws InterruptedException {
+        int threads = 4;
+        int resultsPerThread = 10 * ResultAccumulator.CHUNK_SIZE;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < resultsPerThread; i++) {
+                    accumulator.add(i);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        assertThat(accumulator.size(), is(threads * resultsPerThread));
+        assertThat(accumulator.toList().size(), is(threads * resultsPerThread));
+    }
+}
@@ -19,8 +19,23 @@ package org.pitest.pitclipse.runner.results.mutations;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.results.Dispatcher;
+import org.pitest.pitclipse.runner.results.Mutations;
+import org.pitest.pitclipse.runner.results.Mutations.Mutation;
+import org.pitest.pitclipse.runner.results.ResultAccumulator;
+
+import com.google.common.collect.ImmutableList;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 import static org.pitest.pitclipse.runner.results.mutations.ListenerTestFixture.aClassMutationResult;
 import static org.pitest.pitclipse.runner.results.mutations.ListenerTestFixture.aMutationResult;
@@ -37,6 +52,9 @@ public class PitclipseMutationsResultListenerTest {
     @Mock
     private MutationsDispatcher mutationsDispatcher;
 
+    @Mock
+    private Dispatcher<PitClassResults> classResultsDispatcher;
+
     @Before
     public void setup() {
         reset(mutationsDispatcher);
@@ -56,4 +74,80 @@ public class PitclipseMutationsResultListenerTest {
         thenTheResultsWere(aMutationResult());
     }
 
+    @Test
+    public void eachClassMutationResultIsDispatchedBeforeTheRunEnds() {
+        PitclipseMutationsResultListener listener = new PitclipseMutationsResultListener(mutationsDispatcher,
+                classResultsDispatcher);
+        listener.runStart();
+        listener.handleMutationResult(aClassMutationResult());
+
+        ArgumentCaptor<PitClassResults> classResults = ArgumentCaptor.forClass(PitClassResults.class);
+        verify(classResultsDispatcher).dispatch(classResults.capture());
+        verifyZeroInteractions(mutationsDispatcher);
+        assertThat(classResults.getValue().getMutatedClass(), is(equalTo("org.pitest.pitclipse.example.Foo")));
+        assertThat(classResults.getValue().getMutations().getMutation().size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void eachMutantIsDispatchedOnceWithItsClassThenOnceWithAllTheOthers() {
+        // enough results to span several chunks of the accumulator
+        int classes = 3000;
+        PitclipseMutationsResultListener listener = new PitclipseMutationsResultListener(mutationsDispatcher,
+                classResultsDispatcher);
+        listener.runStart();
+        for (int i = 0; i < classes; i++) {
+            listener.handleMutationResult(aClassMutationResult());
+        }
+        listener.runEnd();
+
+        // class results only hold their own mutants, not a copy of the ones collected so far
+        ArgumentCaptor<PitClassResults> classResults = ArgumentCaptor.forClass(PitClassResults.class);
+        verify(classResultsDispatcher, times(classes)).dispatch(classResults.capture());
+        for (PitClassResults results : classResults.getAllValues()) {
+            assertThat(results.getMutations().getMutation().size(), is(equalTo(1)));
+        }
+        ArgumentCaptor<Mutations> allMutations = ArgumentCaptor.forClass(Mutations.class);
+        verify(mutationsDispatcher).dispatch(allMutations.capture());
+        assertThat(allMutations.getValue().getMutation().size(), is(equalTo(classes)));
+    }
+
+    @Test
+    public void theMutantsCollectedSoFarAreNotCopiedForEachClass() {
+        int classes = 3000;
+        CountingResultAccumulator accumulator = new CountingResultAccumulator();
+        PitclipseMutationsResultListener listener = new PitclipseMutationsResultListener(mutationsDispatcher,
+                classResultsDispatcher, accumulator);
+        listener.runStart();
+        for (int i = 0; i < classes; i++) {
+            listener.handleMutationResult(aClassMutationResult());
+        }
+
+        // each mutant is accumulated once, and the accumulated ones are only read once the run ends
+        assertThat(accumulator.addedElements, is(equalTo(classes)));
+        assertThat(accumulator.copies, is(equalTo(0)));
+        listener.runEnd();
+        assertThat(accumulator.addedElements, is(equalTo(classes)));
+        assertThat(accumulator.copies, is(equalTo(1)));
+    }
+
+    /**
+     * Counts the elements added to the results, and the copies made of them.
+     */
+    private static class CountingResultAccumulator extends ResultAccumulator<Mutation> {
+        private int addedElements;
+        private int copies;
+
+        @Override
+        public synchronized void add(Mutation element) {
+            addedElements++;
+            super.add(element);
+        }
+
+        @Override
+        public synchronized ImmutableList<Mutation> toList() {
+            copies++;
+            return super.toList();
+        }
+    }
+
 }
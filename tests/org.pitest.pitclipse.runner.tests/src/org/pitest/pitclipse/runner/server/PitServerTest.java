@@ -22,16 +22,24 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.pitest.pitclipse.runner.AbstractPitRunnerTest;
+import org.pitest.pitclipse.runner.PitCancelRequest;
+import org.pitest.pitclipse.runner.PitClassResults;
 import org.pitest.pitclipse.runner.PitRequest;
 import org.pitest.pitclipse.runner.PitResults;
 import org.pitest.pitclipse.runner.PitRunnerTestContext;
 import org.pitest.pitclipse.runner.io.ObjectStreamSocket;
 import org.pitest.pitclipse.runner.io.SocketProvider;
+import org.pitest.pitclipse.runner.results.ObjectFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -45,6 +53,8 @@ public class PitServerTest extends AbstractPitRunnerTest {
 
     private PitRunnerTestContext context;
 
+    private final List<PitClassResults> receivedClassResults = new ArrayList<>();
+
     @Before
     public void setup() {
         context = new PitRunnerTestContext();
@@ -70,6 +80,18 @@ public class PitServerTest extends AbstractPitRunnerTest {
         thenTheResultsAreSent();
     }
 
+    @Test
+    public void serverForwardsClassResultsUntilTheFinalResults() {
+        givenThePortNumber(PORT);
+        whenThePitServerIsStarted();
+        PitClassResults fooResults = aClassResult("Foo");
+        PitClassResults barResults = aClassResult("Bar");
+        givenTheResults(RESULTS);
+        whenTheServerReceivesStreamedResults(fooResults, barResults);
+        thenTheResultsAreSent();
+        thenTheClassResultsWereForwarded(fooResults, barResults);
+    }
+
     @Test
     public void serverStopClosesSocket() throws IOException {
         givenThePortNumber(PORT);
@@ -79,6 +101,21 @@ public class PitServerTest extends AbstractPitRunnerTest {
         thenTheUnderlyingConnectionIsClosed();
     }
 
+    @Test
+    public void serverSendsCancelRequestOnceConnected() {
+        givenThePortNumber(PORT);
+        whenThePitServerIsStarted();
+        context.getPitServer().cancel();
+        verify(objectSocket).write(PitCancelRequest.INSTANCE);
+    }
+
+    @Test
+    public void cancelIsIgnoredWhenServerIsNotConnected() {
+        givenThePortNumber(PORT);
+        new PitServer(context.getPortNumber(), socketProvider).cancel();
+        verifyZeroInteractions(socketProvider);
+    }
+
     private void givenTheRequest(PitRequest request) {
         context.setRequest(request);
     }
@@ -109,6 +146,12 @@ public class PitServerTest extends AbstractPitRunnerTest {
         context.setTransmittedResults(results);
     }
 
+    private void whenTheServerReceivesStreamedResults(PitClassResults first, PitClassResults second) {
+        when(objectSocket.read()).thenReturn(first, second, context.getResults());
+        PitResults results = context.getPitServer().receiveResults(receivedClassResults::add);
+        context.setTransmittedResults(results);
+    }
+
     private void whenTheServerIsStopped() throws IOException {
         PitServer server = context.getPitServer();
         server.close();
@@ -118,6 +161,17 @@ public class PitServerTest extends AbstractPitRunnerTest {
         assertThat(context.getTransmittedResults(), areEqualTo(RESULTS));
     }
 
+    private void thenTheClassResultsWereForwarded(PitClassResults... expectedClassResults) {
+        assertThat(receivedClassResults.size(), is(equalTo(expectedClassResults.length)));
+        for (int i = 0; i < expectedClassResults.length; i++) {
+            assertThat(receivedClassResults.get(i), is(equalTo(expectedClassResults[i])));
+        }
+    }
+
+    private static PitClassResults aClassResult(String className) {
+        return PitClassResults.from(className, new ObjectFactory().createMutations());
+    }
+
     private void thenTheServerListensOnThePort() {
         verify(socketProvider).listen(context.getPortNumber());
     }
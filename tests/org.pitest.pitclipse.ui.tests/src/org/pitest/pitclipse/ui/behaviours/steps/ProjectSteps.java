@@ -21,8 +21,6 @@ import cucumber.api.java.en.Then;
 import cucumber.api.java.en.When;
 import org.pitest.pitclipse.core.PitCoreActivator;
 
-import java.io.File;
-
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.pitest.pitclipse.ui.behaviours.pageobjects.PageObjects.PAGES;
@@ -51,10 +49,7 @@ public class ProjectSteps {
         for (String project : PAGES.getPackageExplorer().getProjectsInWorkspace()) {
             PAGES.getAbstractSyntaxTree().deleteProject(project);
         }
-        File historyFile = PitCoreActivator.getDefault().getHistoryFile();
-        if (historyFile.exists()) {
-            assertTrue(historyFile.delete());
-        }
+        assertTrue(PitCoreActivator.getDefault().deleteHistoryFiles());
     }
 
     @When("the dependent project {word} is added to the classpath of {word}")
@@ -24,7 +24,6 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.pitest.pitclipse.ui.behaviours.pageobjects.PageObjects.PAGES;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -202,10 +201,7 @@ public abstract class AbstractPitclipseSWTBotTest {
             PAGES.getAbstractSyntaxTree().deleteProject(project);
         }
         PAGES.getBuildProgress().waitForBuild();
-        File historyFile = PitCoreActivator.getDefault().getHistoryFile();
-        if (historyFile.exists()) {
-            assertTrue(historyFile.delete());
-        }
+        assertTrue(PitCoreActivator.getDefault().deleteHistoryFiles());
     }
 
     protected static void deleteSrcContents(String projectName) throws CoreException {
@@ -0,0 +1,82 @@
+package org.pitest.pitclipse.ui.tests;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.createClass;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.createJavaProject;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.deleteJavaProjects;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pitest.pitclipse.core.result.CachingStructureService;
+
+/**
+ * Checks that {@link CachingStructureService} caches the classes it finds and the ones it
+ * does not, and forgets them once their package changes.
+ */
+public class CachingStructureServiceTest {
+
+    private static final String PROJECT = "structureCache";
+    private static final String FOO = "cache.Foo";
+    private static final String BAR = "cache.Bar";
+
+    private final CachingStructureService service = CachingStructureService.INSTANCE;
+
+    private IJavaProject project;
+    private ICompilationUnit foo;
+
+    @Before
+    public void createProject() throws CoreException {
+        project = createJavaProject(PROJECT);
+        foo = createClass(project, "cache", "Foo", "public class Foo {}\n");
+        service.invalidateAll();
+    }
+
+    @After
+    public void deleteProject() throws CoreException {
+        deleteJavaProjects(project);
+    }
+
+    @Test
+    public void classesThatCannotBeFoundAreCached() {
+        assertThat(service.isClassInProject(BAR, PROJECT), is(false));
+
+        assertThat(service.isKnown(BAR, PROJECT), is(true));
+        assertThat(service.isClassInProject(BAR, PROJECT), is(false));
+    }
+
+    @Test
+    public void addingAClassToAPackageForgetsItsMissingClasses() throws CoreException {
+        assertThat(service.isClassInProject(BAR, PROJECT), is(false));
+
+        createClass(project, "cache", "Bar", "public class Bar {}\n");
+
+        assertThat(service.isKnown(BAR, PROJECT), is(false));
+        assertThat(service.isClassInProject(BAR, PROJECT), is(true));
+    }
+
+    @Test
+    public void removingAClassForgetsItsLocation() throws CoreException {
+        assertThat(service.packageFrom(PROJECT, FOO), is("cache"));
+
+        foo.delete(true, null);
+
+        assertThat(service.isKnown(FOO, PROJECT), is(false));
+        assertThat(service.isClassInProject(FOO, PROJECT), is(false));
+    }
+
+    @Test
+    public void changesToOtherPackagesKeepTheCachedLocations() throws CoreException {
+        assertThat(service.packageFrom(PROJECT, FOO), is("cache"));
+        assertThat(service.isClassInProject(BAR, PROJECT), is(false));
+
+        createClass(project, "other", "Bar", "public class Bar {}\n");
+
+        assertThat(service.isKnown(FOO, PROJECT), is(true));
+        assertThat(service.isKnown(BAR, PROJECT), is(true));
+    }
+}
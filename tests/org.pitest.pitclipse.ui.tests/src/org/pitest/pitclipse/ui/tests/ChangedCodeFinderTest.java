@@ -0,0 +1,95 @@
+package org.pitest.pitclipse.ui.tests;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.junit.Test;
+import org.pitest.pitclipse.launch.config.ChangedCodeFinder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.SetMultimap;
+
+/**
+ * Checks that {@link ChangedCodeFinder} maps the hunks of a diff to the changed lines.
+ */
+public class ChangedCodeFinderTest {
+
+    private static final File WORK_TREE = new File("repository");
+    private static final File FOO = new File(WORK_TREE, "src/foo/Foo.java");
+    private static final File BAR = new File(WORK_TREE, "src/foo/Bar.java");
+
+    @Test
+    public void everyLineOfAHunkIsChanged() {
+        SetMultimap<File, Integer> changedLines = changedLinesOf(
+                "diff --git a/src/foo/Foo.java b/src/foo/Foo.java",
+                "--- a/src/foo/Foo.java",
+                "+++ b/src/foo/Foo.java",
+                "@@ -3 +3 @@ public class Foo {",
+                "-        return 1;",
+                "+        return 2;",
+                "@@ -10,0 +11,3 @@ public class Foo {",
+                "+    int baz() {",
+                "+        return 3;",
+                "+    }");
+
+        assertThat(changedLines.keySet(), containsInAnyOrder(FOO));
+        assertThat(changedLines.get(FOO), containsInAnyOrder(3, 11, 12, 13));
+    }
+
+    @Test
+    public void theLinesAroundRemovedLinesAreChanged() {
+        SetMultimap<File, Integer> changedLines = changedLinesOf(
+                "--- a/src/foo/Foo.java",
+                "+++ b/src/foo/Foo.java",
+                "@@ -5,2 +4,0 @@ public class Foo {",
+                "-        log();",
+                "-        log();",
+                "@@ -1 +0,0 @@",
+                "-import foo.Baz;");
+
+        assertThat(changedLines.get(FOO), containsInAnyOrder(1, 4, 5));
+    }
+
+    @Test
+    public void hunksAreAssociatedToTheirFile() {
+        SetMultimap<File, Integer> changedLines = changedLinesOf(
+                "--- a/src/foo/Foo.java",
+                "+++ b/src/foo/Foo.java",
+                "@@ -7,2 +7,2 @@",
+                "--- a/src/foo/Bar.java",
+                "+++ b/src/foo/Bar.java",
+                "@@ -1,0 +2 @@");
+
+        assertThat(changedLines.get(FOO), containsInAnyOrder(7, 8));
+        assertThat(changedLines.get(BAR), containsInAnyOrder(2));
+    }
+
+    @Test
+    public void deletedFilesHaveNoChangedLines() {
+        SetMultimap<File, Integer> changedLines = changedLinesOf(
+                "--- a/src/foo/Foo.java",
+                "+++ /dev/null",
+                "@@ -1,3 +0,0 @@",
+                "-package foo;");
+
+        assertThat(changedLines.isEmpty(), is(true));
+    }
+
+    @Test
+    public void noChangesAreReportedWithADedicatedStatus() {
+        IStatus status = ChangedCodeFinder.noChangesSince("HEAD").getStatus();
+
+        assertThat(status.getCode(), is(ChangedCodeFinder.NO_CHANGES));
+        assertThat(status.getSeverity(), is(IStatus.INFO));
+    }
+
+    private static SetMultimap<File, Integer> changedLinesOf(String... diff) {
+        List<String> lines = ImmutableList.copyOf(diff);
+        return ChangedCodeFinder.changedLinesOf(WORK_TREE, lines);
+    }
+}
@@ -0,0 +1,210 @@
+package org.pitest.pitclipse.ui.tests;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pitest.classinfo.ClassName;
+import org.pitest.classinfo.HierarchicalClassId;
+import org.pitest.mutationtest.ClassHistory;
+import org.pitest.mutationtest.engine.Location;
+import org.pitest.mutationtest.engine.MethodName;
+import org.pitest.mutationtest.engine.MutationIdentifier;
+import org.pitest.pitclipse.core.HistoryFiles;
+import org.pitest.pitclipse.runner.PitOptions;
+
+/**
+ * Checks that {@link HistoryFiles} keeps the history files within their size limit,
+ * without touching the ones held by running analyses.
+ */
+public class HistoryFilesTest {
+
+    private static final int SIZE_LIMIT_IN_MEGABYTES = 1;
+    private static final int FILE_SIZE = 600 * 1024;
+    private static final String FOO = "foo.Foo";
+    private static final String BAR = "foo.Bar";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HistoryFiles historyFiles;
+
+    @Before
+    public void createHistoryFiles() {
+        historyFiles = new HistoryFiles(folder.getRoot(), () -> SIZE_LIMIT_IN_MEGABYTES);
+    }
+
+    @Test
+    public void theLeastRecentlyUsedFilesAreDeletedBeyondTheSizeLimit() throws IOException {
+        File oldHistory = historyOf("old", 2);
+        File recentHistory = historyOf("recent", 1);
+
+        historyFiles.compact();
+
+        assertThat(oldHistory.exists(), is(false));
+        assertThat(recentHistory.exists(), is(true));
+    }
+
+    @Test
+    public void theFilesHeldByRunningAnalysesAreKept() throws IOException {
+        File heldHistory = historyOf("held", 3);
+        File shardHistory = derivedFrom(heldHistory, ".shard-0");
+        File pendingHistory = derivedFrom(heldHistory, PitOptions.PENDING_HISTORY_SUFFIX);
+        File otherHistory = historyOf("other", 2);
+        File recentHistory = historyOf("recent", 1);
+
+        historyFiles.hold(heldHistory);
+        historyFiles.compact();
+
+        assertThat(heldHistory.exists(), is(true));
+        assertThat(shardHistory.exists(), is(true));
+        assertThat(pendingHistory.exists(), is(true));
+        assertThat(otherHistory.exists(), is(false));
+        assertThat(recentHistory.exists(), is(true));
+    }
+
+    @Test
+    public void aFileIsHeldUntilEveryAnalysisHasReleasedIt() throws IOException {
+        File heldHistory = historyOf("held", 2);
+        historyOf("recent", 1);
+        historyFiles.hold(heldHistory);
+        historyFiles.hold(heldHistory);
+
+        historyFiles.release(heldHistory);
+        historyFiles.compact();
+        assertThat(heldHistory.exists(), is(true));
+
+        historyFiles.release(heldHistory);
+        historyFiles.compact();
+        assertThat(heldHistory.exists(), is(false));
+    }
+
+    @Test
+    public void theShardsOfAnAnalysisAreMergedByClass() throws IOException, ClassNotFoundException {
+        File historyFile = historyFiles.of("sharded");
+        Files.write(historyFile.toPath(), historyOf(FOO, "oldFoo", BAR, "bar"), StandardCharsets.UTF_8);
+        historyFiles.hold(historyFile);
+        historyFiles.prepareShards(historyFile, 2);
+        File firstShard = HistoryFiles.shardOf(historyFile, 0);
+        File secondShard = HistoryFiles.shardOf(historyFile, 1);
+        assertThat(Files.readAllLines(secondShard.toPath()), is(Files.readAllLines(historyFile.toPath())));
+
+        // Foo is analyzed by the second shard this time
+        Files.write(secondShard.toPath(), historyOf(FOO, "newFoo"), StandardCharsets.UTF_8);
+        assertThat(secondShard.setLastModified(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)), is(true));
+        historyFiles.release(historyFile);
+
+        assertThat(firstShard.exists(), is(false));
+        assertThat(secondShard.exists(), is(false));
+        List<String> mergedLines = Files.readAllLines(historyFile.toPath(), StandardCharsets.UTF_8);
+        assertThat(mergedLines.get(0), is("2"));
+        Map<String, String> coverageIds = new HashMap<>();
+        for (String line : mergedLines.subList(1, 3)) {
+            ClassHistory history = (ClassHistory) deserialize(line);
+            coverageIds.put(history.getName().asJavaName(), history.getCoverageId());
+        }
+        assertThat(coverageIds.get(FOO), is("newFoo"));
+        assertThat(coverageIds.get(BAR), is("bar"));
+        List<String> results = new ArrayList<>();
+        for (String line : mergedLines.subList(3, mergedLines.size())) {
+            results.add(((MutationIdentifier) deserialize(line)).getMutator());
+        }
+        assertThat(results, containsInAnyOrder("newFoo", "bar"));
+    }
+
+    @Test
+    public void filesNotBelongingToALaunchAreDeleted() throws IOException {
+        File sharedHistory = new File(folder.getRoot(), "history");
+        Files.write(sharedHistory.toPath(), historyLines(), StandardCharsets.UTF_8);
+
+        historyFiles.compact();
+
+        assertThat(sharedHistory.exists(), is(false));
+    }
+
+    /**
+     * Creates the history of the given launch configuration, last used the given number of hours ago.
+     */
+    private File historyOf(String launchConfiguration, int hoursAgo) throws IOException {
+        File historyFile = historyFiles.of(launchConfiguration);
+        Files.write(historyFile.toPath(), historyLines(), StandardCharsets.UTF_8);
+        assertThat(historyFile.setLastModified(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(hoursAgo)),
+                is(true));
+        return historyFile;
+    }
+
+    private static File derivedFrom(File historyFile, String suffix) throws IOException {
+        File derivedFile = new File(historyFile.getPath() + suffix);
+        Files.write(derivedFile.toPath(), historyLines(), StandardCharsets.UTF_8);
+        return derivedFile;
+    }
+
+    /**
+     * A history recording the given classes, along with the given coverage identifiers,
+     * and a single result for each class, whose mutator is the coverage identifier.
+     */
+    private static List<String> historyOf(String... classesAndCoverageIds) throws IOException {
+        List<String> classLines = new ArrayList<>();
+        List<String> resultLines = new ArrayList<>();
+        for (int i = 0; i < classesAndCoverageIds.length; i += 2) {
+            ClassName className = ClassName.fromString(classesAndCoverageIds[i]);
+            String coverageId = classesAndCoverageIds[i + 1];
+            classLines.add(serialize(new ClassHistory(new HierarchicalClassId(1, className, "0"), coverageId)));
+            Location location = new Location(className, MethodName.fromString("foo"), "()V");
+            resultLines.add(serialize(new MutationIdentifier(location, 1, coverageId)));
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add(Integer.toString(classLines.size()));
+        lines.addAll(classLines);
+        lines.addAll(resultLines);
+        return lines;
+    }
+
+    private static String serialize(Serializable object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(object);
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    private static Object deserialize(String line) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(line)))) {
+            return input.readObject();
+        }
+    }
+
+    /**
+     * A history recording no class, padded so that two of them exceed the size limit.
+     */
+    private static List<String> historyLines() {
+        List<String> lines = new ArrayList<>();
+        lines.add("0");
+        StringBuilder padding = new StringBuilder();
+        while (padding.length() < FILE_SIZE) {
+            padding.append('x');
+        }
+        lines.add(padding.toString());
+        return lines;
+    }
+}
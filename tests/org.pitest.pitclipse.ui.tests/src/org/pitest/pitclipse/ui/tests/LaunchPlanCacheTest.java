@@ -0,0 +1,131 @@
+package org.pitest.pitclipse.ui.tests;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.createClass;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.createJavaProject;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.deleteJavaProjects;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.newLaunchConfiguration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pitest.pitclipse.core.launch.LaunchPlanCache;
+import org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper;
+import org.pitest.pitclipse.launch.config.PackageFinder;
+
+/**
+ * Checks that the launch plans cached by {@link LaunchPlanCache} follow the changes
+ * of the projects they are computed from.
+ */
+public class LaunchPlanCacheTest {
+
+    private static final String PROVIDER = "launchPlanProvider";
+    private static final String CONSUMER = "launchPlanConsumer";
+    private static final String PART = "test:part";
+
+    private IJavaProject provider;
+    private IJavaProject consumer;
+
+    @Before
+    public void createProjects() throws CoreException {
+        LaunchPlanCache.INSTANCE.invalidateAll();
+        provider = createJavaProject(PROVIDER);
+        consumer = createJavaProject(CONSUMER, provider);
+        createClass(provider, "provider.a", "Foo");
+        createClass(consumer, "consumer.a", "Bar");
+    }
+
+    @After
+    public void deleteProjects() throws CoreException {
+        deleteJavaProjects(consumer, provider);
+    }
+
+    @Test
+    public void partsAreComputedOnceUntilTheProjectChanges() throws CoreException {
+        AtomicInteger loads = new AtomicInteger();
+
+        getPart(consumer, loads);
+        getPart(consumer, loads);
+        assertThat(loads.get(), is(1));
+
+        createClass(consumer, "consumer.b", "Baz");
+        getPart(consumer, loads);
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    public void partsAreKeptWhenAnotherProjectChanges() throws CoreException {
+        AtomicInteger loads = new AtomicInteger();
+
+        getPart(consumer, loads);
+        createClass(provider, "provider.b", "Baz");
+        getPart(consumer, loads);
+
+        assertThat(loads.get(), is(1));
+    }
+
+    @Test
+    public void typesAreComputedAgainWhenTheirCompilationUnitChanges() throws CoreException {
+        ICompilationUnit unit = createClass(consumer, "consumer.b", "Baz");
+        assertThat(LaunchPlanCache.INSTANCE.typesOf(unit), contains("consumer.b.Baz"));
+
+        unit.createType("class Qux {}", null, true, null);
+
+        assertThat(LaunchPlanCache.INSTANCE.typesOf(unit), containsInAnyOrder("consumer.b.Baz", "consumer.b.Qux"));
+    }
+
+    @Test
+    public void partsAreKeptWhenAUnitChangesWithoutChangingItsTypes() throws CoreException {
+        AtomicInteger loads = new AtomicInteger();
+        ICompilationUnit unit = createClass(consumer, "consumer.b", "Baz");
+        LaunchPlanCache.INSTANCE.typesOf(unit);
+        getPart(consumer, loads);
+
+        createClass(consumer, "consumer.b", "Baz", "public class Baz {\n    int qux() { return 1; }\n}\n");
+        getPart(consumer, loads);
+
+        assertThat(loads.get(), is(1));
+        assertThat(LaunchPlanCache.INSTANCE.typesOf(unit), contains("consumer.b.Baz"));
+    }
+
+    @Test
+    public void partsAreComputedAgainWhenTheTypesOfAUnitChange() throws CoreException {
+        AtomicInteger loads = new AtomicInteger();
+        ICompilationUnit unit = createClass(consumer, "consumer.b", "Baz");
+        LaunchPlanCache.INSTANCE.typesOf(unit);
+        getPart(consumer, loads);
+
+        unit.createType("class Qux {}", null, true, null);
+        getPart(consumer, loads);
+
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    public void packagesOfRequiredProjectsFollowTheirChanges() throws CoreException {
+        PackageFinder packageFinder = new PackageFinder();
+        LaunchConfigurationWrapper configuration = LaunchConfigurationWrapper.builder()
+                .withLaunchConfiguration(newLaunchConfiguration(consumer))
+                .withPackageFinder(packageFinder)
+                .build();
+        assertThat(packageFinder.getPackages(configuration),
+                containsInAnyOrder("consumer.a.*", "provider.a.*"));
+
+        createClass(provider, "provider.b", "Baz");
+
+        assertThat(packageFinder.getPackages(configuration),
+                containsInAnyOrder("consumer.a.*", "provider.a.*", "provider.b.*"));
+    }
+
+    private static void getPart(IJavaProject project, AtomicInteger loads) throws CoreException {
+        LaunchPlanCache.INSTANCE.get(project, PART, p -> loads.incrementAndGet());
+    }
+}
@@ -0,0 +1,58 @@
+package org.pitest.pitclipse.ui.tests;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+import org.pitest.pitclipse.core.launch.PitAnalyses;
+import org.pitest.pitclipse.runner.client.PitCommunicator;
+
+/**
+ * Checks that {@link PitAnalyses} only cancels the PIT applications of the given analysis.
+ */
+public class PitAnalysesTest {
+
+    private final PitCommunicator first = newCommunicator();
+    private final PitCommunicator second = newCommunicator();
+
+    @Test
+    public void analysesRunByTheSameApplicationAreCancelledSeparately() {
+        PitAnalyses.INSTANCE.started("first", first);
+        PitAnalyses.INSTANCE.started("second", second);
+
+        assertThat(PitAnalyses.INSTANCE.cancel("second"), is(true));
+
+        assertThat(first.isCancelled(), is(false));
+        assertThat(second.isCancelled(), is(true));
+        PitAnalyses.INSTANCE.ended("first", first);
+        PitAnalyses.INSTANCE.ended("second", second);
+    }
+
+    @Test
+    public void everyApplicationOfASplitAnalysisIsCancelled() {
+        PitAnalyses.INSTANCE.started("split", first);
+        PitAnalyses.INSTANCE.started("split", second);
+
+        assertThat(PitAnalyses.INSTANCE.cancel("split"), is(true));
+
+        assertThat(first.isCancelled(), is(true));
+        assertThat(second.isCancelled(), is(true));
+        PitAnalyses.INSTANCE.ended("split", first);
+        PitAnalyses.INSTANCE.ended("split", second);
+    }
+
+    @Test
+    public void cancellingAnEndedAnalysisDoesNothing() {
+        PitAnalyses.INSTANCE.started("ended", first);
+        PitAnalyses.INSTANCE.ended("ended", first);
+
+        assertThat(PitAnalyses.INSTANCE.cancel("ended"), is(false));
+        assertThat(PitAnalyses.INSTANCE.cancel("unknown"), is(false));
+        assertThat(first.isCancelled(), is(false));
+    }
+
+    private static PitCommunicator newCommunicator() {
+        // The communicators are never run: they do not need a server
+        return new PitCommunicator(null, null, results -> { });
+    }
+}
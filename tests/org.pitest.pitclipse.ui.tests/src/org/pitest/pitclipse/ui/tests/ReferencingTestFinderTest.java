@@ -0,0 +1,128 @@
+package org.pitest.pitclipse.ui.tests;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper.ATTR_MUTATED_METHOD;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.createClass;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.createJavaProject;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.deleteJavaProjects;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.newLaunchConfiguration;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pitest.pitclipse.core.PitCoreActivator;
+import org.pitest.pitclipse.launch.config.LaunchConfigurationWrapper;
+import org.pitest.pitclipse.launch.config.PackageFinder;
+import org.pitest.pitclipse.launch.config.ProjectLevelClassFinder;
+import org.pitest.pitclipse.launch.config.ProjectLevelSourceDirFinder;
+import org.pitest.pitclipse.launch.config.ReferencingTestFinder;
+
+/**
+ * Checks that {@link ReferencingTestFinder} only finds the tests running a method,
+ * and that single method launches fall back to the tests of the project otherwise.
+ */
+public class ReferencingTestFinderTest {
+
+    private static final String PROVIDER = "referencingTestsProvider";
+    private static final String CONSUMER = "referencingTestsConsumer";
+
+    private IJavaProject provider;
+    private IJavaProject consumer;
+    private IMethod mutatedMethod;
+
+    @Before
+    public void createProjects() throws CoreException {
+        provider = createJavaProject(PROVIDER);
+        consumer = createJavaProject(CONSUMER, provider);
+        IType foo = createClass(provider, "provider", "Foo",
+                "public class Foo {\n    public int bar() { return 1; }\n}\n").getType("Foo");
+        mutatedMethod = foo.getMethod("bar", new String[0]);
+    }
+
+    @After
+    public void deleteProjects() throws CoreException {
+        deleteJavaProjects(consumer, provider);
+    }
+
+    @Test
+    public void productionClassesReferencingTheMethodAreNotTests() throws CoreException {
+        createClass(provider, "provider", "Production",
+                "public class Production {\n    int use() { return new Foo().bar(); }\n}\n");
+        createClass(provider, "provider", "FooTest",
+                "public class FooTest {\n    @org.junit.Test public void bar() { new Foo().bar(); }\n}\n");
+
+        assertThat(testsReferencing(mutatedMethod), contains("provider.FooTest"));
+    }
+
+    @Test
+    public void testsCallingTheMethodThroughProductionCodeAreFound() throws CoreException {
+        createClass(provider, "provider", "Production",
+                "public class Production {\n    int use() { return new Foo().bar(); }\n}\n");
+        createClass(provider, "provider", "Caller",
+                "public class Caller {\n    int call() { return new Production().use(); }\n}\n");
+        createClass(provider, "provider", "CallerTest",
+                "import org.junit.jupiter.api.Test;\n\n"
+                + "public class CallerTest {\n    @Test void call() { new Caller().call(); }\n}\n");
+
+        assertThat(testsReferencing(mutatedMethod), contains("provider.CallerTest"));
+    }
+
+    @Test
+    public void testsOfProjectsDependingOnTheMethodAreFound() throws CoreException {
+        createClass(consumer, "consumer", "ConsumerTest",
+                "public class ConsumerTest {\n    @org.junit.Test public void bar() { new provider.Foo().bar(); }\n}\n");
+
+        assertThat(testsReferencing(mutatedMethod), contains("consumer.ConsumerTest"));
+        assertThat(wrapperOf(mutatedMethod).getReferencingTestProjects(), contains(consumer));
+    }
+
+    @Test
+    public void abstractTestsAreReplacedByTheirConcreteSubclasses() throws CoreException {
+        createClass(provider, "provider", "AbstractFooTest",
+                "public abstract class AbstractFooTest {\n    @org.junit.Test public void bar() { new Foo().bar(); }\n}\n");
+        createClass(provider, "provider", "FirstFooTest", "public class FirstFooTest extends AbstractFooTest {}\n");
+        createClass(provider, "provider", "SecondFooTest", "public class SecondFooTest extends AbstractFooTest {}\n");
+
+        assertThat(testsReferencing(mutatedMethod), containsInAnyOrder("provider.FirstFooTest", "provider.SecondFooTest"));
+    }
+
+    @Test
+    public void testsOfTheProjectAreRunWhenOnlyProductionCodeReferencesTheMethod() throws CoreException {
+        createClass(provider, "provider.other", "Production",
+                "public class Production {\n    int use() { return new provider.Foo().bar(); }\n}\n");
+        LaunchConfigurationWrapper wrapper = wrapperOf(mutatedMethod);
+
+        assertThat(wrapper.getReferencingTests(), is(empty()));
+        assertThat(wrapper.getPitOptions().getPackages(), containsInAnyOrder("provider.*", "provider.other.*"));
+    }
+
+    private static List<String> testsReferencing(IMethod method) throws CoreException {
+        return new ReferencingTestFinder().getTestClasses(method).stream()
+                .map(ReferencingTestFinder::nameOf)
+                .collect(Collectors.toList());
+    }
+
+    private LaunchConfigurationWrapper wrapperOf(IMethod method) throws CoreException {
+        ILaunchConfigurationWorkingCopy configuration = newLaunchConfiguration(provider);
+        configuration.setAttribute(ATTR_MUTATED_METHOD, method.getHandleIdentifier());
+        return LaunchConfigurationWrapper.builder()
+                .withLaunchConfiguration(configuration)
+                .withPackageFinder(new PackageFinder())
+                .withClassFinder(new ProjectLevelClassFinder())
+                .withSourceDirFinder(new ProjectLevelSourceDirFinder())
+                .withPitConfiguration(PitCoreActivator.getDefault().getConfiguration())
+                .build();
+    }
+}
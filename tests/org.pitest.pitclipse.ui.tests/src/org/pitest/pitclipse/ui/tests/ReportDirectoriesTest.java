@@ -0,0 +1,87 @@
+package org.pitest.pitclipse.ui.tests;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pitest.pitclipse.core.ReportDirectories;
+
+/**
+ * Checks that {@link ReportDirectories} only keeps the latest report directories,
+ * along with the ones holding a report displayed by a view.
+ */
+public class ReportDirectoriesTest {
+
+    private static final int RETAINED = 2;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ReportDirectories reportDirectories;
+
+    @Before
+    public void createReportDirectories() {
+        reportDirectories = new ReportDirectories(folder.getRoot(), RETAINED);
+    }
+
+    @Test
+    public void onlyTheLatestDirectoriesAreKept() throws IOException {
+        File oldest = reportDirectories.create();
+        File older = reportDirectories.create();
+        File latest = reportDirectories.create();
+        File strayFile = folder.newFile("index.html");
+
+        reportDirectories.cleanUp();
+
+        assertThat(oldest.exists(), is(false));
+        assertThat(older.exists(), is(true));
+        assertThat(latest.exists(), is(true));
+        assertThat(strayFile.exists(), is(false));
+    }
+
+    @Test
+    public void directoriesDisplayedByAViewAreKeptUntilReleased() throws IOException {
+        File displayed = reportDirectories.create();
+        // the report of a split analysis links the reports of the shards, in sub-directories
+        File report = new File(new File(displayed, "shard-0"), "index.html");
+        reportDirectories.hold(report);
+        File older = reportDirectories.create();
+        File latest = reportDirectories.create();
+
+        reportDirectories.cleanUp();
+
+        assertThat(displayed.exists(), is(true));
+        assertThat(older.exists(), is(true));
+        assertThat(latest.exists(), is(true));
+
+        reportDirectories.release(report);
+        reportDirectories.cleanUp();
+
+        assertThat(displayed.exists(), is(false));
+        assertThat(older.exists(), is(true));
+    }
+
+    @Test
+    public void aDirectoryHeldTwiceIsKeptUntilReleasedTwice() throws IOException {
+        File displayed = reportDirectories.create();
+        File report = new File(displayed, "index.html");
+        reportDirectories.hold(report);
+        reportDirectories.hold(report);
+        reportDirectories.create();
+        reportDirectories.create();
+
+        reportDirectories.release(report);
+        reportDirectories.cleanUp();
+        assertThat(displayed.exists(), is(true));
+
+        reportDirectories.release(report);
+        reportDirectories.cleanUp();
+        assertThat(displayed.exists(), is(false));
+    }
+}
@@ -0,0 +1,151 @@
+package org.pitest.pitclipse.ui.tests;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.buildJavaProjects;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.createClass;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.createJavaProject;
+import static org.pitest.pitclipse.ui.util.JavaProjectUtil.deleteJavaProjects;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.IJavaProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pitest.pitclipse.core.launch.CachedAnalysis;
+import org.pitest.pitclipse.core.launch.CachingResultHandler;
+import org.pitest.pitclipse.core.launch.ResultCache;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.PitOptions;
+import org.pitest.pitclipse.runner.PitResults;
+import org.pitest.pitclipse.runner.client.PitResultHandler;
+import org.pitest.pitclipse.runner.results.DetectionStatus;
+import org.pitest.pitclipse.runner.results.Mutations;
+import org.pitest.pitclipse.runner.results.Mutations.Mutation;
+import org.pitest.pitclipse.runner.results.ObjectFactory;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Checks that {@link ResultCache} only reuses the results of classes whose bytecode,
+ * and the bytecode of whose tests, did not change.
+ */
+public class ResultCacheTest {
+
+    private static final ObjectFactory OBJECT_FACTORY = new ObjectFactory();
+    private static final String FOO = "cached.Foo";
+    private static final String FOO_TEST = "cached.FooTest";
+
+    private IJavaProject project;
+
+    @Before
+    public void createProject() throws CoreException {
+        // The cache outlives the projects: each test needs a project of its own
+        project = createJavaProject("resultCache" + UUID.randomUUID().toString().replace("-", ""));
+        createClass(project, "cached", "Foo", "public class Foo {\n    public int bar() { return 1; }\n}\n");
+        createClass(project, "cached", "FooTest", "public class FooTest {\n    public void testBar() { new Foo().bar(); }\n}\n");
+        buildJavaProjects(project);
+    }
+
+    @After
+    public void deleteProject() throws CoreException {
+        deleteJavaProjects(project);
+    }
+
+    @Test
+    public void theResultsOfUnchangedClassesAreReused() throws CoreException {
+        CachedAnalysis firstAnalysis = ResultCache.INSTANCE.prepare(project, options());
+        assertThat(firstAnalysis.getStaleClasses(), contains(FOO));
+        firstAnalysis.record(resultsOf(DetectionStatus.KILLED, FOO_TEST));
+
+        CachedAnalysis secondAnalysis = ResultCache.INSTANCE.prepare(project, options());
+
+        assertThat(secondAnalysis.getStaleClasses(), is(empty()));
+        assertThat(mutatedClassesOf(secondAnalysis.getFreshResults()), contains(FOO));
+    }
+
+    @Test
+    public void classesAreAnalyzedAgainOnceTheirBytecodeChanges() throws CoreException {
+        ResultCache.INSTANCE.prepare(project, options()).record(resultsOf(DetectionStatus.KILLED, FOO_TEST));
+
+        createClass(project, "cached", "Foo", "public class Foo {\n    public int bar() { return 2; }\n}\n");
+        buildJavaProjects(project);
+
+        assertThat(ResultCache.INSTANCE.prepare(project, options()).getStaleClasses(), contains(FOO));
+    }
+
+    @Test
+    public void uncoveredMutantsAreAnalyzedAgainOnceATestChanges() throws CoreException {
+        ResultCache.INSTANCE.prepare(project, options()).record(resultsOf(DetectionStatus.NO_COVERAGE));
+        assertThat(ResultCache.INSTANCE.prepare(project, options()).getStaleClasses(), is(empty()));
+
+        createClass(project, "cached", "FooTest", "public class FooTest {\n"
+                + "    public void testBar() { new Foo().bar(); }\n"
+                + "    public void testBarAgain() { new Foo().bar(); }\n}\n");
+        buildJavaProjects(project);
+
+        assertThat(ResultCache.INSTANCE.prepare(project, options()).getStaleClasses(), contains(FOO));
+    }
+
+    @Test
+    public void cachedResultsAreReportedBeforeTheAnalysisRuns() throws CoreException {
+        ResultCache.INSTANCE.prepare(project, options()).record(resultsOf(DetectionStatus.KILLED, FOO_TEST));
+        RecordingResultHandler recordingHandler = new RecordingResultHandler();
+        CachingResultHandler handler = new CachingResultHandler(recordingHandler,
+                ResultCache.INSTANCE.prepare(project, options()));
+
+        handler.reportCachedResults();
+
+        assertThat(mutatedClassesOf(recordingHandler.classResults), contains(FOO));
+        handler.handle(PitResults.builder().withMutations(new Mutations()).build());
+        assertThat(recordingHandler.classResults.size(), is(1));
+        assertThat(recordingHandler.results.getMutations().getMutation().size(), is(1));
+    }
+
+    private PitOptions options() {
+        return PitOptions.builder()
+                .withSourceDirectory(project.getProject().getFolder("src").getLocation().toFile())
+                .withClassesToMutate(ImmutableList.of(FOO))
+                .withPackagesToTest(ImmutableList.of("cached.*"))
+                .build();
+    }
+
+    private static PitClassResults resultsOf(DetectionStatus status, String... coveringTests) {
+        Mutation mutation = OBJECT_FACTORY.createMutationsMutation();
+        mutation.setMutatedClass(FOO);
+        mutation.setMutatedMethod("bar");
+        mutation.setMutator("SomeMutator");
+        mutation.setLineNumber(BigInteger.valueOf(2));
+        mutation.setStatus(status);
+        Mutations mutations = new Mutations();
+        mutations.getMutation().add(mutation);
+        return PitClassResults.from(FOO, mutations, ImmutableList.copyOf(coveringTests));
+    }
+
+    private static List<String> mutatedClassesOf(List<PitClassResults> results) {
+        return results.stream().map(PitClassResults::getMutatedClass).collect(Collectors.toList());
+    }
+
+    private static class RecordingResultHandler implements PitResultHandler {
+        private final List<PitClassResults> classResults = new ArrayList<>();
+        private PitResults results;
+
+        @Override
+        public void handleClassResults(PitClassResults results) {
+            classResults.add(results);
+        }
+
+        @Override
+        public void handle(PitResults results) {
+            this.results = results;
+        }
+    }
+}
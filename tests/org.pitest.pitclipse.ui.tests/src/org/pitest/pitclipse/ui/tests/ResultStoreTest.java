@@ -0,0 +1,121 @@
+package org.pitest.pitclipse.ui.tests;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.pitest.pitclipse.core.launch.ResultStore.MAX_SETTINGS;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pitest.pitclipse.core.launch.ResultStore;
+import org.pitest.pitclipse.runner.results.DetectionStatus;
+import org.pitest.pitclipse.runner.results.Mutations.Mutation;
+import org.pitest.pitclipse.runner.results.ObjectFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Checks that {@link ResultStore} keeps its entries across restarts and compacts its file.
+ */
+public class ResultStoreTest {
+
+    private static final ObjectFactory OBJECT_FACTORY = new ObjectFactory();
+    private static final String FOO = "foo.Foo";
+    private static final String BAR = "foo.Bar";
+    private static final String SETTINGS = "settings";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void createStoreFile() {
+        file = new File(folder.getRoot(), "project.bin");
+    }
+
+    @Test
+    public void entriesAreReadBackAfterARestart() {
+        new ResultStore(file).put(entry(FOO, SETTINGS, "hash", DetectionStatus.KILLED));
+
+        Optional<ResultStore.Entry> entry = new ResultStore(file).get(FOO, SETTINGS);
+
+        assertThat(entry.isPresent(), is(true));
+        assertThat(entry.get().getClassHash(), is("hash"));
+        assertThat(entry.get().getTestHashes(), is(ImmutableMap.of("foo.FooTest", "testHash")));
+        Mutation mutation = entry.get().getMutations().get(0);
+        assertThat(mutation.getMutatedClass(), is(FOO));
+        assertThat(mutation.getStatus(), is(DetectionStatus.KILLED));
+        assertThat(mutation.getLineNumber(), is(BigInteger.valueOf(12)));
+        assertThat(mutation.getKillingTest(), is("foo.FooTest.testFoo"));
+        assertThat(new ResultStore(file).get(FOO, "otherSettings").isPresent(), is(false));
+    }
+
+    @Test
+    public void theLatestEntryOfAClassSupersedesTheOthers() {
+        ResultStore store = new ResultStore(file);
+        store.put(entry(FOO, SETTINGS, "oldHash", DetectionStatus.SURVIVED));
+        store.put(entry(FOO, SETTINGS, "newHash", DetectionStatus.KILLED));
+
+        ResultStore reloadedStore = new ResultStore(file);
+
+        assertThat(store.size(), is(1));
+        assertThat(reloadedStore.size(), is(1));
+        assertThat(reloadedStore.get(FOO, SETTINGS).get().getClassHash(), is("newHash"));
+    }
+
+    @Test
+    public void aPartiallyWrittenRecordIsIgnored() throws IOException {
+        new ResultStore(file).put(entry(FOO, SETTINGS, "hash", DetectionStatus.KILLED));
+        Files.write(file.toPath(), new byte[] { 0, 0, 0, 42, 1, 2 }, StandardOpenOption.APPEND);
+
+        ResultStore store = new ResultStore(file);
+        assertThat(store.get(FOO, SETTINGS).isPresent(), is(true));
+        store.put(entry(BAR, SETTINGS, "hash", DetectionStatus.KILLED));
+
+        ResultStore reloadedStore = new ResultStore(file);
+        assertThat(reloadedStore.get(FOO, SETTINGS).isPresent(), is(true));
+        assertThat(reloadedStore.get(BAR, SETTINGS).isPresent(), is(true));
+    }
+
+    @Test
+    public void entriesOfTheLeastRecentlyUsedSettingsAreDroppedOnCompaction() {
+        ResultStore store = new ResultStore(file);
+        for (int i = 0; i < MAX_SETTINGS; i++) {
+            store.put(entry(FOO, SETTINGS + i, "hash", DetectionStatus.KILLED));
+        }
+        // Settings 0 is used again, hence settings 1 becomes the least recently used
+        assertThat(store.get(FOO, SETTINGS + 0).isPresent(), is(true));
+
+        store.put(entry(FOO, SETTINGS + MAX_SETTINGS, "hash", DetectionStatus.KILLED));
+
+        ResultStore reloadedStore = new ResultStore(file);
+        assertThat(store.size(), is(MAX_SETTINGS));
+        assertThat(reloadedStore.size(), is(MAX_SETTINGS));
+        assertThat(reloadedStore.get(FOO, SETTINGS + 1).isPresent(), is(false));
+        assertThat(reloadedStore.get(FOO, SETTINGS + 0).isPresent(), is(true));
+        assertThat(reloadedStore.get(FOO, SETTINGS + MAX_SETTINGS).isPresent(), is(true));
+    }
+
+    private static ResultStore.Entry entry(String mutatedClass, String settings, String classHash,
+            DetectionStatus status) {
+        Mutation mutation = OBJECT_FACTORY.createMutationsMutation();
+        mutation.setMutatedClass(mutatedClass);
+        mutation.setMutatedMethod("foo");
+        mutation.setMutator("SomeMutator");
+        mutation.setKillingTest("foo.FooTest.testFoo");
+        mutation.setLineNumber(BigInteger.valueOf(12));
+        mutation.setStatus(status);
+        return new ResultStore.Entry(mutatedClass, settings, classHash, "",
+                ImmutableMap.of("foo.FooTest", "testHash"), ImmutableList.of(mutation));
+    }
+}
@@ -0,0 +1,93 @@
+package org.pitest.pitclipse.ui.tests;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.Test;
+import org.pitest.pitclipse.core.launch.SurvivorsRerun;
+import org.pitest.pitclipse.runner.model.ClassMutations;
+import org.pitest.pitclipse.runner.model.Mutation;
+import org.pitest.pitclipse.runner.results.DetectionStatus;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Checks that {@link SurvivorsRerun} restricts the re-run to the lines and the
+ * mutators of the surviving mutants.
+ */
+public class SurvivorsRerunTest {
+
+    private static final String MUTATORS = "org.pitest.mutationtest.engine.gregor.mutators.";
+    private static final String MATH = MUTATORS + "MathMutator";
+    private static final String NEGATE_CONDITIONALS = MUTATORS + "NegateConditionalsMutator";
+    private static final String REMOVE_CONDITIONALS_EQ_IF = MUTATORS + "RemoveConditionalMutator_EQUAL_IF";
+
+    @Test
+    public void onlySurvivorsAreReRun() {
+        SurvivorsRerun rerun = SurvivorsRerun.of(Arrays.asList(
+                mutation("foo.Foo", 12, MATH, DetectionStatus.KILLED),
+                mutation("foo.Foo", 14, MATH, DetectionStatus.NO_COVERAGE)));
+
+        assertThat(rerun.isEmpty(), is(true));
+    }
+
+    @Test
+    public void linesAreGroupedByTopLevelClass() {
+        SurvivorsRerun rerun = SurvivorsRerun.of(Arrays.asList(
+                mutation("foo.Foo", 21, MATH, DetectionStatus.SURVIVED),
+                mutation("foo.Foo$Nested", 3, MATH, DetectionStatus.SURVIVED),
+                mutation("foo.Foo", 21, NEGATE_CONDITIONALS, DetectionStatus.SURVIVED),
+                mutation("foo.Bar", 7, MATH, DetectionStatus.SURVIVED),
+                mutation("foo.Bar", 8, MATH, DetectionStatus.KILLED)));
+
+        assertThat(rerun.getClassesToMutate(), is("foo.Bar,foo.Foo,foo.Foo$Nested"));
+        assertThat(rerun.getIncludedLines(), is(ImmutableMap.of("foo.Bar", "7", "foo.Foo", "3,21")));
+    }
+
+    @Test
+    public void mutatorsAreNamedAsExpectedByPit() {
+        SurvivorsRerun rerun = SurvivorsRerun.of(Arrays.asList(
+                mutation("foo.Foo", 12, NEGATE_CONDITIONALS, DetectionStatus.SURVIVED),
+                mutation("foo.Foo", 13, MATH, DetectionStatus.SURVIVED),
+                mutation("foo.Foo", 14, REMOVE_CONDITIONALS_EQ_IF, DetectionStatus.SURVIVED),
+                mutation("foo.Foo", 15, MATH, DetectionStatus.SURVIVED)));
+
+        assertThat(rerun.getMutators(), is(Optional.of("MATH,NEGATE_CONDITIONALS,REMOVE_CONDITIONALS_EQ_IF")));
+    }
+
+    @Test
+    public void mutatorsOnlySelectedThroughAGroupAreNotNamed() {
+        // PIT only selects the first mutator removing switch cases through the REMOVE_SWITCH group
+        SurvivorsRerun rerun = SurvivorsRerun.of(Arrays.asList(
+                mutation("foo.Foo", 12, MATH, DetectionStatus.SURVIVED),
+                mutation("foo.Foo", 13, MUTATORS + "experimental.RemoveSwitchMutator_0", DetectionStatus.SURVIVED)));
+
+        assertThat(rerun.getMutators(), is(Optional.empty()));
+    }
+
+    @Test
+    public void unknownMutatorsAreNotNamed() {
+        SurvivorsRerun rerun = SurvivorsRerun.of(Arrays.asList(
+                mutation("foo.Foo", 12, "com.example.CustomMutator", DetectionStatus.SURVIVED)));
+
+        assertThat(rerun.getMutators(), is(Optional.empty()));
+    }
+
+    private static Mutation mutation(String className, int lineNumber, String mutator, DetectionStatus status) {
+        Mutation mutation = Mutation.builder()
+                .withLineNumber(lineNumber)
+                .withMutatedMethod("foo")
+                .withMutator(mutator)
+                .withStatus(status)
+                .withDescription(mutator + " at line " + lineNumber)
+                .build();
+        return ClassMutations.builder()
+                .withClassName(className)
+                .withMutations(Arrays.asList(mutation))
+                .build()
+                .getMutations().get(0);
+    }
+}
@@ -0,0 +1,89 @@
+package org.pitest.pitclipse.ui.tests;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+import org.pitest.pitclipse.core.launch.TestCoverage;
+import org.pitest.pitclipse.runner.PitClassResults;
+import org.pitest.pitclipse.runner.results.Mutations;
+import org.pitest.pitclipse.runner.results.Mutations.Mutation;
+import org.pitest.pitclipse.runner.results.ObjectFactory;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Checks that {@link TestCoverage} finds the classes covered by JUnit 4 and JUnit 5 tests.
+ */
+public class TestCoverageTest {
+
+    private static final ObjectFactory OBJECT_FACTORY = new ObjectFactory();
+
+    @Test
+    public void junit4TestsAreFoundByTheirClass() {
+        givenAMutantOf("coverage.junit4.Foo", "coverage.junit4.FooTest.testFoo(coverage.junit4.FooTest)");
+
+        assertThat(TestCoverage.INSTANCE.classesCoveredBy("coverage.junit4.FooTest"),
+                contains("coverage.junit4.Foo"));
+        assertThat(TestCoverage.INSTANCE.classesCoveredBy("coverage.junit4.Foo"), is(empty()));
+    }
+
+    @Test
+    public void junit5TestsAreFoundByTheClassSegmentOfTheirIdentifier() {
+        givenAMutantOf("coverage.junit5.Foo",
+                "[engine:junit-jupiter]/[class:coverage.junit5.FooTest]/[method:testFoo()]");
+
+        assertThat(TestCoverage.INSTANCE.classesCoveredBy("coverage.junit5.FooTest"),
+                contains("coverage.junit5.Foo"));
+        assertThat(TestCoverage.INSTANCE.classesCoveredBy("coverage.junit5.Foo"), is(empty()));
+    }
+
+    @Test
+    public void nestedJunit5TestsAreFoundByTheirEnclosingClass() {
+        givenAMutantOf("coverage.nested.Foo",
+                "[engine:junit-jupiter]/[class:coverage.nested.FooTest]/[nested-class:WhenBar]/[method:testFoo()]");
+
+        assertThat(TestCoverage.INSTANCE.classesCoveredBy("coverage.nested.FooTest"),
+                contains("coverage.nested.Foo"));
+        assertThat(TestCoverage.INSTANCE.classesCoveredBy("coverage.nested.FooTest$WhenBar"),
+                contains("coverage.nested.Foo"));
+    }
+
+    @Test
+    public void testsCoveringAClassWithoutKillingItsMutantsAreFound() {
+        Mutation mutation = OBJECT_FACTORY.createMutationsMutation();
+        mutation.setMutatedClass("coverage.indirect.Foo");
+        Mutations mutations = OBJECT_FACTORY.createMutations();
+        mutations.getMutation().add(mutation);
+        TestCoverage.INSTANCE.record(PitClassResults.from("coverage.indirect.Foo", mutations,
+                ImmutableList.of("coverage.indirect.BarTest")));
+        TestCoverage.INSTANCE.record(mutations);
+
+        assertThat(TestCoverage.INSTANCE.classesCoveredBy("coverage.indirect.BarTest"),
+                contains("coverage.indirect.Foo"));
+    }
+
+    @Test
+    public void theLatestResultsOfAClassReplaceItsCoveringTests() {
+        Mutations mutations = OBJECT_FACTORY.createMutations();
+        TestCoverage.INSTANCE.record(PitClassResults.from("coverage.latest.Foo", mutations,
+                ImmutableList.of("coverage.latest.OldTest")));
+        TestCoverage.INSTANCE.record(PitClassResults.from("coverage.latest.Foo", mutations,
+                ImmutableList.of("coverage.latest.NewTest")));
+
+        assertThat(TestCoverage.INSTANCE.classesCoveredBy("coverage.latest.OldTest"), is(empty()));
+        assertThat(TestCoverage.INSTANCE.classesCoveredBy("coverage.latest.NewTest"),
+                contains("coverage.latest.Foo"));
+    }
+
+    private static void givenAMutantOf(String mutatedClass, String killingTest) {
+        Mutation mutation = OBJECT_FACTORY.createMutationsMutation();
+        mutation.setMutatedClass(mutatedClass);
+        mutation.setKillingTest(killingTest);
+        Mutations mutations = OBJECT_FACTORY.createMutations();
+        mutations.getMutation().add(mutation);
+        TestCoverage.INSTANCE.record(mutations);
+    }
+}
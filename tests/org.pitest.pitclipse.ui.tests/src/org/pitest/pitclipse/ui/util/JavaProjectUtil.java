@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright 2012-2019 Phil Glover and contributors
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ *  
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+package org.pitest.pitclipse.ui.util;
+
+import static org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants.ATTR_PROJECT_NAME;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.launching.JavaRuntime;
+
+/**
+ * Programmatically creates Java projects and classes in the running workspace,
+ * for tests that do not need the UI.
+ */
+public class JavaProjectUtil {
+
+    private static final String PIT_LAUNCH_CONFIGURATION_TYPE = "org.pitest.pitclipse.launch.mutationTest";
+
+    private JavaProjectUtil() {
+    }
+
+    /**
+     * Creates a Java project with a single {@code src} source folder, compiled against
+     * the default JRE.
+     * 
+     * @param name
+     *          The name of the project.
+     * @param requiredProjects
+     *          The projects to put on the classpath of the new project.
+     * @return the new project
+     * @throws CoreException if the project cannot be created
+     */
+    public static IJavaProject createJavaProject(String name, IJavaProject... requiredProjects) throws CoreException {
+        IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+        project.create(null);
+        project.open(null);
+        IProjectDescription description = project.getDescription();
+        description.setNatureIds(new String[] { JavaCore.NATURE_ID });
+        project.setDescription(description, null);
+        IFolder sources = project.getFolder("src");
+        sources.create(true, true, null);
+
+        List<IClasspathEntry> classpath = new ArrayList<>();
+        classpath.add(JavaCore.newSourceEntry(sources.getFullPath()));
+        classpath.add(JavaRuntime.getDefaultJREContainerEntry());
+        for (IJavaProject requiredProject : requiredProjects) {
+            classpath.add(JavaCore.newProjectEntry(requiredProject.getPath()));
+        }
+        IJavaProject javaProject = JavaCore.create(project);
+        javaProject.setRawClasspath(classpath.toArray(new IClasspathEntry[0]), project.getFolder("bin").getFullPath(), null);
+        return javaProject;
+    }
+
+    /**
+     * Creates an empty public class in the {@code src} folder of the given project.
+     * 
+     * @param project
+     *          A project created by {@link #createJavaProject(String, IJavaProject...)}.
+     * @param packageName
+     *          The package of the class.
+     * @param className
+     *          The simple name of the class.
+     * @return the compilation unit of the class
+     * @throws CoreException if the class cannot be created
+     */
+    public static ICompilationUnit createClass(IJavaProject project, String packageName, String className) throws CoreException {
+        return createClass(project, packageName, className, "public class " + className + " {}\n");
+    }
+
+    /**
+     * Creates a compilation unit in the {@code src} folder of the given project.
+     * 
+     * @param project
+     *          A project created by {@link #createJavaProject(String, IJavaProject...)}.
+     * @param packageName
+     *          The package of the compilation unit.
+     * @param className
+     *          The name of the compilation unit, without extension.
+     * @param declarations
+     *          The imports and types of the compilation unit.
+     * @return the new compilation unit
+     * @throws CoreException if the compilation unit cannot be created
+     */
+    public static ICompilationUnit createClass(IJavaProject project, String packageName, String className,
+            String declarations) throws CoreException {
+        IPackageFragmentRoot sources = project.getPackageFragmentRoot(project.getProject().getFolder("src"));
+        IPackageFragment packageFragment = sources.createPackageFragment(packageName, true, null);
+        String contents = "package " + packageName + ";\n\n" + declarations;
+        return packageFragment.createCompilationUnit(className + ".java", contents, true, null);
+    }
+
+    /**
+     * Compiles the given projects, so that their bytecode is up-to-date.
+     * 
+     * @param projects
+     *          The projects to compile.
+     * @throws CoreException if a project cannot be compiled
+     */
+    public static void buildJavaProjects(IJavaProject... projects) throws CoreException {
+        for (IJavaProject project : projects) {
+            project.getProject().build(IncrementalProjectBuilder.FULL_BUILD, null);
+        }
+    }
+
+    /**
+     * Deletes the given projects along with their content.
+     * 
+     * @param projects
+     *          The projects to delete.
+     * @throws CoreException if a project cannot be deleted
+     */
+    public static void deleteJavaProjects(IJavaProject... projects) throws CoreException {
+        for (IJavaProject project : projects) {
+            project.getProject().delete(true, true, null);
+        }
+    }
+
+    /**
+     * Creates a PIT launch configuration analyzing the given project, without saving it.
+     * 
+     * @param project
+     *          The project to analyze.
+     * @return the new launch configuration
+     * @throws CoreException if the launch configuration cannot be created
+     */
+    public static ILaunchConfigurationWorkingCopy newLaunchConfiguration(IJavaProject project) throws CoreException {
+        ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager()
+                .getLaunchConfigurationType(PIT_LAUNCH_CONFIGURATION_TYPE);
+        ILaunchConfigurationWorkingCopy configuration = type.newInstance(null, project.getElementName());
+        configuration.setAttribute(ATTR_PROJECT_NAME, project.getElementName());
+        configuration.setMappedResources(new IResource[] { project.getProject() });
+        return configuration;
+    }
+}